@@ -5,6 +5,7 @@ import me.coley.recaf.code.DexClassInfo;
 import me.coley.recaf.code.FileInfo;
 import me.coley.recaf.presentation.Presentation;
 import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.resource.ItemChangeSet;
 import me.coley.recaf.workspace.resource.Resource;
 import me.coley.recaf.workspace.resource.ResourceClassListener;
 import me.coley.recaf.workspace.resource.ResourceDexClassListener;
@@ -131,6 +132,11 @@ public class Controller {
 			public void onRemoveClass(Resource resource, ClassInfo oldValue) {
 				getPresentation().workspaceLayer().onRemoveClass(resource, oldValue);
 			}
+
+			@Override
+			public void onClassChanges(Resource resource, ItemChangeSet<ClassInfo> changes) {
+				getPresentation().workspaceLayer().onClassChanges(resource, changes);
+			}
 		};
 		ResourceDexClassListener dexListener = new ResourceDexClassListener() {
 			@Override
@@ -164,6 +170,11 @@ public class Controller {
 			public void onRemoveFile(Resource resource, FileInfo oldValue) {
 				getPresentation().workspaceLayer().onRemoveFile(resource, oldValue);
 			}
+
+			@Override
+			public void onFileChanges(Resource resource, ItemChangeSet<FileInfo> changes) {
+				getPresentation().workspaceLayer().onFileChanges(resource, changes);
+			}
 		};
 		// Add
 		List<Resource> resources = new ArrayList<>(workspace.getResources().getLibraries());
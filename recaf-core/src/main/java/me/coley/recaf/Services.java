@@ -1,5 +1,6 @@
 package me.coley.recaf;
 
+import me.coley.recaf.code.SymbolTable;
 import me.coley.recaf.compile.CompilerManager;
 import me.coley.recaf.decompile.DecompileManager;
 import me.coley.recaf.graph.InheritanceGraph;
@@ -7,6 +8,7 @@ import me.coley.recaf.mapping.MappingsManager;
 import me.coley.recaf.parse.JavaParserHelper;
 import me.coley.recaf.parse.WorkspaceSymbolSolver;
 import me.coley.recaf.ssvm.SsvmIntegration;
+import me.coley.recaf.util.WorkspaceSymbolService;
 import me.coley.recaf.util.WorkspaceTreeService;
 import me.coley.recaf.workspace.Workspace;
 
@@ -21,6 +23,7 @@ public class Services {
 	private final DecompileManager decompileManager;
 	private final MappingsManager mappingsManager;
 	private WorkspaceTreeService treeService;
+	private WorkspaceSymbolService symbolService;
 	private SsvmIntegration ssvmIntegration;
 	private InheritanceGraph inheritanceGraph;
 	private WorkspaceSymbolSolver symbolSolver;
@@ -97,6 +100,14 @@ public class Services {
 		return treeService;
 	}
 
+	/**
+	 * @return Provides fast lookups of {@link Workspace} class and member names, along with system class names.
+	 * If no workspace is set, then this will be {@code null}.
+	 */
+	public WorkspaceSymbolService getSymbolService() {
+		return symbolService;
+	}
+
 	/**
 	 * Update services that are workspace-oriented.
 	 *
@@ -108,18 +119,25 @@ public class Services {
 		if (ssvmIntegration != null) {
 			ssvmIntegration.cleanup();
 		}
+		if (symbolService != null) {
+			symbolService.cleanup();
+		}
+		// Release strings pooled for the prior workspace
+		SymbolTable.resetShared();
 		if (workspace == null) {
 			inheritanceGraph = null;
 			symbolSolver = null;
 			javaParserHelper = null;
 			ssvmIntegration = null;
 			treeService = null;
+			symbolService = null;
 		} else {
 			inheritanceGraph = new InheritanceGraph(workspace);
 			symbolSolver = WorkspaceSymbolSolver.create(workspace);
 			javaParserHelper = JavaParserHelper.create(symbolSolver);
 			ssvmIntegration = new SsvmIntegration(workspace);
 			treeService = new WorkspaceTreeService(workspace);
+			symbolService = new WorkspaceSymbolService(workspace);
 		}
 	}
 }
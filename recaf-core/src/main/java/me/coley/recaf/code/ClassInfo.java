@@ -169,11 +169,25 @@ public class ClassInfo implements ItemInfo, LiteralInfo, CommonClassInfo {
 	 *
 	 * @return Parsed class information unit.
 	 */
-	@SuppressWarnings("unchecked")
 	public static ClassInfo read(byte[] value) {
+		return read(value, SymbolTable.shared());
+	}
+
+	/**
+	 * Create a class info unit from the given class bytecode.
+	 *
+	 * @param value
+	 * 		Class bytecode.
+	 * @param symbols
+	 * 		Table to deduplicate names, descriptors and signatures with.
+	 *
+	 * @return Parsed class information unit.
+	 */
+	@SuppressWarnings("unchecked")
+	public static ClassInfo read(byte[] value, SymbolTable symbols) {
 		ClassReader reader = new ClassReader(value);
-		String className = reader.getClassName();
-		String superName = reader.getSuperName();
+		String className = symbols.intern(reader.getClassName());
+		String superName = symbols.intern(reader.getSuperName());
 		String[] signatureWrapper = new String[1];
 		List<String>[] interfacesWrapper = new List[1];
 		int access = reader.getAccess();
@@ -187,31 +201,34 @@ public class ClassInfo implements ItemInfo, LiteralInfo, CommonClassInfo {
 			public void visit(int version, int access, String name, String signature,
 							  String superName, String[] interfaces) {
 				versionWrapper[0] = version;
-				interfacesWrapper[0] = Arrays.asList(interfaces);
-				signatureWrapper[0] = signature;
+				interfacesWrapper[0] = symbols.internAll(interfaces);
+				signatureWrapper[0] = symbols.intern(signature);
 			}
 
 			@Override
 			public FieldVisitor visitField(int access, String name, String descriptor, String sig, Object value) {
-				fields.add(new FieldInfo(className, name, descriptor, sig, access, value));
+				fields.add(new FieldInfo(className, symbols.intern(name), symbols.intern(descriptor),
+						symbols.intern(sig), access, value));
 				return null;
 			}
 
 			@Override
 			public MethodVisitor visitMethod(int access, String name, String descriptor, String sig, String[] ex) {
-				List<String> exceptions = ex == null ? Collections.emptyList() : Arrays.asList(ex);
-				methods.add(new MethodInfo(className, name, descriptor, sig, access, exceptions));
+				methods.add(new MethodInfo(className, symbols.intern(name), symbols.intern(descriptor),
+						symbols.intern(sig), access, symbols.internAll(ex)));
 				return null;
 			}
 
 			@Override
 			public void visitInnerClass(String name, @Nullable String outerName, @Nullable String innerName, int access) {
-				innerClasses.add(new InnerClassInfo(className, name, outerName, innerName, access));
+				innerClasses.add(new InnerClassInfo(className, symbols.intern(name), symbols.intern(outerName),
+						symbols.intern(innerName), access));
 			}
 
 			@Override
 			public void visitOuterClass(String owner, @Nullable String name, @Nullable String descriptor) {
-				outerMethod[0] = new OuterMethodInfo(owner, name, descriptor);
+				outerMethod[0] = new OuterMethodInfo(symbols.intern(owner), symbols.intern(name),
+						symbols.intern(descriptor));
 			}
 		}, ClassReader.SKIP_CODE);
 		List<InnerClassInfo> directlyNested = // Getting all inner classes which are directly visible, no nested inside nested ones
@@ -237,6 +254,7 @@ public class ClassInfo implements ItemInfo, LiteralInfo, CommonClassInfo {
 			breadcrumbs.add(0, outerClassName);
 			outerClassName = outerClassOf(outerClassName, innerClasses);
 		}
+		// Store lists in compact immutable forms, without the spare capacity of array-lists
 		return new ClassInfo(
 				className,
 				superName,
@@ -245,11 +263,11 @@ public class ClassInfo implements ItemInfo, LiteralInfo, CommonClassInfo {
 				versionWrapper[0],
 				access,
 				outerMethod[0],
-				fields,
-				methods,
+				List.copyOf(fields),
+				List.copyOf(methods),
 				value,
-				directlyNested,
-				breadcrumbs);
+				List.copyOf(directlyNested),
+				List.copyOf(breadcrumbs));
 	}
 
 	private static String outerClassOf(String name, List<InnerClassInfo> candidates) {
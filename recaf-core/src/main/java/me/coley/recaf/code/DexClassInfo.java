@@ -22,7 +22,8 @@ import java.util.stream.Collectors;
 public class DexClassInfo implements ItemInfo, CommonClassInfo {
 	private final String dexPath;
 	private final Opcodes opcodes;
-	private final MutableClassDef def;
+	private final ClassDef originalDef;
+	private volatile MutableClassDef def;
 	private final String name;
 	private final String superName;
 	private final String signature;
@@ -31,12 +32,12 @@ public class DexClassInfo implements ItemInfo, CommonClassInfo {
 	private final List<FieldInfo> fields;
 	private final List<MethodInfo> methods;
 
-	private DexClassInfo(String dexPath, Opcodes opcodes, MutableClassDef def, String name, String superName,
+	private DexClassInfo(String dexPath, Opcodes opcodes, ClassDef originalDef, String name, String superName,
 						 String signature, List<String> interfaces, int access,
 						 List<FieldInfo> fields, List<MethodInfo> methods) {
 		this.dexPath = dexPath;
 		this.opcodes = opcodes;
-		this.def = def;
+		this.originalDef = originalDef;
 		this.name = name;
 		this.superName = superName;
 		this.signature = signature;
@@ -64,9 +65,20 @@ public class DexClassInfo implements ItemInfo, CommonClassInfo {
 	}
 
 	/**
+	 * The mutable definition is created on first access, so classes that are never edited
+	 * or exported do not pay for a full copy of their contents.
+	 *
 	 * @return Class definition.
 	 */
 	public MutableClassDef getClassDef() {
+		MutableClassDef def = this.def;
+		if (def == null) {
+			synchronized (this) {
+				def = this.def;
+				if (def == null)
+					this.def = def = new MutableClassDef(originalDef);
+			}
+		}
 		return def;
 	}
 
@@ -188,7 +200,7 @@ public class DexClassInfo implements ItemInfo, CommonClassInfo {
 		return new DexClassInfo(
 				dexPath,
 				opcodes,
-				new MutableClassDef(classDef),
+				classDef,
 				className,
 				superName,
 				signature,
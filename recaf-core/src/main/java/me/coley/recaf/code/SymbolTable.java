@@ -0,0 +1,77 @@
+package me.coley.recaf.code;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool for deduplicating names, descriptors and signatures shared between classes in a workspace.
+ * Identical strings such as {@code ()V} or {@code java/lang/Object} appear in nearly every class,
+ * so storing a single instance of each drastically reduces the memory used by the class model.
+ * <br>
+ * The {@link #shared() shared table} is reset whenever the current workspace changes,
+ * so strings of a closed workspace are not kept alive.
+ *
+ * @author Matt Coley
+ */
+public class SymbolTable {
+	private static volatile SymbolTable shared = new SymbolTable();
+	private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+	/**
+	 * @return Table used by {@link ClassInfo#read(byte[])}.
+	 */
+	public static SymbolTable shared() {
+		return shared;
+	}
+
+	/**
+	 * Replace the shared table with a new empty one.
+	 */
+	public static void resetShared() {
+		shared = new SymbolTable();
+	}
+
+	/**
+	 * @param value
+	 * 		Some string. May be {@code null}.
+	 *
+	 * @return Pooled instance equal to the given string, or {@code null} for {@code null} input.
+	 */
+	public String intern(String value) {
+		if (value == null)
+			return null;
+		String existing = pool.putIfAbsent(value, value);
+		return existing == null ? value : existing;
+	}
+
+	/**
+	 * @param values
+	 * 		Some strings. May be {@code null}.
+	 *
+	 * @return Immutable list of pooled instances of the given strings.
+	 * Empty or {@code null} input yields a shared empty list.
+	 */
+	public List<String> internAll(String[] values) {
+		if (values == null || values.length == 0)
+			return Collections.emptyList();
+		// Lists of one or two items hold them in fields, so no array is needed for the common cases
+		if (values.length == 1)
+			return List.of(intern(values[0]));
+		if (values.length == 2)
+			return List.of(intern(values[0]), intern(values[1]));
+		String[] interned = new String[values.length];
+		for (int i = 0; i < values.length; i++)
+			interned[i] = intern(values[i]);
+		// Copies the array into the list, the temporary array is discarded
+		return List.of(interned);
+	}
+
+	/**
+	 * @return Number of pooled strings.
+	 */
+	public int size() {
+		return pool.size();
+	}
+}
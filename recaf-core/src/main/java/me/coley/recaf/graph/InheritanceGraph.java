@@ -7,6 +7,7 @@ import me.coley.recaf.util.Multimap;
 import me.coley.recaf.util.MultimapBuilder;
 import me.coley.recaf.util.Types;
 import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.WorkspaceListener;
 import me.coley.recaf.workspace.resource.Resource;
 import me.coley.recaf.workspace.resource.ResourceClassListener;
 import me.coley.recaf.workspace.resource.ResourceDexClassListener;
@@ -14,6 +15,7 @@ import me.coley.recaf.workspace.resource.Resources;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -22,7 +24,7 @@ import java.util.stream.Collectors;
  *
  * @author Matt Coley
  */
-public class InheritanceGraph implements ResourceClassListener, ResourceDexClassListener {
+public class InheritanceGraph implements ResourceClassListener, ResourceDexClassListener, WorkspaceListener {
 	private static final InheritanceVertex STUB = new InheritanceVertex(null, null, null, false);
 	private static final String OBJECT = "java/lang/Object";
 	private final Multimap<String, String, Set<String>> parentToChild = MultimapBuilder
@@ -31,6 +33,7 @@ public class InheritanceGraph implements ResourceClassListener, ResourceDexClass
 			.build();
 	private final Map<String, InheritanceVertex> vertices = new ConcurrentHashMap<>();
 	private final Function<String, InheritanceVertex> vertexProvider = createVertexProvider();
+	private final AtomicInteger modificationCount = new AtomicInteger();
 	private final Workspace workspace;
 
 	/**
@@ -45,14 +48,24 @@ public class InheritanceGraph implements ResourceClassListener, ResourceDexClass
 			resource.addClassListener(this);
 			resource.addDexListener(this);
 		}
+		workspace.addListener(this);
 		refreshChildLookup();
 	}
 
+	/**
+	 * @return Count of changes to parent-child relations in the graph, including libraries being added or removed.
+	 * Results derived from the graph are outdated once this no longer matches the value they were made with.
+	 */
+	public int getModificationCount() {
+		return modificationCount.get();
+	}
+
 	/**
 	 * Refresh parent-to-child lookup.
 	 */
 	public void refreshChildLookup() {
 		// Clear
+		modificationCount.incrementAndGet();
 		parentToChild.clear();
 		// Repopulate
 		workspace.getResources().getClasses()
@@ -68,6 +81,7 @@ public class InheritanceGraph implements ResourceClassListener, ResourceDexClass
 	 * 		Parent class name.
 	 */
 	public void populateParentToChildLookup(String name, String parentName) {
+		modificationCount.incrementAndGet();
 		parentToChild.put(parentName, name);
 	}
 
@@ -104,6 +118,7 @@ public class InheritanceGraph implements ResourceClassListener, ResourceDexClass
 	 * 		Parent class name.
 	 */
 	public void removeParentToChildLookup(String name, String parentName) {
+		modificationCount.incrementAndGet();
 		parentToChild.remove(parentName, name);
 	}
 
@@ -203,6 +218,25 @@ public class InheritanceGraph implements ResourceClassListener, ResourceDexClass
 		};
 	}
 
+	@Override
+	public void onAddLibrary(Workspace workspace, Resource library) {
+		library.addClassListener(this);
+		library.addDexListener(this);
+		library.getClasses().values().forEach(this::populateParentToChildLookup);
+		library.getDexClasses().values().forEach(this::populateParentToChildLookup);
+		// Classes missing before may now be provided by the library
+		vertices.clear();
+	}
+
+	@Override
+	public void onRemoveLibrary(Workspace workspace, Resource library) {
+		library.removeClassListener(this);
+		library.removeDexListener(this);
+		library.getClasses().values().forEach(this::removeParentToChildLookup);
+		library.getDexClasses().values().forEach(this::removeParentToChildLookup);
+		vertices.clear();
+	}
+
 	@Override
 	public void onNewClass(Resource resource, ClassInfo newValue) {
 		populateParentToChildLookup(newValue);
@@ -40,6 +40,9 @@ public class MappingUtils {
 		ExecutorService service = ThreadUtil.phasingService();
 		Set<String> modifiedClasses = ConcurrentHashMap.newKeySet();
 		Set<String> newNames = new HashSet<>();
+		// Listeners are notified of all remapped classes at once when the batch ends
+		ClassMap classes = resource.getClasses();
+		classes.beginBatch();
 		for (ClassInfo classInfo : new ArrayList<>(resource.getClasses().values())) {
 			service.execute(() -> {
 				String originalName = classInfo.getName();
@@ -53,7 +56,6 @@ public class MappingUtils {
 					modifiedClasses.add(originalName);
 					ClassInfo updatedInfo = ClassInfo.read(cw.toByteArray());
 					String newName = updatedInfo.getName();
-					ClassMap classes = resource.getClasses();
 					synchronized(resource) {
 						newNames.add(newName);
 						classes.put(updatedInfo);
@@ -66,7 +68,11 @@ public class MappingUtils {
 				}
 			});
 		}
-		ThreadUtil.blockUntilComplete(service);
+		try {
+			ThreadUtil.blockUntilComplete(service);
+		} finally {
+			classes.endBatch();
+		}
 		return modifiedClasses;
 	}
 
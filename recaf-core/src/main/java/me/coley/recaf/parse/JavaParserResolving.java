@@ -34,8 +34,9 @@ import java.util.*;
  */
 public class JavaParserResolving {
 	private static final Logger logger = Logging.get(JavaParserResolving.class);
-	private static final Map<Class<?>, MethodHandle> resolveLookupCache = new IdentityHashMap<>();
-	private static final Map<Class<?>, MethodHandle> solveLookupCache = new IdentityHashMap<>();
+	// Resolving happens from multiple threads, and null values are cached to mark failed lookups
+	private static final Map<Class<?>, MethodHandle> resolveLookupCache = Collections.synchronizedMap(new IdentityHashMap<>());
+	private static final Map<Class<?>, MethodHandle> solveLookupCache = Collections.synchronizedMap(new IdentityHashMap<>());
 	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
 
 	/**
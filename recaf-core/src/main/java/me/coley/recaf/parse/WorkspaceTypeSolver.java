@@ -11,21 +11,30 @@ import me.coley.recaf.workspace.Workspace;
 import me.coley.recaf.workspace.WorkspaceListener;
 import me.coley.recaf.workspace.resource.Resource;
 import me.coley.recaf.workspace.resource.ResourceClassListener;
+import me.coley.recaf.workspace.resource.RuntimeClassIndex;
+import me.coley.recaf.workspace.resource.RuntimeResource;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Type resolver that uses a Recaf workspace as a classpath.
+ * <br>
+ * Resolved declarations and failed lookups are kept in size-bounded caches that are safe to access from
+ * multiple threads, and are invalidated by workspace class events. Source-level names, where inner classes
+ * are separated with {@code .} like packages, are mapped to internal names through a precomputed index.
  *
  * @author Matt Coley
  */
 public class WorkspaceTypeSolver implements TypeSolver, WorkspaceListener, ResourceClassListener {
-	private final Map<String, RecafResolvedTypeDeclaration> nameToDeclarationCache = new HashMap<>();
-	private final Set<String> failedResolves = new HashSet<>();
+	private static final int MAX_CACHED_DECLARATIONS = 4096;
+	private static final int MAX_CACHED_FAILURES = 4096;
+	private final Map<String, RecafResolvedTypeDeclaration> nameToDeclarationCache = boundedMap(MAX_CACHED_DECLARATIONS);
+	private final Map<String, Boolean> failedResolves = boundedMap(MAX_CACHED_FAILURES);
+	private final Map<String, String> sourceNameToInternal = new ConcurrentHashMap<>();
 	private final TypeSolver childSolver = new ReflectionTypeSolver(false);
 	private final Workspace workspace;
 	private TypeSolver parent;
@@ -36,6 +45,7 @@ public class WorkspaceTypeSolver implements TypeSolver, WorkspaceListener, Resou
 	 */
 	public WorkspaceTypeSolver(Workspace workspace) {
 		this.workspace = workspace;
+		workspace.getResources().getClasses().forEach(info -> indexName(info.getName()));
 		// Listener will ensure cache does not de-sync with changes to library states, class updates, etc
 		workspace.addListener(this);
 		workspace.getResources().getPrimary().addClassListener(this);
@@ -53,34 +63,59 @@ public class WorkspaceTypeSolver implements TypeSolver, WorkspaceListener, Resou
 
 	@Override
 	public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+		// JavaParser has no understanding of the difference between
+		// a package separator and an inner class separator, so lookups are done on a normalized form
+		// where both are the same.
+		String sourceName = toSourceName(name.replace('.', '/'));
 		// Fast fail if the name failed to resolve last time
-		if (failedResolves.contains(name)) {
+		if (failedResolves.containsKey(sourceName)) {
 			return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
 		}
 		try {
-			// JavaParser has no understanding of the difference between
-			// a package separator and an inner class separator...
-			// I mean, It's designed to mimic source-level constructs but this is still disappointing...
-			// I would like to not have to have a loop like this here for performance reasons.
-			String internal = name.replace('.', '/');
-			do {
+			String internal = toInternalName(sourceName);
+			if (internal != null) {
 				RecafResolvedTypeDeclaration declaration = findDeclaration(internal);
 				if (declaration != null) {
 					return SymbolReference.solved(declaration);
 				}
-				// Not found, try replacing the last package separator with an inner class separator.
-				internal = StringUtil.replaceLast(internal, "/", "$");
-			} while (internal.indexOf('/') > 0);
+			}
 		} catch (IOException ex) {
 			throw new IllegalStateException("Failed to resolve type: " + name, ex);
 		}
 		SymbolReference<ResolvedReferenceTypeDeclaration> parentSolved = childSolver.tryToSolveType(name);
 		if (!parentSolved.isSolved()) {
-			failedResolves.add(name);
+			failedResolves.put(sourceName, Boolean.TRUE);
 		}
 		return parentSolved;
 	}
 
+	/**
+	 * @param sourceName
+	 * 		Name with both package and inner class separators as {@code /}.
+	 *
+	 * @return Internal name of the matching class, or {@code null} if no such class exists.
+	 */
+	private String toInternalName(String sourceName) {
+		// Check classes in the workspace
+		String internal = sourceNameToInternal.get(sourceName);
+		if (internal != null)
+			return internal;
+		// Check remaining classes, trying each separator as an inner class separator from right to left.
+		// Runtime classes can be checked against the runtime index without needing to be read.
+		RuntimeClassIndex runtimeIndex = RuntimeResource.get().getIndex();
+		internal = sourceName;
+		do {
+			if (runtimeIndex != null && runtimeIndex.isRuntimePackage(internal)) {
+				if (runtimeIndex.contains(internal))
+					return internal;
+			} else if (workspace.getResources().getClass(internal) != null) {
+				return internal;
+			}
+			internal = StringUtil.replaceLast(internal, "/", "$");
+		} while (internal.indexOf('/') > 0);
+		return null;
+	}
+
 	private RecafResolvedTypeDeclaration findDeclaration(String internal) throws IOException {
 		// Check if it's been cached
 		RecafResolvedTypeDeclaration value = nameToDeclarationCache.get(internal);
@@ -97,37 +132,62 @@ public class WorkspaceTypeSolver implements TypeSolver, WorkspaceListener, Resou
 		return null;
 	}
 
+	private void indexName(String internal) {
+		String sourceName = toSourceName(internal);
+		// Prefer exact matches when a top-level class and an inner class share the same source name
+		if (sourceName.equals(internal))
+			sourceNameToInternal.put(sourceName, internal);
+		else
+			sourceNameToInternal.putIfAbsent(sourceName, internal);
+		// Remove failed resolves if the class is now defined
+		failedResolves.remove(sourceName);
+	}
+
+	private void unindexName(String internal) {
+		sourceNameToInternal.remove(toSourceName(internal), internal);
+		nameToDeclarationCache.remove(internal);
+	}
+
+	private static String toSourceName(String internal) {
+		return internal.indexOf('$') >= 0 ? internal.replace('$', '/') : internal;
+	}
+
+	private static <K, V> Map<K, V> boundedMap(int maxSize) {
+		return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
 
 	@Override
 	public void onAddLibrary(Workspace workspace, Resource library) {
-		// Remove failed resolves if the class is defined in the library
-		library.getClasses().keySet().forEach(failedResolves::remove);
+		library.getClasses().keySet().forEach(this::indexName);
 	}
 
 	@Override
 	public void onRemoveLibrary(Workspace workspace, Resource library) {
 		// Classes are removed, so we shouldn't be able to resolve them
-		library.getClasses().keySet().forEach(nameToDeclarationCache::remove);
+		library.getClasses().keySet().forEach(this::unindexName);
 	}
 
 	@Override
 	public void onNewClass(Resource resource, ClassInfo newValue) {
-		// Remove failed resolves if the class is defined in the library
-		failedResolves.remove(newValue.getName());
+		indexName(newValue.getName());
 	}
 
 	@Override
 	public void onRemoveClass(Resource resource, ClassInfo oldValue) {
 		// Class is removed, so we shouldn't be able to resolve it
-		nameToDeclarationCache.remove(oldValue.getName());
+		unindexName(oldValue.getName());
 	}
 
 	@Override
 	public void onUpdateClass(Resource resource, ClassInfo oldValue, ClassInfo newValue) {
 		// Replace the class declaration behind the reference in case there are updates to field or method definitions
 		String oldName = oldValue.getName();
-		if (nameToDeclarationCache.containsKey(oldName))
-			nameToDeclarationCache.put(oldName, RecafResolvedTypeDeclaration.from(this, newValue));
+		nameToDeclarationCache.computeIfPresent(oldName, (name, dec) -> RecafResolvedTypeDeclaration.from(this, newValue));
 	}
 
 	/**
@@ -97,7 +97,7 @@ public abstract class IntegratedVirtualMachine extends VirtualMachine {
 			@Override
 			public synchronized long openZipFile(String path, int mode) throws IOException {
 				if (WorkspaceZipFile.RECAF_LIVE_ZIP.equals(path)) {
-					zipFiles.put(Handle.of(RECAF_LIVE_ZIP_HANDLE), new WorkspaceZipFile(RECAF_LIVE_ZIP_HANDLE, getWorkspace()));
+					zipFiles.put(Handle.of(RECAF_LIVE_ZIP_HANDLE), new WorkspaceZipFile(RECAF_LIVE_ZIP_HANDLE, integration().getZipIndex()));
 					return RECAF_LIVE_ZIP_HANDLE;
 				}
 				return super.openZipFile(path, mode);
@@ -8,6 +8,7 @@ import dev.xdark.ssvm.classloading.BootClassLoader;
 import dev.xdark.ssvm.execution.Result;
 import dev.xdark.ssvm.mirror.InstanceJavaClass;
 import me.coley.recaf.ssvm.loader.RemoteBootClassLoader;
+import me.coley.recaf.ssvm.loader.RemoteClassCache;
 import me.coley.recaf.util.logging.Logging;
 import org.slf4j.Logger;
 
@@ -16,6 +17,9 @@ import java.nio.file.Path;
 
 /**
  * Factory implementation that provides workspace class access via a {@link JdkResourcesServer}.
+ * <br>
+ * Boot classes and properties pulled from the remote JVM are kept in a {@link RemoteClassCache} shared by all VMs
+ * created by this factory, and persisted across launches against the same JDK.
  *
  * @author xDark
  * @author Matt Coley
@@ -24,6 +28,8 @@ import java.nio.file.Path;
 public class RemoteVmFactory implements VmFactory {
 	private static final Logger logger = Logging.get(RemoteVmFactory.class);
 	private final Path remoteJavaExecutable;
+	private JdkProperties properties;
+	private RemoteClassCache cache;
 
 	/**
 	 * @param remoteJavaExecutable
@@ -35,12 +41,9 @@ public class RemoteVmFactory implements VmFactory {
 
 	@Override
 	public IntegratedVirtualMachine create(SsvmIntegration integration) {
-		JdkResourcesServer peer;
-		try {
-			peer = JdkResourcesServer.start(remoteJavaExecutable);
-		} catch (IOException ex) {
-			throw new IllegalStateException("Failed to start remote server", ex);
-		}
+		JdkProperties properties = getProperties();
+		RemoteClassCache cache = getCache();
+		RemoteBootClassLoader bootClassLoader = new RemoteBootClassLoader(remoteJavaExecutable, cache);
 		IntegratedVirtualMachine vm = new IntegratedVirtualMachine() {
 			@Override
 			public void bootstrap() {
@@ -56,25 +59,24 @@ public class RemoteVmFactory implements VmFactory {
 
 			@Override
 			protected BootClassLoader createBootClassLoader() {
-				return new RemoteBootClassLoader(peer);
+				return bootClassLoader;
 			}
 		};
 		// Copy remote properties
-		try {
-			JdkProperties properties = JdkProperties.getProperties(remoteJavaExecutable);
+		if (properties != null) {
 			vm.getenv().clear();
 			vm.getenv().putAll(properties.getEnvironment());
 			vm.getProperties().clear();
 			vm.getProperties().putAll(properties.getSystemProperties());
-		} catch (IOException ex) {
-			logger.warn("Failed to dump JDK properties", ex);
 		}
 		vm.initialize();
+		cache.save();
 		VMInterface vmi = vm.getInterface();
 		InstanceJavaClass cl = (InstanceJavaClass) vm.findBootstrapClass("java/lang/Shutdown");
 		vmi.setInvoker(cl, "beforeHalt", "()V", ctx -> {
+			cache.save();
 			try {
-				peer.shutdown();
+				bootClassLoader.shutdown();
 			} catch (IOException ex) {
 				logger.error("Could not shutdown remote server", ex);
 			}
@@ -83,4 +85,27 @@ public class RemoteVmFactory implements VmFactory {
 		vmi.setInvoker(cl, "halt0", "(I)V", MethodInvoker.noop());
 		return vm;
 	}
+
+	private synchronized JdkProperties getProperties() {
+		if (properties == null) {
+			// Launching the remote JVM to dump its properties is slow, so only do it when they are not cached
+			RemoteClassCache cache = getCache();
+			properties = cache.getProperties();
+			if (properties == null) {
+				try {
+					properties = JdkProperties.getProperties(remoteJavaExecutable);
+					cache.setProperties(properties);
+				} catch (IOException ex) {
+					logger.warn("Failed to dump JDK properties", ex);
+				}
+			}
+		}
+		return properties;
+	}
+
+	private synchronized RemoteClassCache getCache() {
+		if (cache == null)
+			cache = RemoteClassCache.open(remoteJavaExecutable);
+		return cache;
+	}
 }
@@ -0,0 +1,462 @@
+package me.coley.recaf.ssvm;
+
+import dev.xdark.ssvm.execution.ExecutionContext;
+import dev.xdark.ssvm.memory.MemoryManager;
+import dev.xdark.ssvm.mirror.InstanceJavaClass;
+import dev.xdark.ssvm.value.TopValue;
+import dev.xdark.ssvm.value.Value;
+import me.coley.recaf.Controller;
+import me.coley.recaf.code.ClassInfo;
+import me.coley.recaf.code.MethodInfo;
+import me.coley.recaf.ssvm.value.ConstNumericValue;
+import me.coley.recaf.util.AccessFlag;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.visitor.WorkspaceClassWriter;
+import me.coley.recaf.workspace.resource.Resource;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Runs the SSVM peephole optimizations over every method in a resource.
+ * <br>
+ * Classes are distributed across VMs borrowed from the integration's {@link SsvmIntegration#getPool() pool},
+ * with each class processed by a single VM so that all optimizations made to its methods are collected on the
+ * same class model. Methods are invoked
+ * with default argument values, and flow revisiting ensures all branches are visited regardless.
+ * <br>
+ * Each VM is kept for the whole run and takes classes until none remain. Exceptions thrown by the invoked methods
+ * are contained within the VM, so they only mark the method as failed. A VM is only replaced when a class cannot
+ * be loaded into it or read back from it, as it may then be in a bad state. The number of replacements per run is
+ * limited, so a run bootstraps at most twice as many VMs as the pool holds.
+ * Optimized classes are collected into a {@link Result}, which can then be
+ * {@link Result#commit() committed} back to the resource as a single batched update.
+ *
+ * @author Matt Coley
+ */
+public class SsvmBulkOptimizer {
+	private static final Logger logger = Logging.get(SsvmBulkOptimizer.class);
+	// Limit of VMs used per run as a multiple of the pool size, so failing VMs cannot cause endless bootstrapping
+	private static final int MAX_VMS_PER_POOL_SLOT = 2;
+	private final ThreadLocal<MethodTarget> currentTarget = new ThreadLocal<>();
+	private final Controller controller;
+	private final SsvmIntegration integration;
+	private final Resource resource;
+	private Predicate<ClassInfo> filter = info -> true;
+	private ProgressListener progressListener;
+
+	/**
+	 * @param controller
+	 * 		Controller to pull the workspace inheritance graph from, used when computing frames.
+	 * @param integration
+	 * 		Integration to borrow VMs from.
+	 * @param resource
+	 * 		Resource containing classes to optimize.
+	 */
+	public SsvmBulkOptimizer(Controller controller, SsvmIntegration integration, Resource resource) {
+		this.controller = controller;
+		this.integration = integration;
+		this.resource = resource;
+	}
+
+	/**
+	 * @param filter
+	 * 		Filter of classes to optimize. By default, all classes are optimized.
+	 *
+	 * @return Self.
+	 */
+	public SsvmBulkOptimizer withFilter(Predicate<ClassInfo> filter) {
+		this.filter = filter;
+		return this;
+	}
+
+	/**
+	 * @param progressListener
+	 * 		Listener to notify as each class is completed. Called from the VM threads.
+	 *
+	 * @return Self.
+	 */
+	public SsvmBulkOptimizer withProgressListener(ProgressListener progressListener) {
+		this.progressListener = progressListener;
+		return this;
+	}
+
+	/**
+	 * Optimize all matching classes. Blocks until complete.
+	 *
+	 * @return Optimization result.
+	 */
+	public Result run() {
+		long start = System.currentTimeMillis();
+		Map<String, ClassInfo> outputs = new ConcurrentHashMap<>();
+		Map<String, Throwable> failures = new ConcurrentHashMap<>();
+		Queue<ClassInfo> queue = new ConcurrentLinkedQueue<>();
+		for (ClassInfo info : resource.getClasses().values())
+			if (filter.test(info))
+				queue.add(info);
+		int total = queue.size();
+		AtomicInteger completed = new AtomicInteger();
+		int methodCount = 0;
+		int vmCount = 0;
+		int maxVms = -1;
+		while (!queue.isEmpty()) {
+			// Each worker borrows a VM and takes classes from the queue until it is empty, or until a class leaves
+			// the VM in a bad state. Workers that stopped early are replaced in the next round.
+			// The installed processors cannot be removed and read back classes are modified in place,
+			// so the VM is not handed back to the pool for reuse once done, and the pool replaces it in the background.
+			VmPool pool = integration.getPool();
+			if (maxVms < 0)
+				maxVms = pool.getSize() * MAX_VMS_PER_POOL_SLOT;
+			int remaining = queue.size();
+			int workerCount = Math.min(Math.min(pool.getSize(), remaining), maxVms - vmCount);
+			if (workerCount <= 0) {
+				failRemaining(queue, failures, completed, total,
+						new IllegalStateException("Too many VM failures, skipped remaining classes"));
+				break;
+			}
+			vmCount += workerCount;
+			List<CompletableFuture<Integer>> workers = new ArrayList<>();
+			for (int i = 0; i < workerCount; i++)
+				workers.add(pool.submit(vm -> drain(vm, queue, outputs, failures, completed, total),
+						count -> false));
+			Throwable workerError = null;
+			for (CompletableFuture<Integer> worker : workers) {
+				try {
+					methodCount += worker.join();
+				} catch (Exception ex) {
+					workerError = ex.getCause() != null ? ex.getCause() : ex;
+				}
+			}
+			// Workers that could not get a VM do not take any classes, so give up instead of retrying forever
+			if (workerError != null && queue.size() == remaining)
+				failRemaining(queue, failures, completed, total, workerError);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		Result result = new Result(resource, outputs, failures, total, methodCount, vmCount, elapsed);
+		logger.info("SSVM optimization of {} methods in {} classes completed in {}ms ({} methods/s) using {} VMs, " +
+						"{} classes modified, {} failed",
+				methodCount, total, elapsed, result.getMethodsPerSecond(), vmCount, outputs.size(), failures.size());
+		return result;
+	}
+
+	private void failRemaining(Queue<ClassInfo> queue, Map<String, Throwable> failures,
+							   AtomicInteger completed, int total, Throwable cause) {
+		ClassInfo info;
+		while ((info = queue.poll()) != null) {
+			failures.put(info.getName(), cause);
+			notifyProgress(info.getName(), completed.incrementAndGet(), total);
+		}
+	}
+
+	private int drain(IntegratedVirtualMachine vm, Queue<ClassInfo> queue, Map<String, ClassInfo> outputs,
+					  Map<String, Throwable> failures, AtomicInteger completed, int total) {
+		installProcessors(vm);
+		int count = 0;
+		ClassInfo info;
+		while ((info = queue.poll()) != null) {
+			ClassOutcome outcome = optimize(vm, info, outputs, failures);
+			count += outcome.methodCount;
+			notifyProgress(info.getName(), completed.incrementAndGet(), total);
+			if (outcome.vmFailed)
+				break;
+		}
+		return count;
+	}
+
+	private void notifyProgress(String className, int completed, int total) {
+		ProgressListener listener = progressListener;
+		if (listener == null)
+			return;
+		try {
+			listener.onClassCompleted(className, completed, total);
+		} catch (Throwable t) {
+			logger.error("Uncaught exception in SSVM optimization progress listener", t);
+		}
+	}
+
+	private ClassOutcome optimize(IntegratedVirtualMachine vm, ClassInfo info, Map<String, ClassInfo> outputs,
+								  Map<String, Throwable> failures) {
+		String owner = info.getName();
+		InstanceJavaClass vmClass;
+		try {
+			vmClass = (InstanceJavaClass) vm.findClass(vm.getVmUtil().getSystemClassLoader(), owner, true);
+			if (vmClass == null)
+				throw new IllegalStateException("Class not found in VM: " + owner);
+		} catch (Throwable t) {
+			failures.put(owner, t);
+			return new ClassOutcome(0, true);
+		}
+		boolean vmFailed = false;
+		Set<String> failedMethods = new HashSet<>();
+		int count = 0;
+		for (MethodInfo method : info.getMethods()) {
+			int access = method.getAccess();
+			if (AccessFlag.isAbstract(access) || AccessFlag.isNative(access) || "<clinit>".equals(method.getName()))
+				continue;
+			count++;
+			String key = method.getName() + method.getDescriptor();
+			currentTarget.set(new MethodTarget(owner, method.getName(), method.getDescriptor()));
+			try {
+				VmRunResult result = SsvmIntegration.invoke(vm, info, method, defaultArguments(vm, vmClass, method));
+				if (result.hasError()) {
+					// Exception thrown by the method itself, which does not affect the VM
+					failedMethods.add(key);
+					failures.put(owner + "." + key, result.getException());
+				}
+			} catch (Throwable t) {
+				// Failure outside of the invoked method, such as in an installed processor
+				failedMethods.add(key);
+				failures.put(owner + "." + key, t);
+				vmFailed = true;
+			} finally {
+				currentTarget.remove();
+			}
+		}
+		// Pull optimized bytecode from the VM
+		ClassNode node = vmClass.getNode();
+		try {
+			SsvmUtil.restoreClass(node);
+		} catch (Throwable t) {
+			failures.put(owner, t);
+			return new ClassOutcome(count, true);
+		}
+		try {
+			if (!failedMethods.isEmpty())
+				restoreOriginalMethods(node, info, failedMethods);
+			byte[] modified = write(node);
+			if (!Arrays.equals(modified, write(original(info))))
+				outputs.put(owner, ClassInfo.read(modified));
+		} catch (Throwable t) {
+			// Writing happens outside the VM, so it is left usable
+			failures.put(owner, t);
+		}
+		return new ClassOutcome(count, vmFailed);
+	}
+
+	private void installProcessors(IntegratedVirtualMachine vm) {
+		Predicate<ExecutionContext> whitelist = ctx -> {
+			MethodTarget target = currentTarget.get();
+			return target != null &&
+					target.owner.equals(ctx.getOwner().getInternalName()) &&
+					target.name.equals(ctx.getMethod().getName()) &&
+					target.desc.equals(ctx.getMethod().getDesc());
+		};
+		vm.installFlowRevisiting(whitelist);
+		vm.installMathFolding(whitelist);
+		vm.installMethodFolding(whitelist);
+		vm.installStringFolding(whitelist);
+	}
+
+	private static Value[] defaultArguments(IntegratedVirtualMachine vm, InstanceJavaClass vmClass, MethodInfo method) {
+		MemoryManager memory = vm.getMemoryManager();
+		boolean isStatic = AccessFlag.isStatic(method.getAccess());
+		Type[] argTypes = Type.getArgumentTypes(method.getDescriptor());
+		int size = isStatic ? 0 : 1;
+		for (Type arg : argTypes)
+			size += arg.getSize();
+		Value[] values = new Value[size];
+		int slot = 0;
+		if (!isStatic)
+			values[slot++] = memory.newInstance(vmClass);
+		for (Type arg : argTypes) {
+			switch (arg.getSort()) {
+				case Type.BOOLEAN:
+				case Type.CHAR:
+				case Type.BYTE:
+				case Type.SHORT:
+				case Type.INT:
+					values[slot] = ConstNumericValue.ofInt(0);
+					break;
+				case Type.FLOAT:
+					values[slot] = ConstNumericValue.ofFloat(0);
+					break;
+				case Type.LONG:
+					values[slot] = ConstNumericValue.ofLong(0);
+					values[slot + 1] = TopValue.INSTANCE;
+					break;
+				case Type.DOUBLE:
+					values[slot] = ConstNumericValue.ofDouble(0);
+					values[slot + 1] = TopValue.INSTANCE;
+					break;
+				default:
+					values[slot] = memory.nullValue();
+					break;
+			}
+			slot += arg.getSize();
+		}
+		return values;
+	}
+
+	private static void restoreOriginalMethods(ClassNode node, ClassInfo info, Set<String> methods) {
+		ClassNode original = original(info);
+		ListIterator<MethodNode> iterator = node.methods.listIterator();
+		while (iterator.hasNext()) {
+			MethodNode method = iterator.next();
+			if (!methods.contains(method.name + method.desc))
+				continue;
+			for (MethodNode originalMethod : original.methods) {
+				if (originalMethod.name.equals(method.name) && originalMethod.desc.equals(method.desc)) {
+					iterator.set(originalMethod);
+					break;
+				}
+			}
+		}
+	}
+
+	private static ClassNode original(ClassInfo info) {
+		ClassNode node = new ClassNode();
+		info.getClassReader().accept(node, 0);
+		return node;
+	}
+
+	private byte[] write(ClassNode node) {
+		ClassWriter writer = new WorkspaceClassWriter(controller, ClassWriter.COMPUTE_FRAMES);
+		node.accept(writer);
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Listener for progress of a bulk optimization.
+	 */
+	public interface ProgressListener {
+		/**
+		 * @param className
+		 * 		Name of the class that was completed, successfully or not.
+		 * @param completed
+		 * 		Number of classes completed so far.
+		 * @param total
+		 * 		Total number of classes to optimize.
+		 */
+		void onClassCompleted(String className, int completed, int total);
+	}
+
+	/**
+	 * Outcome of optimizing a single class.
+	 */
+	private static class ClassOutcome {
+		private final int methodCount;
+		private final boolean vmFailed;
+
+		private ClassOutcome(int methodCount, boolean vmFailed) {
+			this.methodCount = methodCount;
+			this.vmFailed = vmFailed;
+		}
+	}
+
+	/**
+	 * Method currently being optimized on a VM thread, used to limit optimizations to that method.
+	 */
+	private static class MethodTarget {
+		private final String owner;
+		private final String name;
+		private final String desc;
+
+		private MethodTarget(String owner, String name, String desc) {
+			this.owner = owner;
+			this.name = name;
+			this.desc = desc;
+		}
+	}
+
+	/**
+	 * Outputs of a bulk optimization, which are not yet applied to the resource.
+	 */
+	public static class Result {
+		private final Resource resource;
+		private final Map<String, ClassInfo> outputs;
+		private final Map<String, Throwable> failures;
+		private final int classCount;
+		private final int methodCount;
+		private final int vmCount;
+		private final long elapsedMs;
+
+		private Result(Resource resource, Map<String, ClassInfo> outputs, Map<String, Throwable> failures,
+					   int classCount, int methodCount, int vmCount, long elapsedMs) {
+			this.resource = resource;
+			this.outputs = new TreeMap<>(outputs);
+			this.failures = new TreeMap<>(failures);
+			this.classCount = classCount;
+			this.methodCount = methodCount;
+			this.vmCount = vmCount;
+			this.elapsedMs = elapsedMs;
+		}
+
+		/**
+		 * Put all optimized classes into the resource as a single batched update.
+		 *
+		 * @return Self.
+		 */
+		public Result commit() {
+			if (!outputs.isEmpty())
+				resource.getClasses().putBatch(outputs.values());
+			return this;
+		}
+
+		/**
+		 * @return Map of class names to their optimized class.
+		 * Only includes classes that were modified by the optimization.
+		 */
+		public Map<String, ClassInfo> getModified() {
+			return Collections.unmodifiableMap(outputs);
+		}
+
+		/**
+		 * @return Map of failures. Keys are class names for classes that could not be processed at all,
+		 * or {@code owner.nameDesc} for individual methods that failed to run. Failed methods are left as-is.
+		 */
+		public Map<String, Throwable> getFailures() {
+			return Collections.unmodifiableMap(failures);
+		}
+
+		/**
+		 * @return {@code true} when any class or method could not be optimized.
+		 */
+		public boolean hasFailures() {
+			return !failures.isEmpty();
+		}
+
+		/**
+		 * @return Number of classes processed.
+		 */
+		public int getClassCount() {
+			return classCount;
+		}
+
+		/**
+		 * @return Number of methods run.
+		 */
+		public int getMethodCount() {
+			return methodCount;
+		}
+
+		/**
+		 * @return Number of VMs borrowed from the pool.
+		 */
+		public int getVmCount() {
+			return vmCount;
+		}
+
+		/**
+		 * @return Time taken in milliseconds.
+		 */
+		public long getElapsedMs() {
+			return elapsedMs;
+		}
+
+		/**
+		 * @return Number of methods run per second.
+		 */
+		public long getMethodsPerSecond() {
+			return elapsedMs == 0 ? methodCount : methodCount * 1000L / elapsedMs;
+		}
+	}
+}
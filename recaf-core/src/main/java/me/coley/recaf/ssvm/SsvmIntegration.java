@@ -28,6 +28,9 @@ public class SsvmIntegration {
 	private final Workspace workspace;
 	private VmFactory factory;
 	private IntegratedVirtualMachine vm;
+	private VmPool pool;
+	private WorkspaceZipIndex zipIndex;
+	private int poolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 	private boolean initialized;
 	private boolean allowRead;
 	private boolean allowWrite;
@@ -143,24 +146,90 @@ public class SsvmIntegration {
 			return CompletableFuture.completedFuture(new VmRunResult(ex));
 		}
 		// Invoke with parameters and return value
-		return CompletableFuture.supplyAsync(() -> {
-			int access = method.getAccess();
-			String methodName = method.getName();
-			String methodDesc = method.getDescriptor();
-			try {
-				vmClass.initialize();
-				ExecutionContext context;
-				if (AccessFlag.isStatic(access)) {
-					context = vm.getVmUtil().invokeStatic(vmClass, methodName, methodDesc, parameters);
-				} else {
-					context = vm.getVmUtil().invokeExact(vmClass, methodName, methodDesc, parameters);
-				}
-				return new VmRunResult(context.getResult());
-			} catch (Exception ex) {
-				// Also handles 'VMException'
-				return new VmRunResult(ex);
+		return CompletableFuture.supplyAsync(() -> invoke(vm, vmClass, method, parameters), vmThreadPool);
+	}
+
+	/**
+	 * Run the method in the given VM on the current thread.
+	 *
+	 * @param vm
+	 * 		VM to invoke the method in.
+	 * @param owner
+	 * 		Class declaring the method.
+	 * @param method
+	 * 		Method to invoke in the VM.
+	 * @param parameters
+	 * 		Parameter values to pass.
+	 *
+	 * @return Result of invoke.
+	 */
+	public static VmRunResult invoke(IntegratedVirtualMachine vm, CommonClassInfo owner, MethodInfo method,
+									 Value[] parameters) {
+		InstanceJavaClass vmClass;
+		try {
+			vmClass = (InstanceJavaClass) vm.findClass(vm.getVmUtil().getSystemClassLoader(), owner.getName(), true);
+		} catch (Exception ex) {
+			logger.warn("Failed to initialize class: {}", owner.getName());
+			return new VmRunResult(ex);
+		}
+		return invoke(vm, vmClass, method, parameters);
+	}
+
+	private static VmRunResult invoke(IntegratedVirtualMachine vm, InstanceJavaClass vmClass, MethodInfo method,
+									  Value[] parameters) {
+		int access = method.getAccess();
+		String methodName = method.getName();
+		String methodDesc = method.getDescriptor();
+		try {
+			vmClass.initialize();
+			ExecutionContext context;
+			if (AccessFlag.isStatic(access)) {
+				context = vm.getVmUtil().invokeStatic(vmClass, methodName, methodDesc, parameters);
+			} else {
+				context = vm.getVmUtil().invokeExact(vmClass, methodName, methodDesc, parameters);
 			}
-		}, vmThreadPool);
+			return new VmRunResult(context.getResult());
+		} catch (Exception ex) {
+			// Also handles 'VMException'
+			return new VmRunResult(ex);
+		}
+	}
+
+	/**
+	 * The pool is created on first use, and is recreated when the {@link #setFactory(VmFactory) factory}
+	 * or {@link #setPoolSize(int) pool size} changes.
+	 *
+	 * @return Pool of VMs for running independent invocations concurrently.
+	 */
+	public synchronized VmPool getPool() {
+		if (pool == null || pool.isShutdown())
+			pool = new VmPool(this, poolSize, null);
+		return pool;
+	}
+
+	/**
+	 * @param poolSize
+	 * 		Number of VMs to keep in the {@link #getPool() pool}.
+	 */
+	public synchronized void setPoolSize(int poolSize) {
+		if (this.poolSize != poolSize) {
+			this.poolSize = Math.max(1, poolSize);
+			resetPool();
+		}
+	}
+
+	/**
+	 * @return Number of VMs to keep in the {@link #getPool() pool}.
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	private synchronized void resetPool() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
 	}
 
 	/**
@@ -179,6 +248,15 @@ public class SsvmIntegration {
 		return workspace;
 	}
 
+	/**
+	 * @return Index of workspace contents, served to VMs as the {@link WorkspaceZipFile#RECAF_LIVE_ZIP live zip}.
+	 */
+	public synchronized WorkspaceZipIndex getZipIndex() {
+		if (zipIndex == null)
+			zipIndex = new WorkspaceZipIndex(workspace);
+		return zipIndex;
+	}
+
 	/**
 	 * @return {@code true} whenb the VM is ready.
 	 */
@@ -204,6 +282,7 @@ public class SsvmIntegration {
 		// Only change if the implementation is different
 		if (this.factory.getClass() != factory.getClass()) {
 			this.factory = factory;
+			resetPool();
 			asyncUpdatePrimaryVm();
 			return true;
 		}
@@ -253,12 +332,19 @@ public class SsvmIntegration {
 	}
 
 	/**
-	 * Shutdowns VM.
+	 * Shutdowns VM, and stops tracking workspace changes.
 	 */
 	public void cleanup() {
 		IntegratedVirtualMachine vm = this.vm;
 		if (vm != null) {
 			SsvmUtil.shutdown(vm, 0);
 		}
+		resetPool();
+		synchronized (this) {
+			if (zipIndex != null) {
+				zipIndex.cleanup();
+				zipIndex = null;
+			}
+		}
 	}
 }
@@ -0,0 +1,225 @@
+package me.coley.recaf.ssvm;
+
+import dev.xdark.ssvm.value.Value;
+import me.coley.recaf.code.CommonClassInfo;
+import me.coley.recaf.code.MethodInfo;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.ThreadPoolFactory;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Pool of bootstrapped VMs, allowing independent invocations to run concurrently.
+ * <br>
+ * VMs are bootstrapped on demand, when an invocation finds no idle VM and the pool is not yet full.
+ * Each VM is then reused across invocations. A VM is only used by one invocation at a time.
+ * When an invocation fails, its VM may be left in an inconsistent state, so it is discarded instead of reused.
+ * A replacement is bootstrapped in the background, so callers do not wait on a fresh bootstrap.
+ *
+ * @author Matt Coley
+ */
+public class VmPool {
+	private static final Logger logger = Logging.get(VmPool.class);
+	private final BlockingQueue<IntegratedVirtualMachine> idle = new LinkedBlockingQueue<>();
+	private final List<IntegratedVirtualMachine> all = new CopyOnWriteArrayList<>();
+	// VMs in the pool, including those being bootstrapped
+	private final AtomicInteger vmCount = new AtomicInteger();
+	private final SsvmIntegration integration;
+	private final Consumer<IntegratedVirtualMachine> setup;
+	private final ExecutorService invokeService;
+	private final ExecutorService bootstrapService;
+	private final int size;
+	private volatile boolean shutdown;
+
+	/**
+	 * @param integration
+	 * 		Integration to create VMs with.
+	 * @param size
+	 * 		Maximum number of VMs in the pool.
+	 * @param setup
+	 * 		Optional action to run on each VM after it is bootstrapped, such as installing processors.
+	 */
+	public VmPool(SsvmIntegration integration, int size, Consumer<IntegratedVirtualMachine> setup) {
+		if (size < 1)
+			throw new IllegalArgumentException("Pool size must be at least 1");
+		this.integration = integration;
+		this.size = size;
+		this.setup = setup;
+		this.invokeService = ThreadPoolFactory.newFixedThreadPool("Recaf SSVM pool", size, true);
+		this.bootstrapService = ThreadPoolFactory.newFixedThreadPool("Recaf SSVM bootstrap", size, true);
+	}
+
+	/**
+	 * Run an action with exclusive access to a pooled VM.
+	 *
+	 * @param action
+	 * 		Action to run. If it throws an exception, the VM it was given is discarded.
+	 * @param <T>
+	 * 		Action result type.
+	 *
+	 * @return Future of action result.
+	 */
+	public <T> CompletableFuture<T> submit(Function<IntegratedVirtualMachine, T> action) {
+		return submit(action, result -> true);
+	}
+
+	/**
+	 * Run the method in a pooled VM.
+	 * The VM is discarded if the invocation fails, since a failed class initializer or similar
+	 * error may leave it in a state that would affect later invocations.
+	 *
+	 * @param owner
+	 * 		Class declaring the method.
+	 * @param method
+	 * 		Method to invoke in the VM.
+	 * @param parameters
+	 * 		Function providing the parameter values to pass, called in the VM that runs the invocation.
+	 *
+	 * @return Result of invoke.
+	 */
+	public CompletableFuture<VmRunResult> runMethod(CommonClassInfo owner, MethodInfo method,
+													Function<IntegratedVirtualMachine, Value[]> parameters) {
+		CompletableFuture<VmRunResult> future = submit(vm -> SsvmIntegration.invoke(vm, owner, method,
+				parameters.apply(vm)), result -> !result.hasError());
+		return future.exceptionally(VmRunResult::new);
+	}
+
+	/**
+	 * Run an action with exclusive access to a pooled VM.
+	 *
+	 * @param action
+	 * 		Action to run. If it throws an exception, the VM it was given is discarded.
+	 * @param reusable
+	 * 		Check on the action result, determining if the VM can be reused.
+	 * 		When {@code false} the VM is discarded and replaced.
+	 * @param <T>
+	 * 		Action result type.
+	 *
+	 * @return Future of action result.
+	 */
+	public <T> CompletableFuture<T> submit(Function<IntegratedVirtualMachine, T> action, Predicate<T> reusable) {
+		return CompletableFuture.supplyAsync(() -> {
+			IntegratedVirtualMachine vm = acquire();
+			boolean healthy = false;
+			try {
+				T result = action.apply(vm);
+				healthy = reusable.test(result);
+				return result;
+			} finally {
+				release(vm, healthy);
+			}
+		}, invokeService);
+	}
+
+	/**
+	 * @return Maximum number of VMs in the pool.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return Number of VMs currently bootstrapped and not in use.
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	/**
+	 * Shutdown all VMs in the pool. Pending invocations are cancelled.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		invokeService.shutdownNow();
+		bootstrapService.shutdownNow();
+		for (IntegratedVirtualMachine vm : new ArrayList<>(all))
+			SsvmUtil.shutdown(vm, 0);
+		all.clear();
+		idle.clear();
+	}
+
+	/**
+	 * @return {@code true} when {@link #shutdown()} has been called.
+	 */
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	private IntegratedVirtualMachine acquire() {
+		IntegratedVirtualMachine vm = idle.poll();
+		if (vm != null)
+			return vm;
+		grow();
+		try {
+			while (!shutdown) {
+				vm = idle.poll(100, TimeUnit.MILLISECONDS);
+				if (vm != null)
+					return vm;
+				// Do not wait forever if every VM failed to be created
+				if (vmCount.get() == 0)
+					throw new IllegalStateException("No VMs could be created for the pool");
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		throw new CancellationException("VM pool was shutdown");
+	}
+
+	private void release(IntegratedVirtualMachine vm, boolean healthy) {
+		if (shutdown) {
+			SsvmUtil.shutdown(vm, 0);
+		} else if (healthy) {
+			idle.add(vm);
+		} else {
+			all.remove(vm);
+			SsvmUtil.shutdown(vm, 0);
+			bootstrap();
+		}
+	}
+
+	/**
+	 * Bootstraps another VM, unless the pool is full.
+	 */
+	private void grow() {
+		int count;
+		while ((count = vmCount.get()) < size) {
+			if (vmCount.compareAndSet(count, count + 1)) {
+				bootstrap();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Bootstraps a VM in the background, for a slot already counted in {@link #vmCount}.
+	 */
+	private void bootstrap() {
+		if (shutdown)
+			return;
+		bootstrapService.execute(() -> {
+			boolean created = false;
+			try {
+				if (shutdown)
+					return;
+				long start = System.currentTimeMillis();
+				IntegratedVirtualMachine vm = integration.createVM(true, setup);
+				logger.debug("Pooled VM bootstrapped in {}ms", System.currentTimeMillis() - start);
+				all.add(vm);
+				idle.add(vm);
+				created = true;
+			} catch (Throwable t) {
+				logger.error("Failed to create pooled VM", t);
+			} finally {
+				if (!created)
+					vmCount.decrementAndGet();
+			}
+		});
+	}
+}
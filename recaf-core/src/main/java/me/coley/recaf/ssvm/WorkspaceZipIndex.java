@@ -0,0 +1,199 @@
+package me.coley.recaf.ssvm;
+
+import me.coley.recaf.code.ClassInfo;
+import me.coley.recaf.code.FileInfo;
+import me.coley.recaf.code.LiteralInfo;
+import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.WorkspaceListener;
+import me.coley.recaf.workspace.resource.Resource;
+import me.coley.recaf.workspace.resource.ResourceClassListener;
+import me.coley.recaf.workspace.resource.ResourceFileListener;
+import me.coley.recaf.workspace.resource.Resources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+
+/**
+ * Table of zip entries for classes and files in a workspace, backing every {@link WorkspaceZipFile}.
+ * <br>
+ * The table is built once and then kept up to date through workspace listeners,
+ * so opening the zip and looking up entries by name does not depend on the size of the workspace.
+ * When multiple resources contain the same item, the entry reflects the one the workspace resolves first.
+ *
+ * @author Matt Coley
+ */
+public class WorkspaceZipIndex implements WorkspaceListener, ResourceClassListener, ResourceFileListener {
+	private final Map<String, ZipEntry> entries = new ConcurrentHashMap<>();
+	private final Workspace workspace;
+	private volatile List<ZipEntry> snapshot;
+
+	/**
+	 * @param workspace
+	 * 		Workspace to index.
+	 */
+	public WorkspaceZipIndex(Workspace workspace) {
+		this.workspace = workspace;
+		Resources resources = workspace.getResources();
+		// Streams go primary first, so the first entry for a name is the one the workspace resolves
+		resources.getClasses().forEach(info -> entries.putIfAbsent(classEntryName(info.getName()), newEntry(info)));
+		resources.getFiles().forEach(info -> entries.putIfAbsent(info.getName(), newEntry(info)));
+		workspace.addListener(this);
+		addResourceListeners(resources.getPrimary());
+		for (Resource library : resources.getLibraries())
+			addResourceListeners(library);
+	}
+
+	/**
+	 * @param name
+	 * 		Entry name.
+	 *
+	 * @return Entry of the given name, or {@code null} if no class or file in the workspace matches.
+	 */
+	public ZipEntry getEntry(String name) {
+		return entries.get(name);
+	}
+
+	/**
+	 * @return Current entries. The list is not updated by later workspace changes.
+	 */
+	public List<ZipEntry> getEntries() {
+		List<ZipEntry> snapshot = this.snapshot;
+		if (snapshot == null) {
+			synchronized (this) {
+				snapshot = this.snapshot;
+				if (snapshot == null)
+					this.snapshot = snapshot = Collections.unmodifiableList(new ArrayList<>(entries.values()));
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @return Number of entries.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @param name
+	 * 		Entry name.
+	 *
+	 * @return Class or file content of the entry, as resolved by the workspace.
+	 * {@code null} if no class or file in the workspace matches.
+	 */
+	public LiteralInfo lookup(String name) {
+		Resources resources = workspace.getResources();
+		if (name.endsWith(".class")) {
+			String className = name.substring(0, name.length() - 6);
+			ClassInfo info = resources.getPrimary().getClasses().get(className);
+			for (int i = 0; info == null && i < resources.getLibraries().size(); i++)
+				info = resources.getLibraries().get(i).getClasses().get(className);
+			// The name may also refer to a file that happens to end with '.class'
+			return info != null ? info : resources.getFile(name);
+		}
+		return resources.getFile(name);
+	}
+
+	@Override
+	public void onAddLibrary(Workspace workspace, Resource library) {
+		addResourceListeners(library);
+		library.getClasses().keySet().forEach(name -> refresh(classEntryName(name)));
+		library.getFiles().keySet().forEach(this::refresh);
+	}
+
+	/**
+	 * Stop tracking changes to the workspace and clear the entries.
+	 */
+	public synchronized void cleanup() {
+		Resources resources = workspace.getResources();
+		workspace.removeListener(this);
+		removeResourceListeners(resources.getPrimary());
+		for (Resource library : resources.getLibraries())
+			removeResourceListeners(library);
+		entries.clear();
+		snapshot = null;
+	}
+
+	@Override
+	public void onRemoveLibrary(Workspace workspace, Resource library) {
+		removeResourceListeners(library);
+		library.getClasses().keySet().forEach(name -> refresh(classEntryName(name)));
+		library.getFiles().keySet().forEach(this::refresh);
+	}
+
+	@Override
+	public void onNewClass(Resource resource, ClassInfo newValue) {
+		refresh(classEntryName(newValue.getName()));
+	}
+
+	@Override
+	public void onRemoveClass(Resource resource, ClassInfo oldValue) {
+		refresh(classEntryName(oldValue.getName()));
+	}
+
+	@Override
+	public void onUpdateClass(Resource resource, ClassInfo oldValue, ClassInfo newValue) {
+		refresh(classEntryName(oldValue.getName()));
+		refresh(classEntryName(newValue.getName()));
+	}
+
+	@Override
+	public void onNewFile(Resource resource, FileInfo newValue) {
+		refresh(newValue.getName());
+	}
+
+	@Override
+	public void onRemoveFile(Resource resource, FileInfo oldValue) {
+		refresh(oldValue.getName());
+	}
+
+	@Override
+	public void onUpdateFile(Resource resource, FileInfo oldValue, FileInfo newValue) {
+		refresh(oldValue.getName());
+		refresh(newValue.getName());
+	}
+
+	private void addResourceListeners(Resource resource) {
+		resource.addClassListener(this);
+		resource.addFileListener(this);
+	}
+
+	private void removeResourceListeners(Resource resource) {
+		resource.removeClassListener(this);
+		resource.removeFileListener(this);
+	}
+
+	private synchronized void refresh(String name) {
+		LiteralInfo info = lookup(name);
+		if (info == null)
+			entries.remove(name);
+		else
+			entries.put(name, newEntry(name, info.getValue().length));
+		snapshot = null;
+	}
+
+	private static String classEntryName(String className) {
+		return className + ".class";
+	}
+
+	private static ZipEntry newEntry(ClassInfo info) {
+		return newEntry(classEntryName(info.getName()), info.getValue().length);
+	}
+
+	private static ZipEntry newEntry(FileInfo info) {
+		return newEntry(info.getName(), info.getValue().length);
+	}
+
+	private static ZipEntry newEntry(String name, int size) {
+		ZipEntry entry = new ZipEntry(name);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(size);
+		entry.setCompressedSize(size);
+		return entry;
+	}
+}
@@ -8,14 +8,56 @@ import me.coley.recaf.util.logging.Logging;
 import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Boot class loader that pulls data from remote JVM.
+ * <br>
+ * Classes are served from a {@link RemoteClassCache} when possible. On a miss, the class is requested
+ * together with the other classes it references, so that a chain of dependent lookups does not
+ * cost a round trip per class. When created with a path to the remote executable, the remote JVM
+ * is only started on the first miss, so a fully cached JDK never needs it.
  *
  * @author xDark
+ * @author Matt Coley
  */
 public final class RemoteBootClassLoader implements BootClassLoader {
 	private static final Logger logger = Logging.get(RemoteBootClassLoader.class);
-	private final JdkResourcesServer peer;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int MAX_PREFETCH = 256;
+	private static final String[] PREFETCH_PACKAGES = {"java/", "javax/", "jdk/", "sun/", "com/sun/"};
+	// Classes loaded by every VM during bootstrap, requested in bulk on the first miss
+	private static final String[] BOOTSTRAP_CLASSES = {
+			"java/lang/Object", "java/lang/String", "java/lang/Class", "java/lang/ClassLoader",
+			"java/lang/System", "java/lang/Thread", "java/lang/ThreadGroup", "java/lang/Throwable",
+			"java/lang/Error", "java/lang/Exception", "java/lang/RuntimeException",
+			"java/lang/Cloneable", "java/io/Serializable", "java/lang/Comparable", "java/lang/CharSequence",
+			"java/lang/Boolean", "java/lang/Byte", "java/lang/Character", "java/lang/Short",
+			"java/lang/Integer", "java/lang/Long", "java/lang/Float", "java/lang/Double", "java/lang/Number",
+			"java/lang/Void", "java/lang/Math", "java/lang/StringBuilder", "java/lang/AbstractStringBuilder",
+			"java/lang/StackTraceElement", "java/lang/Runtime", "java/lang/Shutdown",
+			"java/lang/ref/Reference", "java/lang/ref/SoftReference", "java/lang/ref/WeakReference",
+			"java/lang/ref/PhantomReference", "java/lang/ref/FinalReference", "java/lang/ref/Finalizer",
+			"java/lang/reflect/Method", "java/lang/reflect/Field", "java/lang/reflect/Constructor",
+			"java/lang/reflect/Executable", "java/lang/reflect/AccessibleObject",
+			"java/lang/invoke/MethodHandle", "java/lang/invoke/MethodHandles", "java/lang/invoke/MethodType",
+			"java/lang/invoke/MethodHandleNatives", "java/lang/invoke/MemberName",
+			"java/lang/invoke/CallSite", "java/lang/invoke/LambdaForm",
+			"java/util/Properties", "java/util/HashMap", "java/util/Hashtable", "java/util/ArrayList",
+			"java/util/concurrent/ConcurrentHashMap", "java/io/File", "java/io/FileDescriptor",
+			"java/io/FileInputStream", "java/io/FileOutputStream", "java/io/PrintStream",
+			"java/io/BufferedInputStream", "java/io/BufferedOutputStream", "java/net/URL",
+			"java/security/AccessController", "java/security/ProtectionDomain", "java/security/CodeSource",
+			"jdk/internal/misc/Unsafe", "jdk/internal/misc/VM", "jdk/internal/reflect/Reflection",
+			"sun/misc/Unsafe",
+	};
+	private final RemoteClassCache cache;
+	private final Path remoteJavaExecutable;
+	private JdkResourcesServer peer;
 
 	/**
 	 * @param peer
@@ -23,12 +65,26 @@ public final class RemoteBootClassLoader implements BootClassLoader {
 	 */
 	public RemoteBootClassLoader(JdkResourcesServer peer) {
 		this.peer = peer;
+		this.remoteJavaExecutable = null;
+		this.cache = RemoteClassCache.inMemory();
+	}
+
+	/**
+	 * @param remoteJavaExecutable
+	 * 		Path to {@code java} executable, started as the remote JVM peer on the first cache miss.
+	 * @param cache
+	 * 		Cache of remote resources.
+	 */
+	public RemoteBootClassLoader(Path remoteJavaExecutable, RemoteClassCache cache) {
+		this.remoteJavaExecutable = remoteJavaExecutable;
+		this.cache = cache;
 	}
 
 	@Override
 	public ClassParseResult findBootClass(String name) {
 		try {
-			byte[] resource = peer.requestResource(name + ".class");
+			String resourcePath = name + ".class";
+			byte[] resource = cache.contains(resourcePath) ? cache.get(resourcePath) : fetch(resourcePath);
 			if (resource == null) {
 				return null;
 			}
@@ -39,4 +95,78 @@ public final class RemoteBootClassLoader implements BootClassLoader {
 			return null;
 		}
 	}
+
+	/**
+	 * Shuts down the remote JVM peer, if it was started.
+	 *
+	 * @throws IOException
+	 * 		If any I/O error occurs.
+	 */
+	public synchronized void shutdown() throws IOException {
+		JdkResourcesServer peer = this.peer;
+		if (peer != null) {
+			this.peer = null;
+			peer.shutdown();
+		}
+	}
+
+	private synchronized byte[] fetch(String resourcePath) throws IOException {
+		// Another thread may have fetched it while this one waited
+		if (cache.contains(resourcePath))
+			return cache.get(resourcePath);
+		Set<String> request = new LinkedHashSet<>();
+		request.add(resourcePath);
+		if (peer == null) {
+			peer = JdkResourcesServer.start(remoteJavaExecutable);
+			for (String name : BOOTSTRAP_CLASSES) {
+				String path = name + ".class";
+				if (!cache.contains(path))
+					request.add(path);
+			}
+		}
+		byte[] resource = request(request).get(resourcePath);
+		if (resource != null) {
+			// Pull in referenced classes now, as they are likely to be the next misses
+			Set<String> references = new LinkedHashSet<>();
+			collectReferences(resource, references);
+			if (!references.isEmpty())
+				request(references);
+		}
+		return resource;
+	}
+
+	private Map<String, byte[]> request(Set<String> resourcePaths) throws IOException {
+		Map<String, byte[]> resources = peer.requestResources(resourcePaths);
+		resources.forEach(cache::put);
+		return resources;
+	}
+
+	private void collectReferences(byte[] resource, Set<String> references) {
+		ClassReader reader;
+		try {
+			reader = new ClassReader(resource);
+		} catch (Exception ex) {
+			return;
+		}
+		char[] buffer = new char[reader.getMaxStringLength()];
+		for (int i = 1; i < reader.getItemCount() && references.size() < MAX_PREFETCH; i++) {
+			int offset = reader.getItem(i);
+			// Second slot of long and double entries has no offset
+			if (offset == 0 || reader.readByte(offset - 1) != CONSTANT_CLASS)
+				continue;
+			String name = reader.readUTF8(offset, buffer);
+			if (name == null || name.charAt(0) == '[' || !isPrefetchable(name))
+				continue;
+			String path = name + ".class";
+			if (!cache.contains(path))
+				references.add(path);
+		}
+	}
+
+	private static boolean isPrefetchable(String name) {
+		for (String prefix : PREFETCH_PACKAGES)
+			if (name.startsWith(prefix))
+				return true;
+		return false;
+	}
 }
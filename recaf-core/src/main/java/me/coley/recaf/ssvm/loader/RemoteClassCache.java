@@ -0,0 +1,295 @@
+package me.coley.recaf.ssvm.loader;
+
+import dev.xdark.recaf.jdk.properties.JdkProperties;
+import me.coley.recaf.util.Directories;
+import me.coley.recaf.util.HashUtil;
+import me.coley.recaf.util.logging.Logging;
+import org.slf4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of resources pulled from a remote JVM, shared between all VMs created against that JVM.
+ * <br>
+ * When backed by a file, the cache is keyed by the location and modification time of the remote {@code java}
+ * executable, so it can be found without launching the executable. The properties of the remote JDK are stored
+ * along with the resources, so later launches against the same JDK can be served without contacting the remote JVM.
+ * Lookups of resources the remote JVM does not have are recorded too, so they are not repeated.
+ * Caches left behind by a JDK that has since been updated or removed are deleted when a cache is opened.
+ *
+ * @author Matt Coley
+ */
+public class RemoteClassCache {
+	private static final Logger logger = Logging.get(RemoteClassCache.class);
+	private static final int MAGIC = 0x52424333; // RBC3
+	private static final Path CACHE_DIR = Directories.getCacheDirectory().resolve("jdk");
+	private static final byte[] MISSING = new byte[0];
+	private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+	private final Path path;
+	private final String jdkKey;
+	private final String executable;
+	private volatile JdkProperties properties;
+	private volatile boolean dirty;
+
+	private RemoteClassCache(Path path, String jdkKey, String executable) {
+		this.path = path;
+		this.jdkKey = jdkKey;
+		this.executable = executable;
+	}
+
+	/**
+	 * @return Cache that is not persisted.
+	 */
+	public static RemoteClassCache inMemory() {
+		return new RemoteClassCache(null, null, null);
+	}
+
+	/**
+	 * @param remoteJavaExecutable
+	 * 		Path to the remote {@code java} executable.
+	 *
+	 * @return Cache for the remote JDK, populated from a prior {@link #save()} against the same executable
+	 * if one exists. If the executable cannot be read, the cache is not persisted.
+	 */
+	public static RemoteClassCache open(Path remoteJavaExecutable) {
+		String jdkKey;
+		Path executable;
+		try {
+			// Updating the JDK in place changes the executable, which invalidates the cache
+			executable = remoteJavaExecutable.toRealPath();
+			jdkKey = HashUtil.sha256(
+					executable.toString(),
+					String.valueOf(Files.getLastModifiedTime(executable).toMillis()),
+					String.valueOf(Files.size(executable)));
+		} catch (IOException ex) {
+			logger.warn("Failed to read remote JDK executable, its resources will not be cached: {}",
+					remoteJavaExecutable, ex);
+			return inMemory();
+		}
+		Path path = CACHE_DIR.resolve(jdkKey + ".bin");
+		prune(path, executable.toString());
+		RemoteClassCache cache = new RemoteClassCache(path, jdkKey, executable.toString());
+		cache.load();
+		return cache;
+	}
+
+	/**
+	 * Deletes caches in an older format, of JDKs that no longer exist,
+	 * and of prior versions of the given executable.
+	 *
+	 * @param current
+	 * 		Cache file of the current executable version, which is kept.
+	 * @param executable
+	 * 		Path to the executable.
+	 */
+	private static void prune(Path current, String executable) {
+		if (!Files.isDirectory(CACHE_DIR))
+			return;
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(CACHE_DIR, "*.bin")) {
+			for (Path file : stream) {
+				if (file.equals(current))
+					continue;
+				String owner = readExecutable(file);
+				if (owner == null || owner.equals(executable) || !Files.exists(Path.of(owner))) {
+					logger.debug("Deleting outdated remote JDK cache: {}", file);
+					Files.deleteIfExists(file);
+				}
+			}
+		} catch (IOException | RuntimeException ex) {
+			logger.debug("Failed to prune remote JDK caches", ex);
+		}
+	}
+
+	/**
+	 * @param file
+	 * 		Cache file.
+	 *
+	 * @return Path of the executable the cache was made for, or {@code null} when the file is not in the current format.
+	 */
+	private static String readExecutable(Path file) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC)
+				return null;
+			readString(in);
+			return readString(in);
+		} catch (IOException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return Properties of the remote JDK, or {@code null} when not yet known.
+	 */
+	public JdkProperties getProperties() {
+		return properties;
+	}
+
+	/**
+	 * @param properties
+	 * 		Properties of the remote JDK.
+	 */
+	public void setProperties(JdkProperties properties) {
+		this.properties = properties;
+		dirty = true;
+	}
+
+	/**
+	 * @param resourcePath
+	 * 		Remote resource path.
+	 *
+	 * @return {@code true} when the result of requesting the resource is known,
+	 * including when the remote JVM is known to not have it.
+	 */
+	public boolean contains(String resourcePath) {
+		return entries.containsKey(resourcePath);
+	}
+
+	/**
+	 * @param resourcePath
+	 * 		Remote resource path.
+	 *
+	 * @return Resource content, or {@code null} when not cached or the remote JVM does not have the resource.
+	 */
+	public byte[] get(String resourcePath) {
+		byte[] content = entries.get(resourcePath);
+		return content == MISSING ? null : content;
+	}
+
+	/**
+	 * @param resourcePath
+	 * 		Remote resource path.
+	 * @param content
+	 * 		Resource content, or {@code null} when the remote JVM does not have the resource.
+	 */
+	public void put(String resourcePath, byte[] content) {
+		entries.put(resourcePath, content == null ? MISSING : content);
+		dirty = true;
+	}
+
+	/**
+	 * @return Number of cached lookups.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Write the cache to disk, if it is file backed and has changed since it was last loaded or saved.
+	 */
+	public synchronized void save() {
+		if (path == null || !dirty)
+			return;
+		dirty = false;
+		try {
+			Files.createDirectories(CACHE_DIR);
+			// Write to a temporary file first so concurrent readers never see partial entries
+			Path temp = Files.createTempFile(CACHE_DIR, "jdk", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				Map<String, byte[]> snapshot = Map.copyOf(entries);
+				out.writeInt(MAGIC);
+				writeString(out, jdkKey);
+				writeString(out, executable);
+				JdkProperties properties = this.properties;
+				if (properties == null) {
+					out.writeInt(-1);
+				} else {
+					writeMap(out, properties.getSystemProperties());
+					writeMap(out, properties.getEnvironment());
+				}
+				out.writeInt(snapshot.size());
+				for (Map.Entry<String, byte[]> entry : snapshot.entrySet()) {
+					byte[] content = entry.getValue();
+					writeString(out, entry.getKey());
+					if (content == MISSING) {
+						out.writeInt(-1);
+					} else {
+						out.writeInt(content.length);
+						out.write(content);
+					}
+				}
+			} catch (IOException | RuntimeException ex) {
+				Files.deleteIfExists(temp);
+				throw ex;
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			logger.debug("Saved {} remote JDK resources to {}", entries.size(), path);
+		} catch (IOException ex) {
+			dirty = true;
+			logger.warn("Failed to write remote JDK cache: {}", path, ex);
+		}
+	}
+
+	private void load() {
+		if (!Files.isRegularFile(path))
+			return;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Unknown cache format");
+			if (!jdkKey.equals(readString(in)))
+				throw new IOException("Cache belongs to a different JDK");
+			readString(in);
+			Map<String, String> system = readMap(in);
+			if (system != null)
+				properties = new JdkProperties(system, readMap(in));
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String resourcePath = readString(in);
+				int length = in.readInt();
+				if (length < 0) {
+					entries.put(resourcePath, MISSING);
+				} else {
+					byte[] content = new byte[length];
+					in.readFully(content);
+					entries.put(resourcePath, content);
+				}
+			}
+			logger.debug("Loaded {} remote JDK resources from {}", count, path);
+		} catch (IOException ex) {
+			entries.clear();
+			properties = null;
+			logger.debug("Discarding unreadable remote JDK cache: {}", path, ex);
+		}
+	}
+
+	private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+		out.writeInt(map.size());
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			writeString(out, entry.getKey());
+			writeString(out, entry.getValue());
+		}
+	}
+
+	private static Map<String, String> readMap(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		if (count < 0)
+			return null;
+		Map<String, String> map = new HashMap<>(count);
+		for (int i = 0; i < count; i++)
+			map.put(readString(in), readString(in));
+		return map;
+	}
+
+	// Unlike 'writeUTF', strings are not limited to 64 KB, which long environment values like 'PATH' can exceed
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0)
+			throw new IOException("Invalid string length: " + length);
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,200 @@
+package me.coley.recaf.util;
+
+import me.coley.recaf.Controller;
+import me.coley.recaf.code.ClassInfo;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.ThreadUtil;
+import me.coley.recaf.util.visitor.WorkspaceClassWriter;
+import me.coley.recaf.workspace.resource.Resource;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Applies a transformation to many classes of a {@link Resource} in parallel.
+ * Transformed classes are collected into a {@link Result}, which can then be
+ * {@link Result#commit() committed} back to the resource as a single batched update.
+ *
+ * @author Matt Coley
+ */
+public class BulkTransformer {
+	private static final Logger logger = Logging.get(BulkTransformer.class);
+	private final Controller controller;
+	private final Resource resource;
+	private Predicate<ClassInfo> filter = info -> true;
+	private int readFlags;
+	private int writeFlags;
+
+	/**
+	 * @param controller
+	 * 		Controller to pull the workspace inheritance graph from, used when computing frames.
+	 * @param resource
+	 * 		Resource containing classes to transform.
+	 */
+	public BulkTransformer(Controller controller, Resource resource) {
+		this.controller = controller;
+		this.resource = resource;
+	}
+
+	/**
+	 * @param filter
+	 * 		Filter of classes to transform. By default, all classes are transformed.
+	 *
+	 * @return Self.
+	 */
+	public BulkTransformer withFilter(Predicate<ClassInfo> filter) {
+		this.filter = filter;
+		return this;
+	}
+
+	/**
+	 * @param readFlags
+	 *        {@link ClassReader} flags.
+	 *
+	 * @return Self.
+	 */
+	public BulkTransformer withReadFlags(int readFlags) {
+		this.readFlags = readFlags;
+		return this;
+	}
+
+	/**
+	 * @param writeFlags
+	 *        {@link ClassWriter} flags.
+	 *
+	 * @return Self.
+	 */
+	public BulkTransformer withWriteFlags(int writeFlags) {
+		this.writeFlags = writeFlags;
+		return this;
+	}
+
+	/**
+	 * Transform classes by passing them through a visitor chain.
+	 * Classes with output identical to their input are not included in the result.
+	 *
+	 * @param visitorFactory
+	 * 		Function wrapping the given class writer in a visitor that applies the transformation.
+	 * 		Called once per class, and may be called concurrently.
+	 *
+	 * @return Transformation result.
+	 */
+	public Result visit(Function<ClassVisitor, ClassVisitor> visitorFactory) {
+		return run(info -> {
+			ClassReader reader = info.getClassReader();
+			// Passing the reader allows unmodified methods to be copied as-is
+			ClassWriter writer = new WorkspaceClassWriter(controller, reader, writeFlags);
+			reader.accept(visitorFactory.apply(writer), readFlags);
+			byte[] modified = writer.toByteArray();
+			return Arrays.equals(info.getValue(), modified) ? null : modified;
+		});
+	}
+
+	/**
+	 * Transform classes by modifying their tree representation.
+	 *
+	 * @param transformer
+	 * 		Function modifying the given class node, returning {@code true} if the node was modified.
+	 * 		Called once per class, and may be called concurrently.
+	 *
+	 * @return Transformation result.
+	 */
+	public Result transform(Predicate<ClassNode> transformer) {
+		return run(info -> {
+			ClassNode node = new ClassNode();
+			info.getClassReader().accept(node, readFlags);
+			if (!transformer.test(node))
+				return null;
+			ClassWriter writer = new WorkspaceClassWriter(controller, writeFlags);
+			node.accept(writer);
+			return writer.toByteArray();
+		});
+	}
+
+	private Result run(Function<ClassInfo, byte[]> action) {
+		long start = System.currentTimeMillis();
+		Map<String, ClassInfo> outputs = new ConcurrentHashMap<>();
+		Map<String, Throwable> failures = new ConcurrentHashMap<>();
+		ExecutorService service = ThreadUtil.phasingService();
+		int count = 0;
+		for (ClassInfo info : new ArrayList<>(resource.getClasses().values())) {
+			if (!filter.test(info))
+				continue;
+			count++;
+			service.execute(() -> {
+				String name = info.getName();
+				try {
+					byte[] modified = action.apply(info);
+					if (modified == null)
+						return;
+					ClassInfo modifiedInfo = ClassInfo.read(modified);
+					if (!name.equals(modifiedInfo.getName()))
+						throw new IllegalStateException("Bulk transforms cannot rename classes, use mappings instead");
+					outputs.put(name, modifiedInfo);
+				} catch (Throwable t) {
+					failures.put(name, t);
+				}
+			});
+		}
+		ThreadUtil.blockUntilComplete(service);
+		logger.info("Bulk transform of {} classes completed in {}ms, {} modified, {} failed",
+				count, System.currentTimeMillis() - start, outputs.size(), failures.size());
+		return new Result(resource, outputs, failures);
+	}
+
+	/**
+	 * Outputs of a bulk transformation, which are not yet applied to the resource.
+	 */
+	public static class Result {
+		private final Resource resource;
+		private final Map<String, ClassInfo> outputs;
+		private final Map<String, Throwable> failures;
+
+		private Result(Resource resource, Map<String, ClassInfo> outputs, Map<String, Throwable> failures) {
+			this.resource = resource;
+			this.outputs = new TreeMap<>(outputs);
+			this.failures = new TreeMap<>(failures);
+		}
+
+		/**
+		 * Put all modified classes into the resource as a single batched update.
+		 *
+		 * @return Self.
+		 */
+		public Result commit() {
+			if (!outputs.isEmpty())
+				resource.getClasses().putBatch(outputs.values());
+			return this;
+		}
+
+		/**
+		 * @return Map of class names to their transformed class.
+		 * Only includes classes that were modified by the transformation.
+		 */
+		public Map<String, ClassInfo> getModified() {
+			return Collections.unmodifiableMap(outputs);
+		}
+
+		/**
+		 * @return Map of class names to the error encountered when transforming them.
+		 */
+		public Map<String, Throwable> getFailures() {
+			return Collections.unmodifiableMap(failures);
+		}
+
+		/**
+		 * @return {@code true} when any class failed to be transformed.
+		 */
+		public boolean hasFailures() {
+			return !failures.isEmpty();
+		}
+	}
+}
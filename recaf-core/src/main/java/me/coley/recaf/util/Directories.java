@@ -18,6 +18,7 @@ public class Directories {
 	private static final Logger logger = Logging.get(Directories.class);
 	private static final Path baseDirectory = createBaseDirectory();
 	private static final Path agentDirectory = resolveDirectory("agent");
+	private static final Path cacheDirectory = resolveDirectory("cache");
 	private static final Path classpathDirectory = resolveDirectory("classpath");
 	private static final Path configDirectory = resolveDirectory("config");
 	private static final Path dependenciesDirectory = resolveDirectory("dependencies");
@@ -83,6 +84,13 @@ public class Directories {
 		return styleDirectory;
 	}
 
+	/**
+	 * @return Directory where generated content is cached between runs. Contents may be deleted at any time.
+	 */
+	public static Path getCacheDirectory() {
+		return cacheDirectory;
+	}
+
 	/**
 	 * @return Directory where scripts are stored.
 	 */
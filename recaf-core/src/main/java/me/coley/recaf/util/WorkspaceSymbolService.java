@@ -0,0 +1,245 @@
+package me.coley.recaf.util;
+
+import me.coley.recaf.code.*;
+import me.coley.recaf.util.threading.ThreadUtil;
+import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.WorkspaceListener;
+import me.coley.recaf.workspace.resource.Resource;
+import me.coley.recaf.workspace.resource.ResourceClassListener;
+import me.coley.recaf.workspace.resource.ResourceDexClassListener;
+import me.coley.recaf.workspace.resource.Resources;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Keeps an up-to-date {@link SymbolIndex} of class and member names for the current {@link Workspace},
+ * along with a shared index of system classes. Used for fast completion and navigation lookups.
+ *
+ * @author Matt Coley
+ */
+public class WorkspaceSymbolService implements WorkspaceListener, ResourceClassListener, ResourceDexClassListener {
+	private static volatile SymbolIndex<String> systemClasses;
+	private final SymbolIndex<String> classes = new SymbolIndex<>();
+	private final SymbolIndex<MemberInfo> members = new SymbolIndex<>();
+	// Resources containing each indexed class. A class in multiple resources stays indexed until
+	// it has been removed from all of them.
+	private final Map<String, Set<Resource>> classResources = new HashMap<>();
+	private final Workspace workspace;
+	private final CompletableFuture<?> future;
+
+	/**
+	 * @param workspace
+	 * 		Initial workspace.
+	 */
+	public WorkspaceSymbolService(Workspace workspace) {
+		this.workspace = workspace;
+		workspace.addListener(this);
+		for (Resource resource : workspace.getResources()) {
+			resource.addClassListener(this);
+			resource.addDexListener(this);
+		}
+		// Populate on a new thread to avoid locking the ui thread
+		future = ThreadUtil.run(() -> {
+			getSystemClasses();
+			Resources resources = workspace.getResources();
+			List<Resource> indexed = new ArrayList<>();
+			indexed.add(resources.getPrimary());
+			indexed.addAll(resources.getLibraries());
+			for (Resource resource : indexed) {
+				Streams.interruptable(resource.getClasses().stream()).forEach(info -> add(resource, info));
+				Streams.interruptable(resource.getDexClasses().stream()).forEach(info -> add(resource, info));
+			}
+		});
+	}
+
+	/**
+	 * @param query
+	 * 		Class name search text. Can be a simple name, a qualified name, or camel-hump initials.
+	 * @param limit
+	 * 		Maximum number of results.
+	 *
+	 * @return Names of best matching workspace and system classes, with workspace classes ranked first.
+	 */
+	public List<String> searchClasses(String query, int limit) {
+		Set<String> results = new LinkedHashSet<>(classes.search(query, limit));
+		// System classes are only included once their index is built, so lookups never wait on it
+		SymbolIndex<String> system = systemClasses;
+		if (system != null && results.size() < limit)
+			results.addAll(system.search(query, limit - results.size()));
+		return new ArrayList<>(results);
+	}
+
+	/**
+	 * @param query
+	 * 		Class name search text. Can be a simple name, a qualified name, or camel-hump initials.
+	 * @param limit
+	 * 		Maximum number of results.
+	 * @param filter
+	 * 		Filter for class names to include.
+	 *
+	 * @return Names of best matching workspace classes.
+	 */
+	public List<String> searchWorkspaceClasses(String query, int limit, Predicate<String> filter) {
+		return classes.search(query, limit, filter);
+	}
+
+	/**
+	 * @param query
+	 * 		Member name search text.
+	 * @param limit
+	 * 		Maximum number of results.
+	 *
+	 * @return Best matching workspace members.
+	 */
+	public List<MemberInfo> searchMembers(String query, int limit) {
+		return members.search(query, limit);
+	}
+
+	/**
+	 * @param query
+	 * 		Member name search text.
+	 * @param limit
+	 * 		Maximum number of results.
+	 * @param filter
+	 * 		Filter for members to include.
+	 *
+	 * @return Best matching workspace members.
+	 */
+	public List<MemberInfo> searchMembers(String query, int limit, Predicate<MemberInfo> filter) {
+		return members.search(query, limit, filter);
+	}
+
+	/**
+	 * @return {@code true} when the initial population of the index is complete.
+	 */
+	public boolean isReady() {
+		return future.isDone();
+	}
+
+	/**
+	 * Stop listening to the workspace.
+	 */
+	public void cleanup() {
+		future.cancel(true);
+		workspace.removeListener(this);
+		for (Resource resource : workspace.getResources())
+			removeResourceListeners(resource);
+	}
+
+	@Override
+	public void onAddLibrary(Workspace workspace, Resource library) {
+		library.addClassListener(this);
+		library.addDexListener(this);
+		ThreadUtil.run(() -> {
+			library.getClasses().values().forEach(info -> add(library, info));
+			library.getDexClasses().values().forEach(info -> add(library, info));
+		});
+	}
+
+	@Override
+	public void onRemoveLibrary(Workspace workspace, Resource library) {
+		removeResourceListeners(library);
+		ThreadUtil.run(() -> {
+			library.getClasses().values().forEach(info -> remove(library, info));
+			library.getDexClasses().values().forEach(info -> remove(library, info));
+		});
+	}
+
+	@Override
+	public void onNewClass(Resource resource, ClassInfo newValue) {
+		add(resource, newValue);
+	}
+
+	@Override
+	public void onRemoveClass(Resource resource, ClassInfo oldValue) {
+		remove(resource, oldValue);
+	}
+
+	@Override
+	public void onUpdateClass(Resource resource, ClassInfo oldValue, ClassInfo newValue) {
+		remove(resource, oldValue);
+		add(resource, newValue);
+	}
+
+	@Override
+	public void onNewDexClass(Resource resource, String dexName, DexClassInfo newValue) {
+		add(resource, newValue);
+	}
+
+	@Override
+	public void onRemoveDexClass(Resource resource, String dexName, DexClassInfo oldValue) {
+		remove(resource, oldValue);
+	}
+
+	@Override
+	public void onUpdateDexClass(Resource resource, String dexName, DexClassInfo oldValue, DexClassInfo newValue) {
+		remove(resource, oldValue);
+		add(resource, newValue);
+	}
+
+	private void removeResourceListeners(Resource resource) {
+		resource.removeClassListener(this);
+		resource.removeDexListener(this);
+	}
+
+	private synchronized void add(Resource resource, CommonClassInfo info) {
+		classResources.computeIfAbsent(info.getName(), n -> new HashSet<>()).add(resource);
+		index(info);
+	}
+
+	private synchronized void remove(Resource resource, CommonClassInfo info) {
+		String name = info.getName();
+		Set<Resource> resources = classResources.get(name);
+		if (resources == null || !resources.remove(resource))
+			return;
+		unindex(info);
+		if (resources.isEmpty()) {
+			classResources.remove(name);
+			return;
+		}
+		// Still present in another resource, so index that version instead
+		Resource remaining = resources.iterator().next();
+		CommonClassInfo other = remaining.getClasses().get(name);
+		if (other == null)
+			other = remaining.getDexClasses().get(name);
+		if (other != null)
+			index(other);
+	}
+
+	private void index(CommonClassInfo info) {
+		String name = info.getName();
+		classes.add(name, simpleName(name), name);
+		for (FieldInfo field : info.getFields())
+			members.add(field, field.getName());
+		for (MethodInfo method : info.getMethods())
+			members.add(method, method.getName());
+	}
+
+	private void unindex(CommonClassInfo info) {
+		classes.remove(info.getName());
+		for (FieldInfo field : info.getFields())
+			members.remove(field);
+		for (MethodInfo method : info.getMethods())
+			members.remove(method);
+	}
+
+	private static String simpleName(String name) {
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * @return Index of system classes, shared between all workspaces.
+	 */
+	private static synchronized SymbolIndex<String> getSystemClasses() {
+		if (systemClasses == null) {
+			SymbolIndex<String> index = new SymbolIndex<>();
+			ClasspathUtil.getSystemClasses().getAllLeaves()
+					.map(ClasspathUtil.Tree::getFullValue)
+					.forEach(name -> index.add(name, simpleName(name), name));
+			systemClasses = index;
+		}
+		return systemClasses;
+	}
+}
@@ -4,9 +4,12 @@ import me.coley.recaf.code.ClassInfo;
 import me.coley.recaf.util.threading.ThreadUtil;
 import me.coley.recaf.workspace.Workspace;
 import me.coley.recaf.workspace.WorkspaceListener;
+import me.coley.recaf.workspace.resource.ItemChangeSet;
 import me.coley.recaf.workspace.resource.Resource;
 import me.coley.recaf.workspace.resource.ResourceClassListener;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
@@ -60,6 +63,19 @@ public class WorkspaceTreeService implements WorkspaceListener, ResourceClassLis
 		// no-op
 	}
 
+	@Override
+	public void onClassChanges(Resource resource, ItemChangeSet<ClassInfo> changes) {
+		// Only added and removed classes affect the tree, and they can all be handled in one update
+		if (changes.getAdded().isEmpty() && changes.getRemoved().isEmpty())
+			return;
+		List<String> added = new ArrayList<>(changes.getAdded().keySet());
+		List<String> removed = new ArrayList<>(changes.getRemoved().keySet());
+		scheduleTreeUpdate(tree -> {
+			removed.forEach(tree::trimPath);
+			added.forEach(tree::visitPath);
+		});
+	}
+
 	private void scheduleTreeUpdate(Consumer<ClasspathUtil.Tree> operation) {
 		if (future == null)
 			scheduleNewTree();
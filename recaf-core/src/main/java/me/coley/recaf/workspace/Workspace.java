@@ -31,6 +31,9 @@ public class Workspace {
 		listeners.clear();
 		resources.getPrimary().clearListeners();
 		resources.getLibraries().forEach(Resource::clearListeners);
+		// Release history revisions, so their storage can be reclaimed
+		resources.getPrimary().disposeHistory();
+		resources.getLibraries().forEach(Resource::disposeHistory);
 	}
 
 	/**
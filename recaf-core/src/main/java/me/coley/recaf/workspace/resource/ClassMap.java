@@ -11,6 +11,18 @@ import java.util.Map;
  * @author Matt Coley
  */
 public class ClassMap extends ResourceItemMap<ClassInfo> {
+	private static final HistoryCodec<ClassInfo> CODEC = new HistoryCodec<>() {
+		@Override
+		public byte[] encode(ClassInfo item) {
+			return item.getValue();
+		}
+
+		@Override
+		public ClassInfo decode(String name, byte[] data) {
+			return ClassInfo.read(data);
+		}
+	};
+
 	/**
 	 * @param container
 	 * 		Parent resource.
@@ -28,4 +40,9 @@ public class ClassMap extends ResourceItemMap<ClassInfo> {
 	public ClassMap(Resource container, Map<String, ClassInfo> backing) {
 		super(container, backing);
 	}
+
+	@Override
+	protected HistoryCodec<ClassInfo> getHistoryCodec() {
+		return CODEC;
+	}
 }
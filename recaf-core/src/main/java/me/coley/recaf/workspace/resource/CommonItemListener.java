@@ -24,6 +24,11 @@ public abstract class CommonItemListener<I extends ItemInfo> {
 	 */
 	public static CommonItemListener<ClassInfo> wrapClass(ResourceClassListener listener) {
 		return new CommonItemListener<ClassInfo>() {
+			@Override
+			boolean wraps(Object delegate) {
+				return delegate == listener;
+			}
+
 			@Override
 			void onNewItem(Resource resource, ClassInfo newValue) {
 				listener.onNewClass(resource, newValue);
@@ -38,6 +43,11 @@ public abstract class CommonItemListener<I extends ItemInfo> {
 			void onUpdateItem(Resource resource, ClassInfo oldValue, ClassInfo newValue) {
 				listener.onUpdateClass(resource, oldValue, newValue);
 			}
+
+			@Override
+			void onChangeItems(Resource resource, ItemChangeSet<ClassInfo> changes) {
+				listener.onClassChanges(resource, changes);
+			}
 		};
 	}
 
@@ -53,6 +63,11 @@ public abstract class CommonItemListener<I extends ItemInfo> {
 	 */
 	public static CommonItemListener<DexClassInfo> wrapDex(String dexName, ResourceDexClassListener listener) {
 		return new CommonItemListener<DexClassInfo>() {
+			@Override
+			boolean wraps(Object delegate) {
+				return delegate == listener;
+			}
+
 			@Override
 			void onNewItem(Resource resource, DexClassInfo newValue) {
 				listener.onNewDexClass(resource, dexName, newValue);
@@ -80,6 +95,11 @@ public abstract class CommonItemListener<I extends ItemInfo> {
 	 */
 	public static CommonItemListener<FileInfo> wrapFile(ResourceFileListener listener) {
 		return new CommonItemListener<FileInfo>() {
+			@Override
+			boolean wraps(Object delegate) {
+				return delegate == listener;
+			}
+
 			@Override
 			void onNewItem(Resource resource, FileInfo newValue) {
 				listener.onNewFile(resource, newValue);
@@ -94,9 +114,24 @@ public abstract class CommonItemListener<I extends ItemInfo> {
 			void onUpdateItem(Resource resource, FileInfo oldValue, FileInfo newValue) {
 				listener.onUpdateFile(resource, oldValue, newValue);
 			}
+
+			@Override
+			void onChangeItems(Resource resource, ItemChangeSet<FileInfo> changes) {
+				listener.onFileChanges(resource, changes);
+			}
 		};
 	}
 
+	/**
+	 * @param delegate
+	 * 		Some listener.
+	 *
+	 * @return {@code true} when this listener is a wrapper delegating to the given listener.
+	 */
+	boolean wraps(Object delegate) {
+		return false;
+	}
+
 	/**
 	 * Called when a new value is added.
 	 *
@@ -128,4 +163,21 @@ public abstract class CommonItemListener<I extends ItemInfo> {
 	 * 		New item value.
 	 */
 	abstract void onUpdateItem(Resource resource, I oldValue, I newValue);
+
+	/**
+	 * Called when a batch update completes.
+	 * By default, this delegates to {@link #onRemoveItem(Resource, ItemInfo)},
+	 * {@link #onNewItem(Resource, ItemInfo)} and {@link #onUpdateItem(Resource, ItemInfo, ItemInfo)} for each item.
+	 *
+	 * @param resource
+	 * 		Resource affected.
+	 * @param changes
+	 * 		Net changes made in the batch.
+	 */
+	void onChangeItems(Resource resource, ItemChangeSet<I> changes) {
+		changes.getRemoved().values().forEach(oldValue -> onRemoveItem(resource, oldValue));
+		changes.getAdded().values().forEach(newValue -> onNewItem(resource, newValue));
+		changes.getUpdatedNew().forEach((key, newValue) ->
+				onUpdateItem(resource, changes.getUpdatedOld().get(key), newValue));
+	}
 }
@@ -10,6 +10,18 @@ import java.util.HashMap;
  * @author Matt Coley
  */
 public class FileMap extends ResourceItemMap<FileInfo> {
+	private static final HistoryCodec<FileInfo> CODEC = new HistoryCodec<>() {
+		@Override
+		public byte[] encode(FileInfo item) {
+			return item.getValue();
+		}
+
+		@Override
+		public FileInfo decode(String name, byte[] data) {
+			return new FileInfo(name, data);
+		}
+	};
+
 	/**
 	 * @param container
 	 * 		Parent resource.
@@ -17,4 +29,9 @@ public class FileMap extends ResourceItemMap<FileInfo> {
 	protected FileMap(Resource container) {
 		super(container, new HashMap<>());
 	}
+
+	@Override
+	protected HistoryCodec<FileInfo> getHistoryCodec() {
+		return CODEC;
+	}
 }
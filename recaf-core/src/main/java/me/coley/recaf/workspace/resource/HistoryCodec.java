@@ -0,0 +1,31 @@
+package me.coley.recaf.workspace.resource;
+
+import me.coley.recaf.code.ItemInfo;
+
+/**
+ * Binary form of items, allowing {@link ItemHistory} to store older revisions as compact deltas.
+ *
+ * @param <I>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+public interface HistoryCodec<I extends ItemInfo> {
+	/**
+	 * @param item
+	 * 		Item to encode.
+	 *
+	 * @return Binary content of the item.
+	 */
+	byte[] encode(I item);
+
+	/**
+	 * @param name
+	 * 		Item name.
+	 * @param data
+	 * 		Binary content of the item, from {@link #encode(ItemInfo)}.
+	 *
+	 * @return Item instance.
+	 */
+	I decode(String name, byte[] data);
+}
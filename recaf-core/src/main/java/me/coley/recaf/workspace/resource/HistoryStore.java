@@ -0,0 +1,167 @@
+package me.coley.recaf.workspace.resource;
+
+import me.coley.recaf.util.logging.Logging;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Storage of older {@link ItemHistory} revisions, shared by all resources.
+ * Revisions are held in memory up to the {@link #setMemoryBudget(long) memory budget}, after which the oldest
+ * are moved to a temporary file that is deleted when Recaf exits. Once none of the revisions in the file
+ * are referenced, such as after the workspace is closed, the file is truncated and reused.
+ *
+ * @author Matt Coley
+ */
+class HistoryStore {
+	private static final Logger logger = Logging.get(HistoryStore.class);
+	private static final Set<Entry> inMemory = new LinkedHashSet<>();
+	private static long memoryBudget = 32L * 1024 * 1024;
+	private static long inMemoryBytes;
+	private static int spilledCount;
+	private static FileChannel spillChannel;
+	private static boolean spillFailed;
+
+	/**
+	 * @param data
+	 * 		Revision content.
+	 *
+	 * @return Handle to the stored content.
+	 */
+	static synchronized Entry store(byte[] data) {
+		Entry entry = new Entry(data);
+		inMemory.add(entry);
+		inMemoryBytes += data.length;
+		trim();
+		return entry;
+	}
+
+	/**
+	 * @param entry
+	 * 		Handle to stored content.
+	 *
+	 * @return Revision content.
+	 */
+	static synchronized byte[] load(Entry entry) {
+		if (entry.data != null)
+			return entry.data;
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+			while (buffer.hasRemaining()) {
+				if (spillChannel.read(buffer, entry.offset + buffer.position()) < 0)
+					throw new IOException("Unexpected end of history file");
+			}
+			return buffer.array();
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Failed to read spilled history revision", ex);
+		}
+	}
+
+	/**
+	 * Release stored content.
+	 *
+	 * @param entry
+	 * 		Handle to stored content.
+	 */
+	static synchronized void release(Entry entry) {
+		if (entry.released)
+			return;
+		entry.released = true;
+		if (entry.data != null && inMemory.remove(entry))
+			inMemoryBytes -= entry.data.length;
+		entry.data = null;
+		if (entry.offset >= 0 && --spilledCount == 0)
+			recycleSpillFile();
+	}
+
+	/**
+	 * @param memoryBudget
+	 * 		Bytes of revisions to keep in memory, before moving them to a temporary file.
+	 */
+	static synchronized void setMemoryBudget(long memoryBudget) {
+		HistoryStore.memoryBudget = Math.max(0, memoryBudget);
+		trim();
+	}
+
+	/**
+	 * @return Bytes of revisions to keep in memory, before moving them to a temporary file.
+	 */
+	static synchronized long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * @return Bytes of revisions held in memory.
+	 */
+	static synchronized long getInMemoryBytes() {
+		return inMemoryBytes;
+	}
+
+	private static void trim() {
+		if (spillFailed)
+			return;
+		Iterator<Entry> iterator = inMemory.iterator();
+		while (inMemoryBytes > memoryBudget && iterator.hasNext()) {
+			Entry entry = iterator.next();
+			try {
+				spill(entry);
+			} catch (IOException ex) {
+				// Keep everything in memory rather than fail edits
+				logger.warn("Failed to move history to temporary file, history will be kept in memory", ex);
+				spillFailed = true;
+				return;
+			}
+			iterator.remove();
+			inMemoryBytes -= entry.length;
+			entry.data = null;
+		}
+	}
+
+	private static void spill(Entry entry) throws IOException {
+		if (spillChannel == null) {
+			Path path = Files.createTempFile("recaf-history", ".bin");
+			path.toFile().deleteOnExit();
+			spillChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+					StandardOpenOption.DELETE_ON_CLOSE);
+		}
+		long offset = spillChannel.size();
+		ByteBuffer buffer = ByteBuffer.wrap(entry.data);
+		while (buffer.hasRemaining())
+			spillChannel.write(buffer, offset + buffer.position());
+		entry.offset = offset;
+		spilledCount++;
+	}
+
+	private static void recycleSpillFile() {
+		// No spilled revision is referenced anymore, so new revisions can be written from the start
+		try {
+			spillChannel.truncate(0);
+		} catch (IOException ex) {
+			logger.warn("Failed to truncate history temporary file", ex);
+		}
+	}
+
+	/**
+	 * Handle to stored content.
+	 */
+	static final class Entry {
+		private final int length;
+		private byte[] data;
+		private long offset = -1;
+		private boolean released;
+
+		private Entry(byte[] data) {
+			this.data = data;
+			this.length = data.length;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package me.coley.recaf.workspace.resource;
+
+import me.coley.recaf.code.ItemInfo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Net changes made to a {@link ResourceItemMap} during a batch update.
+ * Multiple operations on the same key are coalesced, so each key appears at most once:
+ * <ul>
+ *     <li>Adding then removing an item yields no change.</li>
+ *     <li>Removing then adding an item yields an update.</li>
+ *     <li>Repeated updates yield a single update from the original value to the final one.</li>
+ * </ul>
+ *
+ * @param <I>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+public class ItemChangeSet<I extends ItemInfo> {
+	private final Map<String, I> added = new LinkedHashMap<>();
+	private final Map<String, I> removed = new LinkedHashMap<>();
+	private final Map<String, I> updatedOld = new LinkedHashMap<>();
+	private final Map<String, I> updatedNew = new LinkedHashMap<>();
+
+	void recordPut(String key, I oldValue, I newValue) {
+		if (oldValue == null) {
+			I removedValue = removed.remove(key);
+			if (removedValue != null) {
+				updatedOld.put(key, removedValue);
+				updatedNew.put(key, newValue);
+			} else {
+				added.put(key, newValue);
+			}
+		} else if (added.containsKey(key)) {
+			added.put(key, newValue);
+		} else {
+			updatedOld.putIfAbsent(key, oldValue);
+			updatedNew.put(key, newValue);
+		}
+	}
+
+	void recordRemove(String key, I oldValue) {
+		if (added.remove(key) != null)
+			return;
+		I originalValue = updatedOld.remove(key);
+		updatedNew.remove(key);
+		removed.put(key, originalValue != null ? originalValue : oldValue);
+	}
+
+	/**
+	 * @return {@code true} when there are no net changes.
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && updatedNew.isEmpty();
+	}
+
+	/**
+	 * @return Total number of added, removed and updated items.
+	 */
+	public int size() {
+		return added.size() + removed.size() + updatedNew.size();
+	}
+
+	/**
+	 * @return Map of keys to items that were added.
+	 */
+	public Map<String, I> getAdded() {
+		return Collections.unmodifiableMap(added);
+	}
+
+	/**
+	 * @return Map of keys to items that were removed.
+	 */
+	public Map<String, I> getRemoved() {
+		return Collections.unmodifiableMap(removed);
+	}
+
+	/**
+	 * @return Map of keys to item values before they were updated.
+	 */
+	public Map<String, I> getUpdatedOld() {
+		return Collections.unmodifiableMap(updatedOld);
+	}
+
+	/**
+	 * @return Map of keys to item values after they were updated.
+	 */
+	public Map<String, I> getUpdatedNew() {
+		return Collections.unmodifiableMap(updatedNew);
+	}
+}
@@ -0,0 +1,122 @@
+package me.coley.recaf.workspace.resource;
+
+import me.coley.recaf.code.ItemInfo;
+import me.coley.recaf.util.BinaryDelta;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Revision history of an item in a {@link ResourceItemMap}.
+ * <br>
+ * The initial revision and the most recent revisions are kept as-is, so reverting recent changes is instant.
+ * When a {@link HistoryCodec} is available, older revisions are stored as binary deltas against the revision
+ * that followed them, and are moved out of memory once the shared {@link #setMemoryBudget(long) memory budget}
+ * is exceeded.
+ *
+ * @param <I>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+public class ItemHistory<I extends ItemInfo> {
+	// Number of the most recent revisions to keep as-is
+	private static final int RECENT_REVISIONS = 5;
+	private final Deque<I> recent = new ArrayDeque<>();
+	private final Deque<HistoryStore.Entry> older = new ArrayDeque<>();
+	private final HistoryCodec<I> codec;
+	private final I initial;
+
+	/**
+	 * @param codec
+	 * 		Codec to convert items to and from binary, or {@code null} to keep all revisions as-is.
+	 * @param initial
+	 * 		Initial revision.
+	 */
+	public ItemHistory(HistoryCodec<I> codec, I initial) {
+		this.codec = codec;
+		this.initial = initial;
+	}
+
+	/**
+	 * @param memoryBudget
+	 * 		Bytes of older revisions to keep in memory across all histories, before moving them to a temporary file.
+	 */
+	public static void setMemoryBudget(long memoryBudget) {
+		HistoryStore.setMemoryBudget(memoryBudget);
+	}
+
+	/**
+	 * @return Bytes of older revisions to keep in memory across all histories, before moving them to a temporary file.
+	 */
+	public static long getMemoryBudget() {
+		return HistoryStore.getMemoryBudget();
+	}
+
+	/**
+	 * @return Number of revisions, including the initial one.
+	 */
+	public synchronized int size() {
+		return 1 + older.size() + recent.size();
+	}
+
+	/**
+	 * @return Initial revision.
+	 */
+	public I getInitial() {
+		return initial;
+	}
+
+	/**
+	 * @return Latest revision.
+	 */
+	public synchronized I peek() {
+		return recent.isEmpty() ? initial : recent.peekLast();
+	}
+
+	/**
+	 * @param item
+	 * 		New latest revision.
+	 */
+	public synchronized void push(I item) {
+		recent.addLast(item);
+		if (codec != null && recent.size() > RECENT_REVISIONS) {
+			// Oldest recent revision becomes a delta against the revision after it
+			I demoted = recent.removeFirst();
+			byte[] delta = BinaryDelta.create(codec.encode(recent.peekFirst()), codec.encode(demoted));
+			older.addLast(HistoryStore.store(delta));
+		}
+	}
+
+	/**
+	 * Remove the latest revision. The initial revision cannot be removed.
+	 *
+	 * @return Removed revision.
+	 *
+	 * @throws IllegalStateException
+	 * 		When only the initial revision remains.
+	 */
+	public synchronized I pop() {
+		if (recent.isEmpty())
+			throw new IllegalStateException("Cannot remove initial revision: " + initial.getName());
+		I removed = recent.removeLast();
+		if (recent.isEmpty() && !older.isEmpty()) {
+			// Restore the newest older revision, which was stored as a delta against the removed one
+			HistoryStore.Entry entry = older.removeLast();
+			byte[] data = BinaryDelta.apply(codec.encode(removed), HistoryStore.load(entry));
+			HistoryStore.release(entry);
+			recent.addLast(codec.decode(initial.getName(), data));
+		}
+		return removed;
+	}
+
+	/**
+	 * Release stored revisions.
+	 */
+	synchronized void dispose() {
+		for (HistoryStore.Entry entry : older)
+			HistoryStore.release(entry);
+		older.clear();
+		recent.clear();
+	}
+}
@@ -3,16 +3,28 @@ package me.coley.recaf.workspace.resource;
 import me.coley.recaf.code.DexClassInfo;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Map of Android dex classes in the resource.
+ * <br>
+ * Lookups are served from a unified index of class names to the dex map defining them,
+ * which is kept up to date by listeners on each backing map. This keeps lookups and {@link #size()}
+ * from scaling with the number of dex files.
+ * <br>
+ * Lookups may happen from any thread. Adding and removing dex files is synchronized,
+ * so the index is updated for one dex file at a time.
  *
  * @author Matt Coley
  */
 public class MultiDexClassMap implements Map<String, DexClassInfo> {
-	private final Map<String, DexClassMap> backingMaps = new HashMap<>();
+	private final Map<String, DexClassMap> backingMaps = new ConcurrentHashMap<>();
+	private final Map<String, CommonItemListener<DexClassInfo>> indexListeners = new ConcurrentHashMap<>();
+	private final Map<String, DexClassMap> index = new ConcurrentHashMap<>();
+	private final AtomicInteger size = new AtomicInteger();
 
 	/**
 	 * Create wrapper of given maps.
@@ -21,7 +33,7 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 	 * 		Backing map of named dex files.
 	 */
 	public MultiDexClassMap(Map<String, DexClassMap> backingMap) {
-		this.backingMaps.putAll(backingMap);
+		backingMap.forEach(this::putDexMap);
 	}
 
 	/**
@@ -40,21 +52,24 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 	 * 		Dex classes.
 	 */
 	public void addBacking(String name, DexClassMap map) {
-		backingMaps.put(name, map);
+		putDexMap(name, map);
 	}
 
 	/**
 	 * @return Backing maps of this multi-dex wrapper.
 	 */
 	public Map<String, DexClassMap> getBackingMap() {
-		return backingMaps;
+		return Collections.unmodifiableMap(backingMaps);
 	}
 
 	/**
-	 * Remove all listeners.
+	 * Remove all listeners, except for the ones maintaining the class name index.
 	 */
 	public void clearListeners() {
-		backingMaps.values().forEach(map -> map.getListeners().clear());
+		backingMaps.forEach((name, map) -> {
+			map.getListeners().clear();
+			map.getListeners().add(indexListeners.get(name));
+		});
 	}
 
 	/**
@@ -65,6 +80,14 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 		backingMaps.forEach((name, map) -> map.getListeners().add(CommonItemListener.wrapDex(name, listener)));
 	}
 
+	/**
+	 * @param listener
+	 * 		Listener to remove from sub-maps.
+	 */
+	public void removeListener(ResourceDexClassListener listener) {
+		backingMaps.values().forEach(map -> map.getListeners().removeIf(wrapper -> wrapper.wraps(listener)));
+	}
+
 	/**
 	 * @return Set of items modified since initialization.
 	 */
@@ -78,10 +101,7 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 
 	@Override
 	public int size() {
-		int size = 0;
-		for (DexClassMap map : backingMaps.values())
-			size += map.size();
-		return size;
+		return size.get();
 	}
 
 	@Override
@@ -91,10 +111,7 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 
 	@Override
 	public boolean containsKey(Object key) {
-		for (DexClassMap map : backingMaps.values())
-			if (map.containsKey(key))
-				return true;
-		return false;
+		return key != null && index.containsKey(key);
 	}
 
 	@Override
@@ -107,12 +124,10 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 
 	@Override
 	public DexClassInfo get(Object key) {
-		for (DexClassMap map : backingMaps.values()) {
-			DexClassInfo info = map.get(key);
-			if (info != null)
-				return info;
-		}
-		return null;
+		if (key == null)
+			return null;
+		DexClassMap map = index.get(key);
+		return map == null ? null : map.get(key);
 	}
 
 	/**
@@ -123,8 +138,35 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 	 * @param map
 	 * 		Dex map.
 	 */
-	public void putDexMap(String dexName, DexClassMap map) {
+	public synchronized void putDexMap(String dexName, DexClassMap map) {
+		removeDexMap(dexName);
 		backingMaps.put(dexName, map);
+		// Index listener goes first, so other listeners can look up the affected class through this map.
+		CommonItemListener<DexClassInfo> listener = createIndexListener(map);
+		indexListeners.put(dexName, listener);
+		map.getListeners().add(0, listener);
+		for (String key : map.keySet()) {
+			size.incrementAndGet();
+			index.putIfAbsent(key, map);
+		}
+	}
+
+	/**
+	 * Remove a complete {@link DexClassMap}.
+	 *
+	 * @param dexName
+	 * 		Sub-dex map to remove.
+	 *
+	 * @return Removed dex map, or {@code null} if no map was associated with the name.
+	 */
+	public synchronized DexClassMap removeDexMap(String dexName) {
+		DexClassMap map = backingMaps.remove(dexName);
+		if (map != null) {
+			map.removeListener(indexListeners.remove(dexName));
+			for (String key : map.keySet())
+				unindex(key, map);
+		}
+		return map;
 	}
 
 	/**
@@ -195,12 +237,10 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 
 	@Override
 	public DexClassInfo remove(Object key) {
-		for (DexClassMap map : backingMaps.values()) {
-			DexClassInfo info = map.remove(key);
-			if (info != null)
-				return info;
-		}
-		return null;
+		if (key == null)
+			return null;
+		DexClassMap map = index.get(key);
+		return map == null ? null : map.remove(key);
 	}
 
 	@Override
@@ -210,16 +250,15 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 
 	@Override
 	public void clear() {
+		// Clearing item maps does not notify listeners, so the index is reset here.
 		backingMaps.values().forEach(ResourceItemMap::clear);
+		index.clear();
+		size.set(0);
 	}
 
 	@Override
 	public Set<String> keySet() {
-		return backingMaps.values()
-				.stream()
-				.map(ResourceItemMap::keySet)
-				.flatMap(Collection::stream)
-				.collect(Collectors.toCollection(TreeSet::new));
+		return new TreeSet<>(index.keySet());
 	}
 
 	@Override
@@ -237,4 +276,51 @@ public class MultiDexClassMap implements Map<String, DexClassInfo> {
 				.map(x -> Map.entry(x.getName(), x))
 				.collect(Collectors.toSet());
 	}
+
+	/**
+	 * Remove a class name from the index, if it currently points to the given map.
+	 * When another dex file defines the same class, the index is pointed to that one instead.
+	 *
+	 * @param key
+	 * 		Class name.
+	 * @param map
+	 * 		Dex map the class was removed from.
+	 */
+	private void unindex(String key, DexClassMap map) {
+		size.decrementAndGet();
+		if (index.remove(key, map)) {
+			for (DexClassMap other : backingMaps.values()) {
+				if (other != map && other.containsKey(key)) {
+					index.put(key, other);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param map
+	 * 		Dex map to track.
+	 *
+	 * @return Listener that keeps the index up to date with changes to the given map.
+	 */
+	private CommonItemListener<DexClassInfo> createIndexListener(DexClassMap map) {
+		return new CommonItemListener<DexClassInfo>() {
+			@Override
+			void onNewItem(Resource resource, DexClassInfo newValue) {
+				size.incrementAndGet();
+				index.putIfAbsent(newValue.getName(), map);
+			}
+
+			@Override
+			void onRemoveItem(Resource resource, DexClassInfo oldValue) {
+				unindex(oldValue.getName(), map);
+			}
+
+			@Override
+			void onUpdateItem(Resource resource, DexClassInfo oldValue, DexClassInfo newValue) {
+				index.putIfAbsent(newValue.getName(), map);
+			}
+		};
+	}
 }
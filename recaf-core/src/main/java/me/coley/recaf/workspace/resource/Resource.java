@@ -83,6 +83,16 @@ public class Resource {
 		dexes.clearListeners();
 	}
 
+	/**
+	 * Release the history of all items in the resource.
+	 * Items remain in the resource, but can no longer be reverted to prior states.
+	 */
+	public void disposeHistory() {
+		classes.disposeHistory();
+		files.disposeHistory();
+		dexes.getBackingMap().values().forEach(ResourceItemMap::disposeHistory);
+	}
+
 	/**
 	 * @param classListener
 	 * 		Resource listener for class updates.
@@ -91,6 +101,14 @@ public class Resource {
 		classes.addListener(CommonItemListener.wrapClass(classListener));
 	}
 
+	/**
+	 * @param classListener
+	 * 		Resource listener for class updates to remove.
+	 */
+	public void removeClassListener(ResourceClassListener classListener) {
+		classes.getListeners().removeIf(listener -> listener.wraps(classListener));
+	}
+
 	/**
 	 * @param dexClassListener
 	 * 		Resource listener for dex class updates.
@@ -99,6 +117,14 @@ public class Resource {
 		dexes.addListener(dexClassListener);
 	}
 
+	/**
+	 * @param dexClassListener
+	 * 		Resource listener for dex class updates to remove.
+	 */
+	public void removeDexListener(ResourceDexClassListener dexClassListener) {
+		dexes.removeListener(dexClassListener);
+	}
+
 	/**
 	 * @param fileListener
 	 * 		Resource listener for file updates.
@@ -106,4 +132,12 @@ public class Resource {
 	public void addFileListener(ResourceFileListener fileListener) {
 		files.addListener(CommonItemListener.wrapFile(fileListener));
 	}
+
+	/**
+	 * @param fileListener
+	 * 		Resource listener for file updates to remove.
+	 */
+	public void removeFileListener(ResourceFileListener fileListener) {
+		files.getListeners().removeIf(listener -> listener.wraps(fileListener));
+	}
 }
\ No newline at end of file
@@ -39,4 +39,23 @@ public interface ResourceClassListener {
 	 * 		New class value.
 	 */
 	void onUpdateClass(Resource resource, ClassInfo oldValue, ClassInfo newValue);
+
+	/**
+	 * Called when a batch update of the resource's classes completes.
+	 * By default, this delegates to {@link #onRemoveClass(Resource, ClassInfo)},
+	 * {@link #onNewClass(Resource, ClassInfo)} and {@link #onUpdateClass(Resource, ClassInfo, ClassInfo)}
+	 * for each class. Implementations with costly per-class handling should override this to handle
+	 * the changes as a whole.
+	 *
+	 * @param resource
+	 * 		Resource affected.
+	 * @param changes
+	 * 		Net changes made in the batch.
+	 */
+	default void onClassChanges(Resource resource, ItemChangeSet<ClassInfo> changes) {
+		changes.getRemoved().values().forEach(oldValue -> onRemoveClass(resource, oldValue));
+		changes.getAdded().values().forEach(newValue -> onNewClass(resource, newValue));
+		changes.getUpdatedNew().forEach((key, newValue) ->
+				onUpdateClass(resource, changes.getUpdatedOld().get(key), newValue));
+	}
 }
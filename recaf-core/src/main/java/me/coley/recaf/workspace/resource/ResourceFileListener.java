@@ -40,4 +40,22 @@ public interface ResourceFileListener {
 	 * 		New file value.
 	 */
 	void onUpdateFile(Resource resource, FileInfo oldValue, FileInfo newValue);
+
+	/**
+	 * Called when a batch update of the resource's files completes.
+	 * By default, this delegates to {@link #onRemoveFile(Resource, FileInfo)},
+	 * {@link #onNewFile(Resource, FileInfo)} and {@link #onUpdateFile(Resource, FileInfo, FileInfo)}
+	 * for each file.
+	 *
+	 * @param resource
+	 * 		Resource affected.
+	 * @param changes
+	 * 		Net changes made in the batch.
+	 */
+	default void onFileChanges(Resource resource, ItemChangeSet<FileInfo> changes) {
+		changes.getRemoved().values().forEach(oldValue -> onRemoveFile(resource, oldValue));
+		changes.getAdded().values().forEach(newValue -> onNewFile(resource, newValue));
+		changes.getUpdatedNew().forEach((key, newValue) ->
+				onUpdateFile(resource, changes.getUpdatedOld().get(key), newValue));
+	}
 }
@@ -6,10 +6,17 @@ import me.coley.recaf.util.logging.Logging;
 import org.slf4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 /**
  * Forwarding map base for implementing children.
+ * <br>
+ * Listeners may be added or removed at any time, including while events are being dispatched.
+ * Items and their history may be put from multiple threads, such as when a batch is applied by worker threads.
+ * Bulk operations can be wrapped in {@link #beginBatch()} and {@link #endBatch()} so that listeners
+ * receive a single coalesced {@link ItemChangeSet} instead of one event per item.
  *
  * @param <I>
  * 		Item type.
@@ -20,10 +27,12 @@ import java.util.stream.Stream;
  */
 public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iterable<I> {
 	private final Logger logger = Logging.get(getClass());
-	private final List<CommonItemListener<I>> listeners = new ArrayList<>();
-	private final Map<String, Stack<I>> history = new HashMap<>();
+	private final List<CommonItemListener<I>> listeners = new CopyOnWriteArrayList<>();
+	private final Map<String, ItemHistory<I>> history = new ConcurrentHashMap<>();
 	private final Map<String, I> backing;
 	private final Resource container;
+	private ItemChangeSet<I> pending;
+	private int batchDepth;
 
 	protected ResourceItemMap(Resource container, Map<String, I> backing) {
 		this.container = container;
@@ -53,6 +62,107 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 		return listeners;
 	}
 
+	/**
+	 * @return Codec allowing older history revisions to be stored compactly,
+	 * or {@code null} to store all revisions as-is.
+	 */
+	protected HistoryCodec<I> getHistoryCodec() {
+		return null;
+	}
+
+	/**
+	 * Begin a batch update. Until the matching {@link #endBatch()} call, changes to the map are not
+	 * dispatched to listeners individually, but are instead collected into a single {@link ItemChangeSet}.
+	 * Batches may be nested, in which case the changes are dispatched when the outermost batch ends.
+	 */
+	public synchronized void beginBatch() {
+		if (batchDepth++ == 0)
+			pending = new ItemChangeSet<>();
+	}
+
+	/**
+	 * End a batch update started by {@link #beginBatch()}.
+	 * When this ends the outermost batch, listeners are notified of the net changes made during the batch.
+	 */
+	public void endBatch() {
+		ItemChangeSet<I> changes;
+		synchronized (this) {
+			if (batchDepth == 0)
+				throw new IllegalStateException("No batch update in progress");
+			if (--batchDepth > 0)
+				return;
+			changes = pending;
+			pending = null;
+		}
+		if (changes.isEmpty())
+			return;
+		for (CommonItemListener<I> listener : listeners) {
+			try {
+				listener.onChangeItems(container, changes);
+			} catch (Throwable t) {
+				logger.error("Uncaught error in resource listener (batch)", t);
+			}
+		}
+	}
+
+	/**
+	 * Run the given action as a batch update.
+	 *
+	 * @param action
+	 * 		Action modifying the map.
+	 *
+	 * @see #beginBatch()
+	 */
+	public void batch(Runnable action) {
+		beginBatch();
+		try {
+			action.run();
+		} finally {
+			endBatch();
+		}
+	}
+
+	/**
+	 * @return {@code true} when a batch update is in progress.
+	 */
+	public synchronized boolean isBatching() {
+		return batchDepth > 0;
+	}
+
+	/**
+	 * @param key
+	 * 		Item key.
+	 * @param oldValue
+	 * 		Prior item value, or {@code null} if the item is new.
+	 * @param newValue
+	 * 		New item value.
+	 *
+	 * @return {@code true} when the change was recorded into the current batch,
+	 * {@code false} when there is no batch and listeners should be notified directly.
+	 */
+	private synchronized boolean recordPut(String key, I oldValue, I newValue) {
+		if (pending == null)
+			return false;
+		pending.recordPut(key, oldValue, newValue);
+		return true;
+	}
+
+	/**
+	 * @param key
+	 * 		Item key.
+	 * @param oldValue
+	 * 		Removed item value.
+	 *
+	 * @return {@code true} when the change was recorded into the current batch,
+	 * {@code false} when there is no batch and listeners should be notified directly.
+	 */
+	private synchronized boolean recordRemove(String key, I oldValue) {
+		if (pending == null)
+			return false;
+		pending.recordRemove(key, oldValue);
+		return true;
+	}
+
 	/**
 	 * @return Set of items modified since initialization.
 	 */
@@ -84,7 +194,7 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 	 *
 	 * @return History of item.
 	 */
-	public Stack<I> getHistory(String key) {
+	public ItemHistory<I> getHistory(String key) {
 		return history.get(key);
 	}
 
@@ -95,9 +205,9 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 	 * 		Origin item.
 	 */
 	private void initHistory(I itemInfo) {
-		Stack<I> itemHistory = new Stack<>();
-		itemHistory.push(itemInfo);
-		history.put(itemInfo.getName(), itemHistory);
+		ItemHistory<I> prior = history.put(itemInfo.getName(), new ItemHistory<>(getHistoryCodec(), itemInfo));
+		if (prior != null)
+			prior.dispose();
 	}
 
 	/**
@@ -108,7 +218,7 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 	 */
 	public void incrementHistory(I itemInfo) {
 		String key = itemInfo.getName();
-		Stack<I> itemHistory = getHistory(key);
+		ItemHistory<I> itemHistory = getHistory(key);
 		if (itemHistory == null) {
 			throw new IllegalStateException("Failed history increment, no prior history to build on for: " + key);
 		}
@@ -125,7 +235,7 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 	 * 		Item key.
 	 */
 	public void decrementHistory(String key) {
-		Stack<I> itemHistory = getHistory(key);
+		ItemHistory<I> itemHistory = getHistory(key);
 		if (itemHistory == null) {
 			throw new IllegalStateException("Failed history decrement, no prior history to read from for: " + key);
 		}
@@ -141,6 +251,8 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 		}
 		backing.put(key, priorItem);
 		// Notify listener
+		if (recordPut(key, currentItem, priorItem))
+			return;
 		for (CommonItemListener<I> listener : listeners) {
 			try {
 				listener.onUpdateItem(container, currentItem, priorItem);
@@ -150,6 +262,14 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 		}
 	}
 
+	/**
+	 * Wipe history of all items, releasing stored revisions.
+	 */
+	public void disposeHistory() {
+		history.values().forEach(ItemHistory::dispose);
+		history.clear();
+	}
+
 	/**
 	 * Wipe history of item.
 	 *
@@ -157,7 +277,9 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 	 * 		Item key.
 	 */
 	private void removeHistory(String key) {
-		history.remove(key);
+		ItemHistory<I> itemHistory = history.remove(key);
+		if (itemHistory != null)
+			itemHistory.dispose();
 	}
 
 	@Override
@@ -219,15 +341,17 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 	public I put(String key, I itemInfo) {
 		I info = backing.put(key, itemInfo);
 		// Notify listener
-		for (CommonItemListener<I> listener : listeners) {
-			try {
-				if (info == null) {
-					listener.onNewItem(container, itemInfo);
-				} else {
-					listener.onUpdateItem(container, info, itemInfo);
+		if (!recordPut(key, info, itemInfo)) {
+			for (CommonItemListener<I> listener : listeners) {
+				try {
+					if (info == null) {
+						listener.onNewItem(container, itemInfo);
+					} else {
+						listener.onUpdateItem(container, info, itemInfo);
+					}
+				} catch (Throwable t) {
+					logger.error("Uncaught error in resource listener (put)", t);
 				}
-			} catch (Throwable t) {
-				logger.error("Uncaught error in resource listener (put)", t);
 			}
 		}
 		// Update history
@@ -239,16 +363,36 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 		return info;
 	}
 
+	/**
+	 * Put multiple items into the map as a single {@link #beginBatch() batch update}.
+	 *
+	 * @param items
+	 * 		Items to put.
+	 *
+	 * @return Prior associated values, in the same order as the given items.
+	 * Entries are {@code null} for items that did not previously exist in the map.
+	 */
+	public List<I> putBatch(Collection<? extends I> items) {
+		List<I> oldValues = new ArrayList<>(items.size());
+		batch(() -> {
+			for (I itemInfo : items)
+				oldValues.add(put(itemInfo));
+		});
+		return oldValues;
+	}
+
 	@Override
 	public I remove(Object key) {
 		I info = backing.remove(key);
 		if (info != null) {
 			// Notify listener
-			for (CommonItemListener<I> listener : listeners) {
-				try {
-					listener.onRemoveItem(container, info);
-				} catch (Throwable t) {
-					logger.error("Uncaught error in resource listener (remove)", t);
+			if (!recordRemove(info.getName(), info)) {
+				for (CommonItemListener<I> listener : listeners) {
+					try {
+						listener.onRemoveItem(container, info);
+					} catch (Throwable t) {
+						logger.error("Uncaught error in resource listener (remove)", t);
+					}
 				}
 			}
 			// Update history
@@ -265,7 +409,7 @@ public class ResourceItemMap<I extends ItemInfo> implements Map<String, I>, Iter
 	@Override
 	public void clear() {
 		backing.clear();
-		history.clear();
+		disposeHistory();
 	}
 
 	@Override
@@ -0,0 +1,356 @@
+package me.coley.recaf.workspace.resource;
+
+import me.coley.recaf.code.ClassInfo;
+import me.coley.recaf.code.FileInfo;
+import me.coley.recaf.util.Directories;
+import me.coley.recaf.util.HashUtil;
+import me.coley.recaf.util.ShortcutUtil;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.workspace.resource.source.ContentSource;
+import org.slf4j.Logger;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * On-disk copy of the classes and files of a {@link Resource} read from a file, so that reading the same file again
+ * does not need to decompress, validate and patch its contents.
+ * <br>
+ * A snapshot holds the content as it was after reading, including any classes repaired by
+ * {@link ClassPatchingListener}. It is only used while the source file has the same size, modification time
+ * and fingerprint it had when the snapshot was written. The fingerprint is a hash of the size and evenly spaced
+ * samples of the content, which catches changes that keep the size and modification time
+ * without reading the whole file.
+ * <br>
+ * Android resources are not supported, as their classes are not held as raw bytes.
+ * <br>
+ * The snapshots together are kept under {@link #DEFAULT_MAX_TOTAL_SIZE}, with the least recently written ones
+ * removed first when a new snapshot would exceed it.
+ *
+ * @author Matt Coley
+ */
+public class ResourceSnapshot {
+	private static final Logger logger = Logging.get(ResourceSnapshot.class);
+	private static final int MAGIC = 0x52534e31; // RSN1
+	private static final int SAMPLE_SIZE = 64 * 1024;
+	private static final int SAMPLE_COUNT = 32;
+	/**
+	 * Default limit of the combined size of all snapshots on disk.
+	 */
+	public static final long DEFAULT_MAX_TOTAL_SIZE = 1024L * 1024 * 1024;
+	private static volatile Path directory = Directories.getCacheDirectory().resolve("snapshots");
+	private static volatile long maxTotalSize = DEFAULT_MAX_TOTAL_SIZE;
+
+	private ResourceSnapshot() {
+	}
+
+	/**
+	 * @return Directory snapshots are written to.
+	 */
+	static Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @param directory
+	 * 		Directory to write snapshots to, instead of the cache directory.
+	 */
+	static void setDirectory(Path directory) {
+		ResourceSnapshot.directory = directory;
+	}
+
+	/**
+	 * @return Limit of the combined size of all snapshots on disk.
+	 */
+	static long getMaxTotalSize() {
+		return maxTotalSize;
+	}
+
+	/**
+	 * @param maxTotalSize
+	 * 		Limit of the combined size of all snapshots on disk.
+	 */
+	static void setMaxTotalSize(long maxTotalSize) {
+		ResourceSnapshot.maxTotalSize = maxTotalSize;
+	}
+
+	/**
+	 * @param path
+	 * 		Path of a file to read as a resource.
+	 *
+	 * @return Resource populated from a valid snapshot of the file,
+	 * or {@code null} if there is no snapshot, or the file has changed since the snapshot was written.
+	 */
+	public static Resource load(Path path) {
+		// Resolve links the same way as reading the file does, so the snapshot matches the content it would yield
+		try {
+			path = ShortcutUtil.follow(path);
+		} catch (IOException ex) {
+			logger.debug("Failed to follow link for snapshot of {}", path, ex);
+			return null;
+		}
+		Path snapshot = snapshotPath(directory, path);
+		if (!Files.isRegularFile(snapshot) || !Files.isRegularFile(path))
+			return null;
+		long start = System.currentTimeMillis();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 20))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Unknown snapshot format");
+			if (!sourceKey(path).equals(in.readUTF()))
+				throw new IOException("Snapshot belongs to a different file");
+			if (Files.size(path) != in.readLong() || modifiedTime(path) != in.readLong())
+				return discard(snapshot, "source file size or modification time changed");
+			if (!fingerprint(path).equals(in.readUTF()))
+				return discard(snapshot, "source file content changed");
+			byte[][] classes = new byte[in.readInt()][];
+			for (int i = 0; i < classes.length; i++) {
+				classes[i] = new byte[in.readInt()];
+				in.readFully(classes[i]);
+			}
+			int fileCount = in.readInt();
+			List<FileInfo> files = new ArrayList<>(fileCount);
+			for (int i = 0; i < fileCount; i++) {
+				String name = in.readUTF();
+				byte[] content = new byte[in.readInt()];
+				in.readFully(content);
+				files.add(new FileInfo(name, content));
+			}
+			// The content source is created but not read, so the resource reports where it came from
+			ContentSource source = ContentSourceFactory.defaultFactory().create(path);
+			Resource resource = new Resource(source);
+			// Classes were validated when the snapshot was written, so they only need their headers parsed
+			ClassInfo[] infos = new ClassInfo[classes.length];
+			IntStream.range(0, classes.length).parallel().forEach(i -> infos[i] = ClassInfo.read(classes[i]));
+			for (ClassInfo info : infos)
+				resource.getClasses().initialPut(info);
+			for (FileInfo file : files)
+				resource.getFiles().initialPut(file);
+			logger.info("Read {} classes, {} files from snapshot of {} in {}ms",
+					classes.length, fileCount, path, System.currentTimeMillis() - start);
+			return resource;
+		} catch (IOException | RuntimeException ex) {
+			return discard(snapshot, ex.toString());
+		}
+	}
+
+	/**
+	 * Writes a snapshot of a resource read from the given file. The content is copied before returning,
+	 * so the resource can be modified while the snapshot is being written.
+	 *
+	 * @param path
+	 * 		Path of the file the resource was read from.
+	 * @param resource
+	 * 		Resource to write the content of.
+	 *
+	 * @return Task writing the snapshot, or {@code null} if the resource is not supported.
+	 */
+	public static Runnable prepareSave(Path path, Resource resource) {
+		try {
+			path = ShortcutUtil.follow(path);
+		} catch (IOException ex) {
+			logger.debug("Failed to follow link for snapshot of {}", path, ex);
+			return null;
+		}
+		if (!Files.isRegularFile(path) || !resource.getDexClasses().isEmpty())
+			return null;
+		List<byte[]> classes = resource.getClasses().values().stream()
+				.map(ClassInfo::getValue)
+				.collect(Collectors.toList());
+		List<FileInfo> files = new ArrayList<>(resource.getFiles().values());
+		Path source = path;
+		Path dir = directory;
+		return () -> save(dir, source, classes, files);
+	}
+
+	/**
+	 * Removes snapshots of files other than the given ones.
+	 * If the remaining snapshots exceed the size limit, the least recently written ones are removed as well.
+	 *
+	 * @param paths
+	 * 		Paths of files to keep snapshots of.
+	 */
+	public static void retain(Collection<Path> paths) {
+		Path dir = directory;
+		if (!Files.isDirectory(dir))
+			return;
+		Set<Path> keep = new HashSet<>();
+		for (Path path : paths) {
+			try {
+				keep.add(snapshotPath(dir, ShortcutUtil.follow(path)));
+			} catch (IOException ex) {
+				keep.add(snapshotPath(dir, path));
+			}
+		}
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.snapshot")) {
+			for (Path snapshot : stream)
+				if (!keep.contains(snapshot))
+					Files.deleteIfExists(snapshot);
+		} catch (IOException ex) {
+			logger.debug("Failed to prune resource snapshots", ex);
+		}
+		trim(dir, null);
+	}
+
+	private static void save(Path dir, Path path, List<byte[]> classes, List<FileInfo> files) {
+		long start = System.currentTimeMillis();
+		Path snapshot = snapshotPath(dir, path);
+		try {
+			Files.createDirectories(dir);
+			// Source details are taken before writing, so a file changed in the meantime fails validation later
+			long size = Files.size(path);
+			long modified = modifiedTime(path);
+			String fingerprint = fingerprint(path);
+			// Write to a temporary file first so concurrent readers never see partial entries
+			Path temp = Files.createTempFile(dir, "resource", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 20))) {
+				out.writeInt(MAGIC);
+				out.writeUTF(sourceKey(path));
+				out.writeLong(size);
+				out.writeLong(modified);
+				out.writeUTF(fingerprint);
+				out.writeInt(classes.size());
+				for (byte[] content : classes) {
+					out.writeInt(content.length);
+					out.write(content);
+				}
+				out.writeInt(files.size());
+				for (FileInfo file : files) {
+					byte[] content = file.getValue();
+					out.writeUTF(file.getName());
+					out.writeInt(content.length);
+					out.write(content);
+				}
+			} catch (IOException | RuntimeException ex) {
+				Files.deleteIfExists(temp);
+				throw ex;
+			}
+			long written = Files.size(temp);
+			if (written > maxTotalSize) {
+				Files.deleteIfExists(temp);
+				Files.deleteIfExists(snapshot);
+				logger.debug("Skipped snapshot of {}, {} bytes exceeds the size limit", path, written);
+				return;
+			}
+			Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			logger.debug("Wrote snapshot of {} in {}ms", path, System.currentTimeMillis() - start);
+			trim(dir, snapshot);
+		} catch (IOException | RuntimeException ex) {
+			logger.warn("Failed to write resource snapshot of {}", path, ex);
+		}
+	}
+
+	/**
+	 * @param path
+	 * 		Path to a file.
+	 *
+	 * @return Hash of the file size and evenly spaced samples of its content.
+	 *
+	 * @throws IOException
+	 * 		When the file cannot be read.
+	 */
+	static String fingerprint(Path path) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			// Every JVM is required to support SHA-256
+			throw new IllegalStateException(ex);
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			digest.update(ByteBuffer.allocate(Long.BYTES).putLong(0, size));
+			ByteBuffer buffer = ByteBuffer.allocate(SAMPLE_SIZE);
+			// Small files are hashed completely, larger ones by samples spread from the start to the end
+			long samples = Math.min(SAMPLE_COUNT, (size + SAMPLE_SIZE - 1) / SAMPLE_SIZE);
+			for (long i = 0; i < samples; i++) {
+				long position = samples == 1 ? 0 : (size - SAMPLE_SIZE) * i / (samples - 1);
+				buffer.clear();
+				while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+					// read until the sample is full or the end is reached
+				}
+				buffer.flip();
+				digest.update(buffer);
+			}
+		}
+		return HashUtil.sha256(digest.digest());
+	}
+
+	/**
+	 * Removes the least recently written snapshots until the rest fit in the size limit.
+	 *
+	 * @param dir
+	 * 		Directory of snapshots.
+	 * @param keep
+	 * 		Snapshot to never remove, or {@code null} for none.
+	 */
+	private static synchronized void trim(Path dir, Path keep) {
+		if (!Files.isDirectory(dir))
+			return;
+		List<Path> snapshots = new ArrayList<>();
+		Map<Path, Long> sizes = new HashMap<>();
+		Map<Path, Long> times = new HashMap<>();
+		long total = 0;
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.snapshot")) {
+			for (Path snapshot : stream) {
+				try {
+					long size = Files.size(snapshot);
+					sizes.put(snapshot, size);
+					times.put(snapshot, modifiedTime(snapshot));
+					snapshots.add(snapshot);
+					total += size;
+				} catch (IOException ignored) {
+					// Removed by another task in the meantime
+				}
+			}
+		} catch (IOException ex) {
+			logger.debug("Failed to list resource snapshots", ex);
+			return;
+		}
+		long limit = maxTotalSize;
+		if (total <= limit)
+			return;
+		snapshots.sort(Comparator.comparingLong(times::get));
+		for (Path snapshot : snapshots) {
+			if (total <= limit)
+				break;
+			if (snapshot.equals(keep))
+				continue;
+			try {
+				Files.deleteIfExists(snapshot);
+				total -= sizes.get(snapshot);
+				logger.debug("Removed resource snapshot {} to stay under the size limit", snapshot);
+			} catch (IOException ex) {
+				logger.debug("Failed to remove resource snapshot {}", snapshot, ex);
+			}
+		}
+	}
+
+	private static Resource discard(Path snapshot, String reason) {
+		logger.debug("Discarding resource snapshot {}: {}", snapshot, reason);
+		try {
+			Files.deleteIfExists(snapshot);
+		} catch (IOException ignored) {
+			// Overwritten on the next save
+		}
+		return null;
+	}
+
+	private static long modifiedTime(Path path) throws IOException {
+		return Files.getLastModifiedTime(path).toMillis();
+	}
+
+	private static String sourceKey(Path path) {
+		return path.toAbsolutePath().normalize().toString();
+	}
+
+	private static Path snapshotPath(Path dir, Path path) {
+		return dir.resolve(HashUtil.sha256(sourceKey(path)) + ".snapshot");
+	}
+}
@@ -0,0 +1,212 @@
+package me.coley.recaf.workspace.resource;
+
+import me.coley.recaf.util.Directories;
+import me.coley.recaf.util.HashUtil;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.ThreadUtil;
+import org.slf4j.Logger;
+
+import java.io.*;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleFinder;
+import java.lang.module.ModuleReference;
+import java.net.URI;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Index of classes in the current runtime's module image, read through the {@code jrt} file system.
+ * <br>
+ * The package to module mapping is taken from the system module descriptors, so it is available immediately
+ * and allows class bytes to be read directly from the image without going through a class loader.
+ * The full set of class names is loaded from a persisted index when one exists for the current runtime,
+ * otherwise it is built in the background and then persisted for the next run.
+ *
+ * @author Matt Coley
+ */
+public class RuntimeClassIndex {
+	private static final Logger logger = Logging.get(RuntimeClassIndex.class);
+	private static final int MAGIC = 0x52434931; // RCI1
+	private static final Path CACHE_DIR = Directories.getCacheDirectory().resolve("runtime");
+	private final Map<String, String> packageToModule;
+	private final FileSystem jrt;
+	private final String runtimeKey;
+	private volatile Set<String> classNames;
+
+	private RuntimeClassIndex(FileSystem jrt, Map<String, String> packageToModule) {
+		this.jrt = jrt;
+		this.packageToModule = packageToModule;
+		this.runtimeKey = HashUtil.sha256(Runtime.version().toString(), System.getProperty("java.home"));
+	}
+
+	/**
+	 * @return Index of the current runtime, or {@code null} if the runtime has no module image.
+	 */
+	public static RuntimeClassIndex open() {
+		FileSystem jrt;
+		try {
+			jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+		} catch (Exception ex) {
+			logger.warn("Runtime module image is not available, falling back to class loader lookups", ex);
+			return null;
+		}
+		Map<String, String> packageToModule = new HashMap<>();
+		for (ModuleReference reference : ModuleFinder.ofSystem().findAll()) {
+			ModuleDescriptor descriptor = reference.descriptor();
+			for (String packageName : descriptor.packages())
+				packageToModule.put(packageName.replace('.', '/'), descriptor.name());
+		}
+		RuntimeClassIndex index = new RuntimeClassIndex(jrt, packageToModule);
+		ThreadUtil.run(index::loadClassNames);
+		return index;
+	}
+
+	/**
+	 * @param name
+	 * 		Internal class name.
+	 *
+	 * @return {@code true} when the class belongs to a package of the runtime's module image.
+	 * Such classes can be read via {@link #read(String)}, others must be located by other means.
+	 */
+	public boolean isRuntimePackage(String name) {
+		return moduleOf(name) != null;
+	}
+
+	/**
+	 * @param name
+	 * 		Internal class name.
+	 *
+	 * @return {@code true} when the class exists in the runtime's module image.
+	 */
+	public boolean contains(String name) {
+		String module = moduleOf(name);
+		if (module == null)
+			return false;
+		Set<String> names = classNames;
+		if (names != null)
+			return names.contains(name);
+		try {
+			return Files.isRegularFile(classPath(module, name));
+		} catch (InvalidPathException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * @param name
+	 * 		Internal class name.
+	 *
+	 * @return Bytecode of the class, or {@code null} if the class does not exist in the runtime's module image.
+	 *
+	 * @throws IOException
+	 * 		When the class exists, but could not be read.
+	 */
+	public byte[] read(String name) throws IOException {
+		String module = moduleOf(name);
+		if (module == null)
+			return null;
+		// Skip the lookup when the complete index is known to not contain the class
+		Set<String> names = classNames;
+		if (names != null && !names.contains(name))
+			return null;
+		try {
+			return Files.readAllBytes(classPath(module, name));
+		} catch (NoSuchFileException | InvalidPathException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return Names of all classes in the runtime's module image,
+	 * or an empty set if the index is still being built.
+	 */
+	public Set<String> getClassNames() {
+		Set<String> names = classNames;
+		return names == null ? Collections.emptySet() : names;
+	}
+
+	/**
+	 * @return {@code true} once the complete set of class names is available.
+	 */
+	public boolean isComplete() {
+		return classNames != null;
+	}
+
+	private String moduleOf(String name) {
+		int packageEnd = name.lastIndexOf('/');
+		if (packageEnd <= 0)
+			return null;
+		return packageToModule.get(name.substring(0, packageEnd));
+	}
+
+	private Path classPath(String module, String name) {
+		return jrt.getPath("/modules", module, name + ".class");
+	}
+
+	private void loadClassNames() {
+		Path path = CACHE_DIR.resolve(runtimeKey + ".bin");
+		Set<String> names = readPersisted(path);
+		if (names == null) {
+			long start = System.currentTimeMillis();
+			names = scan();
+			logger.debug("Indexed {} runtime classes in {}ms", names.size(), System.currentTimeMillis() - start);
+			persist(path, names);
+		}
+		classNames = Collections.unmodifiableSet(names);
+	}
+
+	private Set<String> scan() {
+		Set<String> names = new HashSet<>();
+		for (String module : new HashSet<>(packageToModule.values())) {
+			Path root = jrt.getPath("/modules", module);
+			try (Stream<Path> stream = Files.walk(root)) {
+				stream.map(root::relativize)
+						.map(Path::toString)
+						.filter(name -> name.endsWith(".class") && !name.equals("module-info.class"))
+						.map(name -> name.substring(0, name.length() - 6))
+						.forEach(names::add);
+			} catch (IOException ex) {
+				logger.warn("Failed to index runtime module: {}", module, ex);
+			}
+		}
+		return names;
+	}
+
+	private Set<String> readPersisted(Path path) {
+		if (!Files.isRegularFile(path))
+			return null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Unknown index format");
+			if (!runtimeKey.equals(in.readUTF()))
+				throw new IOException("Index belongs to a different runtime");
+			int count = in.readInt();
+			Set<String> names = new HashSet<>(count * 2);
+			for (int i = 0; i < count; i++)
+				names.add(in.readUTF());
+			return names;
+		} catch (IOException ex) {
+			logger.debug("Discarding unreadable runtime index: {}", path, ex);
+			return null;
+		}
+	}
+
+	private void persist(Path path, Set<String> names) {
+		try {
+			Files.createDirectories(CACHE_DIR);
+			// Write to a temporary file first so concurrent readers never see partial entries
+			Path temp = Files.createTempFile(CACHE_DIR, "runtime", ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeUTF(runtimeKey);
+				out.writeInt(names.size());
+				for (String name : names)
+					out.writeUTF(name);
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			logger.warn("Failed to write runtime index: {}", path, ex);
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package me.coley.recaf.workspace.resource;
 
-import com.google.common.reflect.ClassPath;
 import me.coley.recaf.code.ClassInfo;
 import me.coley.recaf.util.IOUtil;
 import me.coley.recaf.util.threading.ThreadLocals;
@@ -12,9 +11,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Workspace unit that pulls classes from the current runtime.
+ * <br>
+ * Classes of the JDK are read directly from the runtime's module image via {@link RuntimeClassIndex}.
+ * Other classes visible to the system class loader are still resolved through it.
+ * Lookups are safe to perform concurrently.
  *
  * @author Matt Coley
  */
@@ -22,6 +26,7 @@ public class RuntimeResource extends Resource {
 	private static final Object STUB = new Object();
 	private static final Logger logger = Logging.get(RuntimeResource.class);
 	private static final RuntimeResource instance = new RuntimeResource();
+	private final RuntimeClassIndex index = RuntimeClassIndex.open();
 	private final ClassMap runtimeMap = createRuntimeMap();
 
 	private RuntimeResource() {
@@ -35,6 +40,13 @@ public class RuntimeResource extends Resource {
 		return instance;
 	}
 
+	/**
+	 * @return Index of the runtime's module image, or {@code null} if the runtime has no module image.
+	 */
+	public RuntimeClassIndex getIndex() {
+		return index;
+	}
+
 	@Override
 	public ClassMap getClasses() {
 		return runtimeMap;
@@ -42,7 +54,7 @@ public class RuntimeResource extends Resource {
 
 	private ClassMap createRuntimeMap() {
 		Map<String, ClassInfo> map = new HashMap<>() {
-			private final Map<String, Object> cache = new HashMap<>();
+			private final Map<String, Object> cache = new ConcurrentHashMap<>();
 
 			@Override
 			public ClassInfo get(Object name) {
@@ -52,26 +64,15 @@ public class RuntimeResource extends Resource {
 				if (key.indexOf('.') >= 0)
 					key = key.replace('.', '/');
 				Object present = cache.get(key);
-				if (present == STUB)
-					return null;
-				if (present instanceof ClassInfo)
-					return (ClassInfo) present;
-				// Can't do "computeIfAbsent" since we also want to store null values.
-				byte[] value = null;
-				try (InputStream in = ClassLoader.getSystemResourceAsStream(key + ".class")) {
-					if (in != null) {
-						value = IOUtil.toByteArray(in, ThreadLocals.getByteBuffer());
-					}
-				} catch (IOException ex) {
-					logger.error("Failed to fetch runtime bytecode of class: " + key, ex);
+				if (present == null) {
+					// Misses are recorded with a stub, since the cache cannot hold null values.
+					// If multiple threads load the same class, the first one to finish is kept.
+					ClassInfo info = load(key);
+					present = cache.putIfAbsent(key, info == null ? STUB : info);
+					if (present == null)
+						return info;
 				}
-				if (value == null) {
-					cache.put(key, STUB);
-					return null;
-				}
-				ClassInfo info = ClassInfo.read(value);
-				cache.put(key, info);
-				return info;
+				return present == STUB ? null : (ClassInfo) present;
 			}
 
 			@Override
@@ -86,4 +87,22 @@ public class RuntimeResource extends Resource {
 		};
 		return new ClassMap(this, map);
 	}
+
+	private ClassInfo load(String key) {
+		byte[] value = null;
+		try {
+			if (index != null && index.isRuntimePackage(key)) {
+				value = index.read(key);
+			} else {
+				try (InputStream in = ClassLoader.getSystemResourceAsStream(key + ".class")) {
+					if (in != null) {
+						value = IOUtil.toByteArray(in, ThreadLocals.getByteBuffer());
+					}
+				}
+			}
+		} catch (IOException ex) {
+			logger.error("Failed to fetch runtime bytecode of class: " + key, ex);
+		}
+		return value == null ? null : ClassInfo.read(value);
+	}
 }
@@ -1,14 +1,20 @@
 package me.coley.recaf.workspace.resource.source;
 
 import me.coley.recaf.code.FileInfo;
+import me.coley.recaf.io.ByteSourceElement;
+import me.coley.recaf.io.ByteSources;
+import me.coley.recaf.util.Streams;
 import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.ThreadUtil;
 import org.jf.dexlib2.Opcodes;
 import org.jf.dexlib2.dexbacked.DexBackedDexFile;
+import org.jf.dexlib2.util.DexUtil;
 import org.slf4j.Logger;
+import software.coley.llzip.part.LocalFileHeader;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.stream.Stream;
 
 /**
  * Origin location information for apks.
@@ -29,22 +35,28 @@ public class ApkContentSource extends ArchiveFileContentSource {
 	@Override
 	protected void onRead(ContentCollection collection) throws IOException {
 		logger.info("Reading from file: {}", getPath());
-		consumeEach((entry, content) -> {
-			String name = getPathName(entry);
-			if (name.endsWith(".dex")) {
-				// TODO: Is there a way to determine what the correct API version is?
-				Opcodes opcodes = Opcodes.getDefault();
-				try {
-					DexBackedDexFile file = DexBackedDexFile.fromInputStream(opcodes, new ByteArrayInputStream(content.readAll()));
-					collection.addDexClasses(name, file);
-				} catch (IOException ex) {
-					logger.error("Failed parsing dex: " + name, ex);
+		// Entries are handled in parallel, so each dex file in a multi-dex apk is parsed concurrently.
+		try (Stream<ByteSourceElement<LocalFileHeader>> stream = stream()) {
+			Streams.forEachOn(stream, ByteSources.consume((entry, content) -> {
+				String name = getPathName(entry);
+				if (name.endsWith(".dex")) {
+					// TODO: Is there a way to determine what the correct API version is?
+					Opcodes opcodes = Opcodes.getDefault();
+					try {
+						// Parse directly over the entry's bytes, rather than copying them again through a stream
+						byte[] data = content.readAll();
+						DexUtil.verifyDexHeader(data, 0);
+						DexBackedDexFile file = new DexBackedDexFile(opcodes, data);
+						collection.addDexClasses(name, file);
+					} catch (Exception ex) {
+						logger.error("Failed parsing dex: " + name, ex);
+					}
+				} else {
+					FileInfo file = new FileInfo(name, content.readAll());
+					collection.addFile(file);
 				}
-			} else {
-				FileInfo file = new FileInfo(name, content.readAll());
-				collection.addFile(file);
-			}
-		});
+			}), ThreadUtil::run);
+		}
 		// Summarize what has been found
 		logger.info("Read {} classes, {} files", collection.getDexClassCount(), collection.getFileCount());
 	}
@@ -69,19 +69,28 @@ public class ContentCollection {
 	}
 
 	/**
+	 * Classes are parsed outside of the collection lock, so multiple dex files can be added concurrently.
+	 *
 	 * @param dexPath
 	 * 		Path to dex file <i>(Internal to apk/zip)</i>.
 	 * @param dexFile
 	 * 		Dex file instance to pull classes from.
 	 */
-	public synchronized void addDexClasses(String dexPath, DexFile dexFile) {
+	public void addDexClasses(String dexPath, DexFile dexFile) {
 		Opcodes op = dexFile.getOpcodes();
-		DexClassMap dexClassMap = dexClasses.getBackingMap()
-				.computeIfAbsent(dexPath, k -> new DexClassMap(resource, op));
+		DexClassMap dexClassMap = new DexClassMap(resource, op);
 		for (ClassDef dexClass : dexFile.getClasses()) {
 			DexClassInfo clazz = DexClassInfo.parse(dexPath, op, dexClass);
 			dexClassMap.put(clazz);
 		}
+		synchronized (this) {
+			DexClassMap existing = dexClasses.getBackingMap().get(dexPath);
+			if (existing == null)
+				dexClasses.putDexMap(dexPath, dexClassMap);
+			else
+				for (DexClassInfo info : dexClassMap.values())
+					existing.put(info);
+		}
 	}
 
 	/**
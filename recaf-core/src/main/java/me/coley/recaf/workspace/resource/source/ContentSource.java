@@ -4,12 +4,15 @@ import me.coley.cafedude.classfile.VersionConstants;
 import me.coley.recaf.util.ByteHeaderUtil;
 import me.coley.recaf.util.logging.Logging;
 import me.coley.recaf.util.visitor.CustomAttributeCollectingVisitor;
+import me.coley.recaf.workspace.resource.DexClassMap;
+import me.coley.recaf.workspace.resource.MultiDexClassMap;
 import me.coley.recaf.workspace.resource.Resource;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassWriter;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -83,9 +86,12 @@ public abstract class ContentSource {
 		collection.getClasses().forEach((path, info) -> {
 			resource.getClasses().initialPut(info);
 		});
-		collection.getDexClasses().getBackingMap().forEach((path, map) -> {
+		// Dex maps are moved rather than shared, so the collection no longer tracks changes to them
+		MultiDexClassMap collectionDexClasses = collection.getDexClasses();
+		for (String path : new ArrayList<>(collectionDexClasses.getBackingMap().keySet())) {
+			DexClassMap map = collectionDexClasses.removeDexMap(path);
 			resource.getDexClasses().putDexMap(path, map);
-		});
+		}
 	}
 
 	/**
@@ -0,0 +1,119 @@
+package me.coley.recaf.code;
+
+import me.coley.recaf.Controller;
+import me.coley.recaf.presentation.EmptyPresentation;
+import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.resource.Resources;
+import me.coley.recaf.workspace.resource.RuntimeResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SymbolTable}
+ */
+public class SymbolTableTests {
+	@Test
+	void internReturnsFirstInstance() {
+		SymbolTable table = new SymbolTable();
+		String first = new String("java/lang/Object");
+		String second = new String("java/lang/Object");
+		assertSame(first, table.intern(first));
+		assertSame(first, table.intern(second));
+		assertNull(table.intern(null));
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	void internAllPoolsItems() {
+		SymbolTable table = new SymbolTable();
+		String value = table.intern("java/io/IOException");
+		assertTrue(table.internAll(null).isEmpty());
+		assertTrue(table.internAll(new String[0]).isEmpty());
+		for (int size = 1; size <= 3; size++) {
+			String[] values = new String[size];
+			for (int i = 0; i < size; i++)
+				values[i] = new String("java/io/IOException");
+			List<String> list = table.internAll(values);
+			assertEquals(size, list.size());
+			for (String item : list)
+				assertSame(value, item);
+			assertThrows(UnsupportedOperationException.class, () -> list.add("x"));
+		}
+	}
+
+	@Test
+	void readPoolsAcrossClasses() throws IOException {
+		SymbolTable table = new SymbolTable();
+		ClassInfo string = ClassInfo.read(getSystemClass("java/lang/String"), table);
+		ClassInfo thread = ClassInfo.read(getSystemClass("java/lang/Thread"), table);
+		assertSame(getMethod(string, "toString").getDescriptor(), getMethod(thread, "toString").getDescriptor());
+		assertSame(string.getSuperName(), thread.getSuperName());
+		assertSame(string.getName(), table.intern("java/lang/String"));
+	}
+
+	@Test
+	void pooledModelMatchesUnpooled() throws IOException {
+		// Table that does not pool anything, modeling reading without a table
+		SymbolTable passthrough = new SymbolTable() {
+			@Override
+			public String intern(String value) {
+				return value;
+			}
+		};
+		SymbolTable table = new SymbolTable();
+		for (String name : List.of("java/lang/String", "java/util/HashMap", "java/lang/Thread")) {
+			byte[] code = getSystemClass(name);
+			ClassInfo unpooled = ClassInfo.read(code, passthrough);
+			ClassInfo pooled = ClassInfo.read(code, table);
+			assertEquals(unpooled, pooled);
+			assertEquals(unpooled.hashCode(), pooled.hashCode());
+			assertEquals(unpooled.getInterfaces(), pooled.getInterfaces());
+			assertEquals(unpooled.getFields(), pooled.getFields());
+			assertEquals(unpooled.getMethods(), pooled.getMethods());
+			for (int i = 0; i < unpooled.getMethods().size(); i++)
+				assertEquals(unpooled.getMethods().get(i).getExceptions(), pooled.getMethods().get(i).getExceptions());
+			assertEquals(unpooled.getInnerClasses().size(), pooled.getInnerClasses().size());
+			for (int i = 0; i < unpooled.getInnerClasses().size(); i++) {
+				InnerClassInfo expected = unpooled.getInnerClasses().get(i);
+				InnerClassInfo actual = pooled.getInnerClasses().get(i);
+				assertEquals(expected.getName(), actual.getName());
+				assertEquals(expected.getOuterName(), actual.getOuterName());
+				assertEquals(expected.getInnerName(), actual.getInnerName());
+				assertEquals(expected.getAccess(), actual.getAccess());
+			}
+		}
+		assertTrue(table.size() > 0);
+	}
+
+	@Test
+	void sharedTableResetOnWorkspaceChange() {
+		Controller controller = new Controller(new EmptyPresentation());
+		SymbolTable initial = SymbolTable.shared();
+		String value = initial.intern("pooled/Name");
+		controller.setWorkspace(new Workspace(new Resources(RuntimeResource.get())));
+		SymbolTable opened = SymbolTable.shared();
+		assertNotSame(initial, opened);
+		// Strings of the prior workspace are no longer returned
+		assertNotSame(value, opened.intern(new String("pooled/Name")));
+		controller.setWorkspace(null);
+		assertNotSame(opened, SymbolTable.shared());
+	}
+
+	private static MethodInfo getMethod(ClassInfo info, String name) {
+		return info.getMethods().stream()
+				.filter(m -> m.getName().equals(name) && m.getDescriptor().equals("()Ljava/lang/String;"))
+				.findFirst().orElseThrow();
+	}
+
+	private static byte[] getSystemClass(String name) throws IOException {
+		try (InputStream in = ClassLoader.getSystemResourceAsStream(name + ".class")) {
+			assertNotNull(in, "Missing class: " + name);
+			return in.readAllBytes();
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package me.coley.recaf.ssvm;
+
+import me.coley.recaf.Controller;
+import me.coley.recaf.TestUtils;
+import me.coley.recaf.code.ClassInfo;
+import me.coley.recaf.presentation.EmptyPresentation;
+import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.resource.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SsvmBulkOptimizer}.
+ *
+ * @author Matt Coley
+ */
+@Execution(ExecutionMode.SAME_THREAD)
+public class SsvmBulkOptimizerTests extends TestUtils implements Opcodes {
+	private static final String TARGET = "sample/math/BinarySearch";
+	private static final String FAILING = "sample/Failing";
+	private Controller controller;
+	private Workspace workspace;
+	private SsvmIntegration ssvm;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		workspace = createWorkspace(jarsDir.resolve("DemoObf.jar"));
+		controller = new Controller(new EmptyPresentation());
+		controller.setWorkspace(workspace);
+		ssvm = new SsvmIntegration(workspace);
+		ssvm.setPoolSize(2);
+	}
+
+	@AfterEach
+	public void cleanup() {
+		ssvm.cleanup();
+	}
+
+	@Test
+	public void optimizeReportsProgress() {
+		Resource primary = workspace.getResources().getPrimary();
+		ClassInfo original = primary.getClasses().get(TARGET);
+		List<String> completed = new CopyOnWriteArrayList<>();
+		SsvmBulkOptimizer.Result result = new SsvmBulkOptimizer(controller, ssvm, primary)
+				.withFilter(info -> info.getName().equals(TARGET))
+				.withProgressListener((name, count, total) -> {
+					assertEquals(1, total);
+					assertEquals(completed.size() + 1, count);
+					completed.add(name);
+				})
+				.run();
+		assertEquals(List.of(TARGET), completed);
+		assertEquals(1, result.getClassCount());
+		assertTrue(result.getMethodCount() > 0);
+		// Nothing outside the filter is touched
+		assertTrue(result.getModified().keySet().stream().allMatch(TARGET::equals));
+		// Results are not applied until committed
+		assertSame(original, primary.getClasses().get(TARGET));
+		result.commit();
+		result.getModified().forEach((name, info) -> assertSame(info, primary.getClasses().get(name)));
+	}
+
+	@Test
+	public void optimizeReportsFailures() {
+		Resource primary = workspace.getResources().getPrimary();
+		primary.getClasses().put(ClassInfo.read(createFailingClass()));
+		List<String> completed = new CopyOnWriteArrayList<>();
+		SsvmBulkOptimizer.Result result = new SsvmBulkOptimizer(controller, ssvm, primary)
+				.withFilter(info -> info.getName().equals(FAILING) || info.getName().equals(TARGET))
+				.withProgressListener((name, count, total) -> completed.add(name))
+				.run();
+		// The failing class should not stop the other class from being processed
+		assertEquals(2, result.getClassCount());
+		assertEquals(2, completed.size());
+		assertTrue(completed.contains(FAILING));
+		assertTrue(completed.contains(TARGET));
+		assertTrue(result.hasFailures());
+		assertTrue(result.getFailures().containsKey(FAILING + ".fail()I"),
+				"Failing method should be reported, got: " + result.getFailures().keySet());
+		// Failed methods are left as-is, so the class has no changes to apply
+		assertFalse(result.getModified().containsKey(FAILING));
+	}
+
+	@Test
+	public void optimizeReusesVmsAfterMethodFailures() {
+		ssvm.setPoolSize(1);
+		Resource primary = workspace.getResources().getPrimary();
+		primary.getClasses().put(ClassInfo.read(createFailingClass()));
+		List<String> completed = new CopyOnWriteArrayList<>();
+		SsvmBulkOptimizer.Result result = new SsvmBulkOptimizer(controller, ssvm, primary)
+				.withFilter(info -> info.getName().equals(FAILING) || info.getName().equals(TARGET))
+				.withProgressListener((name, count, total) -> completed.add(name))
+				.run();
+		assertEquals(2, completed.size());
+		assertTrue(result.getFailures().containsKey(FAILING + ".fail()I"));
+		// Exceptions in invoked methods do not cost a VM, so the single VM handles both classes
+		assertEquals(1, result.getVmCount());
+	}
+
+	private static byte[] createFailingClass() {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_8, ACC_PUBLIC, FAILING, null, "java/lang/Object", null);
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "fail", "()I", null, null);
+		mv.visitCode();
+		mv.visitTypeInsn(NEW, "java/lang/IllegalStateException");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalStateException", "<init>", "()V", false);
+		mv.visitInsn(ATHROW);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+}
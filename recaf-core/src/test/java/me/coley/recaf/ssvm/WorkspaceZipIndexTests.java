@@ -0,0 +1,107 @@
+package me.coley.recaf.ssvm;
+
+import me.coley.recaf.TestUtils;
+import me.coley.recaf.code.ClassInfo;
+import me.coley.recaf.code.FileInfo;
+import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.resource.Resource;
+import me.coley.recaf.workspace.resource.Resources;
+import me.coley.recaf.workspace.resource.source.JarContentSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link WorkspaceZipIndex}.
+ */
+public class WorkspaceZipIndexTests extends TestUtils implements Opcodes {
+	private Workspace workspace;
+	private Resource primary;
+	private WorkspaceZipIndex index;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		primary = new Resource(new JarContentSource(sourcesDir.resolve("Sample.jar")));
+		primary.read();
+		workspace = new Workspace(new Resources(primary));
+		index = new WorkspaceZipIndex(workspace);
+	}
+
+	@Test
+	void testGetEntry() {
+		ClassInfo food = primary.getClasses().get("game/Food");
+		ZipEntry entry = index.getEntry("game/Food.class");
+		assertNotNull(entry);
+		assertEquals(food.getValue().length, entry.getSize());
+		assertNull(index.getEntry("game/Food"), "Class entries should have the '.class' suffix");
+		assertNull(index.getEntry("game/Missing.class"));
+		assertSame(food, index.lookup("game/Food.class"));
+		assertEquals(primary.getClasses().size() + primary.getFiles().size(), index.size());
+	}
+
+	@Test
+	void testClassChangesInvalidateEntries() {
+		String name = "game/Added";
+		primary.getClasses().put(ClassInfo.read(createClass(name, 0)));
+		ZipEntry added = index.getEntry(name + ".class");
+		assertNotNull(added);
+		// Entries reflect updated content
+		primary.getClasses().put(ClassInfo.read(createClass(name, 3)));
+		ZipEntry updated = index.getEntry(name + ".class");
+		assertNotNull(updated);
+		assertNotEquals(added.getSize(), updated.getSize());
+		assertEquals(primary.getClasses().get(name).getValue().length, updated.getSize());
+		// Removed classes have no entry
+		primary.getClasses().remove(name);
+		assertNull(index.getEntry(name + ".class"));
+	}
+
+	@Test
+	void testFileChangesInvalidateEntries() {
+		primary.getFiles().put(new FileInfo("data/test.txt", new byte[10]));
+		assertEquals(10, index.getEntry("data/test.txt").getSize());
+		// Snapshots are not updated, but new snapshots are
+		int snapshotSize = index.getEntries().size();
+		primary.getFiles().remove("data/test.txt");
+		assertNull(index.getEntry("data/test.txt"));
+		assertEquals(snapshotSize - 1, index.getEntries().size());
+	}
+
+	@Test
+	void testLibraryChangesInvalidateEntries() {
+		String name = "lib/Example";
+		Resource library = new Resource(new JarContentSource(sourcesDir.resolve("Sample.jar")));
+		library.getClasses().put(ClassInfo.read(createClass(name, 0)));
+		workspace.addLibrary(library);
+		assertNotNull(index.getEntry(name + ".class"));
+		// Library changes are tracked while it is in the workspace
+		library.getClasses().put(ClassInfo.read(createClass(name + "2", 0)));
+		assertNotNull(index.getEntry(name + "2.class"));
+		workspace.removeLibrary(library);
+		assertNull(index.getEntry(name + ".class"));
+		assertNull(index.getEntry(name + "2.class"));
+	}
+
+	@Test
+	void testCleanupStopsTracking() {
+		index.cleanup();
+		assertEquals(0, index.size());
+		primary.getClasses().put(ClassInfo.read(createClass("game/Added", 0)));
+		assertNull(index.getEntry("game/Added.class"));
+	}
+
+	private static byte[] createClass(String name, int fieldCount) {
+		ClassWriter cw = new ClassWriter(0);
+		cw.visit(V1_8, ACC_PUBLIC, name, null, "java/lang/Object", null);
+		for (int i = 0; i < fieldCount; i++)
+			cw.visitField(ACC_PUBLIC, "field" + i, "I", null, null).visitEnd();
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+}
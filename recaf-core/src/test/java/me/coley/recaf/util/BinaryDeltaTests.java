@@ -0,0 +1,94 @@
+package me.coley.recaf.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link BinaryDelta}.
+ */
+public class BinaryDeltaTests {
+	@Test
+	void testIdentical() {
+		byte[] content = bytes("unchanged content");
+		assertRoundTrip(content, content.clone());
+	}
+
+	@Test
+	void testEmpty() {
+		assertRoundTrip(new byte[0], new byte[0]);
+		assertRoundTrip(new byte[0], bytes("added"));
+		assertRoundTrip(bytes("removed"), new byte[0]);
+	}
+
+	@Test
+	void testPrefixAndSuffixChanges() {
+		assertRoundTrip(bytes("hello world"), bytes("jello world"));
+		assertRoundTrip(bytes("hello world"), bytes("hello worlds"));
+		assertRoundTrip(bytes("hello world"), bytes("hello"));
+		assertRoundTrip(bytes("hello world"), bytes("world"));
+	}
+
+	@Test
+	void testInsertAndDelete() {
+		assertRoundTrip(bytes("hello world"), bytes("hello there world"));
+		assertRoundTrip(bytes("hello there world"), bytes("hello world"));
+		// Overlap of the shared prefix and suffix
+		assertRoundTrip(bytes("aaa"), bytes("aaaa"));
+		assertRoundTrip(bytes("aaaa"), bytes("aaa"));
+	}
+
+	@Test
+	void testLargeContent() {
+		// Larger than the dictionary, with scattered changes
+		Random random = new Random(0);
+		byte[] base = new byte[100_000];
+		random.nextBytes(base);
+		byte[] target = Arrays.copyOf(base, base.length + 1000);
+		for (int i = 0; i < 50; i++)
+			target[random.nextInt(target.length)] ^= 1;
+		assertRoundTrip(base, target);
+		assertRoundTrip(target, base);
+	}
+
+	@Test
+	void testSmallEditsAreCompact() {
+		byte[] base = new byte[50_000];
+		new Random(1).nextBytes(base);
+		byte[] target = base.clone();
+		target[25_000] ^= 1;
+		assertTrue(BinaryDelta.create(base, target).length < 100);
+	}
+
+	@Test
+	void testMismatchedInput() {
+		byte[] base = bytes("hello world");
+		byte[] delta = BinaryDelta.create(base, bytes("hello there world"));
+		assertThrows(IllegalArgumentException.class, () -> BinaryDelta.apply(bytes("hi"), delta));
+		assertThrows(IllegalArgumentException.class, () -> BinaryDelta.apply(base, Arrays.copyOf(delta, 4)));
+		// Cut off part of the changed content
+		byte[] inserted = new byte[1000];
+		new Random(2).nextBytes(inserted);
+		byte[] largeDelta = BinaryDelta.create(base, concat(base, inserted));
+		assertThrows(IllegalArgumentException.class, () -> BinaryDelta.apply(base, Arrays.copyOf(largeDelta, largeDelta.length / 2)));
+	}
+
+	private static void assertRoundTrip(byte[] base, byte[] target) {
+		byte[] delta = BinaryDelta.create(base, target);
+		assertArrayEquals(target, BinaryDelta.apply(base, delta));
+	}
+
+	private static byte[] concat(byte[] a, byte[] b) {
+		byte[] result = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, result, a.length, b.length);
+		return result;
+	}
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,113 @@
+package me.coley.recaf.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SymbolIndex}.
+ */
+public class SymbolIndexTests {
+	private SymbolIndex<String> index;
+
+	@BeforeEach
+	void setup() {
+		index = new SymbolIndex<>();
+		add("java/lang/String");
+		add("java/lang/StringBuilder");
+		add("java/util/ArrayList");
+		add("java/util/HashMap");
+		add("java/util/concurrent/ConcurrentHashMap");
+	}
+
+	@Test
+	void testAdd() {
+		assertEquals(5, index.size());
+		assertTrue(index.contains("java/util/HashMap"));
+		assertFalse(index.contains("java/util/TreeMap"));
+		add("java/util/TreeMap");
+		assertEquals(6, index.size());
+		assertEquals(List.of("java/util/TreeMap"), index.search("TreeMap", 10));
+	}
+
+	@Test
+	void testAddReplacesNames() {
+		index.add("java/util/HashMap", "Renamed");
+		assertEquals(5, index.size());
+		assertEquals(List.of("java/util/HashMap"), index.search("Renamed", 10));
+		assertFalse(index.search("HashMap", 10).contains("java/util/HashMap"),
+				"Prior names should no longer match");
+	}
+
+	@Test
+	void testAddRequiresName() {
+		assertThrows(IllegalArgumentException.class, () -> index.add("value"));
+	}
+
+	@Test
+	void testRemove() {
+		assertTrue(index.remove("java/util/HashMap"));
+		assertFalse(index.remove("java/util/HashMap"));
+		assertFalse(index.contains("java/util/HashMap"));
+		assertEquals(4, index.size());
+		assertFalse(index.search("HashMap", 10).contains("java/util/HashMap"));
+		assertFalse(index.search("hm", 10).contains("java/util/HashMap"));
+		assertFalse(index.search("HashMapp", 10).contains("java/util/HashMap"));
+		// Other values with shared names remain
+		assertTrue(index.search("HashMap", 10).contains("java/util/concurrent/ConcurrentHashMap"));
+	}
+
+	@Test
+	void testClear() {
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(index.search("String", 10).isEmpty());
+	}
+
+	@Test
+	void testPrefixQuery() {
+		List<String> results = index.search("String", 10);
+		// Exact matches rank above longer prefix matches
+		assertEquals(List.of("java/lang/String", "java/lang/StringBuilder"), results);
+		// Qualified names are matched by prefix too
+		assertEquals("java/util/ArrayList", index.search("java/util/Arr", 10).get(0));
+		// Case is ignored
+		assertEquals("java/util/ArrayList", index.search("arraylist", 10).get(0));
+	}
+
+	@Test
+	void testHumpQuery() {
+		assertEquals("java/lang/StringBuilder", index.search("SB", 10).get(0));
+		assertEquals("java/util/concurrent/ConcurrentHashMap", index.search("CHM", 10).get(0));
+		assertEquals("java/util/concurrent/ConcurrentHashMap", index.search("ConHasMa", 10).get(0));
+	}
+
+	@Test
+	void testFuzzyQuery() {
+		// Typo in the name still matches on shared trigrams
+		assertTrue(index.search("ArrayLsit", 10).contains("java/util/ArrayList"));
+		assertTrue(index.search("Unrelated", 10).isEmpty());
+	}
+
+	@Test
+	void testQueryLimitAndFilter() {
+		assertEquals(1, index.search("String", 1).size());
+		assertTrue(index.search("String", 0).isEmpty());
+		List<String> filtered = index.search("HashMap", 10, name -> name.contains("concurrent"));
+		assertEquals(List.of("java/util/concurrent/ConcurrentHashMap"), filtered);
+	}
+
+	@Test
+	void testBlankQuery() {
+		List<String> results = index.search("", 3);
+		assertEquals(3, results.size());
+		assertEquals(5, index.search(" ", 10).size());
+	}
+
+	private void add(String name) {
+		index.add(name, name.substring(name.lastIndexOf('/') + 1), name);
+	}
+}
@@ -0,0 +1,166 @@
+package me.coley.recaf.util.hex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link HexPieceTable}.
+ */
+public class HexPieceTableTests {
+	@Test
+	void testUnmodified() {
+		HexPieceTable table = table(0, 1, 2, 3);
+		assertFalse(table.isModified());
+		assertEquals(1, table.getPieceCount());
+		assertContent(table, 0, 1, 2, 3);
+		assertEquals(0, table().toByteArray().length);
+	}
+
+	@Test
+	void testInsert() {
+		HexPieceTable table = table(0, 1, 2, 3);
+		table.insert(2, 2);
+		assertTrue(table.isModified());
+		assertContent(table, 0, 1, 0, 0, 2, 3);
+		// Start and end of the content
+		table.insert(0, 1);
+		table.insert(table.length(), 1);
+		assertContent(table, 0, 0, 1, 0, 0, 2, 3, 0);
+	}
+
+	@Test
+	void testDeleteAcrossPieces() {
+		HexPieceTable table = table(0, 1, 2, 3, 4, 5);
+		table.insert(3, 2);
+		table.set(3, (byte) 9);
+		table.set(4, (byte) 8);
+		assertContent(table, 0, 1, 2, 9, 8, 3, 4, 5);
+		// Spans the end of the first original piece, the added piece, and the start of the second original piece
+		table.delete(2, 4);
+		assertContent(table, 0, 1, 4, 5);
+		// Count is capped to the remaining content
+		table.delete(3, 100);
+		assertContent(table, 0, 1, 4);
+		table.delete(0, table.length());
+		assertEquals(0, table.length());
+		assertEquals(0, table.getPieceCount());
+	}
+
+	@Test
+	void testReplaceAcrossPieces() {
+		HexPieceTable table = table(0, 1, 2, 3, 4, 5);
+		table.insert(3, 1);
+		// Overwrite every byte, crossing from original to added to original pieces
+		for (int i = 0; i < table.length(); i++)
+			table.set(i, (byte) (10 + i));
+		assertContent(table, 10, 11, 12, 13, 14, 15, 16);
+		// Original content is left as-is
+		byte[] original = new byte[(int) table.getOriginal().length()];
+		table.getOriginal().read(0, original, 0, original.length);
+		assertArrayEquals(bytes(0, 1, 2, 3, 4, 5), original);
+	}
+
+	@Test
+	void testSequentialOverwriteExtendsPiece() {
+		HexPieceTable table = table(0, 1, 2, 3, 4, 5, 6, 7);
+		for (int i = 2; i < 6; i++)
+			table.set(i, (byte) 9);
+		assertContent(table, 0, 1, 9, 9, 9, 9, 6, 7);
+		// Original prefix, a single added piece, original suffix
+		assertEquals(3, table.getPieceCount());
+	}
+
+	@Test
+	void testReadAcrossPieces() {
+		HexPieceTable table = table(0, 1, 2, 3, 4, 5);
+		table.insert(2, 1);
+		table.insert(5, 1);
+		byte[] buffer = new byte[6];
+		table.read(1, buffer, 1, 5);
+		assertArrayEquals(bytes(0, 1, 0, 2, 3, 0), buffer);
+		assertThrows(IndexOutOfBoundsException.class, () -> table.get(table.length()));
+		assertThrows(IndexOutOfBoundsException.class, () -> table.get(-1));
+	}
+
+	@Test
+	void testSnapshotIsUnaffectedByEdits() {
+		HexPieceTable table = table(0, 1, 2, 3);
+		table.insert(1, 1);
+		table.set(1, (byte) 7);
+		HexPieceTable snapshot = table.snapshot();
+		assertTrue(snapshot.isModified());
+		table.set(1, (byte) 8);
+		table.delete(0, 2);
+		assertContent(snapshot, 0, 7, 1, 2, 3);
+		assertContent(table, 1, 2, 3);
+	}
+
+	@Test
+	void testRandomEditsMatchArray() {
+		Random random = new Random(0);
+		byte[] initial = new byte[256];
+		random.nextBytes(initial);
+		HexPieceTable table = new HexPieceTable(new ArrayHexSource(initial.clone()));
+		List<Byte> expected = new ArrayList<>();
+		for (byte b : initial)
+			expected.add(b);
+		for (int i = 0; i < 2000; i++) {
+			int size = expected.size();
+			switch (random.nextInt(3)) {
+				case 0: {
+					int position = random.nextInt(size + 1);
+					int count = 1 + random.nextInt(8);
+					table.insert(position, count);
+					for (int j = 0; j < count; j++)
+						expected.add(position, (byte) 0);
+					break;
+				}
+				case 1: {
+					if (size == 0)
+						break;
+					int position = random.nextInt(size);
+					int count = 1 + random.nextInt(8);
+					table.delete(position, count);
+					expected.subList(position, Math.min(size, position + count)).clear();
+					break;
+				}
+				default: {
+					if (size == 0)
+						break;
+					int position = random.nextInt(size);
+					byte value = (byte) random.nextInt();
+					table.set(position, value);
+					expected.set(position, value);
+					break;
+				}
+			}
+		}
+		byte[] expectedArray = new byte[expected.size()];
+		for (int i = 0; i < expectedArray.length; i++)
+			expectedArray[i] = expected.get(i);
+		assertArrayEquals(expectedArray, table.toByteArray());
+	}
+
+	private static void assertContent(HexPieceTable table, int... expected) {
+		assertEquals(expected.length, table.length());
+		assertArrayEquals(bytes(expected), table.toByteArray());
+		for (int i = 0; i < expected.length; i++)
+			assertEquals((byte) expected[i], table.get(i));
+	}
+
+	private static HexPieceTable table(int... content) {
+		return new HexPieceTable(new ArrayHexSource(bytes(content)));
+	}
+
+	private static byte[] bytes(int... values) {
+		byte[] data = new byte[values.length];
+		for (int i = 0; i < values.length; i++)
+			data[i] = (byte) values[i];
+		return data;
+	}
+}
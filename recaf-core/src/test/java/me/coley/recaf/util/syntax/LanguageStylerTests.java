@@ -0,0 +1,255 @@
+package me.coley.recaf.util.syntax;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link LanguageStyler}, checking incremental restyles give the same result as styling the
+ * complete document from scratch.
+ */
+public class LanguageStylerTests {
+	private static final String UNSTYLED = "?";
+	// Strings may span lines, so they declare delimiters the same as block comments.
+	// Characters may not, so they do not need any.
+	private static final Language LANGUAGE = new Language("test", "Test", Arrays.asList(
+			new LanguageRule("comment-multi", "\\/\\*[\\s\\S]*?\\*\\/", "/*", "*/"),
+			new LanguageRule("comment-line", "//.+"),
+			new LanguageRule("string", "\"(?:[^\"\\\\]|\\\\.)*\"", "\"", "\""),
+			new LanguageRule("constant", "\\b\\d+\\b|'[^'\\n]*'"),
+			new LanguageRule("keyword", "\\b(?:class|int|return)\\b")
+	), false);
+	private static final String CODE = "class Foo {\n" +
+			"\tint a = 1;\n" +
+			"\t// line comment\n" +
+			"\tint b() {\n" +
+			"\t\treturn \"str\" + 2;\n" +
+			"\t}\n" +
+			"\t/* block\n" +
+			"\t   comment */\n" +
+			"\tint c = 3;\n" +
+			"}\n";
+
+	@Test
+	void testComplete() {
+		Document doc = new Document("int a = \"x\"; /* c */ 1");
+		assertEquals(List.of("keyword", "text", "string", "text", "comment-multi", "text", "constant"),
+				doc.getRuns());
+	}
+
+	@Test
+	void testInsert() {
+		Document doc = new Document(CODE);
+		// Within a line, creating a new keyword
+		doc.insert(CODE.indexOf("a ="), "int ");
+		// Within a string
+		doc.insert(doc.text.indexOf("str") + 1, "ing");
+		// At the start and end of the document
+		doc.insert(0, "1 ");
+		doc.insert(doc.text.length(), "return");
+	}
+
+	@Test
+	void testDelete() {
+		Document doc = new Document(CODE);
+		// Breaking a keyword
+		doc.delete(CODE.indexOf("int b") + 1, 1);
+		// Closing quote of a string, so it extends to the next quote in the document
+		int quote = doc.text.indexOf("\" +");
+		doc.delete(quote, 1);
+		// All of the document
+		doc.delete(0, doc.text.length());
+	}
+
+	@Test
+	void testMultiLineEdits() {
+		Document doc = new Document(CODE);
+		// Insert and remove several lines at once
+		doc.insert(CODE.indexOf("\tint b"), "\tint x = 4;\n\tint y = 5;\n\n");
+		doc.delete(doc.text.indexOf("\tint x"), doc.text.indexOf("\tint b") - doc.text.indexOf("\tint x"));
+		// Replacing the middle of the block comment, across its line break
+		doc.replace(doc.text.indexOf("block"), doc.text.indexOf("comment */") - doc.text.indexOf("block"),
+				"x\ny\nz ");
+		// Joining every line into one
+		int newline;
+		while ((newline = doc.text.indexOf('\n')) >= 0 && newline < doc.text.length() - 1)
+			doc.replace(newline, 1, " ");
+	}
+
+	@Test
+	void testCommentOpening() {
+		Document doc = new Document(CODE);
+		// Opening a comment without closing it styles the rest of the document as a comment
+		doc.insert(CODE.indexOf("\tint c"), "/*");
+		assertEquals("comment-multi", doc.styles.get(doc.text.length() - 1));
+		// Closing it again only comments out the text between the delimiters
+		doc.insert(doc.text.indexOf(";", doc.text.indexOf("int c")) + 1, "*/");
+		assertEquals("text", doc.styles.get(doc.text.length() - 1));
+		// Opening a comment before the existing one, which then closes it
+		doc.insert(CODE.indexOf("\tint b"), "/*");
+		assertEquals("comment-multi", doc.styles.get(doc.text.indexOf("int b")));
+		assertEquals("text", doc.styles.get(doc.text.indexOf("comment */") + 10));
+		// Removing the start of the existing block comment
+		doc.delete(doc.text.indexOf("/* block"), 1);
+	}
+
+	@Test
+	void testMultiLineString() {
+		Document doc = new Document(CODE);
+		// An opening quote pairs with the next quote in the document, spanning lines
+		doc.insert(CODE.indexOf("a ="), "\"");
+		assertEquals("string", doc.styles.get(doc.text.indexOf("line comment")));
+		// The quote that closed the original string is now unclosed, so the rest of the document is a string,
+		// the same as with unclosed comments
+		assertEquals("string", doc.styles.get(doc.text.length() - 1));
+		// Editing inside the string
+		doc.insert(doc.text.indexOf("int b"), "\n");
+		// Closing it on the same line again
+		doc.insert(doc.text.indexOf(";") + 1, "\"");
+		assertEquals("comment-line", doc.styles.get(doc.text.indexOf("line comment")));
+	}
+
+	@Test
+	void testBatchedEdits() {
+		Document doc = new Document(CODE);
+		// Multiple edits queued before a single pass, as happens when prior passes are cancelled
+		doc.queue(CODE.indexOf("int b"), 0, "/* ");
+		doc.queue(doc.text.indexOf("int c"), 0, "\n\n");
+		doc.queue(0, 6, "");
+		doc.styleQueued();
+	}
+
+	@Test
+	void testRestyleRangeFollowsEdit() {
+		String code = "class Foo {\n\tint a = 1;\n\t// comment\n}\n";
+		Document doc = new Document(code.repeat(500));
+		int offset = doc.text.lastIndexOf("int a");
+		doc.insert(offset, "int ");
+		// Only the edited line is restyled, not the whole document
+		assertTrue(doc.lastApplyStart > 0 && doc.lastApplyStart <= offset);
+		assertTrue(doc.lastApplyLength < code.length());
+		// Opening a comment restyles everything after it, but nothing before it
+		doc.insert(code.length(), "/*");
+		assertEquals(code.length(), doc.lastApplyStart);
+		assertEquals(doc.text.length() - code.length(), doc.lastApplyLength);
+		// Closing it again restyles everything the open comment covered
+		doc.insert(code.length() * 2, "*/");
+		assertEquals(code.length(), doc.lastApplyStart);
+		assertEquals(doc.text.length() - code.length(), doc.lastApplyLength);
+	}
+
+	@Test
+	void testRandomEdits() {
+		Random random = new Random(0);
+		String[] fragments = {"/*", "*/", "\"", "'", "//", "\n", " ", "int", "1", "x", "\\"};
+		Document doc = new Document(CODE);
+		for (int i = 0; i < 2000; i++) {
+			int pos = random.nextInt(doc.text.length() + 1);
+			int removed = random.nextInt(3) == 0 ? Math.min(random.nextInt(8), doc.text.length() - pos) : 0;
+			StringBuilder inserted = new StringBuilder();
+			int count = random.nextInt(3);
+			for (int j = 0; j < count; j++)
+				inserted.append(fragments[random.nextInt(fragments.length)]);
+			doc.replace(pos, removed, inserted.toString());
+		}
+	}
+
+	/**
+	 * Document styled by a {@link LanguageStyler}, which tracks the style of each character.
+	 * Edits are styled incrementally and checked against a complete restyle.
+	 */
+	private static class Document implements Styleable {
+		private final LanguageStyler styler = new LanguageStyler(LANGUAGE, this);
+		private final List<String> styles = new ArrayList<>();
+		private String text;
+		private long lastEdit;
+		private int lastApplyStart = -1;
+		private int lastApplyLength = -1;
+
+		private Document(String text) {
+			this.text = text;
+			styles.addAll(Collections.nCopies(text.length(), UNSTYLED));
+			styler.styleCompleteDocument(text).join();
+			assertFalse(styles.contains(UNSTYLED), "Complete pass left text unstyled");
+		}
+
+		private void insert(int pos, String inserted) {
+			replace(pos, 0, inserted);
+		}
+
+		private void delete(int pos, int length) {
+			replace(pos, length, "");
+		}
+
+		private void replace(int pos, int length, String inserted) {
+			queue(pos, length, inserted);
+			styleQueued();
+		}
+
+		private void queue(int pos, int length, String inserted) {
+			String removed = text.substring(pos, pos + length);
+			int line = 0;
+			for (int i = 0; i < pos; i++)
+				if (text.charAt(i) == '\n')
+					line++;
+			int lineOffset = text.lastIndexOf('\n', pos - 1) + 1;
+			text = text.substring(0, pos) + inserted + text.substring(pos + length);
+			styles.subList(pos, pos + length).clear();
+			styles.addAll(pos, Collections.nCopies(inserted.length(), UNSTYLED));
+			lastEdit = styler.queueEdit(line, lineOffset, removed, inserted);
+		}
+
+		private void styleQueued() {
+			lastApplyStart = -1;
+			lastApplyLength = -1;
+			styler.styleEdits(text, lastEdit).join();
+			Document expected = new Document(text);
+			assertEquals(expected.getRuns(), getRuns(), "Incremental styles differ for: " + text);
+			assertEquals(expected.styles, styles, "Incremental styles differ for: " + text);
+		}
+
+		/**
+		 * @return Style of each run of equally styled characters.
+		 */
+		private List<String> getRuns() {
+			List<String> runs = new ArrayList<>();
+			for (String style : styles)
+				if (runs.isEmpty() || !runs.get(runs.size() - 1).equals(style))
+					runs.add(style);
+			return runs;
+		}
+
+		@Override
+		public Collection<String> getStyleAtPosition(int pos) {
+			return Collections.singleton(styles.get(pos));
+		}
+
+		@Override
+		public CompletableFuture<Void> onClearStyle() {
+			Collections.fill(styles, "text");
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public CompletableFuture<Void> onApplyStyle(int start, List<LanguageStyler.Section> sections) {
+			int pos = start;
+			for (LanguageStyler.Section section : sections) {
+				assertEquals(text.substring(pos, pos + section.length), section.text);
+				for (int i = 0; i < section.length; i++)
+					styles.set(pos + i, section.classes.iterator().next());
+				pos += section.length;
+			}
+			lastApplyStart = start;
+			lastApplyLength = pos - start;
+			return CompletableFuture.completedFuture(null);
+		}
+	}
+}
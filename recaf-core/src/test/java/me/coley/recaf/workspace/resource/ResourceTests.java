@@ -10,7 +10,14 @@ import org.objectweb.asm.Opcodes;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,6 +56,220 @@ public class ResourceTests extends TestUtils {
 		assertNotNull(classHello);
 	}
 
+	@Test
+	void testMultiDexIndexTracksChanges() throws IOException {
+		Resource primary = new Resource(new ApkContentSource(sourcesDir.resolve("Sample.apk")));
+		primary.read();
+		MultiDexClassMap dexClasses = primary.getDexClasses();
+		String name = "com/example/android/contactmanager/ContactAdder";
+		DexClassInfo info = dexClasses.get(name);
+		assertNotNull(info);
+		int size = dexClasses.size();
+		// Removal should be reflected in lookups and the cached size
+		assertEquals(info, dexClasses.remove(name));
+		assertFalse(dexClasses.containsKey(name));
+		assertNull(dexClasses.get(name));
+		assertEquals(size - 1, dexClasses.size());
+		// Re-adding should do the same
+		dexClasses.put(info.getDexPath(), name, info);
+		assertTrue(dexClasses.containsKey(name));
+		assertEquals(info, dexClasses.get(name));
+		assertEquals(size, dexClasses.size());
+	}
+
+	@Test
+	void testBatchPutNotifiesOnce() throws IOException {
+		Resource primary = new Resource(new JarContentSource(sourcesDir.resolve("Sample.jar")));
+		primary.read();
+		List<ClassInfo> updated = new ArrayList<>();
+		for (ClassInfo info : primary.getClasses().values())
+			updated.add(ClassInfo.read(info.getValue()));
+		int[] batches = new int[1];
+		int[] singles = new int[1];
+		primary.addClassListener(new ResourceClassListener() {
+			@Override
+			public void onNewClass(Resource resource, ClassInfo newValue) {
+				singles[0]++;
+			}
+
+			@Override
+			public void onRemoveClass(Resource resource, ClassInfo oldValue) {
+				singles[0]++;
+			}
+
+			@Override
+			public void onUpdateClass(Resource resource, ClassInfo oldValue, ClassInfo newValue) {
+				singles[0]++;
+			}
+
+			@Override
+			public void onClassChanges(Resource resource, ItemChangeSet<ClassInfo> changes) {
+				batches[0]++;
+				assertEquals(updated.size(), changes.getUpdatedNew().size());
+				assertTrue(changes.getAdded().isEmpty());
+				assertTrue(changes.getRemoved().isEmpty());
+			}
+		});
+		primary.getClasses().putBatch(updated);
+		assertEquals(1, batches[0]);
+		assertEquals(0, singles[0]);
+		// Each class should have a new history entry
+		assertEquals(updated.size(), primary.getClasses().getDirtyItems().size());
+	}
+
+	@Test
+	void testBatchCoalescesChanges() throws IOException {
+		Resource primary = new Resource(new JarContentSource(sourcesDir.resolve("Sample.jar")));
+		primary.read();
+		FileMap files = primary.getFiles();
+		FileInfo original = new FileInfo("existing.txt", "a".getBytes());
+		files.initialPut(original);
+		List<ItemChangeSet<FileInfo>> batches = new ArrayList<>();
+		primary.addFileListener(new ResourceFileListener() {
+			@Override
+			public void onNewFile(Resource resource, FileInfo newValue) {
+				fail("Batch should not dispatch single events");
+			}
+
+			@Override
+			public void onRemoveFile(Resource resource, FileInfo oldValue) {
+				fail("Batch should not dispatch single events");
+			}
+
+			@Override
+			public void onUpdateFile(Resource resource, FileInfo oldValue, FileInfo newValue) {
+				fail("Batch should not dispatch single events");
+			}
+
+			@Override
+			public void onFileChanges(Resource resource, ItemChangeSet<FileInfo> changes) {
+				batches.add(changes);
+			}
+		});
+		FileInfo last = new FileInfo("existing.txt", "c".getBytes());
+		files.batch(() -> {
+			// Added then removed, should not appear at all
+			files.put(new FileInfo("temporary.txt", new byte[0]));
+			files.remove("temporary.txt");
+			// Multiple updates, should appear as one update from the original value
+			files.put(new FileInfo("existing.txt", "b".getBytes()));
+			files.put(last);
+		});
+		assertEquals(1, batches.size());
+		ItemChangeSet<FileInfo> changes = batches.get(0);
+		assertEquals(1, changes.size());
+		assertSame(original, changes.getUpdatedOld().get("existing.txt"));
+		assertSame(last, changes.getUpdatedNew().get("existing.txt"));
+		// Empty batches should not notify listeners
+		files.batch(() -> {});
+		assertEquals(1, batches.size());
+	}
+
+	@Test
+	void testHistoryRevertsThroughStoredRevisions() throws IOException {
+		Resource primary = new Resource(new JarContentSource(sourcesDir.resolve("Sample.jar")));
+		primary.read();
+		FileMap files = primary.getFiles();
+		String name = "history.txt";
+		files.initialPut(new FileInfo(name, "revision 0".getBytes()));
+		long budget = ItemHistory.getMemoryBudget();
+		try {
+			// Force older revisions out of memory
+			ItemHistory.setMemoryBudget(0);
+			// Well beyond the number of recent revisions kept as-is
+			int revisions = 20;
+			for (int i = 1; i <= revisions; i++)
+				files.put(new FileInfo(name, ("revision " + i).getBytes()));
+			assertEquals(revisions + 1, files.getHistory(name).size());
+			// Undo should walk back through every revision in order
+			for (int i = revisions - 1; i >= 0; i--) {
+				files.decrementHistory(name);
+				assertEquals("revision " + i, new String(files.getHistory(name).peek().getValue()));
+			}
+			assertEquals(1, files.getHistory(name).size());
+			// Disposing releases all revisions
+			primary.disposeHistory();
+			assertNull(files.getHistory(name));
+			assertEquals("revision 0", new String(files.get(name).getValue()));
+		} finally {
+			ItemHistory.setMemoryBudget(budget);
+		}
+	}
+
+	@Test
+	void testSnapshotMatchesReadResource() throws IOException {
+		Path dir = Files.createTempDirectory("recaf-snapshot");
+		Path jar = dir.resolve("Sample.jar");
+		Files.copy(sourcesDir.resolve("Sample.jar"), jar);
+		// Keep snapshots out of the user's cache directory
+		Path snapshotDir = dir.resolve("snapshots");
+		Path defaultSnapshotDir = ResourceSnapshot.getDirectory();
+		ResourceSnapshot.setDirectory(snapshotDir);
+		try {
+			Resource read = ResourceIO.fromPath(jar, true);
+			assertNull(ResourceSnapshot.load(jar));
+			ResourceSnapshot.prepareSave(jar, read).run();
+			// Snapshot content should match what was read from the file
+			Resource loaded = ResourceSnapshot.load(jar);
+			assertNotNull(loaded);
+			assertEquals(read.getClasses().keySet(), loaded.getClasses().keySet());
+			assertEquals(read.getFiles().keySet(), loaded.getFiles().keySet());
+			for (ClassInfo info : read.getClasses().values())
+				assertArrayEquals(info.getValue(), loaded.getClasses().get(info.getName()).getValue());
+			// Changing the file should invalidate the snapshot
+			Files.write(jar, new byte[]{0}, StandardOpenOption.APPEND);
+			assertNull(ResourceSnapshot.load(jar));
+		} finally {
+			ResourceSnapshot.retain(Collections.emptyList());
+			ResourceSnapshot.setDirectory(defaultSnapshotDir);
+			Files.deleteIfExists(snapshotDir);
+			Files.deleteIfExists(jar);
+			Files.deleteIfExists(dir);
+		}
+	}
+
+	@Test
+	void testSnapshotSizeLimit() throws IOException {
+		Path dir = Files.createTempDirectory("recaf-snapshot");
+		Path first = dir.resolve("First.jar");
+		Path second = dir.resolve("Second.jar");
+		Files.copy(sourcesDir.resolve("Sample.jar"), first);
+		Files.copy(sourcesDir.resolve("Sample.jar"), second);
+		Path snapshotDir = dir.resolve("snapshots");
+		Path defaultSnapshotDir = ResourceSnapshot.getDirectory();
+		long defaultLimit = ResourceSnapshot.getMaxTotalSize();
+		ResourceSnapshot.setDirectory(snapshotDir);
+		try {
+			Resource read = ResourceIO.fromPath(first, true);
+			ResourceSnapshot.prepareSave(first, read).run();
+			assertNotNull(ResourceSnapshot.load(first));
+			// Room for only one snapshot, so writing another removes the older one
+			long size;
+			try (Stream<Path> snapshots = Files.list(snapshotDir)) {
+				size = snapshots.mapToLong(p -> p.toFile().length()).sum();
+			}
+			ResourceSnapshot.setMaxTotalSize(size + 1);
+			ResourceSnapshot.prepareSave(second, read).run();
+			assertNull(ResourceSnapshot.load(first));
+			assertNotNull(ResourceSnapshot.load(second));
+			// A snapshot larger than the limit is not written at all
+			ResourceSnapshot.setMaxTotalSize(1);
+			ResourceSnapshot.prepareSave(first, read).run();
+			assertNull(ResourceSnapshot.load(first));
+			// Existing snapshots beyond the limit are removed on the next prune
+			ResourceSnapshot.retain(Arrays.asList(first, second));
+			assertNull(ResourceSnapshot.load(second));
+		} finally {
+			ResourceSnapshot.setMaxTotalSize(defaultLimit);
+			ResourceSnapshot.retain(Collections.emptyList());
+			ResourceSnapshot.setDirectory(defaultSnapshotDir);
+			Files.deleteIfExists(snapshotDir);
+			Files.deleteIfExists(first);
+			Files.deleteIfExists(second);
+			Files.deleteIfExists(dir);
+		}
+	}
+
 	@Test
 	void testResourcesFileLookup() throws IOException {
 		Resource primary = new Resource(new WarContentSource(sourcesDir.resolve("Sample.war")));
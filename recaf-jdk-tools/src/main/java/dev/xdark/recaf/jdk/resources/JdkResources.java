@@ -79,8 +79,40 @@ public class JdkResources {
 								} finally {
 									close(resource);
 								}
-								break;
 							}
+							break;
+						case ToolConstant.BULK_RESOURCE_REQUEST:
+							int count = in.readInt();
+							String[] resourcePaths = new String[count];
+							for (int i = 0; i < count; i++) {
+								resourcePaths[i] = in.readUTF();
+							}
+							// Buffer the responses, the client does not read them until all are written
+							DataOutputStream bulkOut = new DataOutputStream(new BufferedOutputStream(out, 65536));
+							ByteArrayOutputStream content = new ByteArrayOutputStream();
+							for (String path : resourcePaths) {
+								URL resourceUrl = delegate.getResource(path);
+								if (resourceUrl == null) {
+									bulkOut.writeByte(ToolConstant.TRANSFER_RESOURCE_NOT_FOUND);
+									continue;
+								}
+								content.reset();
+								try (InputStream stream = resourceUrl.openStream()) {
+									int read;
+									while ((read = stream.read(buf)) != -1) {
+										content.write(buf, 0, read);
+									}
+								} catch (IOException ex) {
+									bulkOut.writeByte(ToolConstant.TRANSFER_BLOCK_ERROR);
+									writeError(bulkOut, ex);
+									continue;
+								}
+								bulkOut.writeByte(ToolConstant.TRANSFER_RESOURCE_DATA);
+								bulkOut.writeInt(content.size());
+								content.writeTo(bulkOut);
+							}
+							bulkOut.flush();
+							break;
 					}
 				}
 			}
@@ -10,6 +10,9 @@ import java.net.Socket;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Serverside component of jdk resources tool.
@@ -43,7 +46,7 @@ public class JdkResourcesServer {
 	 * @throws IOException
 	 * 		If any I/O error occurs.
 	 */
-	public byte[] requestResource(String resourcePath) throws IOException {
+	public synchronized byte[] requestResource(String resourcePath) throws IOException {
 		StreamPair streamPair = this.streamPair;
 		DataOutputStream out = streamPair.out;
 		out.writeByte(ToolConstant.RESOURCE_REQUEST);
@@ -94,13 +97,62 @@ public class JdkResourcesServer {
 		}
 	}
 
+	/**
+	 * Requests multiple resources from remote JVM in a single round trip.
+	 * All paths are sent before any response is read, so the cost of the
+	 * request does not grow with the number of resources requested.
+	 *
+	 * @param resourcePaths
+	 * 		Remote resource paths.
+	 *
+	 * @return map of resource paths to their content.
+	 * Resources that were not found are mapped to {@code null}.
+	 * Resources that could not be read are not included.
+	 *
+	 * @throws IOException
+	 * 		If any I/O error occurs.
+	 */
+	public synchronized Map<String, byte[]> requestResources(Collection<String> resourcePaths) throws IOException {
+		StreamPair streamPair = this.streamPair;
+		DataOutputStream out = streamPair.out;
+		out.writeByte(ToolConstant.BULK_RESOURCE_REQUEST);
+		out.writeInt(resourcePaths.size());
+		for (String resourcePath : resourcePaths) {
+			out.writeUTF(resourcePath);
+		}
+		out.flush();
+		DataInputStream in = streamPair.in;
+		Map<String, byte[]> resources = new LinkedHashMap<>();
+		for (String resourcePath : resourcePaths) {
+			byte response = in.readByte();
+			switch (response) {
+				case ToolConstant.TRANSFER_RESOURCE_NOT_FOUND:
+					resources.put(resourcePath, null);
+					break;
+				case ToolConstant.TRANSFER_BLOCK_ERROR:
+					// Skip, the remaining responses are still valid
+					in.readUTF();
+					break;
+				case ToolConstant.TRANSFER_RESOURCE_DATA:
+					byte[] content = new byte[in.readInt()];
+					in.readFully(content);
+					resources.put(resourcePath, content);
+					break;
+				default:
+					shutdown();
+					throw new IllegalStateException("Unknown command: " + response);
+			}
+		}
+		return resources;
+	}
+
 	/**
 	 * Shuts down server.
 	 *
 	 * @throws IOException
 	 * 		If any I/O error occurs.
 	 */
-	public void shutdown() throws IOException {
+	public synchronized void shutdown() throws IOException {
 		StreamPair streamPair = this.streamPair;
 		try {
 			DataOutputStream out = streamPair.out;
@@ -178,8 +230,8 @@ public class JdkResourcesServer {
 		final DataOutputStream out;
 
 		StreamPair(InputStream in, OutputStream out) {
-			this.in = new DataInputStream(in);
-			this.out = new DataOutputStream(out);
+			this.in = new DataInputStream(new BufferedInputStream(in));
+			this.out = new DataOutputStream(new BufferedOutputStream(out));
 		}
 	}
 
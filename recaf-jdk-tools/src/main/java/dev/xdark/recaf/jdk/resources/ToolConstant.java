@@ -15,6 +15,12 @@ public class ToolConstant {
 	 * Resource request command.
 	 */
 	public static final int RESOURCE_REQUEST = 1;
+	/**
+	 * Bulk resource request command.
+	 * Resource count is followed after that, then each UTF-8 encoded resource path.
+	 * All paths are read before any response is written, and responses are written in request order.
+	 */
+	public static final int BULK_RESOURCE_REQUEST = 2;
 
 	/**
 	 * Block size.
@@ -47,4 +53,9 @@ public class ToolConstant {
 	 * Indicates that resource was not found.
 	 */
 	public static final int TRANSFER_RESOURCE_NOT_FOUND = 5;
+	/**
+	 * Indicates that resource was found in a bulk request,
+	 * content length and content are followed after that.
+	 */
+	public static final int TRANSFER_RESOURCE_DATA = 6;
 }
@@ -46,28 +46,21 @@ public class Main {
 		if (parameters.getScriptPath() != null) {
 			Path scriptPath = parameters.getScriptPath().toPath();
 			if (Files.isRegularFile(scriptPath)) {
-				Runnable r = () -> {
-					try {
-						ScriptResult result = ScriptEngine.execute(scriptPath);
-						if (result.wasSuccess()) {
-							logger.info("Script execute complete");
-						} else if (result.wasCompileFailure()) {
-							logger.error("Script has compile errors: {}", result.getCompileDiagnostics().stream()
-									.map(Object::toString)
-									.collect(Collectors.joining(", ")));
-						} else if (result.wasRuntimeError()) {
-							logger.error("Script encountered error while running", result.getRuntimeThrowable());
-						}
-					} catch (IOException ex) {
-						logger.error("Failed to read script: {}", scriptPath);
-					}
-				};
+				String script;
+				try {
+					script = Files.readString(scriptPath);
+				} catch (IOException ex) {
+					logger.error("Failed to read script: {}", scriptPath);
+					return;
+				}
 				if (parameters.getPresentationType() == PresentationType.GUI) {
-					// Run the script on a delay, giving time to for the GUI to populate
-					ThreadUtil.runDelayed(500, r);
+					// Run the script on a delay, giving time to for the GUI to populate.
+					// Scripts run on their own pool so long-running ones do not stall shared worker threads.
+					ThreadUtil.runDelayed(500, () -> ScriptEngine.executeAsync(script, 0, null)
+							.getResult().thenAccept(Main::reportScriptResult));
 				} else {
 					// Run the script on the main thread
-					r.run();
+					reportScriptResult(ScriptEngine.execute(script));
 				}
 			} else {
 				logger.error("No script found: {}", scriptPath);
@@ -75,6 +68,22 @@ public class Main {
 		}
 	}
 
+	/**
+	 * @param result
+	 * 		Result of the script passed via launch parameters.
+	 */
+	private static void reportScriptResult(ScriptResult result) {
+		if (result.wasSuccess()) {
+			logger.info("Script execute complete");
+		} else if (result.wasCompileFailure()) {
+			logger.error("Script has compile errors: {}", result.getCompileDiagnostics().stream()
+					.map(Object::toString)
+					.collect(Collectors.joining(", ")));
+		} else if (result.wasRuntimeError()) {
+			logger.error("Script encountered error while running", result.getRuntimeThrowable());
+		}
+	}
+
 	/**
 	 * Setup file logging appender and compress old logs.
 	 */
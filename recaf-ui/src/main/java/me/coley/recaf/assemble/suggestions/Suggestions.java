@@ -8,8 +8,8 @@ import me.coley.recaf.code.FieldInfo;
 import me.coley.recaf.code.MemberInfo;
 import me.coley.recaf.code.MethodInfo;
 import me.coley.recaf.util.AccessFlag;
-import me.coley.recaf.util.ClasspathUtil;
 import me.coley.recaf.util.EscapeUtil;
+import me.coley.recaf.util.WorkspaceSymbolService;
 import me.darknet.assembler.instructions.ParseInfo;
 import me.darknet.assembler.parser.Group;
 import me.darknet.assembler.parser.groups.instructions.InstructionGroup;
@@ -21,8 +21,6 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-import static me.coley.recaf.util.ClasspathUtil.Tree;
-
 /**
  * Suggestion text provider.
  *
@@ -31,19 +29,19 @@ import static me.coley.recaf.util.ClasspathUtil.Tree;
  */
 public class Suggestions {
 	private final static TreeSet<String> INSTRUCTIONS = new TreeSet<>(ParseInfo.actions.keySet());
+	private final static int CLASS_LIMIT = 100;
 	private final Function<String, CommonClassInfo> mapper;
-	private final Tree systemClasses = ClasspathUtil.getSystemClasses();
-	private final Tree classes;
+	private final WorkspaceSymbolService symbols;
 	private MethodDefinition method;
 
 	/**
-	 * @param classes
-	 * 		Tree of current user classes.
+	 * @param symbols
+	 * 		Index of current user and system class names.
 	 * @param mapper
 	 * 		Function that maps a class name to a {@link CommonClassInfo} instance.
 	 */
-	public Suggestions(Tree classes, Function<String, CommonClassInfo> mapper, MethodDefinition method) {
-		this.classes = classes;
+	public Suggestions(WorkspaceSymbolService symbols, Function<String, CommonClassInfo> mapper, MethodDefinition method) {
+		this.symbols = symbols;
 		this.mapper = mapper;
 		this.method = method;
 	}
@@ -215,20 +213,20 @@ public class Suggestions {
 	}
 
 	private SuggestionsResults fuzzySearchClasses(String search) {
+		List<String> matches = symbols.searchClasses(search, CLASS_LIMIT);
 		if (search.isBlank())
-			return new SuggestionsResults(search, getAllClasses().map(c -> createClassSuggestion(search, c, null)));
-		return new SuggestionsResults(search, getAllClasses().map(className -> {
-			if (className.equals(search)) return null;
-			final BitSet bitSet = matches(className, search);
-			if (bitSet == null) return null;
-			return createClassSuggestion(search, className, bitSet);
-		}).filter(Objects::nonNull));
-	}
-
-	private Stream<String> getAllClasses() {
-		return Stream.concat(classes.getAllLeaves()
-				.map(Tree::getFullValue), systemClasses.getAllLeaves()
-				.map(Tree::getFullValue));
+			return new SuggestionsResults(search, matches.stream().map(c -> createClassSuggestion(search, c, null)));
+		return new SuggestionsResults(search, matches.stream()
+				.filter(className -> !className.equals(search))
+				.map(className -> {
+					// Hump and fuzzy matches of the index may not contain the search characters in order.
+					// Those get an empty set of matched characters, so they are compared consistently
+					// with the other matches instead of falling back to a different ordering.
+					BitSet matchingChars = matches(className, search);
+					if (matchingChars == null)
+						matchingChars = new BitSet();
+					return createClassSuggestion(search, className, matchingChars);
+				}));
 	}
 
 	/**
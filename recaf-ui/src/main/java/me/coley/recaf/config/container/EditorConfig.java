@@ -1,14 +1,17 @@
 package me.coley.recaf.config.container;
 
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.geometry.Pos;
 import me.coley.recaf.config.ConfigContainer;
 import me.coley.recaf.config.ConfigID;
 import me.coley.recaf.config.Group;
 import me.coley.recaf.config.bounds.IntBounds;
+import me.coley.recaf.config.bounds.IntLowerBound;
 import me.coley.recaf.ui.ClassViewMode;
 import me.coley.recaf.ui.DiffViewMode;
 import me.coley.recaf.ui.FileViewMode;
@@ -16,6 +19,7 @@ import me.coley.recaf.ui.pane.outline.MemberType;
 import me.coley.recaf.ui.pane.outline.OutlinePane;
 import me.coley.recaf.ui.pane.outline.Visibility;
 import me.coley.recaf.ui.util.Icons;
+import me.coley.recaf.workspace.resource.ItemHistory;
 
 import java.util.Map;
 import java.util.TreeMap;
@@ -48,7 +52,7 @@ public class EditorConfig implements ConfigContainer {
 	public Pos errorIndicatorPos = Pos.TOP_RIGHT;
 
 	/**
-	 * Associations between file extensions and {@link me.coley.recaf.ui.control.code.Language languages}.
+	 * Associations between file extensions and {@link me.coley.recaf.util.syntax.Language languages}.
 	 */
 	@Group("assoc")
 	@ConfigID("fileextassociations")
@@ -137,6 +141,25 @@ public class EditorConfig implements ConfigContainer {
 	@ConfigID("diff-view-mode")
 	public DiffViewMode diffViewMode = DiffViewMode.DECOMPILE;
 
+	/**
+	 * Setting for {@link ItemHistory#setMemoryBudget(long)}, in megabytes.
+	 * Older revisions of edited classes and files beyond this are moved to a temporary file.
+	 */
+	@Group("history")
+	@ConfigID("memorybudget")
+	@IntLowerBound(1)
+	public IntegerProperty historyMemoryBudget = new SimpleIntegerProperty(32);
+
+	@Override
+	public void onLoad() {
+		historyMemoryBudget.addListener((observable, oldValue, newValue) -> updateHistoryBudget());
+		updateHistoryBudget();
+	}
+
+	private void updateHistoryBudget() {
+		ItemHistory.setMemoryBudget(historyMemoryBudget.get() * 1024L * 1024L);
+	}
+
 	@Override
 	public String iconPath() {
 		return Icons.ACTION_EDIT;
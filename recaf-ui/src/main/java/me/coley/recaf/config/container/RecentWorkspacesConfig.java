@@ -1,15 +1,18 @@
 package me.coley.recaf.config.container;
 
 import me.coley.recaf.config.ConfigContainer;
+import me.coley.recaf.config.Configs;
 import me.coley.recaf.config.ConfigID;
 import me.coley.recaf.config.bounds.IntBounds;
 import me.coley.recaf.ui.control.tree.WorkspaceTreeWrapper;
 import me.coley.recaf.ui.pane.WorkspacePane;
 import me.coley.recaf.ui.util.Icons;
+import me.coley.recaf.util.threading.ThreadUtil;
 import me.coley.recaf.util.logging.Logging;
 import me.coley.recaf.workspace.Workspace;
 import me.coley.recaf.workspace.resource.Resource;
 import me.coley.recaf.workspace.resource.ResourceIO;
+import me.coley.recaf.workspace.resource.ResourceSnapshot;
 import me.coley.recaf.workspace.resource.Resources;
 import me.coley.recaf.workspace.resource.source.*;
 import org.slf4j.Logger;
@@ -42,6 +45,13 @@ public class RecentWorkspacesConfig implements ConfigContainer {
 	 */
 	@ConfigID("workspaces")
 	public List<WorkspaceModel> recentWorkspaces = new ArrayList<>();
+	/**
+	 * Keep snapshots of the read content of recent workspace files, so reopening them skips reading the archives.
+	 * Snapshots are removed when their workspace leaves the list, and their combined size is capped by
+	 * {@link ResourceSnapshot#DEFAULT_MAX_TOTAL_SIZE}.
+	 */
+	@ConfigID("snapshots")
+	public boolean useSnapshots = true;
 
 	@Override
 	public boolean isInternal() {
@@ -76,6 +86,16 @@ public class RecentWorkspacesConfig implements ConfigContainer {
 		while (recentWorkspaces.size() > max) {
 			recentWorkspaces.remove(recentWorkspaces.size() - 1);
 		}
+		// Prune snapshots of files no longer in the list
+		List<Path> snapshotPaths = new ArrayList<>();
+		if (useSnapshots) {
+			for (WorkspaceModel model : recentWorkspaces) {
+				snapshotPaths.add(Paths.get(model.getPrimary().getPath()));
+				for (ResourceModel library : model.getLibraries())
+					snapshotPaths.add(Paths.get(library.getPath()));
+			}
+		}
+		ThreadUtil.run(() -> ResourceSnapshot.retain(snapshotPaths));
 	}
 
 	/**
@@ -99,9 +119,32 @@ public class RecentWorkspacesConfig implements ConfigContainer {
 	 */
 	public void addWorkspace(Workspace workspace) {
 		WorkspaceModel model = RecentWorkspacesConfig.WorkspaceModel.from(workspace);
-		recentWorkspaces.remove(model);
+		boolean isNew = !recentWorkspaces.remove(model);
 		recentWorkspaces.add(0, model);
 		update();
+		// Otherwise snapshots are only written on the first reopen, which then has to read the files
+		if (isNew && useSnapshots) {
+			saveSnapshot(workspace.getResources().getPrimary());
+			workspace.getResources().getLibraries().forEach(RecentWorkspacesConfig::saveSnapshot);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of a resource read from a file in the background.
+	 * Resources with changes are skipped, since snapshots hold content as it was read.
+	 *
+	 * @param resource
+	 * 		Resource to snapshot.
+	 */
+	private static void saveSnapshot(Resource resource) {
+		if (!(resource.getContentSource() instanceof FileContentSource))
+			return;
+		if (!resource.getClasses().getDirtyItems().isEmpty() || !resource.getFiles().getDirtyItems().isEmpty())
+			return;
+		Path path = ((FileContentSource) resource.getContentSource()).getPath();
+		Runnable save = ResourceSnapshot.prepareSave(path, resource);
+		if (save != null)
+			ThreadUtil.run(save);
 	}
 
 	/**
@@ -184,10 +227,11 @@ public class RecentWorkspacesConfig implements ConfigContainer {
 				files.addAll(getLibraries().stream().map(m -> Paths.get(m.getPath())).collect(Collectors.toList()));
 				wrapper.addLoadingOverlay(files);
 				// Load from paths
-				Resource primary = parse(getPrimary().getPath());
+				boolean useSnapshots = Configs.recentWorkspaces().useSnapshots;
+				Resource primary = parse(getPrimary().getPath(), useSnapshots);
 				List<Resource> libraries = new ArrayList<>();
 				for (ResourceModel model : getLibraries()) {
-					Resource library = parse(model.getPath());
+					Resource library = parse(model.getPath(), useSnapshots);
 					libraries.add(library);
 				}
 				// Clear overlay
@@ -202,7 +246,7 @@ public class RecentWorkspacesConfig implements ConfigContainer {
 			}
 		}
 
-		private static Resource parse(String pathStr) throws IOException {
+		private static Resource parse(String pathStr, boolean useSnapshots) throws IOException {
 			// URL check
 			if (pathStr.contains("://")) {
 				return new Resource(new UrlContentSource(new URL(pathStr)));
@@ -216,7 +260,17 @@ public class RecentWorkspacesConfig implements ConfigContainer {
 			}
 			// Everything else should be a normal file or directory
 			Path path = Paths.get(pathStr);
-			return ResourceIO.fromPath(path, true);
+			if (!useSnapshots || !Files.isRegularFile(path))
+				return ResourceIO.fromPath(path, true);
+			Resource resource = ResourceSnapshot.load(path);
+			if (resource != null)
+				return resource;
+			// Snapshot is missing or outdated, so read the file and write a new snapshot for the next time
+			resource = ResourceIO.fromPath(path, true);
+			Runnable save = ResourceSnapshot.prepareSave(path, resource);
+			if (save != null)
+				ThreadUtil.run(save);
+			return resource;
 		}
 
 		@Override
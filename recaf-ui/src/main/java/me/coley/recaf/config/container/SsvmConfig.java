@@ -6,6 +6,7 @@ import me.coley.recaf.RecafUI;
 import me.coley.recaf.config.ConfigContainer;
 import me.coley.recaf.config.ConfigID;
 import me.coley.recaf.config.Group;
+import me.coley.recaf.config.bounds.IntBounds;
 import me.coley.recaf.ssvm.LocalVmFactory;
 import me.coley.recaf.ssvm.RemoteVmFactory;
 import me.coley.recaf.ssvm.SsvmIntegration;
@@ -27,6 +28,13 @@ public class SsvmConfig implements ConfigContainer {
 	@Group("general")
 	@ConfigID("active")
 	public boolean active = true;
+	/**
+	 * @see SsvmIntegration#getPoolSize()
+	 */
+	@IntBounds(min = 1, max = 32)
+	@Group("general")
+	@ConfigID("poolsize")
+	public int poolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 	/**
 	 * @see SsvmIntegration#doAllowRead()
 	 */
@@ -91,6 +99,7 @@ public class SsvmConfig implements ConfigContainer {
 			// Update access restrictions
 			ssvm.setAllowRead(allowRead);
 			ssvm.setAllowWrite(allowWrite);
+			ssvm.setPoolSize(poolSize);
 			// Update factory
 			VmFactory factory;
 			if (useRemote && doesJvmPathExist()) {
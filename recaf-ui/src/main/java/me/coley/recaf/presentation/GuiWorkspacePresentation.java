@@ -21,9 +21,11 @@ import me.coley.recaf.ui.window.MainMenu;
 import me.coley.recaf.ui.window.MainWindow;
 import me.coley.recaf.util.threading.FxThreadUtil;
 import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.resource.ItemChangeSet;
 import me.coley.recaf.workspace.resource.Resource;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Gui workspace presentation implementation. Orchestrates UI behavior in response to common workspace operations.
@@ -120,6 +122,28 @@ public class GuiWorkspacePresentation implements Presentation.WorkspacePresentat
 		});
 	}
 
+	@Override
+	public void onClassChanges(Resource resource, ItemChangeSet<ClassInfo> changes) {
+		// Apply all changes in a single UI update, rather than one per class
+		FxThreadUtil.run(() -> {
+			WorkspaceRootItem root = getWorkspacePane().getTree().getRootItem();
+			RecafDockingManager docking = getDocking();
+			Map<String, ClassTab> tabs = docking.getClassTabs();
+			changes.getRemoved().values().forEach(oldValue -> {
+				root.onRemoveClass(resource, oldValue);
+				ClassTab tab = tabs.get(oldValue.getName());
+				if (tab != null)
+					tab.close();
+			});
+			changes.getAdded().values().forEach(newValue -> root.onNewClass(resource, newValue));
+			changes.getUpdatedNew().forEach((name, newValue) -> {
+				ClassTab tab = tabs.get(name);
+				if (tab != null)
+					tab.getClassRepresentation().onUpdate(newValue);
+			});
+		});
+	}
+
 	@Override
 	public void onNewDexClass(Resource resource, String dexName, DexClassInfo newValue) {
 		// Update tree
@@ -158,6 +182,28 @@ public class GuiWorkspacePresentation implements Presentation.WorkspacePresentat
 		root.onNewFile(resource, newValue);
 	}
 
+	@Override
+	public void onFileChanges(Resource resource, ItemChangeSet<FileInfo> changes) {
+		// Apply all changes in a single UI update, rather than one per file
+		FxThreadUtil.run(() -> {
+			WorkspaceRootItem root = getWorkspacePane().getTree().getRootItem();
+			RecafDockingManager docking = getDocking();
+			Map<String, FileTab> tabs = docking.getFileTabs();
+			changes.getRemoved().values().forEach(oldValue -> {
+				root.onRemoveFile(resource, oldValue);
+				FileTab tab = tabs.get(oldValue.getName());
+				if (tab != null)
+					tab.close();
+			});
+			changes.getAdded().values().forEach(newValue -> root.onNewFile(resource, newValue));
+			changes.getUpdatedNew().forEach((name, newValue) -> {
+				FileTab tab = tabs.get(name);
+				if (tab != null)
+					tab.getFileRepresentation().onUpdate(newValue);
+			});
+		});
+	}
+
 	@Override
 	public void onUpdateFile(Resource resource, FileInfo oldValue, FileInfo newValue) {
 		// Update tree
@@ -3,6 +3,7 @@ package me.coley.recaf.scripting;
 import jregex.Matcher;
 import me.coley.recaf.util.Directories;
 import me.coley.recaf.util.RegexUtil;
+import me.coley.recaf.util.logging.LogConsumer;
 import me.coley.recaf.util.logging.Logging;
 import org.slf4j.Logger;
 
@@ -46,6 +47,22 @@ public abstract class Script {
 	 */
 	public abstract ScriptResult execute();
 
+	/**
+	 * Execute the script on the script thread pool.
+	 *
+	 * @param timeoutMs
+	 * 		Time in milliseconds to allow the script to run before it is cancelled.
+	 * 		Values of zero or less disable the time limit.
+	 * @param output
+	 * 		Consumer to receive log messages emitted while the script is running.
+	 * 		May be {@code null} if output does not need to be captured.
+	 *
+	 * @return Handle of the running script.
+	 */
+	public ScriptExecution executeAsync(long timeoutMs, LogConsumer<String> output) {
+		return ScriptEngine.executeAsync(getSource(), timeoutMs, output);
+	}
+
 	/**
 	 * @return Script's name from either metadata or filename
 	 */
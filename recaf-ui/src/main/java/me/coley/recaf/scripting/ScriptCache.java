@@ -0,0 +1,136 @@
+package me.coley.recaf.scripting;
+
+import me.coley.recaf.BuildConfig;
+import me.coley.recaf.util.Directories;
+import me.coley.recaf.util.HashUtil;
+import me.coley.recaf.util.logging.Logging;
+import org.slf4j.Logger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persistent cache of compiled script classes. Entries are keyed by a hash of the script source
+ * and the current Recaf build, so scripts are recompiled when either changes.
+ *
+ * @author Matt Coley
+ */
+public class ScriptCache {
+	private static final Logger logger = Logging.get(ScriptCache.class);
+	private static final int MAGIC = 0x52534331; // RSC1
+	private static final String EXTENSION = ".bin";
+	private static final Path CACHE_DIR = Directories.getCacheDirectory().resolve("scripts");
+
+	/**
+	 * @param source
+	 * 		Script source.
+	 *
+	 * @return Cache key of the script for the current Recaf build.
+	 */
+	public static String key(String source) {
+		return HashUtil.sha256(BuildConfig.VERSION, BuildConfig.GIT_SHA, source);
+	}
+
+	/**
+	 * @param key
+	 * 		Cache key, see {@link #key(String)}.
+	 *
+	 * @return Cached compilation, or {@code null} if no valid entry exists.
+	 */
+	public static Entry load(String key) {
+		Path path = CACHE_DIR.resolve(key + EXTENSION);
+		if (!Files.isRegularFile(path))
+			return null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Unknown cache format");
+			String mainClass = in.readUTF();
+			int count = in.readInt();
+			Map<String, byte[]> classes = new TreeMap<>();
+			for (int i = 0; i < count; i++) {
+				String name = in.readUTF();
+				byte[] code = new byte[in.readInt()];
+				in.readFully(code);
+				classes.put(name, code);
+			}
+			return new Entry(mainClass, classes);
+		} catch (IOException ex) {
+			logger.debug("Discarding unreadable script cache entry: {}", path, ex);
+			delete(path);
+			return null;
+		}
+	}
+
+	/**
+	 * @param key
+	 * 		Cache key, see {@link #key(String)}.
+	 * @param entry
+	 * 		Compilation to store.
+	 */
+	public static void store(String key, Entry entry) {
+		Path path = CACHE_DIR.resolve(key + EXTENSION);
+		try {
+			Files.createDirectories(CACHE_DIR);
+			// Write to a temporary file first so concurrent readers never see partial entries
+			Path temp = Files.createTempFile(CACHE_DIR, key, ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeUTF(entry.getMainClass());
+				out.writeInt(entry.getClasses().size());
+				for (Map.Entry<String, byte[]> e : entry.getClasses().entrySet()) {
+					out.writeUTF(e.getKey());
+					out.writeInt(e.getValue().length);
+					out.write(e.getValue());
+				}
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			logger.warn("Failed to write script cache entry: {}", path, ex);
+		}
+	}
+
+	private static void delete(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException ignored) {
+			// Will be overwritten on next successful compile
+		}
+	}
+
+	/**
+	 * Compiled script classes.
+	 */
+	public static class Entry {
+		private final String mainClass;
+		private final Map<String, byte[]> classes;
+
+		/**
+		 * @param mainClass
+		 * 		Internal name of the class holding the script {@code run()} method.
+		 * @param classes
+		 * 		Bytecode of all classes generated for the script.
+		 */
+		public Entry(String mainClass, Map<String, byte[]> classes) {
+			this.mainClass = mainClass;
+			this.classes = classes;
+		}
+
+		/**
+		 * @return Internal name of the class holding the script {@code run()} method.
+		 */
+		public String getMainClass() {
+			return mainClass;
+		}
+
+		/**
+		 * @return Bytecode of all classes generated for the script.
+		 */
+		public Map<String, byte[]> getClasses() {
+			return classes;
+		}
+	}
+}
@@ -8,14 +8,21 @@ import me.coley.recaf.compile.javac.JavacCompiler;
 import me.coley.recaf.util.DefineUtil;
 import me.coley.recaf.util.RegexUtil;
 import me.coley.recaf.util.StringUtil;
+import me.coley.recaf.util.logging.LogConsumer;
 import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.ThreadPoolFactory;
+import me.coley.recaf.util.threading.ThreadUtil;
 import org.slf4j.Logger;
+import org.slf4j.event.Level;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Engine for running scripts.
@@ -24,7 +31,8 @@ import java.util.*;
  */
 public class ScriptEngine {
 	private static final Logger logger = Logging.get(ScriptEngine.class);
-	private static final Map<Integer, GenerateResult> SCRIPT_CLASS_CACHE = new HashMap<>();
+	private static final Map<String, GenerateResult> SCRIPT_CLASS_CACHE = new ConcurrentHashMap<>();
+	private static final ExecutorService SCRIPT_SERVICE = ThreadPoolFactory.newCachedThreadPool("Recaf scripts");
 	private static final String SCRIPT_PACKAGE_NAME = "me.coley.recaf.scripting.generated";
 	private static final String PATTERN_PACKAGE = "package ([\\w\\.\\*]+);?";
 	private static final String PATTERN_IMPORT = "import ([\\w\\.\\*]+);?";
@@ -58,26 +66,61 @@ public class ScriptEngine {
 	}
 
 	/**
+	 * Run a script on the calling thread.
+	 * Prefer {@link #executeAsync(String, long, LogConsumer)} when calling from the UI.
+	 *
 	 * @param script
 	 * 		Script text to execute.
 	 *
 	 * @return Script execution result.
 	 */
 	public static ScriptResult execute(String script) {
-		// TODO: Should make this async so calls from the UI don't freeze the UI
 		return handleExecute(script);
 	}
 
+	/**
+	 * Run a script on the script thread pool.
+	 *
+	 * @param script
+	 * 		Script text to execute.
+	 * @param timeoutMs
+	 * 		Time in milliseconds to allow the script to run before it is cancelled.
+	 * 		Values of zero or less disable the time limit.
+	 * @param output
+	 * 		Consumer to receive log messages emitted while the script is running.
+	 * 		May be {@code null} if output does not need to be captured.
+	 *
+	 * @return Handle of the running script.
+	 */
+	public static ScriptExecution executeAsync(String script, long timeoutMs, LogConsumer<String> output) {
+		ScriptExecution execution = new ScriptExecution();
+		execution.setTask(SCRIPT_SERVICE.submit(() -> {
+			LogConsumer<String> forwarder = output == null ? null : new ThreadLogForwarder(Thread.currentThread(), output);
+			if (forwarder != null)
+				Logging.addLogConsumer(forwarder);
+			try {
+				execution.complete(handleExecute(script));
+			} catch (Throwable t) {
+				execution.getResult().completeExceptionally(t);
+			} finally {
+				if (forwarder != null)
+					Logging.removeLogConsumer(forwarder);
+			}
+		}));
+		if (timeoutMs > 0)
+			ThreadUtil.runDelayed(timeoutMs, execution::timeout);
+		return execution;
+	}
+
 	private static ScriptResult handleExecute(String script) {
-		int hash = script.hashCode();
-		GenerateResult result;
-		if (RegexUtil.matchesAny(PATTERN_CLASS_NAME, script)) {
-			logger.info("Executing script class");
-			result = SCRIPT_CLASS_CACHE.computeIfAbsent(hash, n -> generateStandardClass(script));
-		} else {
-			logger.info("Executing script");
-			String className = "Script" + Math.abs(hash);
-			result = SCRIPT_CLASS_CACHE.computeIfAbsent(hash, n -> generateScriptClass(className, script));
+		String key = ScriptCache.key(script);
+		GenerateResult result = SCRIPT_CLASS_CACHE.get(key);
+		if (result == null) {
+			// Not using 'computeIfAbsent' since compilation is slow, and would block other lookups in the map
+			result = generate(key, script);
+			GenerateResult existing = SCRIPT_CLASS_CACHE.putIfAbsent(key, result);
+			if (existing != null)
+				result = existing;
 		}
 		if (result.cls != null) {
 			try {
@@ -85,6 +128,13 @@ public class ScriptEngine {
 				run.invoke(null);
 				logger.info("Successfully ran script");
 				return new ScriptResult(result.diagnostics);
+			} catch (InvocationTargetException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof InterruptedException || Thread.currentThread().isInterrupted())
+					logger.info("Script was interrupted");
+				else
+					logger.error("Failed to execute script", ex);
+				return new ScriptResult(result.diagnostics, ex);
 			} catch (Exception ex) {
 				logger.error("Failed to execute script", ex);
 				return new ScriptResult(result.diagnostics, ex);
@@ -95,6 +145,32 @@ public class ScriptEngine {
 		}
 	}
 
+	private static GenerateResult generate(String key, String script) {
+		// Check for a prior compilation of the same script
+		ScriptCache.Entry entry = ScriptCache.load(key);
+		if (entry != null) {
+			try {
+				Class<?> cls = DefineUtil.create(entry.getClasses(), entry.getMainClass());
+				logger.debug("Loaded compiled script from cache: {}", entry.getMainClass());
+				return new GenerateResult(cls, Collections.emptyList());
+			} catch (Throwable t) {
+				logger.debug("Cached script could not be defined, recompiling", t);
+			}
+		}
+		GenerateResult result;
+		if (RegexUtil.matchesAny(PATTERN_CLASS_NAME, script)) {
+			logger.info("Executing script class");
+			result = generateStandardClass(script);
+		} else {
+			logger.info("Executing script");
+			String className = "Script" + Math.abs(script.hashCode());
+			result = generateScriptClass(className, script);
+		}
+		if (result.cls != null && result.diagnostics.isEmpty())
+			ScriptCache.store(key, new ScriptCache.Entry(result.className, result.classes));
+		return result;
+	}
+
 	private static GenerateResult generateStandardClass(String source) {
 		// Extract package name
 		String packageName = SCRIPT_PACKAGE_NAME;
@@ -144,7 +220,7 @@ public class ScriptEngine {
 		if (result.wasSuccess()) {
 			try {
 				Class<?> cls = DefineUtil.create(result.getValue(), className);
-				return new GenerateResult(cls, diagnostics);
+				return new GenerateResult(cls, diagnostics, className, result.getValue());
 			} catch (Exception ex) {
 				logger.error("Failed to define generated script class", ex);
 			}
@@ -167,10 +243,44 @@ public class ScriptEngine {
 	private static class GenerateResult {
 		private final Class<?> cls;
 		private final List<CompilerDiagnostic> diagnostics;
+		private final String className;
+		private final Map<String, byte[]> classes;
 
 		private GenerateResult(Class<?> cls, List<CompilerDiagnostic> diagnostics) {
+			this(cls, diagnostics, null, null);
+		}
+
+		private GenerateResult(Class<?> cls, List<CompilerDiagnostic> diagnostics,
+							   String className, Map<String, byte[]> classes) {
 			this.cls = cls;
 			this.diagnostics = diagnostics;
+			this.className = className;
+			this.classes = classes;
+		}
+	}
+
+	/**
+	 * Forwards log messages emitted from a single thread.
+	 */
+	private static class ThreadLogForwarder implements LogConsumer<String> {
+		private final Thread thread;
+		private final LogConsumer<String> delegate;
+
+		private ThreadLogForwarder(Thread thread, LogConsumer<String> delegate) {
+			this.thread = thread;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void accept(String loggerName, Level level, String messageContent) {
+			if (Thread.currentThread() == thread)
+				delegate.accept(loggerName, level, messageContent);
+		}
+
+		@Override
+		public void accept(String loggerName, Level level, String messageContent, Throwable throwable) {
+			if (Thread.currentThread() == thread)
+				delegate.accept(loggerName, level, messageContent, throwable);
 		}
 	}
 }
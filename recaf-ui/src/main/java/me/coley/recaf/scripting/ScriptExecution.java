@@ -0,0 +1,77 @@
+package me.coley.recaf.scripting;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Handle for a script running asynchronously in the {@link ScriptEngine}.
+ *
+ * @author Matt Coley
+ */
+public class ScriptExecution {
+	private final CompletableFuture<ScriptResult> result = new CompletableFuture<>();
+	private volatile Future<?> task;
+	private volatile boolean timedOut;
+
+	void setTask(Future<?> task) {
+		this.task = task;
+		// Handle cancellation requests made before the task was assigned
+		if (result.isCancelled())
+			task.cancel(true);
+	}
+
+	void complete(ScriptResult scriptResult) {
+		result.complete(scriptResult);
+	}
+
+	void timeout() {
+		if (!result.isDone()) {
+			timedOut = true;
+			cancel();
+		}
+	}
+
+	/**
+	 * Interrupt the running script. Scripts that do not respond to interruption
+	 * will keep running in the background, but their result is discarded.
+	 *
+	 * @return {@code true} when the script was cancelled.
+	 * {@code false} when it has already completed.
+	 */
+	public boolean cancel() {
+		boolean cancelled = result.cancel(true);
+		Future<?> task = this.task;
+		if (cancelled && task != null)
+			task.cancel(true);
+		return cancelled;
+	}
+
+	/**
+	 * @return {@code true} when the script was cancelled, either explicitly or by timing out.
+	 */
+	public boolean isCancelled() {
+		return result.isCancelled();
+	}
+
+	/**
+	 * @return {@code true} when the script was cancelled for exceeding its time limit.
+	 */
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+
+	/**
+	 * @return {@code true} when the script has completed or was cancelled.
+	 */
+	public boolean isDone() {
+		return result.isDone();
+	}
+
+	/**
+	 * @return Future of the script result. Completes exceptionally with a
+	 * {@link java.util.concurrent.CancellationException} when the script is cancelled.
+	 */
+	public CompletableFuture<ScriptResult> getResult() {
+		return result;
+	}
+}
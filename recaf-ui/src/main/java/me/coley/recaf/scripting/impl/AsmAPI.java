@@ -2,8 +2,11 @@ package me.coley.recaf.scripting.impl;
 
 import me.coley.recaf.RecafUI;
 import me.coley.recaf.code.ClassInfo;
+import me.coley.recaf.util.BulkTransformer;
 import me.coley.recaf.util.visitor.WorkspaceClassWriter;
+import me.coley.recaf.workspace.resource.Resource;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
@@ -11,6 +14,8 @@ import org.objectweb.asm.tree.MethodNode;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Utility functions for working with ow2-asm.
@@ -70,6 +75,98 @@ public class AsmAPI {
 		return writer.toByteArray();
 	}
 
+	/**
+	 * Transform classes in the primary resource in parallel, committing modified classes in a single batched update.
+	 *
+	 * @param transformer
+	 * 		Function modifying the given class node, returning {@code true} if the node was modified.
+	 * 		May be called concurrently.
+	 * @param readFlags
+	 *        {@link ClassReader} flags.
+	 * @param writeFlags
+	 *        {@link ClassWriter} flags.
+	 *
+	 * @return Transformation result.
+	 */
+	public static BulkTransformer.Result transformClasses(Predicate<ClassNode> transformer,
+														  int readFlags, int writeFlags) {
+		return transformClasses(WorkspaceAPI.getPrimaryResource(), info -> true, transformer, readFlags, writeFlags);
+	}
+
+	/**
+	 * Transform classes in parallel, committing modified classes in a single batched update.
+	 *
+	 * @param resource
+	 * 		Resource containing classes to transform.
+	 * @param filter
+	 * 		Filter of classes to transform.
+	 * @param transformer
+	 * 		Function modifying the given class node, returning {@code true} if the node was modified.
+	 * 		May be called concurrently.
+	 * @param readFlags
+	 *        {@link ClassReader} flags.
+	 * @param writeFlags
+	 *        {@link ClassWriter} flags.
+	 *
+	 * @return Transformation result.
+	 */
+	public static BulkTransformer.Result transformClasses(Resource resource, Predicate<ClassInfo> filter,
+														  Predicate<ClassNode> transformer,
+														  int readFlags, int writeFlags) {
+		return new BulkTransformer(RecafUI.getController(), resource)
+				.withFilter(filter)
+				.withReadFlags(readFlags)
+				.withWriteFlags(writeFlags)
+				.transform(transformer)
+				.commit();
+	}
+
+	/**
+	 * Transform classes in the primary resource in parallel, committing modified classes in a single batched update.
+	 *
+	 * @param visitorFactory
+	 * 		Function wrapping the given class writer in a visitor that applies the transformation.
+	 * 		May be called concurrently.
+	 * @param readFlags
+	 *        {@link ClassReader} flags.
+	 * @param writeFlags
+	 *        {@link ClassWriter} flags.
+	 *
+	 * @return Transformation result.
+	 */
+	public static BulkTransformer.Result visitClasses(Function<ClassVisitor, ClassVisitor> visitorFactory,
+													  int readFlags, int writeFlags) {
+		return visitClasses(WorkspaceAPI.getPrimaryResource(), info -> true, visitorFactory, readFlags, writeFlags);
+	}
+
+	/**
+	 * Transform classes in parallel, committing modified classes in a single batched update.
+	 *
+	 * @param resource
+	 * 		Resource containing classes to transform.
+	 * @param filter
+	 * 		Filter of classes to transform.
+	 * @param visitorFactory
+	 * 		Function wrapping the given class writer in a visitor that applies the transformation.
+	 * 		May be called concurrently.
+	 * @param readFlags
+	 *        {@link ClassReader} flags.
+	 * @param writeFlags
+	 *        {@link ClassWriter} flags.
+	 *
+	 * @return Transformation result.
+	 */
+	public static BulkTransformer.Result visitClasses(Resource resource, Predicate<ClassInfo> filter,
+													  Function<ClassVisitor, ClassVisitor> visitorFactory,
+													  int readFlags, int writeFlags) {
+		return new BulkTransformer(RecafUI.getController(), resource)
+				.withFilter(filter)
+				.withReadFlags(readFlags)
+				.withWriteFlags(writeFlags)
+				.visit(visitorFactory)
+				.commit();
+	}
+
 	/**
 	 * @param node
 	 * 		Class to search in.
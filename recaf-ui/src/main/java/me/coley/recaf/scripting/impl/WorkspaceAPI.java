@@ -14,6 +14,7 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 
 /**
  * Utility functions for working with workspaces.
@@ -296,6 +297,29 @@ public class WorkspaceAPI {
 			resource.getClasses().put(info);
 	}
 
+	/**
+	 * Puts multiple classes into the resource as a single batched update.
+	 * This is much cheaper than calling {@link #putClassInfo(Resource, ClassInfo)} in a loop,
+	 * since listeners handle all the classes at once.
+	 *
+	 * @param resource
+	 * 		Resource to put the classes into.
+	 * @param infos
+	 * 		Classes to place into resource.
+	 */
+	public static void putClassInfos(Resource resource, Collection<ClassInfo> infos) {
+		if (resource != null)
+			resource.getClasses().putBatch(infos);
+	}
+
+	/**
+	 * @param infos
+	 * 		Classes to place into primary resource, as a single batched update.
+	 */
+	public static void putPrimaryClassInfos(Collection<ClassInfo> infos) {
+		putClassInfos(getPrimaryResource(), infos);
+	}
+
 	/**
 	 * @param info
 	 * 		Dex class to place into primary resource.
@@ -10,7 +10,8 @@ import me.coley.recaf.util.Translatable;
  */
 public enum DiffViewMode implements Translatable {
 	DECOMPILE,
-	DISASSEMBLE;
+	DISASSEMBLE,
+	BINARY;
 
 	@Override
 	public String getTranslationKey() {
@@ -19,6 +20,8 @@ public enum DiffViewMode implements Translatable {
 				return "menu.mode.diff.decompile";
 			case DISASSEMBLE:
 				return "menu.mode.diff.disassemble";
+			case BINARY:
+				return "menu.mode.diff.binary";
 			default:
 				return "?";
 		}
@@ -8,7 +8,7 @@ import me.coley.recaf.RecafUI;
 import me.coley.recaf.code.FileInfo;
 import me.coley.recaf.config.Configs;
 import me.coley.recaf.ui.CommonUX;
-import me.coley.recaf.ui.control.code.Language;
+import me.coley.recaf.util.syntax.Language;
 import me.coley.recaf.ui.control.code.Languages;
 import me.coley.recaf.ui.control.menu.ActionMenuItem;
 import me.coley.recaf.ui.dialog.ConfirmDialog;
@@ -4,12 +4,17 @@ import javafx.beans.binding.StringBinding;
 import javafx.scene.control.ContextMenu;
 import me.coley.recaf.RecafUI;
 import me.coley.recaf.config.Configs;
+import me.coley.recaf.ssvm.SsvmBulkOptimizer;
+import me.coley.recaf.ssvm.SsvmIntegration;
 import me.coley.recaf.ui.dialog.ConfirmDialog;
 import me.coley.recaf.ui.util.Icons;
 import me.coley.recaf.ui.util.Lang;
 import me.coley.recaf.ui.util.Menus;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.ThreadUtil;
 import me.coley.recaf.workspace.Workspace;
 import me.coley.recaf.workspace.resource.Resource;
+import org.slf4j.Logger;
 
 import static me.coley.recaf.ui.util.Menus.action;
 
@@ -19,6 +24,7 @@ import static me.coley.recaf.ui.util.Menus.action;
  * @author Matt Coley
  */
 public class ResourceContextBuilder extends ContextBuilder {
+	private static final Logger logger = Logging.get(ResourceContextBuilder.class);
 	private Resource resource;
 
 	/**
@@ -42,6 +48,10 @@ public class ResourceContextBuilder extends ContextBuilder {
 		} else {
 			menu.getItems().add(Menus.action("menu.file.close", Icons.ACTION_DELETE,
 					() -> RecafUI.getController().setWorkspace(null)));
+			SsvmIntegration ssvm = RecafUI.getController().getServices().getSsvmIntegration();
+			if (ssvm != null && ssvm.isInitialized()) {
+				menu.getItems().add(action("menu.vm.optimize-all", Icons.VM, () -> vmOptimizeAll(ssvm)));
+			}
 		}
 
 		return menu;
@@ -52,6 +62,27 @@ public class ResourceContextBuilder extends ContextBuilder {
 		return resource;
 	}
 
+	private void vmOptimizeAll(SsvmIntegration ssvm) {
+		// Runs every method in the resource, which is far too slow for the UI thread
+		ThreadUtil.run(() -> {
+			SsvmBulkOptimizer.Result result = new SsvmBulkOptimizer(RecafUI.getController(), ssvm, resource)
+					.withProgressListener((name, completed, total) -> {
+						// Log roughly every 10%, not every class
+						int step = Math.max(1, total / 10);
+						if (completed % step == 0 || completed == total)
+							logger.info("SSVM optimization progress: {}/{} classes", completed, total);
+					})
+					.run()
+					.commit();
+			if (result.hasFailures()) {
+				logger.warn("SSVM optimization could not optimize {} classes/methods, they were left as-is",
+						result.getFailures().size());
+				result.getFailures().forEach((name, error) ->
+						logger.warn("SSVM optimization failed for '{}'", name, error));
+			}
+		});
+	}
+
 	private void delete() {
 		Workspace workspace = RecafUI.getController().getWorkspace();
 		if (workspace != null) {
@@ -1,6 +1,5 @@
 package me.coley.recaf.ui.control;
 
-import javafx.application.Platform;
 import javafx.scene.layout.BorderPane;
 import me.coley.recaf.util.threading.FxThreadUtil;
 import me.coley.recaf.util.logging.LogConsumer;
@@ -8,6 +7,7 @@ import me.coley.recaf.util.logging.Logging;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.Caret;
 import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
 import org.slf4j.event.Level;
 
 import java.io.PrintWriter;
@@ -15,18 +15,38 @@ import java.io.StringWriter;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Text area that displays log messages.
+ * <br>
+ * Messages are queued by the logging thread and appended in batches on the FX thread, at most once per pulse.
+ * Only the most recent {@link #MAX_LINES} lines are kept. When messages arrive faster than they can be displayed,
+ * the queue stops growing at {@link #MAX_PENDING} and the dropped messages are summarized in a single line.
+ * Consecutive copies of the same message are also shown once, with a count of repeats.
  *
  * @author Matt Coley
  */
 public class LoggingTextArea extends BorderPane implements LogConsumer<String> {
 	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
 			.withZone(ZoneId.systemDefault());
+	private static final int MAX_LINES = 5000;
+	private static final int MAX_PENDING = 10000;
+	private static final int MAX_PER_BATCH = 1000;
 	private static LoggingTextArea instance;
+	private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingCount = new AtomicInteger();
+	private final AtomicInteger droppedCount = new AtomicInteger();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
 	private final CodeArea codeArea = new CodeArea();
+	private Entry lastEntry;
+	private int repeatCount;
 
 	private LoggingTextArea() {
 		Logging.addLogConsumer(this);
@@ -37,55 +57,116 @@ public class LoggingTextArea extends BorderPane implements LogConsumer<String> {
 
 	@Override
 	public void accept(String loggerName, Level level, String messageContent) {
-		addLog(loggerName, level, messageContent);
+		enqueue(new Entry(loggerName, level, messageContent, null));
 	}
 
 	@Override
 	public void accept(String loggerName, Level level, String messageContent, Throwable throwable) {
-		if (!Platform.isFxApplicationThread()) {
-			FxThreadUtil.run(() -> accept(loggerName, level, messageContent, throwable));
-			return;
-		}
-		// Throwable to string
-		StringWriter writer = new StringWriter();
-		throwable.printStackTrace(new PrintWriter(writer));
-		// Add logging + error
-		addLog(loggerName, level, messageContent);
-		writer.append("\n");
-		synchronized (codeArea) {
-			codeArea.append(writer.toString(), "log-error");
+		enqueue(new Entry(loggerName, level, messageContent, throwable));
+	}
+
+	/**
+	 * Called from any thread, so this only records the message and never waits on the FX thread.
+	 *
+	 * @param entry
+	 * 		Log message to display.
+	 */
+	private void enqueue(Entry entry) {
+		if (pendingCount.incrementAndGet() > MAX_PENDING) {
+			pendingCount.decrementAndGet();
+			droppedCount.incrementAndGet();
+		} else {
+			pending.add(entry);
 		}
-		scrollToBottom();
+		if (flushScheduled.compareAndSet(false, true))
+			FxThreadUtil.run(this::flush);
+	}
 
+	/**
+	 * Appends a batch of queued messages as a single text change, then trims old lines.
+	 */
+	private void flush() {
+		flushScheduled.set(false);
+		StringBuilder text = new StringBuilder();
+		StyleSpansBuilder<Collection<String>> spans = new StyleSpansBuilder<>();
+		int count = 0;
+		Entry entry;
+		while (count < MAX_PER_BATCH && (entry = pending.poll()) != null) {
+			pendingCount.decrementAndGet();
+			count++;
+			if (entry.isRepeatOf(lastEntry)) {
+				repeatCount++;
+				continue;
+			}
+			appendRepeats(text, spans);
+			lastEntry = entry;
+			appendEntry(text, spans, entry);
+		}
+		// Summaries are added once the queue is drained, so a flood is reported as one line
+		boolean drained = pending.isEmpty();
+		if (drained)
+			appendRepeats(text, spans);
+		int dropped = drained ? droppedCount.getAndSet(0) : 0;
+		if (dropped > 0) {
+			lastEntry = null;
+			append(text, spans, "... " + dropped + " messages were not displayed, see the log file\n", "log-error");
+		}
+		if (text.length() > 0) {
+			int start = codeArea.getLength();
+			codeArea.appendText(text.toString());
+			codeArea.setStyleSpans(start, spans.create());
+			trimLines();
+			scrollToBottom();
+		}
+		// More remains if the batch limit was hit, so continue on a later pulse to let the UI respond in between
+		if (!pending.isEmpty() && flushScheduled.compareAndSet(false, true))
+			FxThreadUtil.run(this::flush);
 	}
 
-	private void addLog(String loggerName, Level level, String messageContent) {
-		if (!Platform.isFxApplicationThread()) {
-			FxThreadUtil.run(() -> addLog(loggerName, level, messageContent));
-			return;
+	private void appendEntry(StringBuilder text, StyleSpansBuilder<Collection<String>> spans, Entry entry) {
+		append(text, spans, TIME_FORMATTER.format(Instant.ofEpochMilli(entry.time)), "log-time");
+		append(text, spans, " [", null);
+		append(text, spans, minify(entry.loggerName), "log-name");
+		append(text, spans, ":", null);
+		append(text, spans, entry.level.name(), "log-level");
+		append(text, spans, "] ", null);
+		append(text, spans, entry.message + "\n", "log-content");
+		if (entry.throwable != null) {
+			StringWriter writer = new StringWriter();
+			entry.throwable.printStackTrace(new PrintWriter(writer));
+			writer.append("\n");
+			append(text, spans, writer.toString(), "log-error");
 		}
-		synchronized (codeArea) {
-			codeArea.append(TIME_FORMATTER.format(Instant.now()), "log-time");
-			codeArea.append(" [", Collections.emptyList());
-			codeArea.append(minify(loggerName), "log-name");
-			codeArea.append(":", Collections.emptyList());
-			codeArea.append(level.name(), "log-level");
-			codeArea.append("] ", Collections.emptyList());
-			codeArea.append(messageContent + "\n", "log-content");
-			codeArea.requestFollowCaret();
+	}
+
+	private void appendRepeats(StringBuilder text, StyleSpansBuilder<Collection<String>> spans) {
+		if (repeatCount > 0) {
+			append(text, spans, "... repeated " + repeatCount + " more times\n", "log-content");
+			repeatCount = 0;
 		}
 	}
 
+	private static void append(StringBuilder text, StyleSpansBuilder<Collection<String>> spans,
+							   String content, String style) {
+		text.append(content);
+		spans.add(style == null ? Collections.emptyList() : Collections.singleton(style), content.length());
+	}
+
+	/**
+	 * Removes the oldest lines beyond {@link #MAX_LINES}.
+	 */
+	private void trimLines() {
+		int excess = codeArea.getParagraphs().size() - MAX_LINES;
+		if (excess > 0)
+			codeArea.deleteText(0, codeArea.getAbsolutePosition(excess, 0));
+	}
+
 	/**
 	 * Scroll to bottom and move caret position to match.
 	 */
 	private void scrollToBottom() {
-		synchronized (codeArea) {
-			codeArea.moveTo(codeArea.getLength());
-			// Option may not be set initially
-			if (codeArea.totalHeightEstimateProperty().isPresent())
-				codeArea.scrollYToPixel(codeArea.getTotalHeightEstimate());
-		}
+		codeArea.moveTo(codeArea.getLength());
+		codeArea.requestFollowCaret();
 	}
 
 	/**
@@ -108,4 +189,30 @@ public class LoggingTextArea extends BorderPane implements LogConsumer<String> {
 		}
 		return instance;
 	}
+
+	/**
+	 * Log message waiting to be displayed.
+	 */
+	private static class Entry {
+		private final long time = System.currentTimeMillis();
+		private final String loggerName;
+		private final Level level;
+		private final String message;
+		private final Throwable throwable;
+
+		private Entry(String loggerName, Level level, String message, Throwable throwable) {
+			this.loggerName = loggerName;
+			this.level = level;
+			this.message = message;
+			this.throwable = throwable;
+		}
+
+		private boolean isRepeatOf(Entry other) {
+			// Messages with exceptions are always shown, as their traces may differ
+			return other != null && throwable == null && other.throwable == null &&
+					level == other.level &&
+					loggerName.equals(other.loggerName) &&
+					Objects.equals(message, other.message);
+		}
+	}
 }
@@ -0,0 +1,297 @@
+package me.coley.recaf.ui.control;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.collections.ObservableListBase;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import me.coley.recaf.ui.behavior.Cleanable;
+import me.coley.recaf.ui.behavior.FontSizeChangeable;
+import me.coley.recaf.util.syntax.Language;
+import me.coley.recaf.ui.control.code.SyntaxFlow;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Read-only display of large text content. Only the rows in view are decoded and styled,
+ * so the content is never held as a single string.
+ * <br>
+ * The offsets of rows are indexed in the background. Rows are added to the view in chunks as the index grows,
+ * so the start of the content can be viewed before the rest has been indexed. Lines longer than
+ * {@link #MAX_ROW_BYTES} are split into multiple rows, and only the first of those shows the line number.
+ * Styling is done per row, so tokens spanning multiple lines, such as block comments,
+ * are only styled on the line they begin on.
+ *
+ * @author Matt Coley
+ */
+public class PagedTextView extends BorderPane implements Cleanable, FontSizeChangeable {
+	private static final Logger logger = Logging.get(PagedTextView.class);
+	private static final int MAX_ROW_BYTES = 4096;
+	private static final int FIRST_PUBLISH_ROWS = 1024;
+	private static final int MAX_PUBLISH_ROWS = 256 * 1024;
+	private final ListView<Integer> list = new ListView<>();
+	private Language language;
+	private Future<?> pending;
+	private int generation;
+	private byte[] content = new byte[0];
+	// Row index, published by the indexer. Only the first 'rowCount' entries are valid, and the last of those
+	// ends at 'indexEnd'.
+	private int[] rowStarts = new int[0];
+	private int[] rowLines = new int[0];
+	private int rowCount;
+	private int indexEnd;
+	private int lineDigits = 1;
+
+	/**
+	 * @param language
+	 * 		Language to use for syntax highlighting.
+	 */
+	public PagedTextView(Language language) {
+		this.language = language;
+		list.setCellFactory(param -> new RowCell());
+		list.setItems(new RowList());
+		setCenter(list);
+	}
+
+	/**
+	 * Display new content. The view is emptied and rows are added as they are indexed.
+	 *
+	 * @param content
+	 * 		Text content, encoded as UTF-8.
+	 */
+	public void setContent(byte[] content) {
+		cancel();
+		int current = ++generation;
+		this.content = content;
+		rowStarts = new int[0];
+		rowLines = new int[0];
+		rowCount = 0;
+		indexEnd = 0;
+		lineDigits = 1;
+		list.setItems(new RowList());
+		long start = System.currentTimeMillis();
+		pending = ThreadUtil.executor().submit(() -> {
+			try {
+				index(content, current);
+				logger.debug("Indexed {} bytes of text in {}ms", content.length, System.currentTimeMillis() - start);
+			} catch (Throwable t) {
+				logger.error("Failed to index text content", t);
+			}
+		});
+	}
+
+	/**
+	 * @param language
+	 * 		New language to use for syntax highlighting. Rows in view are restyled.
+	 */
+	public void setLanguage(Language language) {
+		this.language = language;
+		list.refresh();
+	}
+
+	/**
+	 * @return Number of rows indexed so far.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Records the start offset and line number of each row, publishing them to the view periodically.
+	 *
+	 * @param content
+	 * 		Content to index.
+	 * @param current
+	 * 		Generation of the content, used to discard the index if new content is set in the meantime.
+	 */
+	private void index(byte[] content, int current) {
+		int[] starts = new int[FIRST_PUBLISH_ROWS];
+		int[] lines = new int[FIRST_PUBLISH_ROWS];
+		int count = 0;
+		int nextPublish = FIRST_PUBLISH_ROWS;
+		int line = 1;
+		int rowStart = 0;
+		for (int i = 0; i < content.length; i++) {
+			byte b = content[i];
+			int nextStart;
+			if (b == '\n') {
+				nextStart = i + 1;
+			} else if (i - rowStart >= MAX_ROW_BYTES) {
+				// Split before the current character, not inside of its encoding
+				nextStart = i;
+				while (nextStart > rowStart + 1 && (content[nextStart] & 0xC0) == 0x80)
+					nextStart--;
+			} else {
+				continue;
+			}
+			if (count == starts.length) {
+				starts = Arrays.copyOf(starts, count * 2);
+				lines = Arrays.copyOf(lines, count * 2);
+			}
+			starts[count] = rowStart;
+			lines[count] = line;
+			count++;
+			if (b == '\n')
+				line++;
+			rowStart = nextStart;
+			i = nextStart - 1;
+			if (count >= nextPublish) {
+				if (Thread.currentThread().isInterrupted())
+					return;
+				publish(current, starts, lines, count, rowStart, line);
+				nextPublish = count + Math.min(count, MAX_PUBLISH_ROWS);
+			}
+		}
+		// Last row, which is empty if the content ends with a new line
+		if (count == starts.length) {
+			starts = Arrays.copyOf(starts, count + 1);
+			lines = Arrays.copyOf(lines, count + 1);
+		}
+		starts[count] = rowStart;
+		lines[count] = line;
+		publish(current, starts, lines, count + 1, content.length, line);
+	}
+
+	private void publish(int current, int[] starts, int[] lines, int count, int end, int lastLine) {
+		// Rows below 'count' are not written to again, so the arrays can be read while indexing continues
+		FxThreadUtil.run(() -> {
+			if (current != generation)
+				return;
+			rowStarts = starts;
+			rowLines = lines;
+			rowCount = count;
+			indexEnd = end;
+			int digits = String.valueOf(lastLine).length();
+			if (digits != lineDigits) {
+				lineDigits = digits;
+				list.refresh();
+			}
+			((RowList) list.getItems()).grow(count);
+		});
+	}
+
+	/**
+	 * @param row
+	 * 		Row index.
+	 *
+	 * @return Text of the row, without its line terminator.
+	 */
+	private String decodeRow(int row) {
+		int start = rowStarts[row];
+		int end = row + 1 < rowCount ? rowStarts[row + 1] : indexEnd;
+		if (end > start && content[end - 1] == '\n') {
+			end--;
+			if (end > start && content[end - 1] == '\r')
+				end--;
+		}
+		return new String(content, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	private void cancel() {
+		if (pending != null) {
+			pending.cancel(true);
+			pending = null;
+		}
+	}
+
+	@Override
+	public void cleanup() {
+		cancel();
+		generation++;
+		content = new byte[0];
+		rowStarts = new int[0];
+		rowLines = new int[0];
+		rowCount = 0;
+		indexEnd = 0;
+		list.setItems(new RowList());
+	}
+
+	@Override
+	public void bindFontSize(IntegerProperty property) {
+		list.styleProperty().bind(Bindings.createStringBinding(() -> "-fx-font-size: " + property.intValue() + "px;", property));
+	}
+
+	@Override
+	public void applyEventsForFontSizeChange(Consumer<Node> consumer) {
+		consumer.accept(list);
+	}
+
+	/**
+	 * List of row indices, so that rows take no memory beyond their offset and line number.
+	 */
+	private static class RowList extends ObservableListBase<Integer> {
+		private int size;
+
+		@Override
+		public Integer get(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			return index;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		private void grow(int newSize) {
+			if (newSize <= size)
+				return;
+			beginChange();
+			nextAdd(size, newSize);
+			size = newSize;
+			endChange();
+		}
+	}
+
+	/**
+	 * Cell showing the line number and styled text of a single row.
+	 */
+	private class RowCell extends ListCell<Integer> {
+		private final Label lineNumber = new Label();
+		private final HBox box = new HBox();
+		private SyntaxFlow flow;
+		private Language flowLanguage;
+
+		private RowCell() {
+			lineNumber.getStyleClass().add("lineno");
+			lineNumber.setMinWidth(Region.USE_PREF_SIZE);
+			box.setSpacing(6);
+		}
+
+		@Override
+		protected void updateItem(Integer row, boolean empty) {
+			super.updateItem(row, empty);
+			if (empty || row == null || row >= rowCount) {
+				setGraphic(null);
+				return;
+			}
+			if (flow == null || flowLanguage != language) {
+				flow = new SyntaxFlow(language);
+				flowLanguage = language;
+				box.getChildren().setAll(lineNumber, flow);
+			}
+			int line = rowLines[row];
+			boolean continuation = row > 0 && rowLines[row - 1] == line;
+			String number = continuation ? "" : String.valueOf(line);
+			StringBuilder padded = new StringBuilder();
+			for (int i = number.length(); i < lineDigits; i++)
+				padded.append(' ');
+			lineNumber.setText(padded.append(number).toString());
+			flow.setCode(decodeRow(row));
+			setGraphic(box);
+		}
+	}
+}
@@ -17,7 +17,7 @@ import me.coley.recaf.ui.behavior.Cleanable;
 import me.coley.recaf.ui.behavior.FileRepresentation;
 import me.coley.recaf.ui.behavior.FontSizeChangeable;
 import me.coley.recaf.ui.behavior.SaveResult;
-import me.coley.recaf.ui.control.code.Language;
+import me.coley.recaf.util.syntax.Language;
 import me.coley.recaf.ui.control.code.Languages;
 import me.coley.recaf.ui.control.code.ProblemTracking;
 import me.coley.recaf.ui.control.code.SyntaxArea;
@@ -25,9 +25,13 @@ import me.coley.recaf.ui.control.code.java.JavaArea;
 import me.coley.recaf.ui.control.menu.ActionMenuItem;
 import me.coley.recaf.ui.util.Lang;
 import me.coley.recaf.ui.util.LanguageAssociationListener;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
 import me.coley.recaf.workspace.Workspace;
 import me.coley.recaf.workspace.resource.Resource;
 import org.fxmisc.flowless.VirtualizedScrollPane;
+import org.slf4j.Logger;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Comparator;
@@ -37,12 +41,23 @@ import java.util.stream.Collectors;
 
 /**
  * Basic scrollable text display with syntax highlighting support.
+ * <br>
+ * Content larger than {@link #PAGED_THRESHOLD} is first shown in a read-only {@link PagedTextView},
+ * which only decodes the rows in view. The full text is loaded into the editor when the user asks to edit it.
  *
  * @author Matt Coley
  */
 public class TextView extends BorderPane implements FileRepresentation, Cleanable, LanguageAssociationListener, FontSizeChangeable {
+	private static final Logger logger = Logging.get(TextView.class);
+	private static final int PAGED_THRESHOLD = 4 * 1024 * 1024;
 	private final SyntaxArea area;
 	private final VirtualizedScrollPane<SyntaxArea> scroll;
+	private IntegerProperty fontSize;
+	private Consumer<Node> fontSizeEvents;
+	private PagedTextView paged;
+	private BorderPane pagedWrapper;
+	private boolean editing;
+	private int generation;
 	private boolean ignoreNextUpdate;
 	private FileInfo info;
 
@@ -139,6 +154,8 @@ public class TextView extends BorderPane implements FileRepresentation, Cleanabl
 
 		// Apply the new language (triggers re-style of document)
 		area.applyLanguage(newLanguage);
+		if (paged != null)
+			paged.setLanguage(newLanguage);
 	}
 
 	@Override
@@ -148,7 +165,70 @@ public class TextView extends BorderPane implements FileRepresentation, Cleanabl
 			ignoreNextUpdate = false;
 			return;
 		}
-		area.setText(new String(info.getValue(), StandardCharsets.UTF_8));
+		byte[] value = info.getValue();
+		generation++;
+		if (!editing && value.length > PAGED_THRESHOLD) {
+			showPaged(value);
+		} else {
+			area.setText(new String(value, StandardCharsets.UTF_8));
+			hidePaged();
+		}
+	}
+
+	/**
+	 * Shows the content in the read-only paged view, with an option to switch to editing it.
+	 *
+	 * @param value
+	 * 		Content to display.
+	 */
+	private void showPaged(byte[] value) {
+		if (paged == null) {
+			paged = new PagedTextView(area.getLanguage());
+			if (fontSize != null)
+				paged.bindFontSize(fontSize);
+			if (fontSizeEvents != null)
+				paged.applyEventsForFontSizeChange(fontSizeEvents);
+			Label label = new BoundLabel(Lang.getBinding("dialog.largefile"));
+			Hyperlink edit = new Hyperlink();
+			edit.textProperty().bind(Lang.getBinding("dialog.largefile.edit"));
+			edit.setOnAction(e -> loadForEditing(edit));
+			GridPane bar = new GridPane();
+			bar.setPadding(new Insets(0, 0, 0, 4));
+			ColumnConstraints constraint = new ColumnConstraints();
+			constraint.setHgrow(Priority.ALWAYS);
+			bar.getColumnConstraints().add(constraint);
+			bar.add(label, 0, 0);
+			bar.add(edit, 1, 0);
+			pagedWrapper = new BorderPane(paged);
+			pagedWrapper.setBottom(bar);
+		}
+		paged.setContent(value);
+		setCenter(pagedWrapper);
+	}
+
+	/**
+	 * Decodes the full content in the background, then replaces the paged view with the editor.
+	 *
+	 * @param edit
+	 * 		Link that started the load, disabled while loading.
+	 */
+	private void loadForEditing(Hyperlink edit) {
+		edit.setDisable(true);
+		int current = generation;
+		byte[] value = info.getValue();
+		ThreadUtil.run(() -> {
+			String text = new String(value, StandardCharsets.UTF_8);
+			FxThreadUtil.run(() -> {
+				edit.setDisable(false);
+				if (current != generation)
+					return;
+				long start = System.currentTimeMillis();
+				area.setText(text);
+				editing = true;
+				hidePaged();
+				logger.debug("Loaded {} characters for editing in {}ms", text.length(), System.currentTimeMillis() - start);
+			});
+		});
 	}
 
 	@Override
@@ -156,8 +236,20 @@ public class TextView extends BorderPane implements FileRepresentation, Cleanabl
 		return info;
 	}
 
+	private void hidePaged() {
+		if (paged == null)
+			return;
+		setCenter(scroll);
+		paged.cleanup();
+		paged = null;
+		pagedWrapper = null;
+	}
+
 	@Override
 	public SaveResult save() {
+		// Paged content is read-only
+		if (paged != null)
+			return SaveResult.IGNORED;
 		Workspace workspace = RecafUI.getController().getWorkspace();
 		Resource primary = workspace.getResources().getPrimary();
 		// Update in primary resource
@@ -181,15 +273,23 @@ public class TextView extends BorderPane implements FileRepresentation, Cleanabl
 	public void cleanup() {
 		Languages.removeAssociationListener(this);
 		area.cleanup();
+		if (paged != null)
+			paged.cleanup();
 	}
 
 	@Override
 	public void bindFontSize(IntegerProperty property) {
+		fontSize = property;
 		area.bindFontSize(property);
+		if (paged != null)
+			paged.bindFontSize(property);
 	}
 
 	@Override
 	public void applyEventsForFontSizeChange(Consumer<Node> consumer) {
+		fontSizeEvents = consumer;
 		area.applyEventsForFontSizeChange(consumer);
+		if (paged != null)
+			paged.applyEventsForFontSizeChange(consumer);
 	}
 }
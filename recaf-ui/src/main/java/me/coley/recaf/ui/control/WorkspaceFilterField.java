@@ -4,6 +4,7 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.TreeItem;
 import javafx.scene.input.KeyCode;
 import me.coley.recaf.ui.control.tree.WorkspaceTreeWrapper;
+import me.coley.recaf.ui.control.tree.item.BaseTreeItem;
 import me.coley.recaf.ui.control.tree.item.BaseTreeValue;
 import me.coley.recaf.util.NodeEvents;
 import me.coley.recaf.util.threading.FxThreadUtil;
@@ -59,7 +60,9 @@ public class WorkspaceFilterField extends TextField {
 			}
 		}
 		// Apply search
-		tree.getRootItem().predicateProperty().setValue(item -> filter(item, names, tagIncludes, tagExcludes));
+		boolean filtering = !names.isEmpty() || !tagIncludes.isEmpty() || !tagExcludes.isEmpty();
+		tree.getRootItem().filter(names, isCaseSensitive.get(),
+				filtering ? item -> filter(item, names, tagIncludes, tagExcludes) : null);
 	}
 
 	private boolean filter(TreeItem<BaseTreeValue> item,
@@ -76,6 +79,10 @@ public class WorkspaceFilterField extends TextField {
 	}
 
 	private boolean checkMatchNames(TreeItem<BaseTreeValue> item, List<String> names) {
+		// Indexed items have already been matched against the names
+		if (item instanceof BaseTreeItem && ((BaseTreeItem) item).isIndexed()) {
+			return ((BaseTreeItem) item).isIndexVisible();
+		}
 		String itemName = item.getValue().getFullPath();
 		if (itemName == null) {
 			return false;
@@ -9,6 +9,7 @@ import me.coley.recaf.util.IOUtil;
 import me.coley.recaf.util.InternalPath;
 import me.coley.recaf.util.SelfReferenceUtil;
 import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.syntax.Language;
 import org.slf4j.Logger;
 
 import java.io.BufferedReader;
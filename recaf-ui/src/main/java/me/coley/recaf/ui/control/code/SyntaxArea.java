@@ -16,6 +16,9 @@ import me.coley.recaf.ui.util.SearchHelper;
 import me.coley.recaf.util.ReflectUtil;
 import me.coley.recaf.util.StringUtil;
 import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.syntax.Language;
+import me.coley.recaf.util.syntax.LanguageStyler;
+import me.coley.recaf.util.syntax.Styleable;
 import me.coley.recaf.util.threading.FxThreadUtil;
 import me.coley.recaf.util.threading.ThreadUtil;
 import org.fxmisc.flowless.VirtualFlow;
@@ -354,8 +357,13 @@ public class SyntaxArea extends CodeArea implements BracketUpdateListener, Probl
 					bracketTracking.textInserted(change);
 			});
 		}
-		syntaxUpdate = ThreadUtil.run(() -> syntax(change));
-		lastContent = getContent().snapshot();
+		// Record the edit for the styler now, so it is not lost if the update for it is cancelled
+		TwoDimensional.Position position = offsetToPosition(change.getPosition(), Bias.Forward);
+		int lineOffset = change.getPosition() - position.getMinor();
+		long edit = styler.queueEdit(position.getMajor(), lineOffset, removedText, insertedText);
+		ReadOnlyStyledDocument<?, ?, ?> content = getContent().snapshot();
+		syntaxUpdate = ThreadUtil.run(() -> syntax(change, content, edit));
+		lastContent = content;
 	}
 
 	/**
@@ -395,35 +403,19 @@ public class SyntaxArea extends CodeArea implements BracketUpdateListener, Probl
 	 *
 	 * @param change
 	 * 		The changes applied to the document.
+	 * @param content
+	 * 		Document content after the change.
+	 * @param edit
+	 * 		Identifier of the change, as recorded by the styler.
 	 */
-	private void syntax(PlainTextChange change) {
-		// Change positions. If the change is removal of some text,
-		// then the insert position will be equal to the start position.
-		int insertEndPos = change.getInsertionEnd();
-		int removeEndPos = change.getRemovalEnd();
-		int start = change.getPosition();
-		int end = Math.max(insertEndPos, removeEndPos);
-		// Change type checks
-		boolean insert = start == removeEndPos && start < insertEndPos;
-		boolean removal = start < removeEndPos && start == insertEndPos;
-		// Special case check for the initial text of the document.
-		// Do a full style calculation for this case.
-		if (start == 0 && insert && getText().equals(change.getInserted())) {
-			// Update initial style
-			if (styler != null) {
-				styler.styleCompleteDocument(getText());
-			}
-		} else {
-			// Allow for insertion and removal style recalculations limited in scope to the affected text.
-			if (styler != null) {
-				styler.styleFlexibleRange(this, getText(), start, end);
-			}
-		}
+	private void syntax(PlainTextChange change, ReadOnlyStyledDocument<?, ?, ?> content, long edit) {
+		// Only the lines affected by the change and any prior cancelled changes are restyled
+		styler.styleEdits(content.getText(), edit);
 		onPostStyle(change);
 	}
 
 	/**
-	 * Called after {@link #syntax(PlainTextChange)}.
+	 * Called after {@link #syntax(PlainTextChange, ReadOnlyStyledDocument, long)}.
 	 * Allows adding additional styles on top of the defaults.
 	 *
 	 * @param change
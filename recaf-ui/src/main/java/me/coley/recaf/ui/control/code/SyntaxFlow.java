@@ -3,6 +3,9 @@ package me.coley.recaf.ui.control.code;
 import javafx.scene.Node;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
+import me.coley.recaf.util.syntax.Language;
+import me.coley.recaf.util.syntax.LanguageStyler;
+import me.coley.recaf.util.syntax.Styleable;
 import me.coley.recaf.util.threading.FxThreadUtil;
 import me.coley.recaf.util.threading.ThreadUtil;
 
@@ -14,12 +17,16 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * Text flow for syntax highlighted code.
+ * <br>
+ * Each call to {@link #setCode(String)} replaces the prior content. The code is shown unstyled until styling
+ * completes, and stays unstyled when the language has no rules, so the flow can be reused for different snippets.
  *
  * @author Matt Coley
  */
 public class SyntaxFlow extends TextFlow implements Styleable {
 	private final LanguageStyler styler;
-	private List<LanguageStyler.Section> sections;
+	private List<LanguageStyler.Section> sections = Collections.emptyList();
+	private String code = "";
 
 	/**
 	 * @param language
@@ -38,6 +45,8 @@ public class SyntaxFlow extends TextFlow implements Styleable {
 	 * Delegated to {@link #onClearStyle()} or {@link #onApplyStyle(int, List)}.
 	 */
 	public CompletableFuture<Void> setCode(String code) {
+		this.code = code;
+		FxThreadUtil.dispatch(() -> getChildren().setAll(createUnstyledText(code)));
 		return styler.styleCompleteDocument(code);
 	}
 
@@ -57,7 +66,9 @@ public class SyntaxFlow extends TextFlow implements Styleable {
 
 	@Override
 	public CompletableFuture<Void> onClearStyle() {
-		return CompletableFuture.runAsync(() -> getChildren().clear(), FxThreadUtil.executor());
+		sections = Collections.emptyList();
+		String text = code;
+		return CompletableFuture.runAsync(() -> getChildren().setAll(createUnstyledText(text)), FxThreadUtil.executor());
 	}
 
 	@Override
@@ -71,6 +82,12 @@ public class SyntaxFlow extends TextFlow implements Styleable {
 		}
 		if (Thread.currentThread().isInterrupted())
 			return ThreadUtil.failedFuture(new InterruptedException());
-		return CompletableFuture.runAsync(() -> getChildren().addAll(nodes), FxThreadUtil.executor());
+		return CompletableFuture.runAsync(() -> getChildren().setAll(nodes), FxThreadUtil.executor());
+	}
+
+	private static Text createUnstyledText(String code) {
+		Text text = new Text(code);
+		text.getStyleClass().add("text");
+		return text;
 	}
 }
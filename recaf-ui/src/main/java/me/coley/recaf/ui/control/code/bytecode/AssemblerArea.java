@@ -39,7 +39,7 @@ import me.coley.recaf.ui.pane.assembler.VariableHighlighter;
 import me.coley.recaf.ui.util.Icons;
 import me.coley.recaf.util.NodeEvents;
 import me.coley.recaf.util.StackTraceUtil;
-import me.coley.recaf.util.WorkspaceTreeService;
+import me.coley.recaf.util.WorkspaceSymbolService;
 import me.coley.recaf.util.logging.DebuggingLogger;
 import me.coley.recaf.util.logging.Logging;
 import me.coley.recaf.util.threading.DelayedExecutor;
@@ -136,8 +136,8 @@ public class AssemblerArea extends SyntaxArea implements MemberEditor, PipelineC
 		if (analyzeBytecode) {
 			pipeline.addBytecodeValidationListener(this);
 		}
-		WorkspaceTreeService treeService = RecafUI.getController().getServices().getTreeService();
-		suggestions = new Suggestions(treeService.getCurrentClassTree(),
+		WorkspaceSymbolService symbolService = RecafUI.getController().getServices().getSymbolService();
+		suggestions = new Suggestions(symbolService,
 				RecafUI.getController().getWorkspace().getResources()::getClass, null);
 		NodeEvents.addKeyPressHandler(this, event -> {
 			if (Configs.keybinds().suggest.match(event))
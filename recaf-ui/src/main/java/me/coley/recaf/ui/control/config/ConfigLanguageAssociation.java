@@ -8,7 +8,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.util.StringConverter;
 import me.coley.recaf.config.ConfigContainer;
-import me.coley.recaf.ui.control.code.Language;
+import me.coley.recaf.util.syntax.Language;
 import me.coley.recaf.ui.control.code.Languages;
 import me.coley.recaf.ui.util.Lang;
 import me.coley.recaf.ui.util.LanguageAssociationListener;
@@ -1,14 +1,13 @@
 package me.coley.recaf.ui.control.hex;
 
 import me.coley.recaf.util.StringUtil;
-import org.apache.commons.lang3.ArrayUtils;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import me.coley.recaf.util.hex.ArrayHexSource;
+import me.coley.recaf.util.hex.HexPieceTable;
+import me.coley.recaf.util.hex.HexSource;
 
 /**
- * Wrapper of a {@code byte[]} for hex operations.
+ * Wrapper of a {@link HexSource} for hex operations.
+ * Edits are recorded in a {@link HexPieceTable}, so the source itself is never copied or modified.
  *
  * @author Matt Coley
  */
@@ -18,7 +17,7 @@ public class HexAccessor {
 	 */
 	public static final int HEX_RADIX = 16;
 	private final HexView view;
-	private byte[] data;
+	private HexPieceTable data;
 
 	/**
 	 * New accessor with no backing data.
@@ -38,14 +37,39 @@ public class HexAccessor {
 	 */
 	public HexAccessor(HexView view, byte[] data) {
 		this.view = view;
-		this.data = data;
+		this.data = new HexPieceTable(new ArrayHexSource(data));
 	}
 
 	/**
-	 * @return Backing array.
+	 * @return Copy of the data with all edits applied.
+	 *
+	 * @throws IllegalStateException
+	 * 		When the data is too large to fit in an array.
 	 */
 	public byte[] getBacking() {
-		return data;
+		return data.toByteArray();
+	}
+
+	/**
+	 * @return Source the data was loaded from, without edits.
+	 */
+	public HexSource getOriginal() {
+		return data.getOriginal();
+	}
+
+	/**
+	 * @return Current data with all edits applied, unaffected by later edits.
+	 * Safe to read from another thread.
+	 */
+	public HexSource snapshot() {
+		return data.snapshot();
+	}
+
+	/**
+	 * @return {@code true} when the data has been edited since it was set.
+	 */
+	public boolean isModified() {
+		return data.isModified();
 	}
 
 	/**
@@ -54,10 +78,13 @@ public class HexAccessor {
 	 * @param length
 	 * 		Length of the section.
 	 *
-	 * @return Section of the backing array.
+	 * @return Section of the data. Positions past the end of the data are zero.
 	 */
-	public byte[] getBackingRange(int offset, int length) {
-		return Arrays.copyOfRange(data, offset, offset + length);
+	public byte[] getBackingRange(long offset, int length) {
+		byte[] range = new byte[length];
+		if (offset >= 0 && offset < data.length())
+			data.read(offset, range, 0, (int) Math.min(length, data.length() - offset));
+		return range;
 	}
 
 	/**
@@ -65,14 +92,25 @@ public class HexAccessor {
 	 * 		New backing array.
 	 */
 	public void setBacking(byte[] data) {
-		this.data = data;
+		setBacking(new ArrayHexSource(data));
+	}
+
+	/**
+	 * @param source
+	 * 		New backing source.
+	 */
+	public void setBacking(HexSource source) {
+		HexSource old = data.getOriginal();
+		if (old != source)
+			old.close();
+		this.data = new HexPieceTable(source);
 	}
 
 	/**
 	 * @return Length of data.
 	 */
-	public int getLength() {
-		return data.length;
+	public long getLength() {
+		return data.length();
 	}
 
 	/**
@@ -93,11 +131,11 @@ public class HexAccessor {
 	 *
 	 * @return Hex string at offset.
 	 */
-	public String getHexStringAtOffset(int offset) {
-		if (offset >= data.length || offset < 0)
+	public String getHexStringAtOffset(long offset) {
+		if (offset >= data.length() || offset < 0)
 			return "  ";
 		else
-			return HexView.caseHex(StringUtil.toHexString(data[offset]));
+			return HexView.caseHex(StringUtil.toHexString(data.get(offset)));
 	}
 
 	/**
@@ -106,11 +144,11 @@ public class HexAccessor {
 	 *
 	 * @return Value at offset, or {@link Integer#MIN_VALUE} if the value is not inside the data bounds.
 	 */
-	public int getHexAtOffset(int offset) {
-		if (offset >= data.length || offset < 0)
+	public int getHexAtOffset(long offset) {
+		if (offset >= data.length() || offset < 0)
 			return Integer.MIN_VALUE;
 		else
-			return data[offset];
+			return data.get(offset);
 	}
 
 	/**
@@ -119,9 +157,9 @@ public class HexAccessor {
 	 * @param value
 	 * 		Value to write.
 	 */
-	public void setHexAtOffset(int offset, int value) {
-		if (offset >= 0 && offset < data.length)
-			data[offset] = (byte) (value & 0xFF);
+	public void setHexAtOffset(long offset, int value) {
+		if (offset >= 0 && offset < data.length())
+			data.set(offset, (byte) (value & 0xFF));
 	}
 
 	/**
@@ -134,14 +172,15 @@ public class HexAccessor {
 	 *
 	 * @return Text representation of the hex data starting at the given offset.
 	 */
-	public String getPreviewAtOffset(int offset, int length) {
-		StringBuilder sb = new StringBuilder();
+	public String getPreviewAtOffset(long offset, int length) {
+		long available = Math.max(0, Math.min(length, data.length() - offset));
+		byte[] range = getBackingRange(offset, (int) available);
+		StringBuilder sb = new StringBuilder(length);
 		for (int j = 0; j < length; j++) {
-			int i = offset + j;
-			if (i >= data.length)
+			if (j >= available)
 				sb.append(' ');
 			else {
-				char c = (char) data[i];
+				char c = (char) range[j];
 				if (c >= 32 && c <= 126) {
 					sb.append(c);
 				} else {
@@ -153,19 +192,15 @@ public class HexAccessor {
 	}
 
 	/**
-	 * Used to create the offsets shown on the left-most column of {@link HexView}.
+	 * Used to determine the number of rows shown in {@link HexView}.
+	 * Rows begin at {@code 0} and increment by {@link HexView#getHexColumns()},
+	 * with a trailing row at the end of the data for appending.
 	 *
-	 * @return List of integers starting from 0, incrementing by {@link HexView#getHexColumns()}
-	 * until the data length is reached.
-	 */
-	public List<Integer> computeOffsetsInRange() {
-		List<Integer> newOffsets = new ArrayList<>();
-		int offset = 0;
-		while (offset <= data.length) {
-			newOffsets.add(offset);
-			offset += view.getHexColumns();
-		}
-		return newOffsets;
+	 * @return Number of rows needed to display the data.
+	 */
+	public int computeRowCount() {
+		long rows = data.length() / view.getHexColumns() + 1;
+		return (int) Math.min(rows, Integer.MAX_VALUE);
 	}
 
 	/**
@@ -176,19 +211,11 @@ public class HexAccessor {
 	 * @param end
 	 * 		Inclusive end.
 	 */
-	public void deleteRange(int start, int end) {
+	public void deleteRange(long start, long end) {
 		// Filter acceptable range
-		if (start > data.length)
+		if (start > data.length())
 			return;
-		end = Math.min(end, data.length);
-		// Build new array
-		int diff = (end - start) + 1;
-		byte[] copy = new byte[data.length - diff];
-		int remaining = data.length - (start + diff);
-		System.arraycopy(data, 0, copy, 0, start);
-		System.arraycopy(data, start + diff, copy, start, remaining);
-		// Update
-		setBacking(copy);
+		data.delete(start, (end - start) + 1);
 	}
 
 	/**
@@ -199,7 +226,7 @@ public class HexAccessor {
 	 * @param count
 	 * 		Number of bytes to add.
 	 */
-	public void insertEmptyAfter(int pos, int count) {
-		setBacking(ArrayUtils.insert(pos + 1, data, new byte[count]));
+	public void insertEmptyAfter(long pos, int count) {
+		data.insert(Math.min(pos + 1, data.length()), count);
 	}
 }
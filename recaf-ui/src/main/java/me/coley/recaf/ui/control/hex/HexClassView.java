@@ -3,15 +3,20 @@ package me.coley.recaf.ui.control.hex;
 import me.coley.cafedude.classfile.ClassFile;
 import me.coley.cafedude.classfile.ClassMember;
 import me.coley.cafedude.io.ClassFileReader;
+import me.coley.recaf.RecafUI;
 import me.coley.recaf.code.ClassInfo;
 import me.coley.recaf.code.CommonClassInfo;
 import me.coley.recaf.code.MemberInfo;
 import me.coley.recaf.ui.behavior.ClassRepresentation;
+import me.coley.recaf.ui.behavior.SaveResult;
 import me.coley.recaf.ui.control.CollapsibleTabPane;
 import me.coley.recaf.ui.control.hex.clazz.ClassOffsetInfo;
 import me.coley.recaf.ui.control.hex.clazz.ClassOffsetInfoType;
 import me.coley.recaf.ui.control.hex.clazz.ClassOffsetMap;
 import me.coley.recaf.ui.control.hex.clazz.HexClassInfo;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.workspace.resource.Resource;
+import org.slf4j.Logger;
 
 /**
  * Extension of the hex viewer for class files.
@@ -19,6 +24,7 @@ import me.coley.recaf.ui.control.hex.clazz.HexClassInfo;
  * @author Matt Coley
  */
 public class HexClassView extends HexView implements ClassRepresentation {
+	private static final Logger logger = Logging.get(HexClassView.class);
 	private HexClassInfo classOffsetInfo;
 	private ClassInfo classInfo;
 
@@ -49,6 +55,23 @@ public class HexClassView extends HexView implements ClassRepresentation {
 		}
 	}
 
+	@Override
+	public SaveResult save() {
+		if (classInfo == null || !getHex().isModified())
+			return SaveResult.IGNORED;
+		ClassInfo updated;
+		try {
+			updated = ClassInfo.read(getHex().getBacking());
+		} catch (Exception ex) {
+			logger.error("Failed to save class '{}', edited content is not a valid class", classInfo.getName(), ex);
+			return SaveResult.FAILURE;
+		}
+		// Update in primary resource, which in turn updates this view with the saved content
+		Resource primary = RecafUI.getController().getWorkspace().getResources().getPrimary();
+		primary.getClasses().put(updated);
+		return SaveResult.SUCCESS;
+	}
+
 	@Override
 	public boolean supportsMemberSelection() {
 		return true;
@@ -1,7 +1,10 @@
 package me.coley.recaf.ui.control.hex;
 
+import me.coley.recaf.RecafUI;
 import me.coley.recaf.code.FileInfo;
 import me.coley.recaf.ui.behavior.FileRepresentation;
+import me.coley.recaf.ui.behavior.SaveResult;
+import me.coley.recaf.workspace.resource.Resource;
 
 /**
  * Extension of the hex viewer for file data.
@@ -17,6 +20,16 @@ public class HexFileView extends HexView implements FileRepresentation {
 		onUpdate(newValue.getValue());
 	}
 
+	@Override
+	public SaveResult save() {
+		if (fileInfo == null || !getHex().isModified())
+			return SaveResult.IGNORED;
+		// Update in primary resource, which in turn updates this view with the saved content
+		Resource primary = RecafUI.getController().getWorkspace().getResources().getPrimary();
+		primary.getFiles().put(new FileInfo(fileInfo.getName(), getHex().getBacking()));
+		return SaveResult.SUCCESS;
+	}
+
 	@Override
 	public FileInfo getCurrentFileInfo() {
 		return fileInfo;
@@ -23,8 +23,8 @@ public class HexRange {
 	// These are NOT meant to be the actual min/max values.
 	// The start is the index the user clicks first.
 	// The end is the index the user last dragged over.
-	private int start = -1;
-	private int end = -1;
+	private long start = -1;
+	private long end = -1;
 
 	/**
 	 * @param hex
@@ -38,8 +38,8 @@ public class HexRange {
 	 * Clears current selection.
 	 */
 	public void clearSelection() {
-		int oldStart = getStart();
-		int oldEnd = getEnd();
+		long oldStart = getStart();
+		long oldEnd = getEnd();
 		start = -1;
 		end = -1;
 		listeners.forEach(l -> l.onSelectionClear(oldStart, oldEnd));
@@ -51,7 +51,7 @@ public class HexRange {
 	 * @param offset
 	 * 		Hex offset.
 	 */
-	public void createSelectionBound(int offset) {
+	public void createSelectionBound(long offset) {
 		clearSelection();
 		offset = cap(offset);
 		start = offset;
@@ -63,7 +63,7 @@ public class HexRange {
 	 * @param offset
 	 * 		Hex offset.
 	 */
-	public void updateSelectionBound(int offset) {
+	public void updateSelectionBound(long offset) {
 		if (start > -1) {
 			offset = cap(offset);
 			end = offset;
@@ -111,7 +111,7 @@ public class HexRange {
 	 *
 	 * @return {@code true} when the offset is within the selection range.
 	 */
-	public boolean isInRange(int offset) {
+	public boolean isInRange(long offset) {
 		if (!exists())
 			return false;
 		return offset >= getStart() && offset <= getEnd();
@@ -120,14 +120,14 @@ public class HexRange {
 	/**
 	 * @return Minimum bound of selection.
 	 */
-	public int getStart() {
+	public long getStart() {
 		return Math.min(start, end);
 	}
 
 	/**
 	 * @return Maximnum bound of selection.
 	 */
-	public int getEnd() {
+	public long getEnd() {
 		return Math.max(start, end);
 	}
 
@@ -155,7 +155,7 @@ public class HexRange {
 	 *
 	 * @return Offset, or data length cap.
 	 */
-	private int cap(int offset) {
+	private long cap(long offset) {
 		return Math.min(offset, hex.getLength() - 1);
 	}
 }
@@ -15,7 +15,7 @@ public interface HexRangeListener {
 	 * @param stop
 	 * 		Max bound.
 	 */
-	void onSelectionUpdate(int start, int stop);
+	void onSelectionUpdate(long start, long stop);
 
 	/**
 	 * Called when selection has been completed <i>(Mouse release)</i>.
@@ -25,7 +25,7 @@ public interface HexRangeListener {
 	 * @param stop
 	 * 		Max bound.
 	 */
-	void onSelectionComplete(int start, int stop);
+	void onSelectionComplete(long start, long stop);
 
 	/**
 	 * Called when selection has been cleared.
@@ -35,5 +35,5 @@ public interface HexRangeListener {
 	 * @param stop
 	 * 		Max bound.
 	 */
-	void onSelectionClear(int start, int stop);
+	void onSelectionClear(long start, long stop);
 }
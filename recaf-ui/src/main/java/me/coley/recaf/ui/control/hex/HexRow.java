@@ -51,7 +51,7 @@ public class HexRow implements Cell<Integer, HBox> {
 	private final GridPane valuesGrid;
 	private final GridPane textGrid;
 	// The offset is the only piece that will be modified when the cell is reused.
-	private int offset;
+	private long offset;
 
 	/**
 	 * @param view
@@ -117,9 +117,13 @@ public class HexRow implements Cell<Integer, HBox> {
 		return true;
 	}
 
+	/**
+	 * @param item
+	 * 		Index of the row to display, or {@code -1} for the header row.
+	 */
 	@Override
 	public void updateItem(Integer item) {
-		this.offset = item;
+		this.offset = item < 0 ? -1 : (long) item * view.getHexColumns();
 		if (offset < 0) {
 			// Special case for header row
 			valuesGrid.setPadding(HEAD_PADDING);
@@ -180,10 +184,11 @@ public class HexRow implements Cell<Integer, HBox> {
 	public void onEdit(int localOffset, int value) {
 		hex.setHexAtOffset(offset + localOffset, value);
 		updateLocalGrid(localOffset);
+		view.onValueEdited();
 	}
 
 	private void updateLocalGrid(int localOffset) {
-		int offsetX = offset + localOffset;
+		long offsetX = offset + localOffset;
 		int value = hex.getHexAtOffset(offsetX);
 		String hexStr = hex.getHexStringAtOffset(offsetX);
 		HexLabel label = (HexLabel) valuesGrid.getChildren().get(localOffset);
@@ -8,6 +8,9 @@ import javafx.scene.control.ListView;
 import javafx.scene.control.Tab;
 import javafx.scene.layout.BorderPane;
 import me.coley.recaf.ui.util.Icons;
+import me.coley.recaf.util.hex.HexSource;
+import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,8 +21,11 @@ import java.util.List;
  * @author Matt Coley
  */
 public class HexStringsInfo {
+	private static final int CHUNK_SIZE = 64 * 1024;
+	private static final int MAX_STRINGS = 100_000;
 	private final ObservableList<Info> strings = FXCollections.observableArrayList();
 	private final HexView view;
+	private volatile int scanId;
 
 	/**
 	 * @param view
@@ -51,8 +57,8 @@ public class HexStringsInfo {
 					setGraphic(lblOffset);
 					setText(item.text);
 					// Make it so they're clickable
-					int start = item.offset;
-					int end = start + item.text.length() - 1;
+					long start = item.offset;
+					long end = start + item.text.length() - 1;
 					setOnMousePressed(e -> view.selectRange(EditableHexLocation.ASCII, start, end));
 				}
 			}
@@ -68,32 +74,56 @@ public class HexStringsInfo {
 
 	/**
 	 * Updates the displayed values.
+	 * The content is scanned in the background, replacing any scan still in progress.
 	 */
 	public void populateStrings() {
-		byte[] data = view.getHex().getBacking();
+		// Scan a snapshot of the current content, as the edit layer is not safe to read from another thread
+		HexSource source = view.getHex().snapshot();
+		int scanId = ++this.scanId;
+		ThreadUtil.run(() -> {
+			List<Info> found = scan(source, scanId);
+			if (found != null)
+				FxThreadUtil.run(() -> {
+					if (scanId == this.scanId)
+						strings.setAll(found);
+				});
+		});
+	}
+
+	private List<Info> scan(HexSource source, int scanId) {
 		List<Info> strings = new ArrayList<>();
 		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < data.length; i++) {
-			char c = (char) data[i];
-			if (Character.isISOControl(c)) {
-				int len = sb.length();
-				if (len > 0) {
-					strings.add(new Info(i - len, sb.toString()));
-					sb.setLength(0);
+		byte[] chunk = new byte[CHUNK_SIZE];
+		long length = source.length();
+		for (long position = 0; position < length; position += CHUNK_SIZE) {
+			// Abort if a newer scan has started
+			if (scanId != this.scanId)
+				return null;
+			int count = (int) Math.min(CHUNK_SIZE, length - position);
+			source.read(position, chunk, 0, count);
+			for (int j = 0; j < count; j++) {
+				char c = (char) chunk[j];
+				if (Character.isISOControl(c)) {
+					int len = sb.length();
+					if (len > 0) {
+						strings.add(new Info(position + j - len, sb.toString()));
+						sb.setLength(0);
+						if (strings.size() >= MAX_STRINGS)
+							return strings;
+					}
+				} else {
+					sb.append(c);
 				}
-			} else {
-				sb.append(c);
 			}
 		}
-		this.strings.clear();
-		this.strings.addAll(strings);
+		return strings;
 	}
 
 	private static class Info {
-		private final int offset;
+		private final long offset;
 		private final String text;
 
-		public Info(int offset, String text) {
+		public Info(long offset, String text) {
 			this.offset = offset;
 			this.text = text;
 		}
@@ -32,7 +32,7 @@ public class HexValueInfo {
 	private final Label lblBinary = new Label();
 	private final Button btnEndian = new Button("Big Endian");
 	private boolean useLittleEndian;
-	private int lastOffset  = -1;
+	private long lastOffset = -1;
 
 	/**
 	 * @param view
@@ -86,7 +86,7 @@ public class HexValueInfo {
 	 * @param offset
 	 * 		The offset selected.
 	 */
-	public void setOffset(int offset) {
+	public void setOffset(long offset) {
 		lastOffset = offset;
 		lblOffset.setText(HexView.offsetStr(offset));
 		byte[] data = view.getHex().getBackingRange(offset, 8);
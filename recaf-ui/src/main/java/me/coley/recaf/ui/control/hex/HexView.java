@@ -1,11 +1,11 @@
 package me.coley.recaf.ui.control.hex;
 
 import javafx.beans.binding.StringBinding;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
 import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
+import javafx.scene.control.Alert;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Menu;
 import javafx.scene.control.SplitPane;
@@ -13,6 +13,7 @@ import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.BorderPane;
+import javafx.stage.Stage;
 import me.coley.recaf.config.Configs;
 import me.coley.recaf.ui.behavior.*;
 import me.coley.recaf.ui.control.CollapsibleTabPane;
@@ -22,7 +23,11 @@ import me.coley.recaf.ui.util.Icons;
 import me.coley.recaf.ui.util.Lang;
 import me.coley.recaf.ui.util.Menus;
 import me.coley.recaf.ui.util.SearchHelper;
+import me.coley.recaf.ui.window.WindowBase;
 import me.coley.recaf.util.StringUtil;
+import me.coley.recaf.util.hex.ArrayHexSource;
+import me.coley.recaf.util.hex.HexSource;
+import me.coley.recaf.util.hex.MappedHexSource;
 import org.fxmisc.flowless.VirtualFlow;
 import org.fxmisc.flowless.Virtualized;
 import org.fxmisc.flowless.VirtualizedScrollPane;
@@ -39,19 +44,22 @@ import java.util.function.BiConsumer;
 
 /**
  * A hex viewer and editor component that utilizes virtual/recyclable cells.
+ * Cells are only created for rows in the viewport, and each row reads its data on demand.
  * <br>
- * To populate the UI, see {@link #onUpdate(byte[])}.
+ * To populate the UI, see {@link #onUpdate(byte[])} or {@link #onUpdate(HexSource)}.
  *
  * @author Matt Coley
  */
 public class HexView extends BorderPane implements ToolSideTabbed, Searchable, Cleanable, Representation, Virtualized {
+	// Copies are built in memory as a single string, so selections of mapped files are limited
+	private static final int MAX_COPY_LENGTH = 16 * 1024 * 1024;
 	private final int hexColumns;
 	private final HexAccessor hex = new HexAccessor(this);
 	private final HexRange range = new HexRange(hex);
 	private final HexStringsInfo strings = new HexStringsInfo(this);
 	private final HexValueInfo values = new HexValueInfo(this);
 	private final HexRow header;
-	private final ObservableList<Integer> rowOffsets = FXCollections.observableArrayList();
+	private final RowIndexList rowIndices = new RowIndexList();
 	private final BorderPane hexDisplayWrapper = new BorderPane();
 	private final SplitPane contentSplit = new SplitPane();
 	private final SearchHelper searchHelper = new SearchHelper(this::newSearchResult);
@@ -170,6 +178,7 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 		if (hexFlow != null) {
 			hexFlow.dispose();
 		}
+		hex.getOriginal().close();
 	}
 
 	@Override
@@ -188,19 +197,32 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 
 	@Override
 	public SearchResults next(EnumSet<SearchModifier> modifiers, String search) {
-		searchHelper.setText(cachedAscii);
+		searchHelper.setText(getSearchText());
 		return searchHelper.next(modifiers, search);
 	}
 
 	@Override
 	public SearchResults previous(EnumSet<SearchModifier> modifiers, String search) {
-		searchHelper.setText(cachedAscii);
+		searchHelper.setText(getSearchText());
 		return searchHelper.previous(modifiers, search);
 	}
 
+	/**
+	 * @return Text representation of the data to search in, created on demand
+	 * since it is as large as the data itself.
+	 */
+	private String getSearchText() {
+		if (cachedAscii == null) {
+			// Search text is bound by the maximum size of a string
+			int length = (int) Math.min(hex.getLength(), Integer.MAX_VALUE - 8);
+			cachedAscii = hex.getPreviewAtOffset(0, length);
+		}
+		return cachedAscii;
+	}
+
 	private SearchResult newSearchResult(Integer start, Integer stop) {
 		int startFiltered = Math.max(start, 0);
-		int stopFiltered = Math.min(stop, hex.getLength());
+		int stopFiltered = (int) Math.min(stop, hex.getLength());
 		return new SearchResult() {
 			@Override
 			public int getStart() {
@@ -227,20 +249,21 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 		ContextMenu menu = new ContextMenu();
 		Menu menuCopy = Menus.menu("menu.hex.copyas");
 		menuCopy.getItems().add(Menus.actionLiteral("String", Icons.QUOTE, () -> {
-			int start = range.getStart();
-			int end = range.getEnd() + 1;
-			byte[] data = new byte[end - start];
-			for (int i = start; i <= end; i++) {
-				data[i - start] = (byte) hex.getHexAtOffset(i);
-			}
+			int length = getCopyLength();
+			if (length < 0)
+				return;
+			long start = range.getStart();
+			byte[] data = hex.getBackingRange(start, length);
 			ClipboardContent clipboard = new ClipboardContent();
 			clipboard.putString(new String(data, StandardCharsets.ISO_8859_1));
 			Clipboard.getSystemClipboard().setContent(clipboard);
 		}));
 		menuCopy.getItems().add(Menus.separator());
 		menuCopy.getItems().add(Menus.actionLiteral("Java - short[]", Icons.CODE, () -> {
+			if (getCopyLength() < 0)
+				return;
 			List<String> bytes = new ArrayList<>();
-			for (int i = range.getStart(); i <= getRange().getEnd(); i++) {
+			for (long i = range.getStart(); i <= getRange().getEnd(); i++) {
 				bytes.add("0x" + hex.getHexStringAtOffset(i));
 			}
 			ClipboardContent clipboard = new ClipboardContent();
@@ -248,8 +271,10 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 			Clipboard.getSystemClipboard().setContent(clipboard);
 		}));
 		menuCopy.getItems().add(Menus.actionLiteral("C - unsigned char[]", Icons.CODE, () -> {
+			if (getCopyLength() < 0)
+				return;
 			List<String> bytes = new ArrayList<>();
-			for (int i = range.getStart(); i <= getRange().getEnd(); i++) {
+			for (long i = range.getStart(); i <= getRange().getEnd(); i++) {
 				bytes.add("0x" + hex.getHexStringAtOffset(i));
 			}
 			ClipboardContent clipboard = new ClipboardContent();
@@ -257,8 +282,10 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 			Clipboard.getSystemClipboard().setContent(clipboard);
 		}));
 		menuCopy.getItems().add(Menus.actionLiteral("Python - bytes", Icons.CODE, () -> {
+			if (getCopyLength() < 0)
+				return;
 			List<String> bytes = new ArrayList<>();
-			for (int i = range.getStart(); i <= getRange().getEnd(); i++) {
+			for (long i = range.getStart(); i <= getRange().getEnd(); i++) {
 				bytes.add("0x" + hex.getHexStringAtOffset(i));
 			}
 			ClipboardContent clipboard = new ClipboardContent();
@@ -269,23 +296,40 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 		return menu;
 	}
 
+	/**
+	 * @return Length of the current selection, or {@code -1} when it is too large to copy,
+	 * in which case the user is warned.
+	 */
+	private int getCopyLength() {
+		long length = range.getEnd() - range.getStart() + 1;
+		if (length <= MAX_COPY_LENGTH)
+			return (int) length;
+		Alert alert = new Alert(Alert.AlertType.WARNING);
+		WindowBase.installStyle(alert.getDialogPane().getStylesheets());
+		WindowBase.installLogo((Stage) alert.getDialogPane().getScene().getWindow());
+		alert.headerTextProperty().bind(Lang.getBinding("dialog.hex.header.copylimit"));
+		alert.contentTextProperty().bind(Lang.format("dialog.hex.copylimit", MAX_COPY_LENGTH / (1024 * 1024)));
+		alert.show();
+		return -1;
+	}
+
 	/**
 	 * Copies the current selection to a hex string.
 	 */
 	private void copySelection() {
 		if (range.exists()) {
+			int length = getCopyLength();
+			if (length < 0)
+				return;
 			StringBuilder sb = new StringBuilder();
 			if (dragLocation == EditableHexLocation.RAW) {
 				// Copy the raw content as hex
-				for (int i = range.getStart(); i <= range.getEnd(); i++) {
+				for (long i = range.getStart(); i <= range.getEnd(); i++) {
 					sb.append(hex.getHexStringAtOffset(i));
 				}
 			} else {
 				// Copy the displayed ascii
-				int start = range.getStart();
-				int end = range.getEnd();
-				int length = end - start + 1;
-				sb.append(hex.getPreviewAtOffset(start, length));
+				sb.append(hex.getPreviewAtOffset(range.getStart(), length));
 			}
 			ClipboardContent clipboard = new ClipboardContent();
 			clipboard.putString(sb.toString());
@@ -314,9 +358,9 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 			}
 			// Insert and refresh UI
 			if (count > 0) {
-				int pos = range.getEnd();
+				long pos = range.getEnd();
 				hex.insertEmptyAfter(pos, count);
-				refreshPastOffset(pos);
+				onDataChanged(pos);
 			}
 		}
 	}
@@ -328,14 +372,35 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 		// TODO: Have a "are you sure" prompt that can be disabled in config
 		if (!range.exists())
 			return;
-		int start = range.getStart();
-		int end = range.getEnd();
+		long start = range.getStart();
+		long end = range.getEnd();
 		// Clear
 		range.clearSelection();
 		// Delete
 		hex.deleteRange(start, end);
 		// Refresh UI
-		refreshPastOffset(start);
+		onDataChanged(start);
+	}
+
+	/**
+	 * Updates the row count and visible rows after an insertion or deletion.
+	 *
+	 * @param offset
+	 * 		Offset of the first changed byte.
+	 */
+	private void onDataChanged(long offset) {
+		cachedAscii = null;
+		rowIndices.setSize(hex.computeRowCount());
+		refreshPastOffset(offset);
+		strings.populateStrings();
+	}
+
+	/**
+	 * Updates the content derived from the data after a value is edited in place.
+	 */
+	void onValueEdited() {
+		cachedAscii = null;
+		strings.populateStrings();
 	}
 
 	/**
@@ -344,16 +409,14 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 * @param offset
 	 * 		Some arbitrary offset.
 	 */
-	private void refreshPastOffset(int offset) {
-		int incr = getHexColumns();
-		int startOffset = offset - (offset % incr);
-		int minIndex = startOffset / incr;
+	private void refreshPastOffset(long offset) {
+		int minIndex = (int) (offset / getHexColumns());
 		int index = hexFlow.getLastVisibleIndex();
 		while (index >= minIndex) {
 			Optional<HexRow> rowAtIndex = hexFlow.getCellIfVisible(index);
 			if (rowAtIndex.isPresent()) {
 				HexRow row = rowAtIndex.get();
-				row.updateItem(index * incr);
+				row.updateItem(index);
 				index--;
 			} else {
 				break;
@@ -367,21 +430,20 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 * @param offset
 	 * 		Offset to center on-screen.
 	 */
-	public void centerOffset(int offset) {
-		int rowOffset = offset - (offset % getHexColumns());
-		int itemIndex = rowOffset / getHexColumns();
+	public void centerOffset(long offset) {
+		long itemIndex = offset / getHexColumns();
 		// Range check
 		if (itemIndex >= getHexRows()) {
 			return;
 		}
 		// Skip if already visible on screen
-		if (hexFlow.getCellIfVisible(itemIndex).isPresent()) {
+		if (hexFlow.getCellIfVisible((int) itemIndex).isPresent()) {
 			return;
 		}
 		// Normally a full bounds will show the paragraph at the top of the viewport.
 		// If we offset the position by half the height upwards, it centers it.
 		Bounds bounds = new BoundingBox(0, -getHeight() / 2, getWidth(), getHeight());
-		getHexFlow().show(itemIndex, bounds);
+		getHexFlow().show((int) itemIndex, bounds);
 	}
 
 	/**
@@ -391,16 +453,24 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 * 		Data to use.
 	 */
 	public void onUpdate(byte[] data) {
-		hex.setBacking(data);
-		cachedAscii = hex.getPreviewAtOffset(0, data.length);
-		List<Integer> newOffsets = hex.computeOffsetsInRange();
-		rowOffsets.clear();
-		rowOffsets.addAll(newOffsets);
+		onUpdate(new ArrayHexSource(data));
+	}
+
+	/**
+	 * Populate the UI with new data.
+	 *
+	 * @param source
+	 * 		Source of data to use, such as a {@link MappedHexSource} for content too large to hold in memory.
+	 */
+	public void onUpdate(HexSource source) {
+		hex.setBacking(source);
+		cachedAscii = null;
+		rowIndices.setSize(hex.computeRowCount());
 		strings.populateStrings();
 		if (hexFlow != null) {
 			hexFlow.dispose();
 		}
-		hexFlow = VirtualFlow.createVertical(rowOffsets, i -> {
+		hexFlow = VirtualFlow.createVertical(rowIndices, i -> {
 			HexRow row = new HexRow(this);
 			row.updateItem(i);
 			return row;
@@ -423,7 +493,7 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 * @param offset
 	 * 		Offset pressed on.
 	 */
-	public void onDragStart(EditableHexLocation location, int offset) {
+	public void onDragStart(EditableHexLocation location, long offset) {
 		dragLocation = location;
 		range.createSelectionBound(offset);
 		values.setOffset(offset);
@@ -435,14 +505,14 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 * @param offset
 	 * 		Offset released on.
 	 */
-	public void onDragUpdate(int offset) {
+	public void onDragUpdate(long offset) {
 		range.updateSelectionBound(offset);
 	}
 
 	/**
 	 * Called when a {@link HexRow} is released.
-	 * Unlike {@link #onDragStart(EditableHexLocation, int)} and {@link #onDragUpdate(int)} there is no parameter.
-	 * The assumption is the last value from {@link #onDragUpdate(int)} is the end value.
+	 * Unlike {@link #onDragStart(EditableHexLocation, long)} and {@link #onDragUpdate(long)} there is no parameter.
+	 * The assumption is the last value from {@link #onDragUpdate(long)} is the end value.
 	 */
 	public void onDragEnd() {
 		range.endSelectionBound();
@@ -456,7 +526,7 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 * @param end
 	 * 		Inclusive range end.
 	 */
-	public void selectRange(EditableHexLocation location, int start, int end) {
+	public void selectRange(EditableHexLocation location, long start, long end) {
 		centerOffset(start);
 		onDragStart(location, start);
 		onDragUpdate(end);
@@ -498,7 +568,7 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 * @return Number of rows.
 	 */
 	public int getHexRows() {
-		return rowOffsets.size();
+		return rowIndices.size();
 	}
 
 	/**
@@ -524,8 +594,8 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 *
 	 * @return Formatted string representing the offset.
 	 */
-	public static String offsetStr(int offset) {
-		String string = HexView.caseHex(Integer.toHexString(offset));
+	public static String offsetStr(long offset) {
+		String string = HexView.caseHex(Long.toHexString(offset));
 		string = StringUtil.fillLeft(HexRow.OFFSET_LEN, "0", string);
 		return string;
 	}
@@ -534,14 +604,14 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 	 * Ensures that the current selection <i>({@link #range})</i> is shown to the user.
 	 */
 	private class SelectionHighlighter implements HexRangeListener {
-		private int oldStart = -1;
-		private int oldStop = -1;
+		private long oldStart = -1;
+		private long oldStop = -1;
 
 		@Override
-		public void onSelectionUpdate(int start, int stop) {
+		public void onSelectionUpdate(long start, long stop) {
 			if (oldStart != -1) {
-				int min;
-				int max;
+				long min;
+				long max;
 				if (start > oldStart) {
 					// Two scenarios:
 					// - User is retracting start but selection is still backwards
@@ -564,31 +634,32 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 		}
 
 		@Override
-		public void onSelectionComplete(int start, int stop) {
+		public void onSelectionComplete(long start, long stop) {
 			oldStart = -1;
 			oldStop = -1;
 		}
 
 		@Override
-		public void onSelectionClear(int start, int stop) {
+		public void onSelectionClear(long start, long stop) {
 			handle(start, stop, (row, localOffset) -> row.removeHoverEffect(localOffset, false, false));
 			oldStart = -1;
 			oldStop = -1;
 		}
 
-		private void handle(int start, int stop, BiConsumer<HexRow, Integer> action) {
+		private void handle(long start, long stop, BiConsumer<HexRow, Integer> action) {
 			int incr = getHexColumns();
-			int rowOffsetStart = start - (start % incr);
-			int rowOffsetStop = Math.max(stop - (stop % incr), rowOffsetStart + incr);
-			for (int rowOffset = rowOffsetStart; rowOffset <= rowOffsetStop; rowOffset += incr) {
-				int itemIndex = rowOffset / incr;
-				if (itemIndex >= rowOffsets.size())
+			// Only rows in the viewport need updating, rows scrolled into view later check the range themselves
+			long firstRow = Math.max(start / incr, hexFlow.getFirstVisibleIndex());
+			long lastRow = Math.min(Math.max(stop / incr, start / incr + 1), hexFlow.getLastVisibleIndex());
+			for (long itemIndex = firstRow; itemIndex <= lastRow; itemIndex++) {
+				if (itemIndex >= rowIndices.size())
 					break;
-				Optional<HexRow> rowAtIndex = hexFlow.getCellIfVisible(itemIndex);
+				long rowOffset = itemIndex * incr;
+				Optional<HexRow> rowAtIndex = hexFlow.getCellIfVisible((int) itemIndex);
 				if (rowAtIndex.isPresent()) {
 					HexRow row = rowAtIndex.get();
 					for (int localOffset = 0; localOffset < incr; localOffset++) {
-						int offset = rowOffset + localOffset;
+						long offset = rowOffset + localOffset;
 						if (offset < start)
 							continue;
 						else if (offset > stop)
@@ -599,4 +670,40 @@ public class HexView extends BorderPane implements ToolSideTabbed, Searchable, C
 			}
 		}
 	}
+
+	/**
+	 * List of row indices, {@code [0, size)}, without storing each index.
+	 */
+	private static class RowIndexList extends ObservableListBase<Integer> {
+		private int size;
+
+		@Override
+		public Integer get(int index) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException(index);
+			return index;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		private void setSize(int newSize) {
+			int oldSize = size;
+			if (oldSize == newSize)
+				return;
+			beginChange();
+			size = newSize;
+			if (newSize > oldSize) {
+				nextAdd(oldSize, newSize);
+			} else {
+				List<Integer> removed = new ArrayList<>(oldSize - newSize);
+				for (int i = newSize; i < oldSize; i++)
+					removed.add(i);
+				nextRemove(newSize, removed);
+			}
+			endChange();
+		}
+	}
 }
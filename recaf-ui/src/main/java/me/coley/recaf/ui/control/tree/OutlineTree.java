@@ -27,11 +27,14 @@ import me.coley.recaf.util.EscapeUtil;
 import me.coley.recaf.util.StringUtil;
 import me.coley.recaf.util.Types;
 import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
 import org.objectweb.asm.Type;
 
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -45,6 +48,10 @@ public class OutlineTree extends TreeView<ItemInfo> implements Updatable<CommonC
 	private final ClassRepresentation parent;
 	private final OutlinePane outlinePane;
 	private final ObservableStringValue filter;
+	private CommonClassInfo lastInfo;
+	private OutlineOptions lastOptions;
+	private Future<?> pending;
+	private int generation;
 
 	public OutlineTree(ClassRepresentation parent, ObservableStringValue filter, OutlinePane outlinePane) {
 		this.parent = parent;
@@ -55,67 +62,122 @@ public class OutlineTree extends TreeView<ItemInfo> implements Updatable<CommonC
 
 	@Override
 	public void onUpdate(CommonClassInfo info) {
-		boolean caseSensitive = outlinePane.caseSensitive.get();
-		String filterStr = caseSensitive ? filter.getValue() : filter.getValue().toLowerCase();
-		OutlineItem outlineRoot = new OutlineItem(null);
-		Comparator<ItemInfo> comparator = (a, b) -> {
-			int result = 0;
-			if (outlinePane.sortByVisibility.get()) {
-				if (a instanceof MemberInfo && b instanceof MemberInfo) {
-					result = Visibility.ofMember((MemberInfo) a).compareTo(Visibility.ofMember((MemberInfo) b));
-				} else if (a instanceof InnerClassInfo && b instanceof InnerClassInfo) {
-					result = Visibility.ofClass((InnerClassInfo) a).compareTo(Visibility.ofClass((InnerClassInfo) b));
-				} else if (a instanceof CommonClassInfo && b instanceof CommonClassInfo) {
-					result = Visibility.ofClass((CommonClassInfo) a).compareTo(Visibility.ofClass((CommonClassInfo) b));
+		// Options are read here, as the items are created in the background
+		OutlineOptions options = new OutlineOptions(outlinePane, filter.getValue());
+		// Nothing to do when the same class revision is shown with the same options
+		if (info == lastInfo && options.equals(lastOptions))
+			return;
+		lastInfo = info;
+		lastOptions = options;
+		int current = ++generation;
+		if (pending != null)
+			pending.cancel(true);
+		pending = ThreadUtil.executor().submit(() -> {
+			OutlineItem outlineRoot = new OutlineItem(null);
+			Comparator<ItemInfo> comparator = (a, b) -> {
+				int result = 0;
+				if (options.sortByVisibility) {
+					if (a instanceof MemberInfo && b instanceof MemberInfo) {
+						result = Visibility.ofMember((MemberInfo) a).compareTo(Visibility.ofMember((MemberInfo) b));
+					} else if (a instanceof InnerClassInfo && b instanceof InnerClassInfo) {
+						result = Visibility.ofClass((InnerClassInfo) a).compareTo(Visibility.ofClass((InnerClassInfo) b));
+					} else if (a instanceof CommonClassInfo && b instanceof CommonClassInfo) {
+						result = Visibility.ofClass((CommonClassInfo) a).compareTo(Visibility.ofClass((CommonClassInfo) b));
+					}
 				}
-			}
-			if (result == 0 && outlinePane.sortAlphabetically.get())
-				result = a.getName().compareTo(b.getName());
-			return result;
-		};
-		outlineRoot.getChildren().addAll(getItems(MemberType.INNER_CLASS,
-				info.getInnerClasses(), caseSensitive, filterStr, InnerClassInfo::getAccess, comparator));
-		outlineRoot.getChildren().addAll(getItems(MemberType.FIELD,
-				info.getFields(), caseSensitive, filterStr, FieldInfo::getAccess, comparator));
-		outlineRoot.getChildren().addAll(getItems(MemberType.METHOD,
-				info.getMethods(), caseSensitive, filterStr, MemberInfo::getAccess, comparator));
-		outlineRoot.setExpanded(true);
-		// Set factory to null while we update the root. This allows existing cells to be aware that they should
-		// not attempt to put effort into redrawing since they are being replaced anyways.
-		setCellFactory(null);
-		FxThreadUtil.run(() -> {
-			setRoot(outlineRoot);
-			// Now that the root is set we can reinstate the intended cell factory. Cells for the root and its children
-			// will use this factory when the FX thread requests them.
-			setCellFactory(param -> new OutlineCell(info));
+				if (result == 0 && options.sortAlphabetically)
+					result = a.getName().compareTo(b.getName());
+				return result;
+			};
+			outlineRoot.getChildren().addAll(getItems(MemberType.INNER_CLASS,
+					info.getInnerClasses(), options, InnerClassInfo::getAccess, comparator));
+			outlineRoot.getChildren().addAll(getItems(MemberType.FIELD,
+					info.getFields(), options, FieldInfo::getAccess, comparator));
+			outlineRoot.getChildren().addAll(getItems(MemberType.METHOD,
+					info.getMethods(), options, MemberInfo::getAccess, comparator));
+			outlineRoot.setExpanded(true);
+			if (Thread.currentThread().isInterrupted())
+				return;
+			FxThreadUtil.run(() -> {
+				if (current != generation)
+					return;
+				// Set factory to null while we update the root. This allows existing cells to be aware that they
+				// should not attempt to put effort into redrawing since they are being replaced anyways.
+				setCellFactory(null);
+				setRoot(outlineRoot);
+				// Now that the root is set we can reinstate the intended cell factory. Cells for the root and its
+				// children will use this factory when the FX thread requests them.
+				setCellFactory(param -> new OutlineCell(info));
+			});
 		});
 	}
 
 	private <T extends ItemInfo> List<OutlineItem> getItems(
 			MemberType memberType,
 			List<T> items,
-			boolean caseSensitive,
-			String filterStr,
+			OutlineOptions options,
 			Function<T, Integer> accessGetter,
 			Comparator<ItemInfo> comparator) {
-		return outlinePane.memberType.get().shouldDisplay(memberType) ? items.stream()
+		return options.memberType.shouldDisplay(memberType) ? items.stream()
 				.filter(item ->
 						filter(
-								accessGetter.apply(item), caseSensitive,
-								item instanceof InnerClassInfo ? ((InnerClassInfo) item).getSimpleName() : item.getName(),
-								filterStr
+								accessGetter.apply(item), options,
+								item instanceof InnerClassInfo ? ((InnerClassInfo) item).getSimpleName() : item.getName()
 						)
 				)
 				.sorted(comparator).map(OutlineItem::new)
 				.collect(Collectors.toList()) : List.of();
 	}
 
-	private boolean filter(int access, boolean caseSensitive, String name, String filterStr) {
-		if (!outlinePane.visibility.get().isAccess(access))
+	private static boolean filter(int access, OutlineOptions options, String name) {
+		if (!options.visibility.isAccess(access))
 			return false;
-		if (!outlinePane.showSynthetics.get() && AccessFlag.isSynthetic(access))
+		if (!options.showSynthetics && AccessFlag.isSynthetic(access))
 			return false;
-		return caseSensitive ? name.contains(filterStr) : name.toLowerCase().contains(filterStr);
+		return options.caseSensitive ? name.contains(options.filter) : name.toLowerCase().contains(options.filter);
+	}
+
+	/**
+	 * Outline display options at the time of an update.
+	 */
+	private static class OutlineOptions {
+		private final boolean caseSensitive;
+		private final boolean showSynthetics;
+		private final boolean sortByVisibility;
+		private final boolean sortAlphabetically;
+		private final MemberType memberType;
+		private final Visibility visibility;
+		private final String filter;
+
+		private OutlineOptions(OutlinePane outlinePane, String filter) {
+			caseSensitive = outlinePane.caseSensitive.get();
+			showSynthetics = outlinePane.showSynthetics.get();
+			sortByVisibility = outlinePane.sortByVisibility.get();
+			sortAlphabetically = outlinePane.sortAlphabetically.get();
+			memberType = outlinePane.memberType.get();
+			visibility = outlinePane.visibility.get();
+			this.filter = caseSensitive ? filter : filter.toLowerCase();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			OutlineOptions that = (OutlineOptions) o;
+			return caseSensitive == that.caseSensitive &&
+					showSynthetics == that.showSynthetics &&
+					sortByVisibility == that.sortByVisibility &&
+					sortAlphabetically == that.sortAlphabetically &&
+					memberType == that.memberType &&
+					visibility == that.visibility &&
+					filter.equals(that.filter);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(caseSensitive, showSynthetics, sortByVisibility, sortAlphabetically,
+					memberType, visibility, filter);
+		}
 	}
 
 	/**
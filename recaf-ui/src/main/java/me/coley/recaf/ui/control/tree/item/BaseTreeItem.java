@@ -16,6 +16,9 @@ public abstract class BaseTreeItem extends FilterableTreeItem<BaseTreeValue> imp
 	protected static final String FLATTENED_ITEM = "...";
 	private final Map<String, BaseTreeItem> directoryChildren = new HashMap<>();
 	private final Map<String, BaseTreeItem> fileChildren = new HashMap<>();
+	private PathIndex pathIndex;
+	private PathIndex.Node indexNode;
+	private boolean materialized;
 
 	/**
 	 * This exists it needs to be called after the constructor completes for the implementation class.
@@ -56,9 +59,89 @@ public abstract class BaseTreeItem extends FilterableTreeItem<BaseTreeValue> imp
 	 * @return {@code true} when the item is a leaf even without any filter applied.
 	 */
 	public boolean isUnfilteredLeaf() {
+		if (!isMaterialized())
+			return indexNode.isEmpty();
 		return directoryChildren.isEmpty() && fileChildren.isEmpty();
 	}
 
+	@Override
+	public boolean isLeaf() {
+		// Children of indexed items are not created until expanded, so the index is checked instead
+		if (!isMaterialized())
+			return indexNode.isEmpty();
+		return super.isLeaf();
+	}
+
+	/**
+	 * Binds the item to an index of the paths beneath it.
+	 * Items for the children of the item are created from the index when the item is first expanded.
+	 *
+	 * @param index
+	 * 		Index of paths beneath the item.
+	 */
+	protected void setPathIndex(PathIndex index) {
+		bindIndex(index, index.getRoot());
+	}
+
+	/**
+	 * @param index
+	 * 		Index containing the node.
+	 * @param node
+	 * 		Node the item represents.
+	 */
+	void bindIndex(PathIndex index, PathIndex.Node node) {
+		this.pathIndex = index;
+		this.indexNode = node;
+		node.setItem(this);
+		expandedProperty().addListener((observable, old, expanded) -> {
+			if (expanded)
+				materialize();
+		});
+	}
+
+	/**
+	 * @return Index of the paths beneath the item, or {@code null} if the item is not backed by an index.
+	 */
+	public PathIndex getPathIndex() {
+		return pathIndex;
+	}
+
+	/**
+	 * @return {@code true} when the item is backed by a {@link PathIndex}.
+	 */
+	public boolean isIndexed() {
+		return indexNode != null;
+	}
+
+	/**
+	 * @return {@code true} when the item is not backed by a {@link PathIndex},
+	 * or the index considers the item visible under its current filter.
+	 */
+	public boolean isIndexVisible() {
+		return indexNode == null || pathIndex.isVisible(indexNode);
+	}
+
+	/**
+	 * @return {@code true} when the children of the item have been created.
+	 * Items not backed by a {@link PathIndex} always have their children created.
+	 */
+	public boolean isMaterialized() {
+		return indexNode == null || materialized;
+	}
+
+	/**
+	 * Creates items for the children of the item, if it is backed by a {@link PathIndex} and has not already.
+	 */
+	public void materialize() {
+		if (isMaterialized())
+			return;
+		materialized = true;
+		List<BaseTreeItem> children = pathIndex.createChildren(indexNode);
+		for (BaseTreeItem child : children)
+			putChildMapping(child);
+		addSortedChildren(children);
+	}
+
 	/**
 	 * Add the given child to the current item.
 	 *
@@ -69,12 +152,7 @@ public abstract class BaseTreeItem extends FilterableTreeItem<BaseTreeValue> imp
 	 */
 	public void addChild(BaseTreeItem item, boolean sort) {
 		// Update child maps
-		BaseTreeValue value = item.getValue();
-		if (value.getItemType().isDirectory()) {
-			directoryChildren.put(value.getPathElementValue(), item);
-		} else {
-			fileChildren.put(value.getPathElementValue(), item);
-		}
+		putChildMapping(item);
 		// Add to tree
 		if (sort) {
 			addAndSortChild(item);
@@ -83,6 +161,15 @@ public abstract class BaseTreeItem extends FilterableTreeItem<BaseTreeValue> imp
 		}
 	}
 
+	private void putChildMapping(BaseTreeItem item) {
+		BaseTreeValue value = item.getValue();
+		if (value.getItemType().isDirectory()) {
+			directoryChildren.put(value.getPathElementValue(), item);
+		} else {
+			fileChildren.put(value.getPathElementValue(), item);
+		}
+	}
+
 	/**
 	 * Add the given child to the current item.
 	 *
@@ -192,7 +279,10 @@ public abstract class BaseTreeItem extends FilterableTreeItem<BaseTreeValue> imp
 	@Override
 	protected void onMatchResult(TreeItem<BaseTreeValue> child, boolean matched) {
 		// Expand items that match, hide those that do not.
+		// Indexed items are expanded by the index instead, so broad matches do not create every item.
 		if (matched && child instanceof BaseTreeItem) {
+			if (((BaseTreeItem) child).isIndexed())
+				return;
 			((BaseTreeItem) child).expandParents();
 		} else {
 			child.setExpanded(false);
@@ -217,9 +307,13 @@ public abstract class BaseTreeItem extends FilterableTreeItem<BaseTreeValue> imp
 		return iPath.compareTo(oPath);
 	}
 
-	protected static BaseTreeItem addPath(BaseTreeItem item, String name,
-										  Function<String, BaseTreeItem> leafFunction,
-										  Function<String, BaseTreeItem> branchFunction) {
+	/**
+	 * @param name
+	 * 		Full path name.
+	 *
+	 * @return Path elements of the name, with the middle section of obnoxiously long paths flattened.
+	 */
+	static List<String> splitPath(String name) {
 		List<String> parts = new ArrayList<>(Arrays.asList(name.split("/")));
 		// Prune tree directory middle section if it is obnoxiously long
 		int maxDepth = Configs.display().maxTreeDirectoryDepth;
@@ -230,6 +324,13 @@ public abstract class BaseTreeItem extends FilterableTreeItem<BaseTreeValue> imp
 			parts.add(FLATTENED_ITEM);
 			parts.add(lastPart);
 		}
+		return parts;
+	}
+
+	protected static BaseTreeItem addPath(BaseTreeItem item, String name,
+										  Function<String, BaseTreeItem> leafFunction,
+										  Function<String, BaseTreeItem> branchFunction) {
+		List<String> parts = splitPath(name);
 		// Build directory structure
 		while (!parts.isEmpty()) {
 			String part = parts.remove(0);
@@ -13,6 +13,7 @@ import me.coley.recaf.util.logging.Logging;
 import org.slf4j.Logger;
 
 import java.lang.reflect.Field;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
@@ -117,6 +118,18 @@ public class FilterableTreeItem<T> extends TreeItem<T> {
 		}
 	}
 
+	/**
+	 * Add unfiltered sorted children to this item.
+	 *
+	 * @param items
+	 * 		Child items to add, in sorted order.
+	 */
+	public void addSortedChildren(Collection<? extends TreeItem<T>> items) {
+		synchronized (sourceChildren) {
+			sourceChildren.addAll(items);
+		}
+	}
+
 	/**
 	 * Add an unfiltered unsorted child to this item.
 	 *
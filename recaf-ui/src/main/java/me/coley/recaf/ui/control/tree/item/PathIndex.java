@@ -0,0 +1,394 @@
+package me.coley.recaf.ui.control.tree.item;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongObjectHashMap;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Index of the path names shown under a {@link BaseTreeItem}, backing lazy creation and filtering of tree items.
+ * <br>
+ * Names are kept in a lightweight tree of path elements. Tree items for the children of a node are only created
+ * once the item of that node is expanded, so adding a large number of names does not create a large number of items.
+ * <br>
+ * Filtering is answered from an index of the three character sequences in each name, built on the first filter
+ * request. Matches are marked on the path nodes, so items can check their visibility without looking at their
+ * children, and items that have not been created yet do not need to be visited at all.
+ * <br>
+ * Removed paths leave a gap in the leaf list, which filtering skips over. Once enough of the list is gaps,
+ * it is compacted and the character index is dropped, to be rebuilt on the next filter request.
+ *
+ * @author Matt Coley
+ */
+public class PathIndex {
+	private static final int NO_FILTER = 0;
+	// Compaction is skipped for few removals, which are cheaper to skip over than to rebuild the index for
+	private static final int MIN_COMPACT_REMOVED = 1024;
+	private final Node root = new Node(null, null, null);
+	private final ArrayList<Node> leaves = new ArrayList<>();
+	private final Function<String, BaseTreeItem> leafFunction;
+	private final Function<String, BaseTreeItem> branchFunction;
+	private LongObjectHashMap<IntArrayList> trigrams;
+	private List<String> filterNames = Collections.emptyList();
+	private boolean filterCaseSensitive;
+	private int filterGeneration = NO_FILTER;
+	private int matchCount;
+	private int removedCount;
+	private int size;
+
+	/**
+	 * @param leafFunction
+	 * 		Function to create leaf items from a full path name.
+	 * @param branchFunction
+	 * 		Function to create branch items from a path element name.
+	 */
+	public PathIndex(Function<String, BaseTreeItem> leafFunction,
+					 Function<String, BaseTreeItem> branchFunction) {
+		this.leafFunction = leafFunction;
+		this.branchFunction = branchFunction;
+	}
+
+	/**
+	 * @return Root node, representing the item the index is bound to.
+	 */
+	public Node getRoot() {
+		return root;
+	}
+
+	/**
+	 * Adds a path to the index. If the item of the parent path has created its children,
+	 * an item for the path is created and added to it.
+	 *
+	 * @param name
+	 * 		Full path name.
+	 */
+	public synchronized void add(String name) {
+		List<String> parts = BaseTreeItem.splitPath(name);
+		Node node = root;
+		Node firstCreated = null;
+		for (int i = 0; i < parts.size() - 1; i++) {
+			String part = parts.get(i);
+			Node child = node.directories == null ? null : node.directories.get(part);
+			if (child == null) {
+				child = new Node(node, part, null);
+				node.directories().put(part, child);
+				if (firstCreated == null)
+					firstCreated = child;
+			}
+			node = child;
+		}
+		String part = parts.get(parts.size() - 1);
+		if (node.leaves != null && node.leaves.containsKey(part))
+			return;
+		Node leaf = new Node(node, part, name);
+		leaf.id = leaves.size();
+		leaves.add(leaf);
+		node.leaves().put(part, leaf);
+		size++;
+		if (firstCreated == null)
+			firstCreated = leaf;
+		if (trigrams != null)
+			indexTrigrams(leaf);
+		if (filterGeneration != NO_FILTER)
+			for (String filterName : filterNames)
+				checkMatch(leaf, filterName, filterName.toLowerCase(), filterCaseSensitive);
+		// Only the top-most new node can have a parent item, as the others are children of new nodes
+		addItem(firstCreated.parent, firstCreated);
+	}
+
+	/**
+	 * Removes a path from the index, along with any items created for it.
+	 * Parent paths left without any children are removed as well.
+	 *
+	 * @param name
+	 * 		Full path name.
+	 */
+	public synchronized void remove(String name) {
+		List<String> parts = BaseTreeItem.splitPath(name);
+		Node node = root;
+		for (int i = 0; i < parts.size() - 1 && node != null; i++)
+			node = node.directories == null ? null : node.directories.get(parts.get(i));
+		if (node == null || node.leaves == null)
+			return;
+		Node leaf = node.leaves.remove(parts.get(parts.size() - 1));
+		if (leaf == null)
+			return;
+		// Removed leaves are skipped by filter queries rather than removed from the character index
+		leaves.set(leaf.id, null);
+		size--;
+		if (++removedCount >= MIN_COMPACT_REMOVED && removedCount > leaves.size() / 4)
+			compact();
+		removeItem(node, leaf);
+		while (node != root && node.isEmpty()) {
+			Node parent = node.parent;
+			parent.directories.remove(node.name);
+			removeItem(parent, node);
+			node = parent;
+		}
+	}
+
+	/**
+	 * @return Number of paths in the index.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Marks paths containing any of the given names, and their parents, as visible.
+	 *
+	 * @param names
+	 * 		Names to match against full path names. An empty list clears the filter.
+	 * @param caseSensitive
+	 * 		Whether to match case.
+	 *
+	 * @return Number of matched paths.
+	 */
+	public synchronized int filter(List<String> names, boolean caseSensitive) {
+		matchCount = 0;
+		filterNames = new ArrayList<>(names);
+		filterCaseSensitive = caseSensitive;
+		if (names.isEmpty()) {
+			filterGeneration = NO_FILTER;
+			return 0;
+		}
+		// Skip past the no-filter value when wrapping around
+		if (++filterGeneration == NO_FILTER)
+			filterGeneration++;
+		if (trigrams == null) {
+			trigrams = new LongObjectHashMap<>();
+			for (Node leaf : leaves)
+				if (leaf != null)
+					indexTrigrams(leaf);
+		}
+		for (String name : names) {
+			String lower = name.toLowerCase();
+			if (lower.length() < 3) {
+				// Too short to use the character index
+				for (Node leaf : leaves)
+					if (leaf != null)
+						checkMatch(leaf, name, lower, caseSensitive);
+			} else {
+				IntArrayList candidates = findCandidates(lower);
+				if (candidates == null)
+					continue;
+				for (int i = 0; i < candidates.size(); i++) {
+					Node leaf = leaves.get(candidates.get(i));
+					if (leaf != null)
+						checkMatch(leaf, name, lower, caseSensitive);
+				}
+			}
+		}
+		return matchCount;
+	}
+
+	/**
+	 * @return Paths matched by the last {@link #filter(List, boolean)}. Empty when no filter is active.
+	 */
+	public synchronized List<Node> getMatches() {
+		if (filterGeneration == NO_FILTER)
+			return Collections.emptyList();
+		List<Node> matches = new ArrayList<>(matchCount);
+		for (Node leaf : leaves)
+			if (leaf != null && leaf.mark == filterGeneration)
+				matches.add(leaf);
+		return matches;
+	}
+
+	/**
+	 * Expands the items leading to the given node, creating them as needed.
+	 *
+	 * @param node
+	 * 		Node to show.
+	 */
+	public void expandTo(Node node) {
+		BaseTreeItem rootItem = root.item;
+		if (rootItem != null)
+			rootItem.expandParents();
+		Deque<Node> path = new ArrayDeque<>();
+		for (Node parent = node.parent; parent != null; parent = parent.parent)
+			path.push(parent);
+		for (Node parent : path) {
+			BaseTreeItem item = parent.item;
+			if (item == null)
+				return;
+			item.setExpanded(true);
+		}
+	}
+
+	/**
+	 * @param node
+	 * 		Some node in the index.
+	 *
+	 * @return {@code true} when no filter is active, or the node contains a match of the current filter.
+	 */
+	public boolean isVisible(Node node) {
+		int generation = filterGeneration;
+		return generation == NO_FILTER || node.mark == generation;
+	}
+
+	/**
+	 * Creates items for the children of the given node.
+	 *
+	 * @param node
+	 * 		Node to create child items of.
+	 *
+	 * @return Child items, directories first in sorted order, followed by leaves in sorted order.
+	 */
+	synchronized List<BaseTreeItem> createChildren(Node node) {
+		List<BaseTreeItem> children = new ArrayList<>();
+		if (node.directories != null)
+			for (Node child : node.directories.values())
+				children.add(createItem(child));
+		if (node.leaves != null)
+			for (Node child : node.leaves.values())
+				children.add(createItem(child));
+		return children;
+	}
+
+	/**
+	 * Removes the gaps left by removed leaves, and drops the character index which refers to leaves by position.
+	 */
+	private void compact() {
+		int id = 0;
+		for (Node leaf : leaves) {
+			if (leaf != null) {
+				leaf.id = id;
+				leaves.set(id++, leaf);
+			}
+		}
+		leaves.subList(id, leaves.size()).clear();
+		leaves.trimToSize();
+		removedCount = 0;
+		trigrams = null;
+	}
+
+	private BaseTreeItem createItem(Node node) {
+		BaseTreeItem item = node.isLeaf() ? leafFunction.apply(node.path) : branchFunction.apply(node.name);
+		item.bindIndex(this, node);
+		return item;
+	}
+
+	private void addItem(Node parent, Node child) {
+		BaseTreeItem parentItem = parent.item;
+		if (parentItem != null && parentItem.isMaterialized())
+			parentItem.addChild(createItem(child));
+	}
+
+	private void removeItem(Node parent, Node child) {
+		BaseTreeItem parentItem = parent.item;
+		BaseTreeItem childItem = child.item;
+		if (parentItem != null && childItem != null)
+			parentItem.removeChild(childItem);
+		child.item = null;
+	}
+
+	private void checkMatch(Node leaf, String name, String lower, boolean caseSensitive) {
+		if (leaf.mark == filterGeneration)
+			return;
+		boolean matched = caseSensitive ? leaf.path.contains(name) : leaf.path.toLowerCase().contains(lower);
+		if (!matched)
+			return;
+		matchCount++;
+		// Mark the leaf and any parents not already marked by a prior match
+		for (Node node = leaf; node != null && node.mark != filterGeneration; node = node.parent)
+			node.mark = filterGeneration;
+	}
+
+	private IntArrayList findCandidates(String lower) {
+		// Every match contains all sequences of the name, so the shortest list of paths holding one suffices
+		IntArrayList shortest = null;
+		for (int i = 0; i + 3 <= lower.length(); i++) {
+			IntArrayList ids = trigrams.get(trigram(lower, i));
+			if (ids == null)
+				return null;
+			if (shortest == null || ids.size() < shortest.size())
+				shortest = ids;
+		}
+		return shortest;
+	}
+
+	private void indexTrigrams(Node leaf) {
+		String lower = leaf.path.toLowerCase();
+		for (int i = 0; i + 3 <= lower.length(); i++) {
+			long key = trigram(lower, i);
+			IntArrayList ids = trigrams.get(key);
+			if (ids == null) {
+				ids = new IntArrayList();
+				trigrams.put(key, ids);
+			}
+			// Ids are added in increasing order, so a repeated sequence in a name only needs to check the last id
+			if (ids.isEmpty() || ids.get(ids.size() - 1) != leaf.id)
+				ids.add(leaf.id);
+		}
+	}
+
+	private static long trigram(String text, int offset) {
+		return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+	}
+
+	/**
+	 * Node of a path in the index.
+	 */
+	public static class Node {
+		private final Node parent;
+		private final String name;
+		private final String path;
+		private SortedMap<String, Node> directories;
+		private SortedMap<String, Node> leaves;
+		private BaseTreeItem item;
+		private int id = -1;
+		private int mark;
+
+		private Node(Node parent, String name, String path) {
+			this.parent = parent;
+			this.name = name;
+			this.path = path;
+		}
+
+		/**
+		 * @return Full path name for leaves, {@code null} for directories.
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * @return Item created for the node, if any.
+		 */
+		public BaseTreeItem getItem() {
+			return item;
+		}
+
+		/**
+		 * @return {@code true} for nodes representing a full path, rather than a directory.
+		 */
+		public boolean isLeaf() {
+			return path != null;
+		}
+
+		/**
+		 * @return {@code true} when the node has no children.
+		 */
+		public boolean isEmpty() {
+			return (directories == null || directories.isEmpty()) && (leaves == null || leaves.isEmpty());
+		}
+
+		void setItem(BaseTreeItem item) {
+			this.item = item;
+		}
+
+		private SortedMap<String, Node> directories() {
+			if (directories == null)
+				directories = new TreeMap<>();
+			return directories;
+		}
+
+		private SortedMap<String, Node> leaves() {
+			if (leaves == null)
+				leaves = new TreeMap<>();
+			return leaves;
+		}
+	}
+}
@@ -4,9 +4,10 @@ import me.coley.recaf.RecafUI;
 import me.coley.recaf.workspace.resource.Resource;
 import me.coley.recaf.workspace.resource.Resources;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
 
 /**
  * Tree item for {@link Resource},
@@ -28,11 +29,14 @@ public class ResourceItem extends BaseTreeItem {
 			// Add android classes
 			for (String name : resource.getDexClasses().getBackingMap().keySet()) {
 				ResourceDexClassesItem item = new ResourceDexClassesItem(name);
+				item.setPathIndex(new PathIndex(DexClassItem::new, PackageItem::new));
 				dexItems.put(name, item);
 				addChild(item);
 			}
 		}
 		addChild(filesItem);
+		classesItem.setPathIndex(new PathIndex(ClassItem::new, PackageItem::new));
+		filesItem.setPathIndex(new PathIndex(FileItem::new, DirectoryItem::new));
 		init();
 	}
 
@@ -45,13 +49,41 @@ public class ResourceItem extends BaseTreeItem {
 
 	/**
 	 * Adds child entries from the resource.
+	 * Only the path index is populated, items are created as the tree is expanded.
 	 */
 	public void addResourceChildren() {
-		new TreeSet<>(resource.getClasses().keySet()).forEach(this::addClass);
-		new TreeSet<>(resource.getFiles().keySet()).forEach(this::addFile);
+		resource.getClasses().keySet().forEach(this::addClass);
+		resource.getFiles().keySet().forEach(this::addFile);
 		resource.getDexClasses().getBackingMap().forEach((dexName, map) ->
-				new TreeSet<>(map.keySet())
-						.forEach(className -> addDexClass(dexName, className)));
+				map.keySet().forEach(className -> addDexClass(dexName, className)));
+	}
+
+	/**
+	 * Applies a name filter to the path indices of the resource.
+	 *
+	 * @param names
+	 * 		Names to match against full path names. An empty list clears the filter.
+	 * @param caseSensitive
+	 * 		Whether to match case.
+	 *
+	 * @return Number of matched paths.
+	 */
+	public int filter(List<String> names, boolean caseSensitive) {
+		int matches = 0;
+		for (PathIndex index : getPathIndices())
+			matches += index.filter(names, caseSensitive);
+		return matches;
+	}
+
+	/**
+	 * @return Path indices of the class, dex class, and file items of the resource.
+	 */
+	public List<PathIndex> getPathIndices() {
+		List<PathIndex> indices = new ArrayList<>();
+		indices.add(classesItem.getPathIndex());
+		dexItems.values().forEach(item -> indices.add(item.getPathIndex()));
+		indices.add(filesItem.getPathIndex());
+		return indices;
 	}
 
 	/**
@@ -61,7 +93,7 @@ public class ResourceItem extends BaseTreeItem {
 	 * 		Name of class.
 	 */
 	public void addClass(String name) {
-		addPath(classesItem, name, ClassItem::new, PackageItem::new);
+		classesItem.getPathIndex().add(name);
 	}
 
 	/**
@@ -76,7 +108,7 @@ public class ResourceItem extends BaseTreeItem {
 		ResourceDexClassesItem item = dexItems.get(dexName);
 		if (item == null)
 			throw new IllegalStateException("Invalid dex file name passed: " + dexName);
-		addPath(item, name, DexClassItem::new, PackageItem::new);
+		item.getPathIndex().add(name);
 	}
 
 	/**
@@ -86,7 +118,7 @@ public class ResourceItem extends BaseTreeItem {
 	 * 		Name of file.
 	 */
 	public void addFile(String name) {
-		addPath(filesItem, name, FileItem::new, DirectoryItem::new);
+		filesItem.getPathIndex().add(name);
 	}
 
 	/**
@@ -96,7 +128,7 @@ public class ResourceItem extends BaseTreeItem {
 	 * 		Name of class.
 	 */
 	public void removeClass(String name) {
-		remove(classesItem, name);
+		classesItem.getPathIndex().remove(name);
 	}
 
 	/**
@@ -111,7 +143,7 @@ public class ResourceItem extends BaseTreeItem {
 		ResourceDexClassesItem item = dexItems.get(dexName);
 		if (item == null)
 			throw new IllegalStateException("Invalid dex file name passed: " + dexName);
-		remove(item, name);
+		item.getPathIndex().remove(name);
 	}
 
 	/**
@@ -121,7 +153,7 @@ public class ResourceItem extends BaseTreeItem {
 	 * 		Name of file.
 	 */
 	public void removeFile(String name) {
-		remove(filesItem, name);
+		filesItem.getPathIndex().remove(name);
 	}
 
 	@Override
@@ -1,5 +1,6 @@
 package me.coley.recaf.ui.control.tree.item;
 
+import javafx.scene.control.TreeItem;
 import me.coley.recaf.code.ClassInfo;
 import me.coley.recaf.code.DexClassInfo;
 import me.coley.recaf.code.FileInfo;
@@ -13,7 +14,9 @@ import me.coley.recaf.workspace.resource.ResourceDexClassListener;
 import me.coley.recaf.workspace.resource.ResourceFileListener;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Root item for {@link WorkspaceTreeWrapper}.
@@ -22,6 +25,7 @@ import java.util.Map;
  */
 public class WorkspaceRootItem extends BaseTreeItem implements WorkspaceListener,
 		ResourceClassListener, ResourceDexClassListener, ResourceFileListener {
+	private static final int AUTO_EXPAND_LIMIT = 200;
 	private final Map<Resource, ResourceItem> resourceToItem = new HashMap<>();
 	private final Workspace workspace;
 
@@ -93,6 +97,30 @@ public class WorkspaceRootItem extends BaseTreeItem implements WorkspaceListener
 		addChild(resourceRoot);
 	}
 
+	/**
+	 * Filters the tree to items with paths containing any of the given names.
+	 * Matches are found from the path indices of each resource, rather than by visiting each item.
+	 *
+	 * @param names
+	 * 		Names to match against full path names. An empty list clears the name filter.
+	 * @param caseSensitive
+	 * 		Whether to match case.
+	 * @param predicate
+	 * 		Predicate to apply to items, which should defer to {@link BaseTreeItem#isIndexVisible()} for
+	 * 		matching names. May be {@code null} to show all items.
+	 */
+	public void filter(List<String> names, boolean caseSensitive, Predicate<TreeItem<BaseTreeValue>> predicate) {
+		int matches = 0;
+		for (ResourceItem item : resourceToItem.values())
+			matches += item.filter(names, caseSensitive);
+		predicateProperty().setValue(predicate);
+		// Showing a match creates the items leading to it, so matches are only shown when there are few of them
+		if (!names.isEmpty() && matches <= AUTO_EXPAND_LIMIT)
+			for (ResourceItem item : resourceToItem.values())
+				for (PathIndex index : item.getPathIndices())
+					index.getMatches().forEach(index::expandTo);
+	}
+
 	@Override
 	protected BaseTreeValue createTreeValue() {
 		return new WorkspaceRootValue(this);
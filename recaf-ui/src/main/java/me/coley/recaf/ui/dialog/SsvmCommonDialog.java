@@ -8,7 +8,7 @@ import dev.xdark.ssvm.symbol.VMPrimitives;
 import dev.xdark.ssvm.symbol.VMSymbols;
 import dev.xdark.ssvm.util.VMHelper;
 import dev.xdark.ssvm.value.ArrayValue;
-import dev.xdark.ssvm.value.InstanceValue;
+import dev.xdark.ssvm.value.TopValue;
 import dev.xdark.ssvm.value.Value;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.StringBinding;
@@ -36,7 +36,7 @@ import org.objectweb.asm.Type;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
+import java.util.function.BiFunction;
 
 /**
  * Basic SSVM method caller dialog.
@@ -50,7 +50,7 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 	protected final CommonClassInfo owner;
 	protected final MethodInfo info;
 	protected IntegratedVirtualMachine vm;
-	protected Value[] values;
+	protected int slotCount;
 	protected VMHelper helper;
 	protected VMSymbols symbols;
 	protected VMPrimitives primitives;
@@ -137,17 +137,54 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 				this::validInputs,
 				inputs.stream().map(x -> x.valid).toArray(BooleanProperty[]::new)
 		));
-		values = new Value[argSlot];
-		if (!isStatic) {
+		slotCount = argSlot;
+	}
+
+	/**
+	 * Captures the current state of the inputs. Must be called on the FX thread.
+	 *
+	 * @return Text of each input, to pass to {@link #createValues(IntegratedVirtualMachine, List)}.
+	 */
+	protected List<String> captureInputs() {
+		List<String> captured = new ArrayList<>(inputs.size());
+		for (InputWrapper input : inputs)
+			captured.add(input.getText());
+		return captured;
+	}
+
+	/**
+	 * Creates the receiver instance and parameter values from captured inputs.
+	 * Does not access the inputs, so it may be called off the FX thread.
+	 *
+	 * @param target
+	 * 		VM to create the values in.
+	 * @param captured
+	 * 		Inputs from {@link #captureInputs()}.
+	 *
+	 * @return Array of parameter values, including the receiver for non-static methods.
+	 */
+	protected Value[] createValues(IntegratedVirtualMachine target, List<String> captured) {
+		Value[] created = new Value[slotCount];
+		if (!AccessFlag.isStatic(info.getAccess())) {
+			VMHelper targetHelper = target.getHelper();
 			try {
-				JavaClass type = helper.tryFindClass(symbols.java_lang_Object().getClassLoader(), owner.getName(), true);
-				InstanceValue instance = memory.newInstance((InstanceJavaClass) type);
-				values[0] = instance;
+				JavaClass type = targetHelper.tryFindClass(target.getSymbols().java_lang_Object().getClassLoader(),
+						owner.getName(), true);
+				created[0] = target.getMemoryManager().newInstance((InstanceJavaClass) type);
 			} catch (VMException ex) {
-				String reason = vmUtil.throwableToString(ex.getOop());
-				throw new RuntimeException(reason, vm.getHelper().toJavaException(ex.getOop()));
+				String reason = target.getVmUtil().throwableToString(ex.getOop());
+				throw new RuntimeException(reason, targetHelper.toJavaException(ex.getOop()));
+			}
+		}
+		for (int i = 0; i < inputs.size(); i++) {
+			InputWrapper input = inputs.get(i);
+			Value value = input.supplier.apply(target, captured.get(i));
+			created[input.slot] = value;
+			if (value.isWide()) {
+				created[input.slot + 1] = TopValue.INSTANCE;
 			}
 		}
+		return created;
 	}
 
 	/**
@@ -157,13 +194,6 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 		return inputs.stream().allMatch(i -> i.valid.get());
 	}
 
-	/**
-	 * @return Last array of input parameter values.
-	 */
-	public Value[] getValues() {
-		return values;
-	}
-
 	protected BooleanProperty newProperty(TextField field, UncheckedConsumer<String> consumer) {
 		BooleanProperty property = new SimpleBooleanProperty(true);
 		property.bind(Bindings.createBooleanBinding(
@@ -185,7 +215,7 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 	 */
 	protected InputWrapper intEditor() {
 		TextField field = new TextField("0");
-		return new InputWrapper(newProperty(field, Integer::parseInt), field, text -> ConstNumericValue.ofInt(Integer.parseInt(text)));
+		return new InputWrapper(newProperty(field, Integer::parseInt), field, (target, text) -> ConstNumericValue.ofInt(Integer.parseInt(text)));
 	}
 
 	/**
@@ -193,7 +223,7 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 	 */
 	protected InputWrapper floatEditor() {
 		TextField field = new TextField("0");
-		return new InputWrapper(newProperty(field, Float::parseFloat), field, text -> ConstNumericValue.ofFloat(Float.parseFloat(text)));
+		return new InputWrapper(newProperty(field, Float::parseFloat), field, (target, text) -> ConstNumericValue.ofFloat(Float.parseFloat(text)));
 	}
 
 	/**
@@ -201,7 +231,7 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 	 */
 	protected InputWrapper longEditor() {
 		TextField field = new TextField("0");
-		return new InputWrapper(newProperty(field, Long::parseLong), field, text -> ConstNumericValue.ofLong(Long.parseLong(text)));
+		return new InputWrapper(newProperty(field, Long::parseLong), field, (target, text) -> ConstNumericValue.ofLong(Long.parseLong(text)));
 	}
 
 	/**
@@ -209,7 +239,7 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 	 */
 	protected InputWrapper doubleEditor() {
 		TextField field = new TextField("0.0");
-		return new InputWrapper(newProperty(field, Double::parseDouble), field, text -> ConstNumericValue.ofDouble(Double.parseDouble(text)));
+		return new InputWrapper(newProperty(field, Double::parseDouble), field, (target, text) -> ConstNumericValue.ofDouble(Double.parseDouble(text)));
 	}
 
 	/**
@@ -230,7 +260,9 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 				return new InputWrapper(newProperty(field, input -> {
 					for (String part : input.split("[, ]+"))
 						Integer.parseInt(part);
-				}), field, text -> {
+				}), field, (target, text) -> {
+					VMHelper helper = target.getHelper();
+					VMPrimitives primitives = target.getPrimitives();
 					if (text.isBlank())
 						switch (element.getSort()) {
 							case Type.BOOLEAN:
@@ -284,7 +316,9 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 				return new InputWrapper(newProperty(field, input -> {
 					for (String part : input.split("[, ]+"))
 						Float.parseFloat(part);
-				}), field, text -> {
+				}), field, (target, text) -> {
+					VMHelper helper = target.getHelper();
+					VMPrimitives primitives = target.getPrimitives();
 					if (text.isBlank())
 						return helper.emptyArray(primitives.floatPrimitive());
 					String[] args = text.split("\\s*,\\s*");
@@ -300,7 +334,9 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 				return new InputWrapper(newProperty(field, input -> {
 					for (String part : input.split("[, ]+"))
 						Long.parseLong(part);
-				}), field, text -> {
+				}), field, (target, text) -> {
+					VMHelper helper = target.getHelper();
+					VMPrimitives primitives = target.getPrimitives();
 					if (text.isBlank())
 						return helper.emptyArray(primitives.longPrimitive());
 					String[] args = text.split("\\s*,\\s*");
@@ -316,7 +352,9 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 				return new InputWrapper(newProperty(field, input -> {
 					for (String part : input.split("[, ]+"))
 						Double.parseDouble(part);
-				}), field, text -> {
+				}), field, (target, text) -> {
+					VMHelper helper = target.getHelper();
+					VMPrimitives primitives = target.getPrimitives();
 					if (text.isBlank())
 						return helper.emptyArray(primitives.doublePrimitive());
 					String[] args = text.split("\\s*,\\s*");
@@ -330,7 +368,9 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 			case Type.OBJECT: {
 				if (Types.STRING_TYPE.equals(element)) {
 					TextField field = new TextField("\"one\", \"two\", \"three\"");
-					return new InputWrapper(field, text -> {
+					return new InputWrapper(field, (target, text) -> {
+						VMHelper helper = target.getHelper();
+						VMSymbols symbols = target.getSymbols();
 						if (text.isBlank())
 							return helper.emptyArray(symbols.java_lang_String());
 						String[] args = text.split("^\"|\"\\s*,\\s*\"|\"$");
@@ -344,7 +384,7 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 			}
 			default:
 				Label field = new Label("null");
-				return new InputWrapper(field, unused -> memory.nullValue());
+				return new InputWrapper(field, (target, unused) -> target.getMemoryManager().nullValue());
 		}
 	}
 
@@ -357,7 +397,7 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 	protected InputWrapper objectEditor(Type type) {
 		if (Types.STRING_TYPE.equals(type)) {
 			TextField field = new TextField("string_text");
-			return new InputWrapper(field, text -> ConstStringValue.ofString(helper, text));
+			return new InputWrapper(field, (target, text) -> ConstStringValue.ofString(target.getHelper(), text));
 		}
 		CheckBox checkCreateDefault = new CheckBox();
 		checkCreateDefault.selectedProperty().addListener((observable, oldValue, newValue) -> {
@@ -368,9 +408,10 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 			}
 		});
 		checkCreateDefault.setSelected(true);
-		return new InputWrapper(checkCreateDefault, unused -> {
-			if (checkCreateDefault.isSelected()) {
-				InstanceJavaClass cls = (InstanceJavaClass) vm.findBootstrapClass(type.getInternalName(), true);
+		return new InputWrapper(checkCreateDefault, (target, selected) -> {
+			MemoryManager memory = target.getMemoryManager();
+			if (Boolean.parseBoolean(selected)) {
+				InstanceJavaClass cls = (InstanceJavaClass) target.findBootstrapClass(type.getInternalName(), true);
 				if (cls != null)
 					return memory.newInstance(cls);
 			}
@@ -398,37 +439,45 @@ public abstract class SsvmCommonDialog extends ClosableDialog {
 	}
 
 	protected String encodeThrowable(Throwable t) {
+		return encodeThrowable(vm, t);
+	}
+
+	protected static String encodeThrowable(IntegratedVirtualMachine target, Throwable t) {
 		if (t instanceof VMException) {
-			return vmUtil.throwableToString(((VMException) t).getOop());
+			return target.getVmUtil().throwableToString(((VMException) t).getOop());
 		}
 		return StringUtil.traceToString(t);
 	}
 
 	protected static class InputWrapper {
 		protected final Node editor;
-		protected final Function<String, Value> supplier;
+		protected final BiFunction<IntegratedVirtualMachine, String, Value> supplier;
 		protected final BooleanProperty valid;
 		protected int slot;
 
-		public InputWrapper(BooleanProperty valid, Node editor, Function<String, Value> supplier) {
+		public InputWrapper(BooleanProperty valid, Node editor, BiFunction<IntegratedVirtualMachine, String, Value> supplier) {
 			this.valid = valid;
 			this.editor = editor;
 			this.supplier = supplier;
 		}
 
-		public InputWrapper(Node editor, Function<String, Value> supplier) {
+		public InputWrapper(Node editor, BiFunction<IntegratedVirtualMachine, String, Value> supplier) {
 			this(new SimpleBooleanProperty(true), editor, supplier);
 		}
 
-		public Value toValue() {
-			String text = null;
+		/**
+		 * @return Text of the editor's input, or the selection state of check boxes.
+		 */
+		public String getText() {
 			if (editor instanceof TextField) {
-				text = ((TextField) editor).getText();
+				return ((TextField) editor).getText();
 			} else if (editor instanceof Label) {
-				text = ((Label) editor).getText();
+				return ((Label) editor).getText();
+			} else if (editor instanceof CheckBox) {
+				return String.valueOf(((CheckBox) editor).isSelected());
 			}
 			// 'editor' can be something else, but typically means text input goes ignored, so 'null' is fine.
-			return supplier.apply(text);
+			return null;
 		}
 	}
 }
@@ -1,8 +1,5 @@
 package me.coley.recaf.ui.dialog;
 
-import dev.xdark.ssvm.execution.VMException;
-import dev.xdark.ssvm.value.TopValue;
-import dev.xdark.ssvm.value.Value;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextArea;
 import javafx.scene.layout.GridPane;
@@ -12,11 +9,11 @@ import me.coley.recaf.ssvm.SsvmIntegration;
 import me.coley.recaf.ssvm.VmRunResult;
 import me.coley.recaf.ui.util.Icons;
 import me.coley.recaf.ui.util.Lang;
-import me.coley.recaf.util.StringUtil;
 import me.coley.recaf.util.logging.Logging;
 import me.coley.recaf.util.threading.FxThreadUtil;
 import org.slf4j.Logger;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -44,16 +41,21 @@ public class SsvmInvokeCallDialog extends SsvmCommonDialog {
 		runButton.textProperty().bind(Lang.getBinding("dialog.vm.execute"));
 		runButton.setGraphic(Icons.getIconView(Icons.PLAY));
 		runButton.setOnMousePressed(e -> {
-			// Only create values when confirm button pressed
-			for (InputWrapper input : inputs) {
-				Value value = input.toValue();
-				values[input.slot] = value;
-				if (value.isWide()) {
-					values[input.slot + 1] = TopValue.INSTANCE;
+			// Run in a pooled VM so the invocation does not queue behind others.
+			// The result is formatted before the VM is handed back to the pool.
+			List<String> inputValues = captureInputs();
+			CompletableFuture<InvokeOutput> resultFuture = ssvm.getPool().submit(target -> {
+				VmRunResult result;
+				try {
+					result = SsvmIntegration.invoke(target, owner, info, createValues(target, inputValues));
+				} catch (Exception ex) {
+					result = new VmRunResult(ex);
 				}
-			}
-			// Run and get result
-			CompletableFuture<VmRunResult> resultFuture = SsvmIntegration.runMethod(vm, owner, info, getValues());
+				Throwable throwable = result.getException();
+				if (throwable != null)
+					return new InvokeOutput(encodeThrowable(target, throwable), true);
+				return new InvokeOutput(target.getVmUtil().toString(result.getValue()), false);
+			}, invokeOutput -> !invokeOutput.error);
 			resultFuture.orTimeout(1L, TimeUnit.MINUTES)
 					.whenComplete((result, throwable) -> {
 						if (throwable != null) {
@@ -64,20 +66,10 @@ public class SsvmInvokeCallDialog extends SsvmCommonDialog {
 							}
 							return;
 						}
-						throwable = result.getException();
-						if (throwable != null) {
-							String errorText = encodeThrowable(throwable);
-							FxThreadUtil.run(() -> {
-								output.setText(errorText);
-								output.setStyle("-fx-text-fill: red;");
-							});
-						} else {
-							String resultText = vm.getVmUtil().toString(result.getValue());
-							FxThreadUtil.run(() -> {
-								output.setStyle(null);
-								output.setText(resultText);
-							});
-						}
+						FxThreadUtil.run(() -> {
+							output.setStyle(result.error ? "-fx-text-fill: red;" : null);
+							output.setText(result.text);
+						});
 					});
 		});
 		runButton.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
@@ -90,7 +82,20 @@ public class SsvmInvokeCallDialog extends SsvmCommonDialog {
 
 	@Override
 	protected void initVm() {
-		// Use primary VM
+		// Use primary VM for setting up inputs, invocations are run in the pool
 		vm = ssvm.getVm();
 	}
+
+	/**
+	 * Text of an invocation's result or failure.
+	 */
+	private static class InvokeOutput {
+		private final String text;
+		private final boolean error;
+
+		private InvokeOutput(String text, boolean error) {
+			this.text = text;
+			this.error = error;
+		}
+	}
 }
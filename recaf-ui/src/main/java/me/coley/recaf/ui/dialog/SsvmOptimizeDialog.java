@@ -3,8 +3,6 @@ package me.coley.recaf.ui.dialog;
 import dev.xdark.ssvm.execution.ExecutionContext;
 import dev.xdark.ssvm.execution.VMException;
 import dev.xdark.ssvm.mirror.InstanceJavaClass;
-import dev.xdark.ssvm.value.TopValue;
-import dev.xdark.ssvm.value.Value;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextArea;
 import javafx.scene.layout.GridPane;
@@ -13,6 +11,7 @@ import me.coley.recaf.code.ClassInfo;
 import me.coley.recaf.code.CommonClassInfo;
 import me.coley.recaf.code.MethodInfo;
 import me.coley.recaf.scripting.impl.WorkspaceAPI;
+import me.coley.recaf.ssvm.IntegratedVirtualMachine;
 import me.coley.recaf.ssvm.SsvmIntegration;
 import me.coley.recaf.ssvm.SsvmUtil;
 import me.coley.recaf.ssvm.VmRunResult;
@@ -25,7 +24,9 @@ import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -54,29 +55,21 @@ public class SsvmOptimizeDialog extends SsvmCommonDialog {
 		runButton.textProperty().bind(Lang.getBinding("dialog.vm.optimize"));
 		runButton.setGraphic(Icons.getIconView(Icons.PLAY));
 		runButton.setOnMousePressed(e -> {
-			// Only create values when confirm button pressed
-			for (InputWrapper input : inputs) {
-				Value value = input.toValue();
-				values[input.slot] = value;
-				if (value.isWide()) {
-					values[input.slot + 1] = TopValue.INSTANCE;
-				}
-			}
-			// Run and get result
-			CompletableFuture<VmRunResult> resultFuture = SsvmIntegration.runMethod(vm, owner, info, getValues());
-			resultFuture.exceptionally(VmRunResult::new).orTimeout(10, TimeUnit.SECONDS).thenAccept((result) -> {
+			// Run in a pooled VM with the processors installed. The processors and the restored class
+			// leave the VM modified, so it is never handed back to the pool for reuse.
+			List<String> inputValues = captureInputs();
+			CompletableFuture<OptimizeOutput> resultFuture =
+					ssvm.getPool().submit(target -> optimize(target, inputValues), result -> false);
+			resultFuture.orTimeout(10, TimeUnit.SECONDS).whenComplete((result, ex) -> {
 				// Check for error handling the task
-				Throwable ex = result.getException();
 				if (ex != null) {
 					String errorText;
-					if (ex instanceof VMException) {
-						errorText = "SSVM optimize thread encountered VM error\n" + encodeThrowable(ex);
-					} else if (ex instanceof InterruptedException) {
+					if (ex instanceof InterruptedException) {
 						errorText = "SSVM optimize thread interrupted\n" + encodeThrowable(ex);
 					} else if (ex instanceof TimeoutException) {
 						errorText = "SSVM optimize thread timed out\n" + encodeThrowable(ex);
 					} else {
-						if (ex instanceof ExecutionException)
+						if (ex instanceof ExecutionException || ex instanceof CompletionException)
 							ex = ex.getCause();
 						errorText = "SSVM optimize thread encountered unhandled error\n" + encodeThrowable(ex);
 					}
@@ -86,17 +79,10 @@ public class SsvmOptimizeDialog extends SsvmCommonDialog {
 					});
 					return;
 				}
-				// Pull new bytecode from VM
-				InstanceJavaClass target = (InstanceJavaClass) vm.findBootstrapClass(owner.getName());
-				ClassWriter writer = new WorkspaceClassWriter(RecafUI.getController(), ClassWriter.COMPUTE_FRAMES);
-				ClassNode node = target.getNode();
-				SsvmUtil.restoreClass(node);
-				try {
-					node.accept(writer);
-				} catch (Throwable t) {
+				if (result.errorText != null) {
 					FxThreadUtil.run(() -> {
 						output.setStyle("-fx-text-fill: red;");
-						output.setText("Failed to rewrite optimized bytecode\n" + encodeThrowable(t));
+						output.setText(result.errorText);
 					});
 					return;
 				}
@@ -104,9 +90,8 @@ public class SsvmOptimizeDialog extends SsvmCommonDialog {
 					output.setStyle(null);
 					output.setText("SSVM optimization completed");
 				});
-				byte[] modified = writer.toByteArray();
 				// Replace in workspace
-				WorkspaceAPI.getPrimaryResource().getClasses().put(owner.getName(), ClassInfo.read(modified));
+				WorkspaceAPI.getPrimaryResource().getClasses().put(owner.getName(), ClassInfo.read(result.modified));
 			});
 		});
 		runButton.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
@@ -117,20 +102,63 @@ public class SsvmOptimizeDialog extends SsvmCommonDialog {
 		runButton.disableProperty().bind(totality.not());
 	}
 
+	/**
+	 * @param target
+	 * 		Pooled VM to run the optimization in.
+	 * @param inputValues
+	 * 		Inputs captured from the dialog.
+	 *
+	 * @return Optimized bytecode of the owner class, or the reason it could not be optimized.
+	 */
+	private OptimizeOutput optimize(IntegratedVirtualMachine target, List<String> inputValues) {
+		Predicate<ExecutionContext> whitelist = ctx ->
+				ctx.getOwner().getInternalName().equals(owner.getName()) &&
+						ctx.getMethod().getName().equals(info.getName());
+		target.installFlowRevisiting(whitelist);
+		target.installMathFolding(whitelist);
+		target.installMethodFolding(whitelist);
+		target.installStringFolding(whitelist);
+		VmRunResult result;
+		try {
+			result = SsvmIntegration.invoke(target, owner, info, createValues(target, inputValues));
+		} catch (Exception ex) {
+			result = new VmRunResult(ex);
+		}
+		Throwable ex = result.getException();
+		if (ex instanceof VMException) {
+			return new OptimizeOutput(null, "SSVM optimize thread encountered VM error\n" + encodeThrowable(target, ex));
+		} else if (ex != null) {
+			return new OptimizeOutput(null, "SSVM optimize thread encountered unhandled error\n" + encodeThrowable(target, ex));
+		}
+		// Pull new bytecode from VM
+		InstanceJavaClass vmClass = (InstanceJavaClass) target.findBootstrapClass(owner.getName());
+		ClassWriter writer = new WorkspaceClassWriter(RecafUI.getController(), ClassWriter.COMPUTE_FRAMES);
+		ClassNode node = vmClass.getNode();
+		SsvmUtil.restoreClass(node);
+		try {
+			node.accept(writer);
+		} catch (Throwable t) {
+			return new OptimizeOutput(null, "Failed to rewrite optimized bytecode\n" + encodeThrowable(target, t));
+		}
+		return new OptimizeOutput(writer.toByteArray(), null);
+	}
+
 	@Override
 	protected void initVm() {
-		if (vm != null) {
-			SsvmUtil.shutdown(vm, 0);
+		// Use primary VM for setting up inputs, optimization is run in the pool
+		vm = ssvm.getVm();
+	}
+
+	/**
+	 * Optimized bytecode, or the reason optimization failed.
+	 */
+	private static class OptimizeOutput {
+		private final byte[] modified;
+		private final String errorText;
+
+		private OptimizeOutput(byte[] modified, String errorText) {
+			this.modified = modified;
+			this.errorText = errorText;
 		}
-		// Create new VM so we can attach processors to it.
-		vm = ssvm.createVM(true, vm -> {
-			Predicate<ExecutionContext> whitelist = ctx ->
-					ctx.getOwner().getInternalName().equals(owner.getName()) &&
-							ctx.getMethod().getName().equals(info.getName());
-			vm.installFlowRevisiting(whitelist);
-			vm.installMathFolding(whitelist);
-			vm.installMethodFolding(whitelist);
-			vm.installStringFolding(whitelist);
-		});
 	}
 }
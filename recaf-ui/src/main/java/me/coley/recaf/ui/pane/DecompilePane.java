@@ -20,7 +20,9 @@ import me.coley.recaf.code.ClassInfo;
 import me.coley.recaf.code.CommonClassInfo;
 import me.coley.recaf.code.MemberInfo;
 import me.coley.recaf.config.Configs;
+import me.coley.recaf.decompile.DecompileResult;
 import me.coley.recaf.decompile.Decompiler;
+import me.coley.recaf.decompile.fallback.FallbackDecompiler;
 import me.coley.recaf.ui.behavior.*;
 import me.coley.recaf.ui.control.BoundLabel;
 import me.coley.recaf.ui.control.DecompilerCombo;
@@ -41,12 +43,8 @@ import me.coley.recaf.workspace.Workspace;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.slf4j.Logger;
 
-import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.function.BiConsumer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 /**
@@ -56,6 +54,8 @@ import java.util.function.Consumer;
  */
 public class DecompilePane extends BorderPane implements ClassRepresentation, Cleanable, Scrollable, FontSizeChangeable {
 	private static final Logger log = Logging.get(DecompilePane.class);
+	private static final long PRELIMINARY_DELAY_MS = 150;
+	private static final long CANCEL_GRACE_MS = 300;
 	private final ClearableThreadPool threadPool = new ClearableThreadPool(1, true, "Decompile");
 	private final VBox overlay = new VBox();
 	private final JavaArea javaArea;
@@ -63,7 +63,9 @@ public class DecompilePane extends BorderPane implements ClassRepresentation, Cl
 	private final Canvas loadingCanvas = new Canvas(96, 96);
 	private Decompiler decompiler;
 	private CommonClassInfo lastClass;
+	private DecompileJob currentJob;
 	private boolean ignoreNextDecompile;
+	private boolean showingPreliminary;
 
 	/**
 	 * Create and set up the panel.
@@ -192,6 +194,17 @@ public class DecompilePane extends BorderPane implements ClassRepresentation, Cl
 		return !overlay.isMouseTransparent();
 	}
 
+	/**
+	 * @param preliminary
+	 * 		Whether the displayed code is a fallback listing, shown read-only while the full decompile runs.
+	 */
+	private void setPreliminary(boolean preliminary) {
+		if (showingPreliminary == preliminary)
+			return;
+		showingPreliminary = preliminary;
+		javaArea.setEditable(!preliminary);
+	}
+
 	/**
 	 * Called when decompile completes via {@link #onUpdate(CommonClassInfo)}.
 	 *
@@ -241,64 +254,19 @@ public class DecompilePane extends BorderPane implements ClassRepresentation, Cl
 				ignoreNextDecompile = false;
 				return;
 			}
+			// A newer request supersedes any decompile still in progress
+			if (currentJob != null)
+				currentJob.cancel();
 			if (decompiler == null) {
 				FxThreadUtil.run(() -> javaArea.setText("// No decompiler available!", false));
 				return;
 			}
-			// Cancel old thread
-			if (threadPool.hasActiveThreads()) {
-				threadPool.clear();
-			}
 			// Only snapshot if the code is being re-decompiled.
 			// We don't need to do scroll-state snapshotting for the initial decompile.
 			ScrollSnapshot scrollSnapshot = isInitialDecompile ? null : makeScrollSnapshot();
 			showOverlay();
-			long timeout = Long.MAX_VALUE;
-			if (Configs.decompiler().enableDecompilerTimeout) {
-				timeout = Configs.decompiler().decompileTimeout + 500;
-			}
-			String name = TextDisplayUtil.escapeLimit(newValue.getName());
-			log.debug("Queueing decompilation for {} with timeout {}ms", name, timeout);
-			// Create new threaded decompile
-			CompletableFuture<String> decompileFuture = CompletableFuture.supplyAsync(() -> {
-				Workspace workspace = RecafUI.getController().getWorkspace();
-				ClassInfo classInfo = ((ClassInfo) newValue);
-				return decompiler.decompile(workspace, classInfo).getValue();
-			}, threadPool).orTimeout(timeout, TimeUnit.MILLISECONDS);
-			long finalTimeout = timeout;
-			BiConsumer<String, Throwable> onComplete = (code, t) -> {
-				if (t instanceof CompletionException) {
-					t = t.getCause();
-				}
-				if (t instanceof ThreadDeath) {
-					return;
-				}
-				hideOverlay();
-				log.debug("Finished decompilation of {}", name, t);
-				if (t != null) {
-					if (t instanceof TimeoutException) {
-						threadPool.clear();
-						String text = "// Decompile thread for '" + name + "' exceeded timeout of " + finalTimeout + "ms.\n" +
-								"// Some suggestions:\n" +
-								"//  - Increase the timeout in the config menu\n" +
-								"//  - Try a different decompiler\n" +
-								"//  - Switch view modes\n";
-						javaArea.setText(text, false);
-					} else {
-						String message = StringUtil.traceToString(t);
-						String text = "// Decompiler for " + name + " has crashed.\n" +
-								"// Cause:\n\n" + message;
-						javaArea.setText(text, false);
-					}
-				} else {
-					// Decompile success
-					javaArea.setText(code, false);
-					if (scrollSnapshot != null)
-						FxThreadUtil.delayedRun(100, scrollSnapshot::restore);
-					onDecompileCompletion(code);
-				}
-			};
-			decompileFuture.whenCompleteAsync(onComplete, FxThreadUtil.executor());
+			currentJob = new DecompileJob((ClassInfo) newValue, decompiler);
+			currentJob.start(scrollSnapshot);
 		}
 	}
 
@@ -309,12 +277,17 @@ public class DecompilePane extends BorderPane implements ClassRepresentation, Cl
 
 	@Override
 	public void cleanup() {
+		if (currentJob != null)
+			currentJob.cancel();
 		javaArea.cleanup();
 		threadPool.clearAndShutdown();
 	}
 
 	@Override
 	public SaveResult save() {
+		// The preliminary listing is only a placeholder, and compiling it would replace the class with stubs
+		if (showingPreliminary)
+			return SaveResult.IGNORED;
 		// The save operation updates the primary resource. Due to the listener setup anything that gets modified
 		// is updated (which includes this pane). If we are the one who invoked the change, we want to ignore it.
 		ignoreNextDecompile = true;
@@ -341,4 +314,129 @@ public class DecompilePane extends BorderPane implements ClassRepresentation, Cl
 	public ScrollSnapshot makeScrollSnapshot() {
 		return javaArea.makeScrollSnapshot();
 	}
+
+	/**
+	 * A single request to decompile a class.
+	 * <br>
+	 * The decompiler runs on the pane's pool. If it has not finished after {@link #PRELIMINARY_DELAY_MS},
+	 * a listing from the fallback decompiler is shown in read-only form until the full result replaces it.
+	 * Cancelling a job, when it is superseded, times out, or the pane is closed, first interrupts the worker,
+	 * which decompilers may respond to. Workers still running after {@link #CANCEL_GRACE_MS} are killed,
+	 * so that an abandoned decompile does not hold the pool's only thread.
+	 */
+	private class DecompileJob {
+		private final ClassInfo info;
+		private final Decompiler decompiler;
+		private final String name;
+		private volatile boolean finished;
+		private Future<?> task;
+
+		private DecompileJob(ClassInfo info, Decompiler decompiler) {
+			this.info = info;
+			this.decompiler = decompiler;
+			this.name = TextDisplayUtil.escapeLimit(info.getName());
+		}
+
+		private void start(ScrollSnapshot scrollSnapshot) {
+			long timeout = Long.MAX_VALUE;
+			if (Configs.decompiler().enableDecompilerTimeout) {
+				timeout = Configs.decompiler().decompileTimeout + 500;
+			}
+			log.debug("Queueing decompilation for {} with timeout {}ms", name, timeout);
+			task = threadPool.submit(() -> {
+				Workspace workspace = RecafUI.getController().getWorkspace();
+				DecompileResult result;
+				try {
+					result = decompiler.decompile(workspace, info);
+				} catch (Throwable t) {
+					// Errors such as stack overflows are not caught by decompilers, and would otherwise
+					// end the task without ever completing the job
+					Exception cause = t instanceof Exception ? (Exception) t : new ExecutionException(t);
+					result = new DecompileResult(decompiler, info, cause);
+				}
+				DecompileResult finalResult = result;
+				FxThreadUtil.run(() -> complete(finalResult, scrollSnapshot));
+			});
+			if (timeout != Long.MAX_VALUE) {
+				long finalTimeout = timeout;
+				ThreadUtil.runDelayed(timeout, () -> FxThreadUtil.run(() -> onTimeout(finalTimeout)));
+			}
+			if (!(decompiler instanceof FallbackDecompiler))
+				ThreadUtil.runDelayed(PRELIMINARY_DELAY_MS, () -> ThreadUtil.run(this::showPreliminary));
+		}
+
+		/**
+		 * Stops the job. Any result it produces later is ignored.
+		 */
+		private void cancel() {
+			if (finished)
+				return;
+			finished = true;
+			// May be called off the FX thread, such as when the class is updated
+			FxThreadUtil.run(() -> setPreliminary(false));
+			Future<?> task = this.task;
+			if (task == null || task.isDone())
+				return;
+			log.debug("Cancelling decompilation of {}", name);
+			task.cancel(true);
+			ThreadUtil.runDelayed(CANCEL_GRACE_MS, () -> {
+				if (threadPool.stop((Runnable) task))
+					log.debug("Killed unresponsive decompile thread for {}", name);
+			});
+		}
+
+		private void complete(DecompileResult result, ScrollSnapshot scrollSnapshot) {
+			if (finished)
+				return;
+			finished = true;
+			setPreliminary(false);
+			hideOverlay();
+			log.debug("Finished decompilation of {}", name, result.getException());
+			String code = result.getValue();
+			if (code == null) {
+				String message = StringUtil.traceToString(result.getException());
+				String text = "// Decompiler for " + name + " has crashed.\n" +
+						"// Cause:\n\n" + message;
+				javaArea.setText(text, false);
+			} else {
+				// Decompile success
+				javaArea.setText(code, false);
+				if (scrollSnapshot != null)
+					FxThreadUtil.delayedRun(100, scrollSnapshot::restore);
+				onDecompileCompletion(code);
+			}
+		}
+
+		private void onTimeout(long timeout) {
+			if (finished)
+				return;
+			cancel();
+			hideOverlay();
+			String text = "// Decompile thread for '" + name + "' exceeded timeout of " + timeout + "ms.\n" +
+					"// Some suggestions:\n" +
+					"//  - Increase the timeout in the config menu\n" +
+					"//  - Try a different decompiler\n" +
+					"//  - Switch view modes\n";
+			javaArea.setText(text, false);
+		}
+
+		private void showPreliminary() {
+			if (finished)
+				return;
+			Decompiler fallback = RecafUI.getController().getServices().getDecompileManager().get("Fallback");
+			if (fallback == null)
+				return;
+			String code = fallback.decompile(RecafUI.getController().getWorkspace(), info).getValue();
+			if (code == null)
+				return;
+			FxThreadUtil.run(() -> {
+				if (finished)
+					return;
+				setPreliminary(true);
+				hideOverlay();
+				javaArea.setText("// Outline only, " + decompiler.getName() + " is still decompiling this class...\n" +
+						code, false);
+			});
+		}
+	}
 }
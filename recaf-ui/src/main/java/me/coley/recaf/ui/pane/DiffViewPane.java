@@ -1,9 +1,5 @@
 package me.coley.recaf.ui.pane;
 
-import difflib.Chunk;
-import difflib.Delta;
-import difflib.DiffUtils;
-import difflib.Patch;
 import javafx.beans.property.IntegerProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -15,50 +11,37 @@ import javafx.scene.control.SplitPane;
 import javafx.scene.layout.BorderPane;
 import me.coley.recaf.Controller;
 import me.coley.recaf.ControllerListener;
-import me.coley.recaf.assemble.ContextualPipeline;
-import me.coley.recaf.assemble.ast.PrintContext;
-import me.coley.recaf.assemble.ast.Unit;
-import me.coley.recaf.assemble.transformer.BytecodeToAstTransformer;
 import me.coley.recaf.code.*;
 import me.coley.recaf.config.Configs;
 import me.coley.recaf.ui.DiffViewMode;
 import me.coley.recaf.ui.behavior.FontSizeChangeable;
 import me.coley.recaf.ui.behavior.SaveResult;
-import me.coley.recaf.ui.behavior.ScrollSnapshot;
 import me.coley.recaf.ui.control.BoundLabel;
 import me.coley.recaf.ui.control.PannableImageView;
 import me.coley.recaf.ui.control.TextView;
-import me.coley.recaf.ui.control.code.Language;
+import me.coley.recaf.util.syntax.Language;
 import me.coley.recaf.ui.control.code.Languages;
-import me.coley.recaf.ui.control.code.ProblemTracking;
 import me.coley.recaf.ui.control.code.SyntaxArea;
-import me.coley.recaf.ui.control.code.bytecode.AssemblerArea;
-import me.coley.recaf.ui.control.code.java.JavaArea;
-import me.coley.recaf.ui.control.hex.HexView;
 import me.coley.recaf.ui.control.tree.CellOriginType;
-import me.coley.recaf.ui.pane.assembler.AssemblerPane;
 import me.coley.recaf.ui.util.CellFactory;
+import me.coley.recaf.ui.util.DiffService;
 import me.coley.recaf.ui.util.Lang;
 import me.coley.recaf.util.ByteHeaderUtil;
 import me.coley.recaf.util.TextDisplayUtil;
 import me.coley.recaf.util.logging.Logging;
 import me.coley.recaf.util.threading.FxThreadUtil;
-import me.coley.recaf.util.threading.ThreadUtil;
 import me.coley.recaf.workspace.Workspace;
+import me.coley.recaf.workspace.resource.DexClassMap;
+import me.coley.recaf.workspace.resource.ItemHistory;
 import me.coley.recaf.workspace.resource.Resource;
 import me.coley.recaf.workspace.resource.ResourceClassListener;
 import me.coley.recaf.workspace.resource.ResourceDexClassListener;
 import me.coley.recaf.workspace.resource.ResourceFileListener;
-import org.fxmisc.flowless.Virtualized;
-import org.fxmisc.flowless.VirtualizedScrollPane;
-import org.fxmisc.richtext.CodeArea;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -69,7 +52,8 @@ import java.util.function.Consumer;
 public class DiffViewPane extends BorderPane implements ControllerListener,
 		ResourceClassListener, ResourceDexClassListener, ResourceFileListener, FontSizeChangeable {
 	private static final Logger logger = Logging.get(DiffViewPane.class);
-	private static final long TIMEOUT_MS = 10_000;
+	private static final int PREFETCH_COUNT = 8;
+	private final DiffService diffService = new DiffService();
 	private final ObservableList<ItemInfo> items = FXCollections.synchronizedObservableList(FXCollections.observableArrayList());
 	private Workspace workspace;
 
@@ -101,14 +85,8 @@ public class DiffViewPane extends BorderPane implements ControllerListener,
 					// Override with full name
 					setText(TextDisplayUtil.shortenEscapeLimit(item.getName()));
 					setOnMousePressed(e -> {
-						SplitPane pane = (SplitPane) createDiffDisplay(item);
-						pane.getItems().forEach(paneItem -> {
-							if (paneItem instanceof FontSizeChangeable) {
-								((FontSizeChangeable) paneItem).bindFontSize(Configs.display().fontSize);
-								((FontSizeChangeable) paneItem).applyEventsForFontSizeChange(FontSizeChangeable.DEFAULT_APPLIER);
-							}
-						});
-						content.setCenter(pane);
+						content.setCenter(createDiffDisplay(item));
+						prefetch(getIndex());
 					});
 				}
 			}
@@ -122,164 +100,118 @@ public class DiffViewPane extends BorderPane implements ControllerListener,
 
 	private Node createDiffDisplay(ItemInfo item) {
 		Resource primary = workspace.getResources().getPrimary();
-		SplitPane split = new SplitPane();
+		DiffViewMode mode = Configs.editor().diffViewMode;
 		if (item instanceof ClassInfo) {
-			Stack<ClassInfo> history = primary.getClasses().getHistory(item.getName());
+			ItemHistory<ClassInfo> history = primary.getClasses().getHistory(item.getName());
 			if (history == null)
 				return new BoundLabel(Lang.getBinding("modifications.none"));
-			ClassInfo current = (ClassInfo) item;
-			ClassInfo initial = history.firstElement();
-			// Create a countdown for the two classes to decompile
-			DiffViewMode mode = Configs.editor().diffViewMode;
-			if (mode == DiffViewMode.DECOMPILE) {
-				CompletableFuture<Void> currentFuture = new CompletableFuture<>();
-				CompletableFuture<Void> initialFuture = new CompletableFuture<>();
-				DiffableDecompilePane currentDecompile = new DiffableDecompilePane(currentFuture);
-				DiffableDecompilePane initialDecompile = new DiffableDecompilePane(initialFuture);
-				currentDecompile.onUpdate(current);
-				initialDecompile.onUpdate(initial);
-				// Add to the UI
-				split.getItems().addAll(initialDecompile, currentDecompile);
-				// When the class versions both get decompiled, run a basic text diff and highlight modified lines.
-				CompletableFuture.allOf(currentFuture, initialFuture)
-						.orTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS)
-						.whenCompleteAsync((__, t) -> {
-							if (t != null) {
-								logger.error("Failed to make diff view", t);
-							} else {
-								highlightDiff(initialDecompile, currentDecompile);
-							}
-						}, ThreadUtil.executor());
-			} else {
-				DiffAssemblerPane currentAssembler = new DiffAssemblerPane();
-				DiffAssemblerPane initialAssembler = new DiffAssemblerPane();
-				// Add to the UI
-				split.getItems().addAll(initialAssembler, currentAssembler);
-				// Create the disassembly by passing in the class states
-				currentAssembler.onUpdate(current);
-				initialAssembler.onUpdate(initial);
-				// The disassembly is on the same thread and is fast, so we can immediately highlight
-				highlightDiff(initialAssembler, currentAssembler);
-			}
-			return split;
+			Language language;
+			if (mode == DiffViewMode.DECOMPILE)
+				language = Languages.JAVA;
+			else if (mode == DiffViewMode.DISASSEMBLE)
+				language = Languages.JAVA_BYTECODE;
+			else
+				language = Languages.NONE;
+			return createTextDiffDisplay(diffService.diffClasses(history.getInitial(), (ClassInfo) item, mode), language);
 		} else if (item instanceof DexClassInfo) {
-			// TODO: Android diff
-			//  - Probably just go with 'SmaliAssemblerPane' similar to how the java logic above is done
-			//    and do the same standard text-diff highlighting.
-			return new Label("TODO: Android diff");
+			DexClassInfo current = (DexClassInfo) item;
+			ItemHistory<DexClassInfo> history = getDexHistory(primary, current);
+			if (history == null)
+				return new BoundLabel(Lang.getBinding("modifications.none"));
+			// Android classes are always shown as smali, as there is no decompiler or raw class file for them
+			return createTextDiffDisplay(diffService.diffClasses(history.getInitial(), current, mode),
+					Languages.DALVIK_BYTECODE);
 		} else if (item instanceof FileInfo) {
-			Stack<FileInfo> history = primary.getFiles().getHistory(item.getName());
+			ItemHistory<FileInfo> history = primary.getFiles().getHistory(item.getName());
+			if (history == null)
+				return new BoundLabel(Lang.getBinding("modifications.none"));
 			FileInfo current = (FileInfo) item;
-			FileInfo initial = history.firstElement();
+			FileInfo initial = history.getInitial();
 			byte[] currentRaw = current.getValue();
 			byte[] initialRaw = initial.getValue();
 			if (ByteHeaderUtil.matchAny(currentRaw, ByteHeaderUtil.IMAGE_HEADERS)) {
+				SplitPane split = new SplitPane();
 				PannableImageView initialImage = new PannableImageView();
 				PannableImageView currentImage = new PannableImageView();
 				initialImage.setImage(initialRaw);
 				currentImage.setImage(currentRaw);
 				split.getItems().addAll(initialImage, currentImage);
+				return split;
 			} else if (current.isText()) {
-				Language language = Languages.get(current.getExtension());
-				DiffableTextView initialText = new DiffableTextView(language);
-				DiffableTextView currentText = new DiffableTextView(language);
-				initialText.onUpdate(initial);
-				currentText.onUpdate(current);
-				initialText.getTextArea().setEditable(false);
-				currentText.getTextArea().setEditable(false);
-				split.getItems().addAll(initialText, currentText);
-				highlightDiff(initialText, currentText);
-				currentText.bindScrollTo(initialText);
+				String initialText = new String(initialRaw, StandardCharsets.UTF_8);
+				String currentText = new String(currentRaw, StandardCharsets.UTF_8);
+				return createTextDiffDisplay(diffService.diffText(initialText, currentText),
+						Languages.get(current.getExtension()));
 			} else {
-				// TODO: How do we want to go around highlighting hex diffs?
-				//  - Representing 'inserted' and 'removed' can't use padding like text-view can
-				//  - Can just do simple direct highlights without padding probably
-				//     - Need access to each cell/offset to do this
-				HexView initialHex = new HexView();
-				HexView currentHex = new HexView();
-				initialHex.onUpdate(initialRaw);
-				currentHex.onUpdate(currentRaw);
-				// TODO: Should update HexView to support 'setEditable(boolean)' which disables HexRow editable cells.
-				split.getItems().addAll(initialHex, currentHex);
+				return createTextDiffDisplay(diffService.diffBinary(initialRaw, currentRaw), Languages.NONE);
 			}
-			return split;
 		} else {
 			throw new IllegalStateException("Unknown info type: " + ((item == null) ? "null" : item.getClass()));
 		}
 	}
 
-	private void highlightDiff(Diffable initial, Diffable current) {
-		Patch<String> diff = DiffUtils.diff(
-				Arrays.asList(initial.getText().split("\n")),
-				Arrays.asList(current.getText().split("\n"))
-		);
-		if (diff.getDeltas().isEmpty()) {
+	/**
+	 * @param future
+	 * 		Future of the difference to display.
+	 * @param language
+	 * 		Language to use for syntax highlighting.
+	 *
+	 * @return Display of the difference, showing a placeholder until the difference is computed.
+	 */
+	private Node createTextDiffDisplay(CompletableFuture<DiffService.DiffResult> future, Language language) {
+		BorderPane wrapper = new BorderPane(new BoundLabel(Lang.getBinding("modifications.loading")));
+		future.whenCompleteAsync((result, t) -> {
+			if (t != null) {
+				logger.error("Failed to make diff view", t);
+				wrapper.setCenter(new Label(String.valueOf(t.getMessage())));
+				return;
+			}
+			DiffableTextView initialText = new DiffableTextView(language);
+			DiffableTextView currentText = new DiffableTextView(language);
+			initialText.setDiffText(result.getInitialText(), result.getInitialMarks());
+			currentText.setDiffText(result.getCurrentText(), result.getCurrentMarks());
+			currentText.bindScrollTo(initialText);
+			for (DiffableTextView view : Arrays.asList(initialText, currentText)) {
+				view.bindFontSize(Configs.display().fontSize);
+				view.applyEventsForFontSizeChange(FontSizeChangeable.DEFAULT_APPLIER);
+			}
+			SplitPane split = new SplitPane();
+			split.getItems().addAll(initialText, currentText);
+			wrapper.setCenter(split);
+		}, FxThreadUtil.executor());
+		return wrapper;
+	}
+
+	/**
+	 * Computes the differences of the classes following the selected one in the background,
+	 * so that stepping through a large number of modified classes does not wait on each one.
+	 * Decompilation is too costly to do speculatively, so this only applies to the other modes.
+	 *
+	 * @param index
+	 * 		Index of the selected item.
+	 */
+	private void prefetch(int index) {
+		DiffViewMode mode = Configs.editor().diffViewMode;
+		if (mode == DiffViewMode.DECOMPILE)
 			return;
+		Resource primary = workspace.getResources().getPrimary();
+		List<ItemInfo> following;
+		synchronized (items) {
+			following = new ArrayList<>(items.subList(Math.min(index + 1, items.size()),
+					Math.min(index + 1 + PREFETCH_COUNT, items.size())));
 		}
-		// Without the delay, the text insertions fight with text styling thread
-		FxThreadUtil.delayedRun(100, () -> {
-			int deletions = 0;
-			int insertions = 0;
-			int currentOffset = 0;
-			int initialOffset = 0;
-			for (Delta<String> delta : diff.getDeltas()) {
-				Chunk<String> original = delta.getOriginal();
-				Chunk<String> revised = delta.getRevised();
-				switch (delta.getType()) {
-					case CHANGE:
-						// Changes can also insert/remove lines
-						if (revised.size() > original.size()) {
-							// Change has inserted text
-							current.markDiffChunk(revised, "insertion", deletions - 1);
-							int insertStartLine = original.getPosition() + initialOffset;
-							int insertedCount = revised.size() - 1;
-							int chunkDiffOR = original.getPosition() - revised.getPosition();
-							initial.getCodeArea().insertText(insertStartLine, 0, "\n".repeat(insertedCount));
-							initial.markDiffChunk(revised, "insertion", chunkDiffOR + initialOffset - 1);
-							insertions += insertedCount;
-							initialOffset += insertedCount;
-						} else if (revised.size() < original.size()) {
-							// Change has removed text
-							initial.markDiffChunk(original, "deletion", insertions - 1);
-							int deleteStartLine = revised.getPosition() + currentOffset;
-							int deletedCount = original.size() - 1;
-							int chunkDiffRO = revised.getPosition() - original.getPosition();
-							current.getCodeArea().insertText(deleteStartLine, 0, "\n".repeat(deletedCount));
-							current.markDiffChunk(original, "deletion", chunkDiffRO + currentOffset - 1);
-							deletions += deletedCount;
-							currentOffset += deletedCount;
-						} else {
-							// Change has modified an equal number of lines
-							current.markDiffChunk(revised, "change", deletions);
-							initial.markDiffChunk(original, "change", insertions);
-						}
-						break;
-					case DELETE:
-						initial.markDiffChunk(original, "deletion", insertions);
-						int deleteStartLine = revised.getPosition() + currentOffset;
-						int deletedCount = original.size();
-						int chunkDiffRO = revised.getPosition() - original.getPosition();
-						current.getCodeArea().insertText(deleteStartLine, 0, "\n".repeat(deletedCount));
-						current.markDiffChunk(original, "deletion", chunkDiffRO + currentOffset);
-						deletions += deletedCount;
-						currentOffset += deletedCount;
-						break;
-					case INSERT:
-						current.markDiffChunk(revised, "insertion", deletions);
-						int insertStartLine = original.getPosition() + initialOffset;
-						int insertedCount = revised.size();
-						int chunkDiffOR = original.getPosition() - revised.getPosition();
-						initial.getCodeArea().insertText(insertStartLine, 0, "\n".repeat(insertedCount));
-						initial.markDiffChunk(revised, "insertion", chunkDiffOR + initialOffset);
-						insertions += insertedCount;
-						initialOffset += insertedCount;
-						break;
-				}
+		for (ItemInfo item : following) {
+			if (item instanceof ClassInfo) {
+				ItemHistory<ClassInfo> history = primary.getClasses().getHistory(item.getName());
+				if (history != null)
+					diffService.diffClasses(history.getInitial(), (ClassInfo) item, mode);
 			}
-			// Now that text insertions are done, we can link the two diffable components scrolling
-			current.bindScrollTo(initial);
-		});
-		initial.getCodeArea().showParagraphAtCenter(0);
+		}
+	}
+
+	private static ItemHistory<DexClassInfo> getDexHistory(Resource resource, DexClassInfo info) {
+		DexClassMap map = resource.getDexClasses().getBackingMap().get(info.getDexPath());
+		return map == null ? null : map.getHistory(info.getName());
 	}
 
 	@Override
@@ -287,6 +219,7 @@ public class DiffViewPane extends BorderPane implements ControllerListener,
 		workspace = newWorkspace;
 		// Clear old items
 		items.clear();
+		diffService.clear();
 		// Add listeners to receive new items
 		if (newWorkspace != null) {
 			Resource resource = newWorkspace.getResources().getPrimary();
@@ -360,101 +293,53 @@ public class DiffViewPane extends BorderPane implements ControllerListener,
 		// will be done upon opening the view
 	}
 
-	/**
-	 * Simple interface to make text-diff logic backed by {@link CodeArea} easy to implement.
-	 *
-	 * @author Matt Coley
-	 */
-	public interface Diffable {
-		default void markDiffChunk(Chunk<String> chunk, String style, int offset) {
-			CodeArea area = getCodeArea();
-			int pos = chunk.getPosition() + offset;
-			int len = chunk.size();
-			Collection<String> styles = Collections.singleton(style);
-			for (int i = 0; i < len; i++)
-				area.setParagraphStyle(pos + i, styles);
-		}
-
-		default void bindScrollTo(Diffable other) {
-			getScroll().estimatedScrollYProperty().bindBidirectional(other.getScroll().estimatedScrollYProperty());
-		}
-
-		default String getText() {
-			return getCodeArea().getText();
-		}
-
-		Virtualized getScroll();
-
-		CodeArea getCodeArea();
-	}
-
 	/**
 	 * An extension of the text-view for line difference highlighting.
 	 *
 	 * @author Matt Coley
 	 */
-	private static class DiffableTextView extends TextView implements Diffable {
+	private static class DiffableTextView extends TextView {
 		/**
 		 * @param language
 		 * 		Language to use for syntax highlighting.
 		 */
 		public DiffableTextView(Language language) {
 			super(language, null);
-		}
-
-		@Override
-		public CodeArea getCodeArea() {
-			return getTextArea();
-		}
-
-		@Override
-		public VirtualizedScrollPane<SyntaxArea> getScroll() {
-			return super.getScroll();
-		}
-
-		@Override
-		public SaveResult save() {
-			return SaveResult.IGNORED;
-		}
-
-		@Override
-		public boolean supportsEditing() {
-			return false;
-		}
-	}
-
-	/**
-	 * An extension of the Java decompile pane for line difference highlighting.
-	 *
-	 * @author Matt Coley
-	 */
-	private static class DiffableDecompilePane extends DecompilePane implements Diffable {
-		private final CompletableFuture<Void> future;
-		private String code;
-
-		public DiffableDecompilePane(CompletableFuture<Void> future) {
-			this.future = future;
-			getJavaArea().setEditable(false);
-			// This is a lazy fix.
-			// Prevent users from switching decompiler and thus invalidating the text.
+			getTextArea().setEditable(false);
+			// The content is not a file, so there is no extension to associate a language with
 			setBottom(null);
 		}
 
 		/**
-		 * @return Decompiled code.
+		 * @param text
+		 * 		Padded text of a revision.
+		 * @param marks
+		 * 		Lines to highlight.
 		 */
-		public String getCode() {
-			return code;
+		public void setDiffText(String text, List<DiffService.Mark> marks) {
+			SyntaxArea area = getTextArea();
+			area.setText(text, false);
+			for (DiffService.Mark mark : marks) {
+				Collection<String> styles = Collections.singleton(mark.getStyle());
+				for (int i = 0; i < mark.getCount(); i++)
+					area.setParagraphStyle(mark.getLine() + i, styles);
+			}
+			area.showParagraphAtTop(0);
 		}
 
-		@Override
-		public CodeArea getCodeArea() {
-			return getJavaArea();
+		/**
+		 * @param other
+		 * 		Other view to scroll together with.
+		 */
+		public void bindScrollTo(DiffableTextView other) {
+			getScroll().estimatedScrollYProperty().bindBidirectional(other.getScroll().estimatedScrollYProperty());
 		}
 
 		@Override
-		public VirtualizedScrollPane<JavaArea> getScroll() {
-			return super.getScroll();
+		public void onAssociationChanged(String extension, Language newLanguage) {
+			// Only applicable when displaying a file
+			if (getCurrentFileInfo() != null)
+				super.onAssociationChanged(extension, newLanguage);
 		}
 
 		@Override
@@ -466,79 +351,5 @@ public class DiffViewPane extends BorderPane implements ControllerListener,
 		public boolean supportsEditing() {
 			return false;
 		}
-
-		@Override
-		public ScrollSnapshot makeScrollSnapshot() {
-			return () -> {
-				// no-op
-			};
-		}
-
-		@Override
-		protected void onDecompileCompletion(String code) {
-			this.code = code;
-			this.future.complete(null);
-		}
-	}
-
-	/**
-	 * An extension of the assembler pane for line difference highlighting.
-	 *
-	 * @author Justus Garbe
-	 */
-	private static class DiffAssemblerPane extends AssemblerPane implements Diffable {
-		public DiffAssemblerPane() {
-			getAssemblerArea().setEditable(false);
-		}
-
-		@Override
-		protected AssemblerArea createAssembler(ProblemTracking tracking, ContextualPipeline pipeline) {
-			return new AssemblerArea(tracking, pipeline) {
-				@Override
-				protected void handleAstUpdate() {
-					// Do nothing, we only care about the text.
-					// It does not need to be parsed.
-				}
-			};
-		}
-
-		@Override
-		public VirtualizedScrollPane<AssemblerArea> getScroll() {
-			return super.getScroll();
-		}
-
-		@Override
-		public boolean supportsEditing() {
-			return false;
-		}
-
-		@Override
-		public SaveResult save() {
-			return SaveResult.IGNORED;
-		}
-
-		@Override
-		public CodeArea getCodeArea() {
-			return super.getAssemblerArea();
-		}
-
-		@Override
-		public void onUpdate(CommonClassInfo newValue) {
-			if (newValue instanceof ClassInfo) {
-				ClassInfo classInfo = (ClassInfo) newValue;
-				// Find class node
-				ClassReader reader = classInfo.getClassReader();
-				ClassNode node = new ClassNode();
-				reader.accept(node, ClassReader.SKIP_FRAMES);
-				// Transform the node to text representation
-				getAssemblerArea().onUpdate(newValue);
-				BytecodeToAstTransformer transformer = new BytecodeToAstTransformer(node);
-				transformer.visit();
-				Unit unit = transformer.getUnit();
-				String result = unit.print(PrintContext.DEFAULT_CTX);
-				// Update code area
-				getAssemblerArea().setText(result);
-			}
-		}
 	}
 }
@@ -1,5 +1,7 @@
 package me.coley.recaf.ui.pane;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.event.EventHandler;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
@@ -26,10 +28,11 @@ import me.coley.recaf.util.TextDisplayUtil;
 import me.coley.recaf.util.Translatable;
 import me.coley.recaf.util.logging.Logging;
 import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
 import org.slf4j.Logger;
 
-import java.util.Objects;
-
+import java.util.*;
+import java.util.concurrent.Future;
 
 /**
  * Visualization of the class hierarchy for children and parent relations.
@@ -106,8 +109,21 @@ public class HierarchyPane extends BorderPane implements Updatable<CommonClassIn
 
 	/**
 	 * Tree that represents the hierarchy of a class.
+	 * <br>
+	 * The graph is traversed in the background, and only the first {@link #EAGER_ITEMS} classes are placed
+	 * in expanded form. Classes beyond that load their relations in the background when expanded.
+	 * Completed trees are kept per mode until the class or the inheritance graph changes,
+	 * so switching modes does not traverse the graph again.
 	 */
 	class HierarchyTree extends TreeView<CommonClassInfo> implements Updatable<CommonClassInfo> {
+		private static final int EAGER_ITEMS = 250;
+		private final Map<HierarchyMode, HierarchyItem> cache = new EnumMap<>(HierarchyMode.class);
+		private CommonClassInfo cachedInfo;
+		private InheritanceGraph cachedGraph;
+		private int cachedGraphModification;
+		private Future<?> pending;
+		private int generation;
+
 		private HierarchyTree() {
 			getStyleClass().add("transparent-tree");
 			setCellFactory(param -> new HierarchyCell());
@@ -115,80 +131,143 @@ public class HierarchyPane extends BorderPane implements Updatable<CommonClassIn
 
 		@Override
 		public void onUpdate(CommonClassInfo newValue) {
+			HierarchyMode currentMode = mode;
+			// Cached trees are only valid for the class revision and graph state they were made from.
+			// The graph is replaced when the workspace changes, and modified when classes or libraries change.
 			InheritanceGraph graph = RecafUI.getController().getServices().getInheritanceGraph();
-			HierarchyItem root = new HierarchyItem(newValue);
-			String name = newValue.getName();
-			InheritanceVertex vertex = graph.getVertex(name);
-			if (vertex != null) {
-				if (mode == HierarchyMode.PARENTS) {
-					createParents(root, vertex);
-				} else if (mode == HierarchyMode.CHILDREN) {
-					createChildren(root, vertex);
-				}
-			} else {
-				logger.warn("Vertex lookup failed for class '{}'", name);
-			}
-			FxThreadUtil.run(() -> setRoot(root));
-		}
-
-		private void createParents(HierarchyItem root, InheritanceVertex rootVertex) {
-			root.setExpanded(true);
-			for (InheritanceVertex parentVertex : rootVertex.getParents()) {
-				if (parentVertex.getName().equals("java/lang/Object"))
-					continue;
-				HierarchyItem subItem = new HierarchyItem(parentVertex.getValue());
-				if (noLoops(root, subItem)) {
-					root.getChildren().add(subItem);
-					createParents(subItem, parentVertex);
-				}
+			int graphModification = graph == null ? 0 : graph.getModificationCount();
+			if (newValue != cachedInfo || graph != cachedGraph || graphModification != cachedGraphModification) {
+				cache.clear();
+				cachedInfo = newValue;
+				cachedGraph = graph;
+				cachedGraphModification = graphModification;
 			}
-		}
-
-		private void createChildren(HierarchyItem root, InheritanceVertex rootVertex) {
-			root.setExpanded(true);
-			for (InheritanceVertex childVertex : rootVertex.getChildren()) {
-				HierarchyItem subItem = new HierarchyItem(childVertex.getValue());
-				if (noLoops(root, subItem)) {
-					root.getChildren().add(subItem);
-					createChildren(subItem, childVertex);
-				}
+			int current = ++generation;
+			if (pending != null)
+				pending.cancel(true);
+			HierarchyItem cached = cache.get(currentMode);
+			if (cached != null) {
+				FxThreadUtil.run(() -> {
+					if (current == generation)
+						setRoot(cached);
+				});
+				return;
 			}
-		}
-
-		private boolean noLoops(TreeItem<?> root, TreeItem<?> child) {
-			if (root == null)
-				return true;
-			// HierarchyItem implements a hashCode based on class names
-			// So any cycle should trigger this and we'll abort.
-			if (root.hashCode() == child.hashCode())
-				return false;
-			return noLoops(root.getParent(), child);
+			// Show the class with a loading placeholder until the graph has been traversed
+			HierarchyItem loading = new HierarchyItem(newValue, null, currentMode);
+			loading.getChildren().add(new HierarchyItem(null, null, currentMode));
+			loading.setExpanded(true);
+			FxThreadUtil.run(() -> {
+				if (current == generation)
+					setRoot(loading);
+			});
+			pending = ThreadUtil.executor().submit(() -> {
+				String name = newValue.getName();
+				InheritanceVertex vertex = graph.getVertex(name);
+				HierarchyItem root = new HierarchyItem(newValue, vertex, currentMode);
+				if (vertex == null)
+					logger.warn("Vertex lookup failed for class '{}'", name);
+				else if (!root.expandBreadthFirst(EAGER_ITEMS))
+					return;
+				FxThreadUtil.run(() -> {
+					if (current != generation)
+						return;
+					cache.put(currentMode, root);
+					setRoot(root);
+				});
+			});
 		}
 	}
 
 	/**
-	 * Item of a class in the hierarchy.
+	 * Item of a class in the hierarchy. An item without a value is a placeholder for relations still being loaded.
 	 */
 	static class HierarchyItem extends TreeItem<CommonClassInfo> {
-		private HierarchyItem(CommonClassInfo info) {
+		private final InheritanceVertex vertex;
+		private final HierarchyMode mode;
+
+		private HierarchyItem(CommonClassInfo info, InheritanceVertex vertex, HierarchyMode mode) {
 			super(info);
+			this.vertex = vertex;
+			this.mode = mode;
 		}
 
-		@Override
-		public int hashCode() {
-			CommonClassInfo value = getValue();
-			if (value == null)
-				return  -1;
-			int result = value.getName().hashCode();
-			result = 31 * result + (value.getSuperName().hashCode());
-			return result;
+		/**
+		 * Creates items for the relations of this item and its descendants, nearest first.
+		 * Items beyond the limit are left to load their relations when expanded.
+		 *
+		 * @param limit
+		 * 		Maximum number of items to create eagerly.
+		 *
+		 * @return {@code false} when the thread was interrupted before completing.
+		 */
+		private boolean expandBreadthFirst(int limit) {
+			Deque<HierarchyItem> queue = new ArrayDeque<>();
+			queue.add(this);
+			int count = 0;
+			while (!queue.isEmpty()) {
+				if (Thread.currentThread().isInterrupted())
+					return false;
+				HierarchyItem item = queue.poll();
+				if (count >= limit) {
+					item.deferRelations();
+					continue;
+				}
+				List<HierarchyItem> relations = item.createRelations();
+				item.getChildren().setAll(relations);
+				item.setExpanded(true);
+				count += relations.size();
+				queue.addAll(relations);
+			}
+			return true;
 		}
 
-		@Override
-		public boolean equals(Object obj) {
-			if (obj instanceof HierarchyItem) {
-				HierarchyItem other = (HierarchyItem) obj;
-				return Objects.equals(getValue(), other.getValue());
+		/**
+		 * Adds a placeholder child, replaced by the actual relations loaded in the background on first expansion.
+		 */
+		private void deferRelations() {
+			getChildren().setAll(new HierarchyItem(null, null, mode));
+			expandedProperty().addListener(new ChangeListener<>() {
+				@Override
+				public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+					if (!newValue)
+						return;
+					observable.removeListener(this);
+					ThreadUtil.run(() -> {
+						List<HierarchyItem> relations = createRelations();
+						for (HierarchyItem relation : relations)
+							relation.deferRelations();
+						FxThreadUtil.run(() -> getChildren().setAll(relations));
+					});
+				}
+			});
+		}
+
+		/**
+		 * @return Items for the parents or children of this item's class, depending on the mode,
+		 * excluding classes that already appear above this item.
+		 */
+		private List<HierarchyItem> createRelations() {
+			List<HierarchyItem> relations = new ArrayList<>();
+			if (vertex == null)
+				return relations;
+			Set<InheritanceVertex> related = mode == HierarchyMode.PARENTS ? vertex.getParents() : vertex.getChildren();
+			for (InheritanceVertex relatedVertex : related) {
+				String name = relatedVertex.getName();
+				if (mode == HierarchyMode.PARENTS && name.equals("java/lang/Object"))
+					continue;
+				// Cyclic hierarchies are invalid, but obfuscated code may have them
+				if (!isInPath(name))
+					relations.add(new HierarchyItem(relatedVertex.getValue(), relatedVertex, mode));
+			}
+			return relations;
+		}
+
+		private boolean isInPath(String name) {
+			for (TreeItem<CommonClassInfo> item = this; item != null; item = item.getParent()) {
+				CommonClassInfo info = item.getValue();
+				if (info != null && info.getName().equals(name))
+					return true;
 			}
 			return false;
 		}
@@ -208,10 +287,11 @@ public class HierarchyPane extends BorderPane implements Updatable<CommonClassIn
 		@Override
 		protected void updateItem(CommonClassInfo item, boolean empty) {
 			super.updateItem(item, empty);
-			setDisclosureNode(null);
 			if (empty || item == null) {
-				setText(null);
+				// Items without a value are placeholders for relations still being loaded
+				setText(empty ? null : Lang.get("hierarchy.loading"));
 				setGraphic(null);
+				setContextMenu(null);
 				setOnMouseClicked(null);
 				if (onClickFilter != null)
 					removeEventFilter(MouseEvent.MOUSE_PRESSED, onClickFilter);
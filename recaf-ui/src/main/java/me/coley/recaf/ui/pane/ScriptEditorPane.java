@@ -14,6 +14,7 @@ import me.coley.recaf.RecafUI;
 import me.coley.recaf.config.Configs;
 import me.coley.recaf.scripting.Script;
 import me.coley.recaf.scripting.ScriptEngine;
+import me.coley.recaf.scripting.ScriptExecution;
 import me.coley.recaf.scripting.ScriptResult;
 import me.coley.recaf.ui.behavior.Cleanable;
 import me.coley.recaf.ui.behavior.Representation;
@@ -26,6 +27,7 @@ import me.coley.recaf.ui.util.Icons;
 import me.coley.recaf.ui.util.Lang;
 import me.coley.recaf.util.Directories;
 import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.FxThreadUtil;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.slf4j.Logger;
 
@@ -45,6 +47,7 @@ public class ScriptEditorPane extends BorderPane implements Representation, Clea
 	private static final Logger logger = Logging.get(ScriptEditorPane.class);
 	private final ProblemTracking tracking = new ProblemTracking();
 	private final SyntaxArea bshArea;
+	private ScriptExecution execution;
 	private Path currentFile;
 	private Tab tab;
 
@@ -81,14 +84,28 @@ public class ScriptEditorPane extends BorderPane implements Representation, Clea
 		executeButton.setGraphic(Icons.getIconView(Icons.PLAY));
 		saveButton.setGraphic(Icons.getIconView(Icons.SAVE));
 		executeButton.setOnMouseClicked(e -> {
-			tracking.clearOfType(ProblemOrigin.JAVA_COMPILE);
-			ScriptResult result = execute();
-			if (result.wasSuccess()) {
-				Animations.animateSuccess(getNodeRepresentation(), 1000);
-			} else {
-				Animations.animateFailure(getNodeRepresentation(), 1000);
-				handleScriptErrors(result);
+			// Second click while running cancels the script
+			if (execution != null && !execution.isDone()) {
+				execution.cancel();
+				return;
 			}
+			tracking.clearOfType(ProblemOrigin.JAVA_COMPILE);
+			executeButton.setText("Cancel");
+			executeButton.setGraphic(Icons.getIconView(Icons.STOP));
+			execution = executeAsync();
+			execution.getResult().whenComplete((result, error) -> FxThreadUtil.run(() -> {
+				executeButton.setText("Execute");
+				executeButton.setGraphic(Icons.getIconView(Icons.PLAY));
+				if (result != null && result.wasSuccess()) {
+					Animations.animateSuccess(getNodeRepresentation(), 1000);
+				} else {
+					Animations.animateFailure(getNodeRepresentation(), 1000);
+					if (result != null)
+						handleScriptErrors(result);
+					else
+						logger.info("Script execution cancelled");
+				}
+			}));
 		});
 		saveButton.setOnMouseClicked(e -> {
 			SaveResult result = save();
@@ -106,6 +123,13 @@ public class ScriptEditorPane extends BorderPane implements Representation, Clea
 		return Script.fromSource(bshArea.getText()).execute();
 	}
 
+	/**
+	 * @return Handle of the script, running on the script thread pool.
+	 */
+	public ScriptExecution executeAsync() {
+		return Script.fromSource(bshArea.getText()).executeAsync(0, null);
+	}
+
 	/**
 	 * Opens a file in the editor.
 	 *
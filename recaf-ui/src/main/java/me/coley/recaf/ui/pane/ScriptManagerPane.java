@@ -11,7 +11,6 @@ import javafx.scene.layout.VBox;
 import me.coley.recaf.RecafUI;
 import me.coley.recaf.scripting.FileScript;
 import me.coley.recaf.scripting.Script;
-import me.coley.recaf.scripting.ScriptResult;
 import me.coley.recaf.ui.control.BoundLabel;
 import me.coley.recaf.ui.docking.DockTab;
 import me.coley.recaf.ui.docking.RecafDockingManager;
@@ -130,7 +129,7 @@ public class ScriptManagerPane extends BorderPane {
 
 			MenuItem item = new MenuItem(script.getName());
 			item.setGraphic(Icons.getIconView(Icons.PLAY));
-			item.setOnAction(event -> script.execute());
+			item.setOnAction(event -> script.executeAsync(0, null));
 			scriptMenuItems.add(item);
 		}
 
@@ -219,13 +218,13 @@ public class ScriptManagerPane extends BorderPane {
 		executeButton.textProperty().bind(Lang.getBinding("menu.scripting.execute"));
 		executeButton.setGraphic(Icons.getIconView(Icons.PLAY));
 
-		executeButton.setOnAction(event -> {
-			ScriptResult result = script.execute();
-			if (result.wasSuccess())
-				Animations.animateSuccess(scrollPane, 1000);
-			else
-				Animations.animateFailure(scrollPane, 1000);
-		});
+		executeButton.setOnAction(event -> script.executeAsync(0, null).getResult()
+				.whenComplete((result, error) -> FxThreadUtil.run(() -> {
+					if (result != null && result.wasSuccess())
+						Animations.animateSuccess(scrollPane, 1000);
+					else
+						Animations.animateFailure(scrollPane, 1000);
+				})));
 		executeButton.setPrefSize(130, 30);
 
 		Button editButton = new Button();
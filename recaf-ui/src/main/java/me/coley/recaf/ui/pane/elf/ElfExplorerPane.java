@@ -2,6 +2,7 @@ package me.coley.recaf.ui.pane.elf;
 
 import javafx.beans.value.ObservableValue;
 import javafx.scene.Node;
+import javafx.scene.control.Label;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TreeItem;
@@ -13,11 +14,17 @@ import me.coley.recaf.ui.behavior.SaveResult;
 import me.coley.recaf.ui.pane.table.SizedDataTypeTable;
 import me.coley.recaf.ui.pane.table.TableGeneric;
 import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
 import net.fornwall.jelf.ElfFile;
 import net.fornwall.jelf.ElfSectionHeader;
 import net.fornwall.jelf.ElfSegment;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
 /**
  * A panel that displays information about an image's ELF header.
  *
@@ -46,6 +53,8 @@ public class ElfExplorerPane extends SplitPane implements FileRepresentation {
 
 	private FileInfo fileInfo;
 	private ElfFile elfFile;
+	private Future<?> pendingParse;
+	private int generation;
 
 	/**
 	 * Create and setup the ELF explorer panel.
@@ -81,27 +90,69 @@ public class ElfExplorerPane extends SplitPane implements FileRepresentation {
 	@Override
 	public void onUpdate(FileInfo newValue) {
 		this.fileInfo = newValue;
-		try {
-			this.elfFile = ElfFile.from(newValue.getValue());
-		} catch (Exception e) {
-			logger.error("Failed to parse ELF file: {}", e.getMessage());
-		}
-
-		for (int i = 0; i < elfFile.e_phnum; i++) {
-			TreeItem<String> programHeaderItem = new TreeItem<>(String.format("Header %d", i));
-			itemProgramHeaders.getChildren().add(programHeaderItem);
-		}
-
-		for (int i = 1; i < elfFile.e_shnum; i++) {
-			ElfSectionHeader sectionHeader = elfFile.getSection(i).header;
-			TreeItem<String> sectionHeaderItem = new TreeItem<>(sectionHeader.getName());
-			itemSectionHeaders.getChildren().add(sectionHeaderItem);
-		}
+		int current = ++generation;
+		if (pendingParse != null)
+			pendingParse.cancel(true);
+		// Headers are parsed in the background. Tables like the string tables are only read when selected.
+		pendingParse = ThreadUtil.executor().submit(() -> {
+			ElfFile parsed;
+			List<TreeItem<String>> programHeaderItems = new ArrayList<>();
+			List<TreeItem<String>> sectionHeaderItems = new ArrayList<>();
+			try {
+				parsed = ElfFile.from(newValue.getValue());
+				for (int i = 0; i < parsed.e_phnum; i++) {
+					TreeItem<String> programHeaderItem = new TreeItem<>(String.format("Header %d", i));
+					programHeaderItems.add(programHeaderItem);
+				}
+				for (int i = 1; i < parsed.e_shnum; i++) {
+					ElfSectionHeader sectionHeader = parsed.getSection(i).header;
+					TreeItem<String> sectionHeaderItem = new TreeItem<>(sectionHeader.getName());
+					sectionHeaderItems.add(sectionHeaderItem);
+				}
+			} catch (Exception e) {
+				logger.error("Failed to parse ELF file: {}", e.getMessage());
+				FxThreadUtil.run(() -> {
+					if (current == generation)
+						showParseError(e);
+				});
+				return;
+			}
+			FxThreadUtil.run(() -> {
+				if (current != generation)
+					return;
+				elfFile = parsed;
+				primaryTreeView.setDisable(false);
+				itemProgramHeaders.getChildren().setAll(programHeaderItems);
+				itemSectionHeaders.getChildren().setAll(sectionHeaderItems);
+				programHeaderDisplayMode.onUpdate(elfFile);
+				sectionHeaderDisplayMode.onUpdate(elfFile);
+				stringTableDisplayMode.onUpdate(elfFile);
+				// Select initial view, refreshing the table if it was already selected
+				primaryTreeView.getSelectionModel().clearSelection();
+				primaryTreeView.getSelectionModel().select(itemElfHeader);
+			});
+		});
+	}
 
-		primaryTreeView.getSelectionModel().select(itemElfHeader);
-		programHeaderDisplayMode.onUpdate(elfFile);
-		sectionHeaderDisplayMode.onUpdate(elfFile);
-		stringTableDisplayMode.onUpdate(elfFile);
+	/**
+	 * Removes the content of the prior file, and shows why the current file could not be displayed.
+	 *
+	 * @param ex
+	 * 		Cause of the parse failure.
+	 */
+	private void showParseError(Exception ex) {
+		elfFile = null;
+		itemProgramHeaders.getChildren().clear();
+		itemSectionHeaders.getChildren().clear();
+		programHeaderDisplayMode.onUpdate(null);
+		sectionHeaderDisplayMode.onUpdate(null);
+		stringTableDisplayMode.onUpdate(null);
+		// Header items have nothing to show without a parsed file
+		primaryTreeView.getSelectionModel().clearSelection();
+		primaryTreeView.setDisable(true);
+		primaryTableView.getColumns().clear();
+		primaryTableView.clearRows();
+		primaryTableView.setPlaceholder(new Label("Failed to parse ELF file: " + ex.getMessage()));
 	}
 
 	/**
@@ -153,7 +204,7 @@ public class ElfExplorerPane extends SplitPane implements FileRepresentation {
 		value.setCellValueFactory(new PropertyValueFactory<>("value"));
 		meaning.setCellValueFactory(new PropertyValueFactory<>("meaning"));
 		primaryTableView.getColumns().addAll(member, value, meaning);
-		primaryTableView.getItems().clear();
+		primaryTableView.clearRows();
 
 		if (newValue == itemElfHeader) {
 			elfHeaderDisplayMode.apply(elfFile, primaryTableView);
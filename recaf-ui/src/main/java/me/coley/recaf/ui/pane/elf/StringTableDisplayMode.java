@@ -5,12 +5,20 @@ import me.coley.recaf.ui.pane.table.TableGeneric;
 import net.fornwall.jelf.ElfFile;
 import net.fornwall.jelf.ElfStringTable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Table display for ELF string table.
+ * Table display for ELF string table. Entries are created in the background,
+ * and kept for the current file so switching between tables does not scan them again.
  *
  * @author Wolfie / win32kbase
  */
 public class StringTableDisplayMode implements ElfTableDisplayMode<ElfStringTable> {
+	private final Map<ElfStringTable, List<TableGeneric>> rowCache = new ConcurrentHashMap<>();
+
 	@Override
 	public void apply(ElfStringTable stringTable, SizedDataTypeTable table) {
 		table.getColumns().get(ElfExplorerPane.MEMBER_COLUMN_INDEX).setText("Offset");
@@ -21,16 +29,23 @@ public class StringTableDisplayMode implements ElfTableDisplayMode<ElfStringTabl
 			return;
 		}
 
+		table.addRowsAsync(() -> rowCache.computeIfAbsent(stringTable, StringTableDisplayMode::createRows));
+	}
+
+	private static List<TableGeneric> createRows(ElfStringTable stringTable) {
+		List<TableGeneric> rows = new ArrayList<>();
 		// The way the ELF parsing library handles this is weird... the index argument is **not** an index, it's an offset
 		for (int i = 1; i < stringTable.numStrings; ) {
 			String str = stringTable.get(i);
-			table.getItems().add(new TableGeneric(String.format("%08X", i), String.format("%d", str.length()), str));
+			rows.add(new TableGeneric(String.format("%08X", i), String.valueOf(str.length()), str));
 			i += str.length() + 1;
 		}
+		return rows;
 	}
 
 	@Override
 	public void onUpdate(ElfFile elf) {
-		// Not needed in this case
+		// Entries of the prior file's tables are no longer needed
+		rowCache.clear();
 	}
 }
@@ -1,76 +1,42 @@
 package me.coley.recaf.ui.pane.graph;
 
-import com.fxgraph.cells.AbstractCell;
-import com.fxgraph.graph.Graph;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.GridPane;
-import javafx.scene.layout.Region;
-import me.coley.recaf.assemble.analysis.Block;
-import me.coley.recaf.assemble.ast.insn.AbstractInstruction;
+import javafx.scene.shape.Rectangle;
 import me.coley.recaf.ui.control.code.Languages;
 import me.coley.recaf.ui.control.code.SyntaxFlow;
 
-import java.util.concurrent.CompletableFuture;
-
 /**
- * {@link AbstractCell} for a block of bytecode, usually a flow block.
+ * Display of a block of bytecode, usually a flow block, at a fixed size given by the graph layout.
+ * The code is only styled once the cell is created, which only happens when the block is in view.
  *
  * @author Justus Garbe
  */
-public class BlockCell extends AbstractCell {
-	private final String code;
-	private Region graphic;
+public class BlockCell extends BorderPane {
 	final SyntaxFlow area;
 
 	/**
-	 * @param block
-	 * 		Block to represent.
+	 * @param node
+	 * 		Node to represent.
+	 * @param width
+	 * 		Width assigned by the layout.
+	 * @param height
+	 * 		Height assigned by the layout.
 	 */
-	public BlockCell(Block block) {
-		this.code = generateCode(block);
+	public BlockCell(BlockGraph.Node node, double width, double height) {
 		this.area = new SyntaxFlow(Languages.JAVA_BYTECODE);
+		area.setCode(node.getCode());
+		getStyleClass().add("graph-node");
+		// Wrap in borderpane for background
+		BorderPane wrapper = new BorderPane();
+		wrapper.setCenter(area);
+		wrapper.getStyleClass().add("graph-node-text");
+		setCenter(wrapper);
+		// Size is fixed so that edges line up with the layout, regardless of how the text measures
+		setMinSize(width, height);
+		setPrefSize(width, height);
+		setMaxSize(width, height);
+		setClip(new Rectangle(width, height));
+		if (node.isCollapsed())
+			getStyleClass().add("graph-node-collapsed");
 	}
-
-	/**
-	 * @param block
-	 * 		Block to generate representation of.
-	 *
-	 * @return Generated text.
-	 */
-	private static String generateCode(Block block) {
-		StringBuilder sb = new StringBuilder();
-		int i = 0;
-		int size = block.getInstructions().size() - 1;
-		for (AbstractInstruction instruction : block.getInstructions()) {
-			sb.append(instruction.toString());
-			if (i < size)
-				sb.append("\n");
-			i++;
-		}
-		return sb.toString();
-	}
-
-	/**
-	 * @return Delegate to {@link SyntaxFlow#setCode(String)} with {@link #code}.
-	 */
-	public CompletableFuture<Void> setCode() {
-		return area.setCode(code);
-	}
-
-	@Override
-	public Region getGraphic(Graph graph) {
-		if (graphic == null) {
-			GridPane grid = new GridPane();
-			grid.setVgap(5);
-			grid.getStyleClass().add("graph-node");
-			// Wrap in borderpane for background
-			BorderPane wrapper = new BorderPane();
-			wrapper.setCenter(area);
-			wrapper.getStyleClass().add("graph-node-text");
-			// Add to layout
-			grid.addRow(0, wrapper);
-			graphic = grid;
-		}
-		return graphic;
-	}
-}
\ No newline at end of file
+}
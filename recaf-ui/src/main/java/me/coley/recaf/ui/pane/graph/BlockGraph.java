@@ -0,0 +1,256 @@
+package me.coley.recaf.ui.pane.graph;
+
+import me.coley.recaf.assemble.analysis.Block;
+import me.coley.recaf.assemble.analysis.Edge;
+import me.coley.recaf.assemble.ast.insn.AbstractInstruction;
+
+import java.util.*;
+
+/**
+ * Control flow graph of a method's blocks, with the ability to show strongly connected regions,
+ * such as loops, as single nodes.
+ *
+ * @author Matt Coley
+ */
+public class BlockGraph {
+	private static final int MAX_LINES = 500;
+	private final List<Block> blocks;
+	private final int[][] successors;
+	private final int[] components;
+	private final int[] componentSizes;
+
+	/**
+	 * @param blocks
+	 * 		Blocks of the method, the first being the entry block.
+	 */
+	public BlockGraph(Collection<Block> blocks) {
+		this.blocks = new ArrayList<>(blocks);
+		Map<Block, Integer> indices = new IdentityHashMap<>();
+		for (int i = 0; i < this.blocks.size(); i++)
+			indices.put(this.blocks.get(i), i);
+		successors = new int[this.blocks.size()][];
+		for (int i = 0; i < this.blocks.size(); i++) {
+			Block block = this.blocks.get(i);
+			int[] targets = new int[block.getEdges().size()];
+			int count = 0;
+			for (Edge edge : block.getEdges()) {
+				// Edges are shared between both blocks, and blocks outside the graph may have been removed
+				Integer target = indices.get(edge.getTo());
+				if (edge.getFrom() == block && target != null)
+					targets[count++] = target;
+			}
+			successors[i] = Arrays.copyOf(targets, count);
+		}
+		components = new int[this.blocks.size()];
+		componentSizes = findComponents();
+	}
+
+	/**
+	 * @return Number of blocks.
+	 */
+	public int size() {
+		return blocks.size();
+	}
+
+	/**
+	 * @return Number of strongly connected regions of more than one block.
+	 */
+	public int getCollapsibleCount() {
+		int count = 0;
+		for (int component = 0; component < componentSizes.length; component++)
+			if (isCollapsible(component))
+				count++;
+		return count;
+	}
+
+	/**
+	 * @param collapse
+	 * 		Whether to show strongly connected regions as single nodes.
+	 * @param expanded
+	 * 		Regions to show as individual blocks even when collapsing.
+	 *
+	 * @return Nodes to display.
+	 */
+	public List<Node> createNodes(boolean collapse, Set<Integer> expanded) {
+		int[] nodeOfBlock = new int[blocks.size()];
+		int[] nodeOfComponent = new int[componentSizes.length];
+		Arrays.fill(nodeOfComponent, -1);
+		List<Node> nodes = new ArrayList<>();
+		for (int i = 0; i < blocks.size(); i++) {
+			int component = components[i];
+			boolean collapsed = collapse && isCollapsible(component) && !expanded.contains(component);
+			if (collapsed && nodeOfComponent[component] >= 0) {
+				nodeOfBlock[i] = nodeOfComponent[component];
+				nodes.get(nodeOfBlock[i]).blockCount++;
+				continue;
+			}
+			Node node = new Node(nodes.size(), collapsed ? component : -1, i);
+			nodeOfBlock[i] = node.index;
+			if (collapsed)
+				nodeOfComponent[component] = node.index;
+			nodes.add(node);
+		}
+		// Edges between nodes, dropping duplicates and edges within a collapsed region
+		List<Set<Integer>> targets = new ArrayList<>(nodes.size());
+		for (int i = 0; i < nodes.size(); i++)
+			targets.add(new LinkedHashSet<>());
+		int[] instructions = new int[componentSizes.length];
+		for (int i = 0; i < blocks.size(); i++) {
+			int nodeIndex = nodeOfBlock[i];
+			boolean collapsed = nodes.get(nodeIndex).isCollapsed();
+			for (int target : successors[i]) {
+				int targetNode = nodeOfBlock[target];
+				if (targetNode != nodeIndex || !collapsed)
+					targets.get(nodeIndex).add(targetNode);
+			}
+			instructions[components[i]] += blocks.get(i).getInstructions().size();
+		}
+		for (Node node : nodes) {
+			node.successors = targets.get(node.index).stream().mapToInt(Integer::intValue).toArray();
+			Block first = blocks.get(node.firstBlock);
+			if (node.isCollapsed())
+				node.code = "// Loop of " + node.blockCount + " blocks, " + instructions[node.component] +
+						" instructions\n// Double click to expand\n" + generateCode(first);
+			else
+				node.code = generateCode(first);
+		}
+		return nodes;
+	}
+
+	private boolean isCollapsible(int component) {
+		return componentSizes[component] > 1;
+	}
+
+	/**
+	 * Finds strongly connected components with an iterative form of Tarjan's algorithm,
+	 * so that very large methods do not overflow the stack.
+	 *
+	 * @return Size of each component.
+	 */
+	private int[] findComponents() {
+		int count = blocks.size();
+		int[] index = new int[count];
+		int[] lowLink = new int[count];
+		int[] edgeIndex = new int[count];
+		boolean[] onStack = new boolean[count];
+		Arrays.fill(index, -1);
+		Deque<Integer> stack = new ArrayDeque<>();
+		Deque<Integer> callStack = new ArrayDeque<>();
+		List<Integer> sizes = new ArrayList<>();
+		int nextIndex = 0;
+		for (int start = 0; start < count; start++) {
+			if (index[start] >= 0)
+				continue;
+			callStack.push(start);
+			while (!callStack.isEmpty()) {
+				int node = callStack.peek();
+				if (index[node] < 0) {
+					index[node] = lowLink[node] = nextIndex++;
+					stack.push(node);
+					onStack[node] = true;
+				}
+				int[] targets = successors[node];
+				if (edgeIndex[node] < targets.length) {
+					int target = targets[edgeIndex[node]++];
+					if (index[target] < 0)
+						callStack.push(target);
+					else if (onStack[target])
+						lowLink[node] = Math.min(lowLink[node], index[target]);
+					continue;
+				}
+				callStack.pop();
+				if (!callStack.isEmpty()) {
+					int parent = callStack.peek();
+					lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+				}
+				if (lowLink[node] == index[node]) {
+					int component = sizes.size();
+					int size = 0;
+					int member;
+					do {
+						member = stack.pop();
+						onStack[member] = false;
+						components[member] = component;
+						size++;
+					} while (member != node);
+					sizes.add(size);
+				}
+			}
+		}
+		return sizes.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * @param block
+	 * 		Block to generate representation of.
+	 *
+	 * @return Generated text.
+	 */
+	private static String generateCode(Block block) {
+		StringBuilder sb = new StringBuilder();
+		List<AbstractInstruction> instructions = block.getInstructions();
+		// Huge blocks are cut short, as the graph is meant to give an overview of the flow
+		int shown = Math.min(instructions.size(), MAX_LINES);
+		for (int i = 0; i < shown; i++) {
+			sb.append(instructions.get(i).toString());
+			if (i < shown - 1)
+				sb.append("\n");
+		}
+		if (shown < instructions.size())
+			sb.append("\n// ").append(instructions.size() - shown).append(" more instructions");
+		return sb.toString();
+	}
+
+	/**
+	 * Node to display, either a single block or a collapsed region of blocks.
+	 */
+	public static class Node {
+		private final int index;
+		private final int component;
+		private final int firstBlock;
+		private int blockCount = 1;
+		private int[] successors;
+		private String code;
+
+		private Node(int index, int component, int firstBlock) {
+			this.index = index;
+			this.component = component;
+			this.firstBlock = firstBlock;
+		}
+
+		/**
+		 * @return Index of the node in the list of displayed nodes.
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * @return Region represented by the node, or {@code -1} for a single block.
+		 */
+		public int getComponent() {
+			return component;
+		}
+
+		/**
+		 * @return {@code true} when the node represents a collapsed region of blocks.
+		 */
+		public boolean isCollapsed() {
+			return component >= 0;
+		}
+
+		/**
+		 * @return Indices of the nodes this node flows into.
+		 */
+		public int[] getSuccessors() {
+			return successors;
+		}
+
+		/**
+		 * @return Text to display.
+		 */
+		public String getCode() {
+			return code;
+		}
+	}
+}
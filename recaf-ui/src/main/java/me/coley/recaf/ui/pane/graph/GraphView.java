@@ -0,0 +1,321 @@
+package me.coley.recaf.ui.pane.graph;
+
+import javafx.geometry.Point2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Pannable and zoomable display of a laid out {@link BlockGraph}.
+ * <br>
+ * Only blocks inside the viewport get a {@link BlockCell}, found by searching the rows of the layout, so the cost
+ * of panning depends on how much is visible rather than the size of the graph. Edges are drawn on a canvas the size
+ * of the viewport. When zoomed out far enough that cells would be unreadable, or too many would be visible,
+ * blocks are drawn as outlines on the canvas instead.
+ *
+ * @author Matt Coley
+ */
+public class GraphView extends Region {
+	static final double HORIZONTAL_GAP = 40;
+	static final double VERTICAL_GAP = 60;
+	private static final double MIN_SCALE = 0.01;
+	private static final double MAX_SCALE = 4;
+	private static final double MIN_CELL_SCALE = 0.2;
+	private static final int MAX_CELLS = 300;
+	private static final int MAX_CACHED_CELLS = 500;
+	private static final Color EDGE_COLOR = Color.rgb(160, 160, 170);
+	private static final Color BACK_EDGE_COLOR = Color.rgb(255, 160, 90);
+	private static final Color OUTLINE_COLOR = Color.rgb(25, 55, 80);
+	private static final Color COLLAPSED_OUTLINE_COLOR = Color.rgb(120, 60, 80);
+	private final Canvas canvas = new Canvas();
+	private final Pane content = new Pane();
+	private final Translate translate = new Translate();
+	private final Scale scale = new Scale(1, 1, 0, 0);
+	private final Map<Integer, BlockCell> cells = new HashMap<>();
+	private final Map<Integer, BlockCell> cellCache = new LinkedHashMap<>(16, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, BlockCell> eldest) {
+			return size() > MAX_CACHED_CELLS;
+		}
+	};
+	private List<BlockGraph.Node> nodes = Collections.emptyList();
+	private LayeredGraphLayout layout;
+	private double[] widths = new double[0];
+	private double[] heights = new double[0];
+	private IntConsumer onExpand;
+	private double dragX;
+	private double dragY;
+
+	/**
+	 * New empty view.
+	 */
+	public GraphView() {
+		content.setManaged(false);
+		content.getTransforms().addAll(translate, scale);
+		getChildren().addAll(canvas, content);
+		Rectangle clip = new Rectangle();
+		clip.widthProperty().bind(widthProperty());
+		clip.heightProperty().bind(heightProperty());
+		setClip(clip);
+		addEventFilter(MouseEvent.MOUSE_PRESSED, e -> {
+			dragX = e.getX();
+			dragY = e.getY();
+		});
+		addEventFilter(MouseEvent.MOUSE_DRAGGED, e -> {
+			if (e.getButton() != MouseButton.PRIMARY && e.getButton() != MouseButton.SECONDARY)
+				return;
+			translate.setX(translate.getX() + e.getX() - dragX);
+			translate.setY(translate.getY() + e.getY() - dragY);
+			dragX = e.getX();
+			dragY = e.getY();
+			requestLayout();
+		});
+		addEventHandler(ScrollEvent.SCROLL, this::onScroll);
+		addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
+			if (e.getClickCount() != 2 || onExpand == null)
+				return;
+			int node = nodeAt(toGraph(e.getX(), e.getY()));
+			if (node >= 0 && nodes.get(node).isCollapsed())
+				onExpand.accept(nodes.get(node).getComponent());
+		});
+	}
+
+	/**
+	 * @param onExpand
+	 * 		Action to run with the region of a collapsed node when it is double-clicked.
+	 */
+	public void setOnExpand(IntConsumer onExpand) {
+		this.onExpand = onExpand;
+	}
+
+	/**
+	 * Displays a graph.
+	 *
+	 * @param nodes
+	 * 		Nodes to display.
+	 * @param layout
+	 * 		Computed layout of the nodes.
+	 * @param widths
+	 * 		Width of each node.
+	 * @param heights
+	 * 		Height of each node.
+	 * @param center
+	 * 		Whether to move the view to the entry node, or keep the current position.
+	 */
+	public void setGraph(List<BlockGraph.Node> nodes, LayeredGraphLayout layout, double[] widths, double[] heights,
+						 boolean center) {
+		this.nodes = nodes;
+		this.layout = layout;
+		this.widths = widths;
+		this.heights = heights;
+		cells.clear();
+		cellCache.clear();
+		content.getChildren().clear();
+		if (center && !nodes.isEmpty()) {
+			double s = scale.getX();
+			translate.setX(getWidth() / 2 - (layout.getX(0) + widths[0] / 2) * s);
+			translate.setY(VERTICAL_GAP / 2 - layout.getY(0) * s);
+		}
+		requestLayout();
+	}
+
+	@Override
+	protected void layoutChildren() {
+		canvas.setWidth(getWidth());
+		canvas.setHeight(getHeight());
+		refresh();
+	}
+
+	private void onScroll(ScrollEvent e) {
+		double old = scale.getX();
+		double factor = e.getDeltaY() > 0 ? 1.1 : e.getDeltaY() < 0 ? 1 / 1.1 : 1;
+		double updated = Math.max(MIN_SCALE, Math.min(MAX_SCALE, old * factor));
+		// Zoom around the cursor
+		translate.setX(e.getX() - (e.getX() - translate.getX()) * (updated / old));
+		translate.setY(e.getY() - (e.getY() - translate.getY()) * (updated / old));
+		scale.setX(updated);
+		scale.setY(updated);
+		requestLayout();
+		e.consume();
+	}
+
+	private Point2D toGraph(double x, double y) {
+		double s = scale.getX();
+		return new Point2D((x - translate.getX()) / s, (y - translate.getY()) / s);
+	}
+
+	private void refresh() {
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		gc.setTransform(1, 0, 0, 1, 0, 0);
+		gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		if (layout == null)
+			return;
+		double s = scale.getX();
+		Point2D min = toGraph(0, 0);
+		Point2D max = toGraph(getWidth(), getHeight());
+		List<Integer> visible = findVisible(min.getX(), min.getY(), max.getX(), max.getY());
+		boolean outlines = s < MIN_CELL_SCALE || visible.size() > MAX_CELLS;
+		updateCells(outlines ? Collections.emptyList() : visible);
+		gc.setTransform(s, 0, 0, s, translate.getX(), translate.getY());
+		drawEdges(gc, min, max, s);
+		if (outlines) {
+			for (int node : visible) {
+				gc.setFill(nodes.get(node).isCollapsed() ? COLLAPSED_OUTLINE_COLOR : OUTLINE_COLOR);
+				gc.fillRect(layout.getX(node), layout.getY(node), widths[node], heights[node]);
+			}
+		}
+	}
+
+	private void updateCells(List<Integer> visible) {
+		Set<Integer> keep = new HashSet<>(visible);
+		Iterator<Map.Entry<Integer, BlockCell>> it = cells.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Integer, BlockCell> entry = it.next();
+			if (!keep.contains(entry.getKey())) {
+				content.getChildren().remove(entry.getValue());
+				cellCache.put(entry.getKey(), entry.getValue());
+				it.remove();
+			}
+		}
+		for (int node : visible) {
+			if (cells.containsKey(node))
+				continue;
+			BlockCell cell = cellCache.remove(node);
+			if (cell == null) {
+				cell = new BlockCell(nodes.get(node), widths[node], heights[node]);
+				cell.relocate(layout.getX(node), layout.getY(node));
+			}
+			cells.put(node, cell);
+			content.getChildren().add(cell);
+		}
+	}
+
+	/**
+	 * @return Nodes intersecting the given area, found by searching the rows of the layout.
+	 */
+	private List<Integer> findVisible(double minX, double minY, double maxX, double maxY) {
+		List<Integer> visible = new ArrayList<>();
+		int[][] rows = layout.getRows();
+		for (int r = firstRowBelow(minY); r < rows.length; r++) {
+			double rowY = layout.getRowY(r);
+			if (rowY > maxY)
+				break;
+			int[] row = rows[r];
+			// Nodes in a row do not overlap and are ordered left to right, so their right edges are sorted too
+			int low = 0;
+			int high = row.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (layout.getX(row[mid]) + widths[row[mid]] < minX)
+					low = mid + 1;
+				else
+					high = mid;
+			}
+			for (int i = low; i < row.length && layout.getX(row[i]) <= maxX; i++) {
+				int node = row[i];
+				if (rowY + heights[node] >= minY)
+					visible.add(node);
+			}
+		}
+		return visible;
+	}
+
+	private int firstRowBelow(double y) {
+		int low = 0;
+		int high = layout.getRows().length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (layout.getRowY(mid) + layout.getRowHeight(mid) < y)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	private int nodeAt(Point2D point) {
+		List<Integer> hits = findVisible(point.getX(), point.getY(), point.getX(), point.getY());
+		return hits.isEmpty() ? -1 : hits.get(0);
+	}
+
+	private void drawEdges(GraphicsContext gc, Point2D min, Point2D max, double s) {
+		gc.setLineWidth(1.5 / s);
+		double[] xs = new double[6];
+		double[] ys = new double[6];
+		for (BlockGraph.Node node : nodes) {
+			int from = node.getIndex();
+			for (int to : node.getSuccessors()) {
+				int points = route(from, to, xs, ys);
+				double minEdgeX = Double.MAX_VALUE, maxEdgeX = -Double.MAX_VALUE;
+				double minEdgeY = Double.MAX_VALUE, maxEdgeY = -Double.MAX_VALUE;
+				for (int i = 0; i < points; i++) {
+					minEdgeX = Math.min(minEdgeX, xs[i]);
+					maxEdgeX = Math.max(maxEdgeX, xs[i]);
+					minEdgeY = Math.min(minEdgeY, ys[i]);
+					maxEdgeY = Math.max(maxEdgeY, ys[i]);
+				}
+				if (maxEdgeX < min.getX() || minEdgeX > max.getX() || maxEdgeY < min.getY() || minEdgeY > max.getY())
+					continue;
+				boolean back = layout.getLayer(to) <= layout.getLayer(from);
+				gc.setStroke(back ? BACK_EDGE_COLOR : EDGE_COLOR);
+				gc.setFill(back ? BACK_EDGE_COLOR : EDGE_COLOR);
+				gc.strokePolyline(xs, ys, points);
+				// Arrow head at the target
+				double tipX = xs[points - 1];
+				double tipY = ys[points - 1];
+				gc.fillPolygon(new double[]{tipX - 5, tipX + 5, tipX}, new double[]{tipY - 8, tipY - 8, tipY}, 3);
+			}
+		}
+	}
+
+	/**
+	 * Computes the path of an edge. Edges going down leave the bottom of the source and turn in the gap below the
+	 * source's row. Edges going up or sideways, such as loops, go around the right of both nodes.
+	 *
+	 * @return Number of points in the path.
+	 */
+	private int route(int from, int to, double[] xs, double[] ys) {
+		double startX = layout.getX(from) + widths[from] / 2;
+		double startY = layout.getY(from) + heights[from];
+		double endX = layout.getX(to) + widths[to] / 2;
+		double endY = layout.getY(to);
+		int fromRow = layout.getLayer(from);
+		if (layout.getLayer(to) > fromRow) {
+			double turnY = layout.getRowY(fromRow) + layout.getRowHeight(fromRow) + VERTICAL_GAP / 2;
+			xs[0] = startX;
+			ys[0] = startY;
+			xs[1] = startX;
+			ys[1] = turnY;
+			xs[2] = endX;
+			ys[2] = turnY;
+			xs[3] = endX;
+			ys[3] = endY;
+			return 4;
+		}
+		double sideX = Math.max(layout.getX(from) + widths[from], layout.getX(to) + widths[to]) + HORIZONTAL_GAP / 2;
+		xs[0] = startX;
+		ys[0] = startY;
+		xs[1] = startX;
+		ys[1] = startY + VERTICAL_GAP / 4;
+		xs[2] = sideX;
+		ys[2] = startY + VERTICAL_GAP / 4;
+		xs[3] = sideX;
+		ys[3] = endY - VERTICAL_GAP / 4;
+		xs[4] = endX;
+		ys[4] = endY - VERTICAL_GAP / 4;
+		xs[5] = endX;
+		ys[5] = endY;
+		return 6;
+	}
+}
@@ -0,0 +1,366 @@
+package me.coley.recaf.ui.pane.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Layered layout of a directed graph that may contain cycles, placing nodes in rows so that most edges point down.
+ * <br>
+ * Cycles are broken by ignoring the edges that point back to a node currently being visited by a depth first
+ * search from the entry node. The remaining edges are acyclic, and each node is placed one row below the lowest
+ * of its predecessors. Nodes within each row are ordered to reduce crossings with a few sweeps of the barycenter
+ * heuristic, and then placed as close to the center of their predecessors as the other nodes in the row allow.
+ * <br>
+ * All steps run in time close to linear in the size of the graph, and check for interruption between steps,
+ * so layouts of graphs with thousands of nodes can be computed and cancelled on a background thread.
+ *
+ * @author Matt Coley
+ */
+public class LayeredGraphLayout {
+	private static final int ORDERING_SWEEPS = 4;
+	private final double[] widths;
+	private final double[] heights;
+	private final int[][] successors;
+	private final double horizontalGap;
+	private final double verticalGap;
+	private final double[] x;
+	private final double[] y;
+	private final int[] layers;
+	private int[][] rows;
+	private double[] rowHeights;
+	private double width;
+	private double height;
+
+	/**
+	 * @param widths
+	 * 		Width of each node.
+	 * @param heights
+	 * 		Height of each node.
+	 * @param successors
+	 * 		Indices of the nodes each node has an edge to. Node {@code 0} is the entry of the graph.
+	 * @param horizontalGap
+	 * 		Space between nodes in the same row.
+	 * @param verticalGap
+	 * 		Space between rows.
+	 */
+	public LayeredGraphLayout(double[] widths, double[] heights, int[][] successors,
+							  double horizontalGap, double verticalGap) {
+		this.widths = widths;
+		this.heights = heights;
+		this.successors = successors;
+		this.horizontalGap = horizontalGap;
+		this.verticalGap = verticalGap;
+		int count = widths.length;
+		x = new double[count];
+		y = new double[count];
+		layers = new int[count];
+	}
+
+	/**
+	 * Computes the layout.
+	 *
+	 * @throws InterruptedException
+	 * 		When the thread is interrupted.
+	 */
+	public void compute() throws InterruptedException {
+		int count = widths.length;
+		if (count == 0) {
+			rows = new int[0][];
+			rowHeights = new double[0];
+			return;
+		}
+		int[] order = new int[count];
+		boolean[][] backEdges = new boolean[count][];
+		depthFirstOrder(order, backEdges);
+		checkInterrupt();
+		int[][] predecessors = predecessors(backEdges);
+		assignLayers(order, predecessors);
+		checkInterrupt();
+		buildRows(order);
+		int[][] forwardSuccessors = successorsWithoutBackEdges(backEdges);
+		for (int i = 0; i < ORDERING_SWEEPS; i++) {
+			sweep(predecessors, true);
+			sweep(forwardSuccessors, false);
+			checkInterrupt();
+		}
+		assignCoordinates(predecessors);
+	}
+
+	/**
+	 * @param node
+	 * 		Node index.
+	 *
+	 * @return Left edge of the node.
+	 */
+	public double getX(int node) {
+		return x[node];
+	}
+
+	/**
+	 * @param node
+	 * 		Node index.
+	 *
+	 * @return Top edge of the node.
+	 */
+	public double getY(int node) {
+		return y[node];
+	}
+
+	/**
+	 * @param node
+	 * 		Node index.
+	 *
+	 * @return Row of the node, starting at {@code 0} for the entry.
+	 */
+	public int getLayer(int node) {
+		return layers[node];
+	}
+
+	/**
+	 * @return Nodes of each row, ordered left to right.
+	 */
+	public int[][] getRows() {
+		return rows;
+	}
+
+	/**
+	 * @param row
+	 * 		Row index.
+	 *
+	 * @return Top edge of the row.
+	 */
+	public double getRowY(int row) {
+		return rows[row].length == 0 ? 0 : y[rows[row][0]];
+	}
+
+	/**
+	 * @param row
+	 * 		Row index.
+	 *
+	 * @return Height of the tallest node in the row.
+	 */
+	public double getRowHeight(int row) {
+		return rowHeights[row];
+	}
+
+	/**
+	 * @return Width of the laid out graph.
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return Height of the laid out graph.
+	 */
+	public double getHeight() {
+		return height;
+	}
+
+	/**
+	 * Visits nodes depth first from the entry, and then from any node not yet reached.
+	 * Records the reverse post-order, which is a topological order once back edges are ignored.
+	 */
+	private void depthFirstOrder(int[] order, boolean[][] backEdges) {
+		int count = widths.length;
+		byte[] state = new byte[count]; // 0 = unvisited, 1 = on stack, 2 = done
+		int[] edgeIndex = new int[count];
+		int position = count;
+		Deque<Integer> stack = new ArrayDeque<>();
+		for (int start = 0; start < count; start++) {
+			if (state[start] != 0)
+				continue;
+			stack.push(start);
+			state[start] = 1;
+			while (!stack.isEmpty()) {
+				int node = stack.peek();
+				int[] targets = successors[node];
+				if (edgeIndex[node] < targets.length) {
+					int edge = edgeIndex[node]++;
+					int target = targets[edge];
+					if (state[target] == 0) {
+						state[target] = 1;
+						stack.push(target);
+					} else if (state[target] == 1) {
+						if (backEdges[node] == null)
+							backEdges[node] = new boolean[targets.length];
+						backEdges[node][edge] = true;
+					}
+				} else {
+					stack.pop();
+					state[node] = 2;
+					order[--position] = node;
+				}
+			}
+		}
+	}
+
+	private int[][] predecessors(boolean[][] backEdges) {
+		int count = widths.length;
+		int[] sizes = new int[count];
+		forEachForwardEdge(backEdges, (from, to) -> sizes[to]++);
+		int[][] predecessors = new int[count][];
+		for (int i = 0; i < count; i++)
+			predecessors[i] = new int[sizes[i]];
+		Arrays.fill(sizes, 0);
+		forEachForwardEdge(backEdges, (from, to) -> predecessors[to][sizes[to]++] = from);
+		return predecessors;
+	}
+
+	private int[][] successorsWithoutBackEdges(boolean[][] backEdges) {
+		int count = widths.length;
+		int[][] forward = new int[count][];
+		for (int i = 0; i < count; i++) {
+			if (backEdges[i] == null) {
+				forward[i] = successors[i];
+				continue;
+			}
+			int size = 0;
+			for (boolean back : backEdges[i])
+				if (!back)
+					size++;
+			forward[i] = new int[size];
+			size = 0;
+			for (int e = 0; e < successors[i].length; e++)
+				if (!backEdges[i][e])
+					forward[i][size++] = successors[i][e];
+		}
+		return forward;
+	}
+
+	private void forEachForwardEdge(boolean[][] backEdges, EdgeConsumer consumer) {
+		for (int from = 0; from < successors.length; from++) {
+			int[] targets = successors[from];
+			for (int e = 0; e < targets.length; e++)
+				if ((backEdges[from] == null || !backEdges[from][e]) && targets[e] != from)
+					consumer.accept(from, targets[e]);
+		}
+	}
+
+	private void assignLayers(int[] order, int[][] predecessors) {
+		// Order is topological for the remaining edges, so all predecessors are placed before a node
+		for (int node : order) {
+			int layer = 0;
+			for (int predecessor : predecessors[node])
+				layer = Math.max(layer, layers[predecessor] + 1);
+			layers[node] = layer;
+		}
+	}
+
+	private void buildRows(int[] order) {
+		int rowCount = 0;
+		for (int layer : layers)
+			rowCount = Math.max(rowCount, layer + 1);
+		int[] sizes = new int[rowCount];
+		for (int layer : layers)
+			sizes[layer]++;
+		rows = new int[rowCount][];
+		for (int i = 0; i < rowCount; i++)
+			rows[i] = new int[sizes[i]];
+		Arrays.fill(sizes, 0);
+		// Initial order within a row follows the traversal, which keeps fall-through code close together
+		for (int node : order)
+			rows[layers[node]][sizes[layers[node]]++] = node;
+	}
+
+	/**
+	 * Reorders each row by the average position of each node's neighbors in other rows.
+	 *
+	 * @param neighbors
+	 * 		Predecessors when sweeping down, successors when sweeping up.
+	 * @param down
+	 * 		Sweep direction.
+	 */
+	private void sweep(int[][] neighbors, boolean down) {
+		int count = widths.length;
+		double[] position = new double[count];
+		// Positions are relative to the size of their row, so neighbors in rows of any size can be compared
+		for (int[] row : rows)
+			for (int i = 0; i < row.length; i++)
+				position[row[i]] = (i + 0.5) / row.length;
+		double[] keys = new double[count];
+		for (int r = 0; r < rows.length; r++) {
+			int[] row = rows[down ? r : rows.length - 1 - r];
+			for (int node : row) {
+				int[] adjacent = neighbors[node];
+				if (adjacent.length == 0) {
+					keys[node] = position[node];
+					continue;
+				}
+				double sum = 0;
+				for (int neighbor : adjacent)
+					sum += position[neighbor];
+				keys[node] = sum / adjacent.length;
+			}
+			sortByKey(row, keys);
+			for (int i = 0; i < row.length; i++)
+				position[row[i]] = (i + 0.5) / row.length;
+		}
+	}
+
+	private static void sortByKey(int[] row, double[] keys) {
+		Integer[] boxed = new Integer[row.length];
+		for (int i = 0; i < row.length; i++)
+			boxed[i] = row[i];
+		// Stable sort, so nodes with equal keys keep their prior order
+		Arrays.sort(boxed, (a, b) -> Double.compare(keys[a], keys[b]));
+		for (int i = 0; i < row.length; i++)
+			row[i] = boxed[i];
+	}
+
+	private void assignCoordinates(int[][] predecessors) {
+		rowHeights = new double[rows.length];
+		double rowY = 0;
+		double minX = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		for (int r = 0; r < rows.length; r++) {
+			int[] row = rows[r];
+			double rowHeight = 0;
+			for (int node : row)
+				rowHeight = Math.max(rowHeight, heights[node]);
+			rowHeights[r] = rowHeight;
+			// Place nodes left to right, as close to the center of their predecessors as possible
+			double[] desired = new double[row.length];
+			double previousRight = -Double.MAX_VALUE;
+			double totalShift = 0;
+			for (int i = 0; i < row.length; i++) {
+				int node = row[i];
+				int[] adjacent = predecessors[node];
+				double center = 0;
+				if (adjacent.length > 0) {
+					for (int predecessor : adjacent)
+						center += x[predecessor] + widths[predecessor] / 2;
+					center /= adjacent.length;
+				}
+				desired[i] = center - widths[node] / 2;
+				double placed = Math.max(desired[i], previousRight + horizontalGap);
+				x[node] = placed;
+				previousRight = placed + widths[node];
+				totalShift += placed - desired[i];
+			}
+			// Pushing nodes apart only moves them right, so shift the row back by the average displacement
+			double shift = row.length == 0 ? 0 : totalShift / row.length;
+			for (int node : row) {
+				x[node] -= shift;
+				y[node] = rowY;
+				minX = Math.min(minX, x[node]);
+				maxX = Math.max(maxX, x[node] + widths[node]);
+			}
+			rowY += rowHeight + verticalGap;
+		}
+		for (int i = 0; i < x.length; i++)
+			x[i] -= minX;
+		width = maxX - minX;
+		height = Math.max(0, rowY - verticalGap);
+	}
+
+	private static void checkInterrupt() throws InterruptedException {
+		if (Thread.currentThread().isInterrupted())
+			throw new InterruptedException();
+	}
+
+	private interface EdgeConsumer {
+		void accept(int from, int to);
+	}
+}
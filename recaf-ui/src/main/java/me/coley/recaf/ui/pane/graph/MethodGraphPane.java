@@ -1,28 +1,28 @@
 package me.coley.recaf.ui.pane.graph;
 
-import com.fxgraph.edges.DoubleCorneredEdge;
-import com.fxgraph.graph.Graph;
-import com.fxgraph.graph.Model;
-import com.fxgraph.layout.AbegoTreeLayout;
-import javafx.geometry.Orientation;
+import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
 import javafx.scene.Node;
-import javafx.scene.input.MouseButton;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
 import me.coley.recaf.assemble.AstException;
 import me.coley.recaf.assemble.analysis.Analysis;
 import me.coley.recaf.assemble.analysis.Analyzer;
 import me.coley.recaf.assemble.analysis.Block;
-import me.coley.recaf.assemble.analysis.Edge;
 import me.coley.recaf.assemble.ast.Unit;
 import me.coley.recaf.assemble.ast.arch.MethodDefinition;
-import me.coley.recaf.assemble.ast.meta.Label;
 import me.coley.recaf.assemble.transformer.BytecodeToAstTransformer;
 import me.coley.recaf.code.*;
 import me.coley.recaf.ui.behavior.MemberEditor;
 import me.coley.recaf.ui.behavior.SaveResult;
+import me.coley.recaf.ui.util.Lang;
 import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
 import me.coley.recaf.util.visitor.SingleMemberVisitor;
-import org.abego.treelayout.Configuration;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.MethodNode;
@@ -30,7 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 /**
  * Display for a control flow graph of a method.
@@ -39,11 +39,21 @@ import java.util.concurrent.CompletableFuture;
  */
 public class MethodGraphPane extends BorderPane implements MemberEditor {
 	private final static Logger logger = LoggerFactory.getLogger(MethodGraphPane.class);
+	// Above this many blocks, strongly connected regions start out collapsed
+	private static final int AUTO_COLLAPSE_BLOCKS = 1000;
+	// Padding of the node and its text, see 'graph.css'
+	private static final double CELL_PADDING = 28;
+	private final GraphView view = new GraphView();
+	private final CheckBox collapse = new CheckBox();
+	private final Label status = new Label();
+	private final Set<Integer> expanded = new HashSet<>();
+	private final double charWidth;
+	private final double lineHeight;
 	private MethodInfo method;
 	private ClassInfo declaring;
-	private final Graph graph = new Graph();
-
-
+	private BlockGraph blockGraph;
+	private Future<?> pending;
+	private int generation;
 
 	/**
 	 * @param declaring
@@ -54,10 +64,25 @@ public class MethodGraphPane extends BorderPane implements MemberEditor {
 	public MethodGraphPane(ClassInfo declaring, MethodInfo method) {
 		this.declaring = declaring;
 		this.method = method;
-		graph.getNodeGestures().setDragButton(MouseButton.SECONDARY);
-		graph.getViewportGestures().setPanButton(MouseButton.PRIMARY);
-		graph.getViewportGestures().setZoomBounds(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
-		setCenter(graph.getCanvas());
+		// Block text is monospace, so its size can be computed off the FX thread from the size of one character
+		Text sample = new Text("0");
+		sample.setFont(Font.font("monospace", Font.getDefault().getSize()));
+		Bounds bounds = sample.getLayoutBounds();
+		charWidth = bounds.getWidth();
+		lineHeight = bounds.getHeight() + 1;
+		view.setOnExpand(component -> {
+			expanded.add(component);
+			layoutGraph(false);
+		});
+		collapse.textProperty().bind(Lang.getBinding("graph.collapse"));
+		collapse.setOnAction(e -> {
+			expanded.clear();
+			layoutGraph(false);
+		});
+		HBox bar = new HBox(10, collapse, status);
+		bar.setPadding(new Insets(4));
+		setCenter(view);
+		setBottom(bar);
 		updateGraph();
 	}
 
@@ -98,67 +123,119 @@ public class MethodGraphPane extends BorderPane implements MemberEditor {
 			logger.error("No target method defined, cannot generate graph pane content");
 			return;
 		}
-		// Get control flow graph
-		TreeMap<Integer, Block> blocks;
-		try {
-			blocks = generate();
-		} catch (AstException e) {
-			logger.error("Error analyzing method control flow blocks", e);
+		int current = ++generation;
+		status.textProperty().bind(Lang.getBinding("graph.loading"));
+		cancelPending();
+		pending = ThreadUtil.executor().submit(() -> {
+			try {
+				// Get control flow graph
+				TreeMap<Integer, Block> blocks = generate();
+				// Remove last block if it is just one label instruction
+				if (blocks.size() > 0) {
+					Block last = blocks.get(blocks.lastKey());
+					if (last.getInstructions().size() == 1 &&
+							last.getInstructions().get(0) instanceof me.coley.recaf.assemble.ast.meta.Label)
+						blocks.remove(blocks.lastKey());
+				}
+				BlockGraph graph = new BlockGraph(blocks.values());
+				if (Thread.currentThread().isInterrupted())
+					return;
+				FxThreadUtil.run(() -> {
+					if (current != generation)
+						return;
+					blockGraph = graph;
+					expanded.clear();
+					collapse.setSelected(graph.size() > AUTO_COLLAPSE_BLOCKS);
+					collapse.setDisable(graph.getCollapsibleCount() == 0);
+					layoutGraph(true);
+				});
+			} catch (Throwable t) {
+				onFailure(current, "Error analyzing method control flow blocks", t);
+			}
+		});
+	}
+
+	/**
+	 * Computes the layout of the current graph in the background, and displays it when done.
+	 *
+	 * @param center
+	 * 		Whether to center the view on the entry block once displayed.
+	 */
+	private void layoutGraph(boolean center) {
+		BlockGraph graph = blockGraph;
+		if (graph == null)
 			return;
-		}
-		// Remove last block if it is just one label instruction
-		if (blocks.size() > 0) {
-			Block last = blocks.get(blocks.lastKey());
-			if (last.getInstructions().size() == 1 && last.getInstructions().get(0) instanceof Label)
-				blocks.remove(blocks.lastKey());
-		}
-		// Create graph model
-		Model model = graph.getModel();
-		model.clear();
-		graph.beginUpdate();
-		// Create cells
-		List<CompletableFuture<Void>> futures = new ArrayList<>();
-		Map<Block, BlockCell> blockCells = new HashMap<>();
-		for (var block : blocks.entrySet()) {
-			BlockCell cell = new BlockCell(block.getValue());
-			futures.add(cell.setCode());
-			blockCells.put(block.getValue(), cell);
-			model.addCell(cell);
-		}
-		// When all cells are generated, create the edges between them.
-		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenRun(() -> {
-			Block root = blocks.get(0);
-			// Create edges
-			visitEdge(blockCells, new HashSet<>(), root);
-			graph.endUpdate();
-			BlockCell rootCell = (BlockCell) model.getAllCells().get(0);
-			// Layout the cells in a tree pattern
-			FxThreadUtil.run(() -> {
-				graph.layout(new AbegoTreeLayout(100, 100, Configuration.Location.Bottom));
-				// Looks silly, but does work to center the screen on the root cell
-				FxThreadUtil.run(() -> graph.getCanvas().setPivot(
-						rootCell.getGraphic(graph).getLayoutX() - graph.getCanvas().getWidth() / 2,
-						rootCell.getGraphic(graph).getLayoutY() - graph.getCanvas().getHeight() / 2
-				));
-			});
+		int current = ++generation;
+		boolean collapsed = collapse.isSelected();
+		Set<Integer> expandedCopy = new HashSet<>(expanded);
+		cancelPending();
+		pending = ThreadUtil.executor().submit(() -> {
+			try {
+				List<BlockGraph.Node> nodes = graph.createNodes(collapsed, expandedCopy);
+				double[] widths = new double[nodes.size()];
+				double[] heights = new double[nodes.size()];
+				int[][] successors = new int[nodes.size()][];
+				for (BlockGraph.Node node : nodes) {
+					int i = node.getIndex();
+					String code = node.getCode();
+					int lines = 1;
+					int columns = 0;
+					int lineStart = 0;
+					for (int c = 0; c <= code.length(); c++) {
+						if (c == code.length() || code.charAt(c) == '\n') {
+							columns = Math.max(columns, c - lineStart);
+							lineStart = c + 1;
+							if (c < code.length())
+								lines++;
+						}
+					}
+					widths[i] = columns * charWidth + CELL_PADDING;
+					heights[i] = lines * lineHeight + CELL_PADDING;
+					successors[i] = node.getSuccessors();
+				}
+				LayeredGraphLayout layout = new LayeredGraphLayout(widths, heights, successors,
+						GraphView.HORIZONTAL_GAP, GraphView.VERTICAL_GAP);
+				layout.compute();
+				FxThreadUtil.run(() -> {
+					if (current != generation)
+						return;
+					status.textProperty().unbind();
+					status.setText(Lang.get("graph.blocks") + ": " + graph.size() +
+							(collapsed ? ", " + Lang.get("graph.nodes") + ": " + nodes.size() : ""));
+					view.setGraph(nodes, layout, widths, heights, center);
+				});
+			} catch (InterruptedException ex) {
+				// Cancelled by a newer request
+			} catch (Throwable t) {
+				onFailure(current, "Error computing method control flow graph layout", t);
+			}
 		});
 	}
 
-	private void visitEdge(Map<Block, BlockCell> cellMap, Set<Block> visited, Block block) {
-		// Skip already visited blocks
-		if (!visited.add(block))
+	/**
+	 * Logs a failed background task, and shows the error status if no newer request has been made.
+	 *
+	 * @param current
+	 * 		Generation of the failed task.
+	 * @param message
+	 * 		Message to log.
+	 * @param t
+	 * 		Cause of the failure.
+	 */
+	private void onFailure(int current, String message, Throwable t) {
+		// Cancelling a task interrupts it, which may surface as some other exception
+		if (Thread.currentThread().isInterrupted())
 			return;
-		// Get outbound edges and create graph edge
-		BlockCell cell = cellMap.get(block);
-		Model model = graph.getModel();
-		for (Edge outboundEdge : block.getOutboundEdges()) {
-			Block targetBlock = outboundEdge.getTo();
-			BlockCell targetCell = cellMap.get(targetBlock);
-			DoubleCorneredEdge edge = new DoubleCorneredEdge(cell, targetCell, Orientation.VERTICAL);
-
-			model.addEdge(edge);
-			visitEdge(cellMap, visited, targetBlock);
-		}
+		logger.error(message, t);
+		FxThreadUtil.run(() -> {
+			if (current == generation)
+				status.textProperty().bind(Lang.getBinding("graph.error"));
+		});
+	}
+
+	private void cancelPending() {
+		if (pending != null)
+			pending.cancel(true);
 	}
 
 	private TreeMap<Integer, Block> generate() throws AstException {
@@ -2,9 +2,14 @@ package me.coley.recaf.ui.pane.pe;
 
 import me.coley.recaf.ui.pane.table.SizedDataTypeTable;
 import me.coley.recaf.ui.pane.table.TableDisplayMode;
+import me.coley.recaf.ui.pane.table.TableGeneric;
+import me.coley.recaf.ui.pane.table.TableWord;
 import me.martinez.pe.CachedExportEntry;
 import me.martinez.pe.CachedImageExports;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Table display for export directory.
  *
@@ -25,11 +30,15 @@ public class ExportTableDisplayMode implements TableDisplayMode<CachedImageExpor
 			return;
 		}
 
-		for (int i = 0; i < cachedImageExports.getNumEntries(); i++) {
-			CachedExportEntry cachedExportEntry = cachedImageExports.getEntry(i);
-			String name = cachedExportEntry.getName() == null ? "" : cachedExportEntry.getName();
-			int ordinal = cachedExportEntry.getOrdinal();
-			table.addWord(name, ordinal, "");
-		}
+		table.addRowsAsync(() -> {
+			List<TableGeneric> rows = new ArrayList<>(cachedImageExports.getNumEntries());
+			for (int i = 0; i < cachedImageExports.getNumEntries(); i++) {
+				CachedExportEntry cachedExportEntry = cachedImageExports.getEntry(i);
+				String name = cachedExportEntry.getName() == null ? "" : cachedExportEntry.getName();
+				int ordinal = cachedExportEntry.getOrdinal();
+				rows.add(new TableWord(name, ordinal, ""));
+			}
+			return rows;
+		});
 	}
 }
@@ -2,9 +2,14 @@ package me.coley.recaf.ui.pane.pe;
 
 import me.coley.recaf.ui.pane.table.SizedDataTypeTable;
 import me.coley.recaf.ui.pane.table.TableDisplayMode;
+import me.coley.recaf.ui.pane.table.TableGeneric;
+import me.coley.recaf.ui.pane.table.TableWord;
 import me.martinez.pe.CachedImportEntry;
 import me.martinez.pe.CachedLibraryImports;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Table display for optional headers.
  *
@@ -25,11 +30,15 @@ public class ImportTableDisplayMode implements TableDisplayMode<CachedLibraryImp
 			return;
 		}
 
-		for (int i = 0; i < cachedLibraryImports.getNumEntries(); i++) {
-			CachedImportEntry cachedImportEntry = cachedLibraryImports.getEntry(i);
-			String name = cachedImportEntry.getName() == null ? "" : cachedImportEntry.getName();
-			int ordinal = cachedImportEntry.getOrdinal() == null ? -1 : cachedImportEntry.getOrdinal();
-			table.addWord(name, ordinal, "");
-		}
+		table.addRowsAsync(() -> {
+			List<TableGeneric> rows = new ArrayList<>(cachedLibraryImports.getNumEntries());
+			for (int i = 0; i < cachedLibraryImports.getNumEntries(); i++) {
+				CachedImportEntry cachedImportEntry = cachedLibraryImports.getEntry(i);
+				String name = cachedImportEntry.getName() == null ? "" : cachedImportEntry.getName();
+				int ordinal = cachedImportEntry.getOrdinal() == null ? -1 : cachedImportEntry.getOrdinal();
+				rows.add(new TableWord(name, ordinal, ""));
+			}
+			return rows;
+		});
 	}
 }
@@ -3,6 +3,7 @@ package me.coley.recaf.ui.pane.pe;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
+import javafx.scene.control.Label;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TreeItem;
@@ -14,6 +15,8 @@ import me.coley.recaf.ui.behavior.SaveResult;
 import me.coley.recaf.ui.pane.table.SizedDataTypeTable;
 import me.coley.recaf.ui.pane.table.TableGeneric;
 import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
 import me.martinez.pe.CachedLibraryImports;
 import me.martinez.pe.ImagePeHeaders;
 import me.martinez.pe.ImageSectionHeader;
@@ -21,6 +24,10 @@ import me.martinez.pe.io.CadesBufferStream;
 import me.martinez.pe.io.LittleEndianReader;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
 /**
  * A panel that displays information about an image's PE header.
  *
@@ -54,6 +61,8 @@ public class PEExplorerPane extends SplitPane implements FileRepresentation {
 
 	private FileInfo fileInfo;
 	private ImagePeHeaders pe;
+	private Future<?> pendingParse;
+	private int generation;
 
 	/**
 	 * Create and setup the PE explorer panel.
@@ -89,34 +98,71 @@ public class PEExplorerPane extends SplitPane implements FileRepresentation {
 	@Override
 	public void onUpdate(FileInfo newValue) {
 		this.fileInfo = newValue;
-		CadesBufferStream stream = new CadesBufferStream(newValue.getValue());
-		LittleEndianReader reader = new LittleEndianReader(stream);
-		pe = ImagePeHeaders.read(reader);
-
-		// Remove the export directory option if the file doesn't have one
-		if (dummyRoot.getChildren().contains(itemExportDirectory) && pe.getCachedExports() == null) {
-			dummyRoot.getChildren().remove(itemExportDirectory);
-		}
+		int current = ++generation;
+		if (pendingParse != null)
+			pendingParse.cancel(true);
+		// Headers are parsed in the background, as large images have many thousands of import and export entries
+		pendingParse = ThreadUtil.executor().submit(() -> {
+			ImagePeHeaders parsed;
+			try {
+				CadesBufferStream stream = new CadesBufferStream(newValue.getValue());
+				LittleEndianReader reader = new LittleEndianReader(stream);
+				parsed = ImagePeHeaders.read(reader);
+			} catch (Exception ex) {
+				logger.error("Failed to parse PE file: {}", ex.getMessage());
+				FxThreadUtil.run(() -> {
+					if (current == generation)
+						showParseError(ex);
+				});
+				return;
+			}
+			// Tree items are created here as well, and only attached on the FX thread
+			List<TreeItem<String>> sectionItems = new ArrayList<>();
+			for (ImageSectionHeader header : parsed.sectionHeaders)
+				sectionItems.add(new TreeItem<>(header.getName()));
+			List<TreeItem<String>> libraryItems = new ArrayList<>();
+			for (int i = 0; i < parsed.getNumCachedImports(); i++) {
+				CachedLibraryImports cachedLibraryImport = parsed.getCachedLibraryImport(i);
+				libraryItems.add(new TreeItem<>(cachedLibraryImport.getName()));
+			}
+			FxThreadUtil.run(() -> {
+				if (current != generation)
+					return;
+				pe = parsed;
+				primaryTreeView.setDisable(false);
+				// Remove the export directory option if the file doesn't have one
+				if (pe.getCachedExports() == null) {
+					dummyRoot.getChildren().remove(itemExportDirectory);
+				} else if (!dummyRoot.getChildren().contains(itemExportDirectory)) {
+					dummyRoot.getChildren().add(itemExportDirectory);
+				}
+				itemSectionHeaders.getChildren().setAll(sectionItems);
+				itemImportDirectory.getChildren().setAll(libraryItems);
+				itemImportDirectory.setExpanded(true);
+				// Select initial view, refreshing the table if it was already selected
+				primaryTreeView.getSelectionModel().clearSelection();
+				primaryTreeView.getSelectionModel().select(itemDosHeader);
+			});
+		});
+	}
 
-			// Reset section headers
-		ImageSectionHeader[] sectionTable = pe.sectionHeaders;
+	/**
+	 * Removes the content of the prior file, and shows why the current file could not be displayed.
+	 *
+	 * @param ex
+	 * 		Cause of the parse failure.
+	 */
+	private void showParseError(Exception ex) {
+		pe = null;
 		itemSectionHeaders.getChildren().clear();
-		for (ImageSectionHeader header : sectionTable) {
-			TreeItem<String> sectionItem = new TreeItem<>(header.getName());
-			itemSectionHeaders.getChildren().add(sectionItem);
-		}
-
-		// Add libraries to import directory
-		for (int i = 0; i < pe.getNumCachedImports(); i++) {
-			CachedLibraryImports cachedLibraryImport = pe.getCachedLibraryImport(i);
-			TreeItem<String> libraryItem = new TreeItem<>(cachedLibraryImport.getName());
-			itemImportDirectory.getChildren().add(libraryItem);
-		}
-
-		itemImportDirectory.setExpanded(true);
-
-		// Select initial view
-		primaryTreeView.getSelectionModel().select(itemDosHeader);
+		itemImportDirectory.getChildren().clear();
+		dummyRoot.getChildren().remove(itemExportDirectory);
+		// Header items have nothing to show without a parsed file
+		primaryTreeView.getSelectionModel().clearSelection();
+		primaryTreeView.setDisable(true);
+		primaryTableView.getColumns().clear();
+		primaryTableView.clearRows();
+		primaryTableView.setPlaceholder(new Label("Failed to parse PE file: " + ex.getMessage()));
 	}
 
 	/**
@@ -171,7 +217,7 @@ public class PEExplorerPane extends SplitPane implements FileRepresentation {
 		meaning.setCellValueFactory(new PropertyValueFactory<>("meaning"));
 		primaryTableView.getColumns().addAll(member, value, meaning);
 
-		primaryTableView.getItems().clear();
+		primaryTableView.clearRows();
 
 		if (newValue == itemDosHeader) {
 			DOS_MODE.apply(pe, primaryTableView);
@@ -1,8 +1,18 @@
 package me.coley.recaf.ui.pane.table;
 
 import javafx.scene.control.TableView;
+import me.coley.recaf.ui.control.BoundLabel;
+import me.coley.recaf.ui.util.Lang;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.FxThreadUtil;
+import me.coley.recaf.util.threading.ThreadUtil;
 import me.martinez.pe.ImagePeHeaders;
 import net.fornwall.jelf.ElfFile;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 /**
  * A {@link TableGeneric} oriented {@link TableView} with handy utility calls.
@@ -10,6 +20,56 @@ import net.fornwall.jelf.ElfFile;
  * @author Matt Coley
  */
 public class SizedDataTypeTable extends TableView<TableGeneric> {
+	private static final Logger logger = Logging.get(SizedDataTypeTable.class);
+	private Future<?> pendingRows;
+	private int rowGeneration;
+
+	/**
+	 * Removes all entries, including any still being created by {@link #addRowsAsync(Supplier)}.
+	 */
+	public void clearRows() {
+		rowGeneration++;
+		if (pendingRows != null)
+			pendingRows.cancel(true);
+		setPlaceholder(null);
+		getItems().clear();
+	}
+
+	/**
+	 * Creates entries in the background, and adds them to the table in a single change once done.
+	 * Intended for tables that can have many thousands of entries, such as imports and string tables.
+	 * The table only creates cells for visible rows, so the cost of a large table is in adding its entries
+	 * one at a time, which notifies listeners for each.
+	 *
+	 * @param rowSupplier
+	 * 		Supplier of entries to add. Called on a background thread.
+	 */
+	public void addRowsAsync(Supplier<List<TableGeneric>> rowSupplier) {
+		int current = ++rowGeneration;
+		if (pendingRows != null)
+			pendingRows.cancel(true);
+		setPlaceholder(new BoundLabel(Lang.getBinding("table.loading")));
+		pendingRows = ThreadUtil.executor().submit(() -> {
+			List<TableGeneric> rows;
+			try {
+				rows = rowSupplier.get();
+			} catch (Throwable t) {
+				logger.error("Failed to create table entries", t);
+				FxThreadUtil.run(() -> {
+					if (current == rowGeneration)
+						setPlaceholder(null);
+				});
+				return;
+			}
+			FxThreadUtil.run(() -> {
+				if (current != rowGeneration)
+					return;
+				setPlaceholder(null);
+				getItems().addAll(rows);
+			});
+		});
+	}
+
 	/**
 	 * Adds a table entry.
 	 *
@@ -13,6 +13,7 @@ import me.coley.recaf.ui.util.CellFactory;
 import me.coley.recaf.ui.util.Lang;
 import me.coley.recaf.ui.window.GenericWindow;
 import me.coley.recaf.util.TextDisplayUtil;
+import me.coley.recaf.util.WorkspaceSymbolService;
 import me.coley.recaf.util.threading.FxThreadUtil;
 import me.coley.recaf.util.threading.ThreadUtil;
 import me.coley.recaf.workspace.Workspace;
@@ -22,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 /**
  * A prompt where users can type in a class or file name,
@@ -30,6 +32,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @author Matt Coley
  */
 public class QuickNavPrompt extends GenericWindow {
+	private static final int LIMIT = 200;
+	// Shorter queries are too short for fuzzy matching by the symbol index, so they are matched as substrings
+	private static final int MIN_INDEXED_QUERY = 3;
 	private static final AtomicBoolean showing = new AtomicBoolean(false);
 	private static final QuickNav nav = new QuickNav();
 	private static QuickNavPrompt instance;
@@ -190,6 +195,26 @@ public class QuickNavPrompt extends GenericWindow {
 		}
 
 		private static boolean searchClasses(List<ItemWrapper> list, String text, Resource resource) {
+			WorkspaceSymbolService symbols = RecafUI.getController().getServices().getSymbolService();
+			if (symbols == null || text.length() < MIN_INDEXED_QUERY)
+				return searchClassesBySubstring(list, text, resource);
+			Predicate<String> inResource = name ->
+					resource.getClasses().containsKey(name) || resource.getDexClasses().containsKey(name);
+			for (String name : symbols.searchWorkspaceClasses(text, LIMIT, inResource)) {
+				CommonClassInfo info = resource.getClasses().get(name);
+				if (info == null)
+					info = resource.getDexClasses().get(name);
+				if (info != null)
+					list.add(new ItemWrapper(resource, info));
+			}
+			if (Thread.interrupted())
+				return false;
+			for (MemberInfo memberInfo : symbols.searchMembers(text, LIMIT, m -> inResource.test(m.getOwner())))
+				list.add(new ItemWrapper(resource, memberInfo));
+			return !Thread.interrupted();
+		}
+
+		private static boolean searchClassesBySubstring(List<ItemWrapper> list, String text, Resource resource) {
 			text = text.toLowerCase();
 			for (ClassInfo info : resource.getClasses()) {
 				if (Thread.interrupted())
@@ -0,0 +1,471 @@
+package me.coley.recaf.ui.util;
+
+import difflib.Chunk;
+import difflib.Delta;
+import difflib.DiffUtils;
+import difflib.Patch;
+import me.coley.recaf.RecafUI;
+import me.coley.recaf.assemble.ast.PrintContext;
+import me.coley.recaf.assemble.transformer.BytecodeToAstTransformer;
+import me.coley.recaf.code.ClassInfo;
+import me.coley.recaf.code.CommonClassInfo;
+import me.coley.recaf.code.DexClassInfo;
+import me.coley.recaf.config.Configs;
+import me.coley.recaf.decompile.DecompileResult;
+import me.coley.recaf.decompile.Decompiler;
+import me.coley.recaf.ui.DiffViewMode;
+import me.coley.recaf.util.HashUtil;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.ThreadPoolFactory;
+import me.coley.recaf.workspace.Workspace;
+import org.jf.baksmali.Adaptors.ClassDefinition;
+import org.jf.baksmali.BaksmaliOptions;
+import org.jf.baksmali.formatter.BaksmaliWriter;
+import org.jf.dexlib2.iface.ClassDef;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.slf4j.Logger;
+
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Computes line differences between revisions of classes and files for display in
+ * {@link me.coley.recaf.ui.pane.DiffViewPane}.
+ * <br>
+ * Work is done on a background pool. Both the text representation of each revision and the resulting differences
+ * are cached by content hash, so revisions shared between many items, such as the initial state of a class,
+ * are only rendered once, and revisiting an item does not repeat any work.
+ *
+ * @author Matt Coley
+ */
+public class DiffService {
+	private static final Logger logger = Logging.get(DiffService.class);
+	private static final int MAX_CACHED_RENDERINGS = 1024;
+	private static final int MAX_CACHED_DIFFS = 512;
+	private static final int HEX_ROW_LENGTH = 16;
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+	private final ExecutorService executor = ThreadPoolFactory.newFixedThreadPool("Diff",
+			Math.max(1, Runtime.getRuntime().availableProcessors() / 2), true);
+	private final Map<String, CompletableFuture<Rendering>> renderings = boundedMap(MAX_CACHED_RENDERINGS);
+	private final Map<String, CompletableFuture<DiffResult>> diffs = boundedMap(MAX_CACHED_DIFFS);
+
+	/**
+	 * @param initial
+	 * 		Initial class revision.
+	 * @param current
+	 * 		Current class revision.
+	 * @param mode
+	 * 		How to represent the classes.
+	 * 		Android classes are always represented by their smali disassembly.
+	 *
+	 * @return Future of the difference between the two revisions.
+	 */
+	public CompletableFuture<DiffResult> diffClasses(CommonClassInfo initial, CommonClassInfo current,
+													 DiffViewMode mode) {
+		return diff(renderClass(initial, mode), renderClass(current, mode));
+	}
+
+	/**
+	 * @param initial
+	 * 		Initial text.
+	 * @param current
+	 * 		Current text.
+	 *
+	 * @return Future of the difference between the two texts.
+	 */
+	public CompletableFuture<DiffResult> diffText(String initial, String current) {
+		return diff(renderText(initial), renderText(current));
+	}
+
+	/**
+	 * @param initial
+	 * 		Initial content.
+	 * @param current
+	 * 		Current content.
+	 *
+	 * @return Future of the difference between the hex dumps of the two contents.
+	 */
+	public CompletableFuture<DiffResult> diffBinary(byte[] initial, byte[] current) {
+		return diff(renderBinary(initial), renderBinary(current));
+	}
+
+	/**
+	 * Drops all cached results.
+	 */
+	public void clear() {
+		renderings.clear();
+		diffs.clear();
+	}
+
+	private CompletableFuture<DiffResult> diff(CompletableFuture<Rendering> initialFuture,
+											   CompletableFuture<Rendering> currentFuture) {
+		return initialFuture.thenCombine(currentFuture, (initial, current) -> initial.key + ':' + current.key)
+				.thenCompose(key -> cached(diffs, key, () -> computeDiff(initialFuture.join(), currentFuture.join())));
+	}
+
+	private CompletableFuture<Rendering> renderClass(CommonClassInfo info, DiffViewMode mode) {
+		if (info instanceof DexClassInfo) {
+			// The classes are not held as raw bytes, so the disassembly is the content that gets hashed
+			DexClassInfo dexClass = (DexClassInfo) info;
+			return CompletableFuture.supplyAsync(() -> {
+				String text = disassemble(dexClass);
+				List<String> lines = splitLines(text);
+				return new Rendering(HashUtil.sha256("smali", text), lines, lines);
+			}, executor);
+		}
+		byte[] value = ((ClassInfo) info).getValue();
+		String hash = HashUtil.sha256(value);
+		switch (mode) {
+			case DECOMPILE: {
+				Decompiler decompiler = RecafUI.getController().getServices()
+						.getDecompileManager().get(Configs.decompiler().decompiler);
+				String name = decompiler == null ? "none" : decompiler.getName();
+				CompletableFuture<Rendering> future = cached(renderings, "decompile:" + name + ':' + hash,
+						() -> renderLines("decompile:" + name + ':' + hash, decompile(decompiler, (ClassInfo) info)));
+				// The timeout applies to a copy, so the cached future is not completed with the timeout failure
+				if (Configs.decompiler().enableDecompilerTimeout)
+					future = future.copy().orTimeout(Configs.decompiler().decompileTimeout + 500L, TimeUnit.MILLISECONDS);
+				return future;
+			}
+			case DISASSEMBLE:
+				return cached(renderings, "disassemble:" + hash,
+						() -> renderLines("disassemble:" + hash, disassemble(value)));
+			case BINARY:
+			default:
+				return cached(renderings, "binary:" + hash, () -> hexDump("binary:" + hash, value));
+		}
+	}
+
+	private CompletableFuture<Rendering> renderText(String text) {
+		return CompletableFuture.supplyAsync(() -> {
+			String hash = HashUtil.sha256("text", text);
+			return renderLines(hash, text);
+		}, executor);
+	}
+
+	private CompletableFuture<Rendering> renderBinary(byte[] value) {
+		return CompletableFuture.supplyAsync(() -> HashUtil.sha256(value), executor)
+				.thenCompose(hash -> cached(renderings, "binary:" + hash, () -> hexDump("binary:" + hash, value)));
+	}
+
+	private <T> CompletableFuture<T> cached(Map<String, CompletableFuture<T>> cache, String key, Supplier<T> supplier) {
+		CompletableFuture<T> future;
+		boolean created = false;
+		synchronized (cache) {
+			future = cache.get(key);
+			if (future == null) {
+				future = new CompletableFuture<>();
+				cache.put(key, future);
+				created = true;
+			}
+		}
+		if (created) {
+			CompletableFuture<T> result = future;
+			executor.execute(() -> {
+				try {
+					result.complete(supplier.get());
+				} catch (Throwable t) {
+					// Failures are not cached, so the next request tries again
+					cache.remove(key, result);
+					result.completeExceptionally(t);
+				}
+			});
+		}
+		return future;
+	}
+
+	private static String decompile(Decompiler decompiler, ClassInfo info) {
+		if (decompiler == null)
+			return "// No decompiler available!";
+		Workspace workspace = RecafUI.getController().getWorkspace();
+		DecompileResult result = decompiler.decompile(workspace, info);
+		String code = result.getValue();
+		return code == null ? "// Decompiler for " + info.getName() + " has crashed." : code;
+	}
+
+	private static String disassemble(byte[] value) {
+		ClassReader reader = new ClassReader(value);
+		ClassNode node = new ClassNode();
+		reader.accept(node, ClassReader.SKIP_FRAMES);
+		BytecodeToAstTransformer transformer = new BytecodeToAstTransformer(node);
+		transformer.visit();
+		return transformer.getUnit().print(PrintContext.DEFAULT_CTX);
+	}
+
+	private static String disassemble(DexClassInfo dexClass) {
+		BaksmaliOptions options = new BaksmaliOptions();
+		ClassDef def = dexClass.getClassDef();
+		StringWriter stringWriter = new StringWriter();
+		try (BaksmaliWriter writer = new BaksmaliWriter(
+				stringWriter,
+				options.implicitReferences ? def.getType() : null)) {
+			ClassDefinition classDefinition = new ClassDefinition(options, def);
+			classDefinition.writeTo(writer);
+		} catch (Exception ex) {
+			logger.error("Failed to disassemble smali for class '{}'", dexClass.getName(), ex);
+		}
+		return stringWriter.toString();
+	}
+
+	private static Rendering renderLines(String key, String text) {
+		List<String> lines = splitLines(text);
+		return new Rendering(key, lines, lines);
+	}
+
+	private static Rendering hexDump(String key, byte[] value) {
+		int rows = (value.length + HEX_ROW_LENGTH - 1) / HEX_ROW_LENGTH;
+		List<String> lines = new ArrayList<>(rows);
+		List<String> content = new ArrayList<>(rows);
+		StringBuilder sb = new StringBuilder();
+		for (int row = 0; row < rows; row++) {
+			int offset = row * HEX_ROW_LENGTH;
+			int end = Math.min(value.length, offset + HEX_ROW_LENGTH);
+			sb.setLength(0);
+			for (int i = offset; i < offset + HEX_ROW_LENGTH; i++) {
+				if (i < end) {
+					int b = value[i] & 0xFF;
+					sb.append(HEX[b >>> 4]).append(HEX[b & 0xF]).append(' ');
+				} else {
+					sb.append("   ");
+				}
+			}
+			sb.append(' ');
+			for (int i = offset; i < end; i++) {
+				char c = (char) (value[i] & 0xFF);
+				sb.append(c >= 32 && c <= 126 ? c : '.');
+			}
+			String text = sb.toString();
+			content.add(text);
+			lines.add(String.format("%08X  ", offset) + text);
+		}
+		// Rows are compared without their offsets, so that a row is not considered changed only due to its position
+		return new Rendering(key, lines, content);
+	}
+
+	private static List<String> splitLines(String text) {
+		return Arrays.asList(text.split("\n"));
+	}
+
+	/**
+	 * @param initial
+	 * 		Initial revision.
+	 * @param current
+	 * 		Current revision.
+	 *
+	 * @return Both revisions padded to line up with each other, with changed lines marked.
+	 */
+	private static DiffResult computeDiff(Rendering initial, Rendering current) {
+		List<String> a = initial.content;
+		List<String> b = current.content;
+		// Unchanged leading and trailing lines are common and cheap to skip, leaving less for the diff algorithm
+		int max = Math.min(a.size(), b.size());
+		int prefix = 0;
+		while (prefix < max && a.get(prefix).equals(b.get(prefix)))
+			prefix++;
+		int suffix = 0;
+		while (suffix < max - prefix && a.get(a.size() - 1 - suffix).equals(b.get(b.size() - 1 - suffix)))
+			suffix++;
+		Patch<String> patch = DiffUtils.diff(a.subList(prefix, a.size() - suffix), b.subList(prefix, b.size() - suffix));
+		DiffResult result = new DiffResult(patch.getDeltas().size());
+		int ai = 0;
+		int bi = 0;
+		for (Delta<String> delta : patch.getDeltas()) {
+			Chunk<String> original = delta.getOriginal();
+			Chunk<String> revised = delta.getRevised();
+			int originalStart = prefix + original.getPosition();
+			int revisedStart = prefix + revised.getPosition();
+			// Lines between deltas are equal, so both sides have the same number of them
+			result.appendInitial(initial.lines, ai, originalStart, null);
+			result.appendCurrent(current.lines, bi, revisedStart, null);
+			int removed = original.size();
+			int added = revised.size();
+			int changed = Math.min(removed, added);
+			result.appendInitial(initial.lines, originalStart, originalStart + changed, DiffResult.CHANGE);
+			result.appendCurrent(current.lines, revisedStart, revisedStart + changed, DiffResult.CHANGE);
+			if (added > removed) {
+				result.padInitial(added - removed, DiffResult.INSERTION);
+				result.appendCurrent(current.lines, revisedStart + changed, revisedStart + added, DiffResult.INSERTION);
+			} else if (removed > added) {
+				result.appendInitial(initial.lines, originalStart + changed, originalStart + removed, DiffResult.DELETION);
+				result.padCurrent(removed - added, DiffResult.DELETION);
+			}
+			ai = originalStart + removed;
+			bi = revisedStart + added;
+		}
+		result.appendInitial(initial.lines, ai, initial.lines.size(), null);
+		result.appendCurrent(current.lines, bi, current.lines.size(), null);
+		logger.trace("Computed diff with {} changes", result.getChangeCount());
+		return result;
+	}
+
+	private static <K, V> Map<K, V> boundedMap(int maxSize) {
+		return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * Text representation of a revision.
+	 */
+	private static class Rendering {
+		private final String key;
+		private final List<String> lines;
+		private final List<String> content;
+
+		/**
+		 * @param key
+		 * 		Content hash of the revision and how it is represented.
+		 * @param lines
+		 * 		Lines to display.
+		 * @param content
+		 * 		Lines to compare, parallel to the displayed lines.
+		 */
+		private Rendering(String key, List<String> lines, List<String> content) {
+			this.key = key;
+			this.lines = lines;
+			this.content = content;
+		}
+	}
+
+	/**
+	 * Two revisions of text, padded with empty lines so that unchanged lines are shown side by side.
+	 *
+	 * @author Matt Coley
+	 */
+	public static class DiffResult {
+		/**
+		 * Style of lines present in both revisions but modified.
+		 */
+		public static final String CHANGE = "change";
+		/**
+		 * Style of lines only present in the current revision.
+		 */
+		public static final String INSERTION = "insertion";
+		/**
+		 * Style of lines only present in the initial revision.
+		 */
+		public static final String DELETION = "deletion";
+		private final StringBuilder initialText = new StringBuilder();
+		private final StringBuilder currentText = new StringBuilder();
+		private final List<Mark> initialMarks = new ArrayList<>();
+		private final List<Mark> currentMarks = new ArrayList<>();
+		private final int changeCount;
+		private int initialLines;
+		private int currentLines;
+
+		private DiffResult(int changeCount) {
+			this.changeCount = changeCount;
+		}
+
+		/**
+		 * @return Initial revision text.
+		 */
+		public String getInitialText() {
+			return initialText.toString();
+		}
+
+		/**
+		 * @return Current revision text.
+		 */
+		public String getCurrentText() {
+			return currentText.toString();
+		}
+
+		/**
+		 * @return Marked lines of the initial revision text.
+		 */
+		public List<Mark> getInitialMarks() {
+			return initialMarks;
+		}
+
+		/**
+		 * @return Marked lines of the current revision text.
+		 */
+		public List<Mark> getCurrentMarks() {
+			return currentMarks;
+		}
+
+		/**
+		 * @return Number of changed sections.
+		 */
+		public int getChangeCount() {
+			return changeCount;
+		}
+
+		private void appendInitial(List<String> lines, int from, int to, String style) {
+			initialLines = append(initialText, initialMarks, initialLines, lines, from, to, style);
+		}
+
+		private void appendCurrent(List<String> lines, int from, int to, String style) {
+			currentLines = append(currentText, currentMarks, currentLines, lines, from, to, style);
+		}
+
+		private void padInitial(int count, String style) {
+			initialLines = append(initialText, initialMarks, initialLines, Collections.nCopies(count, ""), 0, count, style);
+		}
+
+		private void padCurrent(int count, String style) {
+			currentLines = append(currentText, currentMarks, currentLines, Collections.nCopies(count, ""), 0, count, style);
+		}
+
+		private static int append(StringBuilder text, List<Mark> marks, int lineCount,
+								  List<String> lines, int from, int to, String style) {
+			if (to <= from)
+				return lineCount;
+			for (int i = from; i < to; i++) {
+				if (lineCount + i - from > 0)
+					text.append('\n');
+				text.append(lines.get(i));
+			}
+			if (style != null)
+				marks.add(new Mark(lineCount, to - from, style));
+			return lineCount + to - from;
+		}
+	}
+
+	/**
+	 * Range of lines to mark with a style.
+	 *
+	 * @author Matt Coley
+	 */
+	public static class Mark {
+		private final int line;
+		private final int count;
+		private final String style;
+
+		private Mark(int line, int count, String style) {
+			this.line = line;
+			this.count = count;
+			this.style = style;
+		}
+
+		/**
+		 * @return First line, starting at 0.
+		 */
+		public int getLine() {
+			return line;
+		}
+
+		/**
+		 * @return Number of lines.
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return Paragraph style of the lines.
+		 */
+		public String getStyle() {
+			return style;
+		}
+	}
+}
@@ -1,6 +1,6 @@
 package me.coley.recaf.ui.util;
 
-import me.coley.recaf.ui.control.code.Language;
+import me.coley.recaf.util.syntax.Language;
 
 /**
  * Listener to receive updates when an association between a file extension and a {@link Language} changes.
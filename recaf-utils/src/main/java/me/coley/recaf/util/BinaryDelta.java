@@ -0,0 +1,124 @@
+package me.coley.recaf.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary deltas between two revisions of some content.
+ * <br>
+ * The common prefix and suffix of both revisions are stored as lengths only. The differing middle section
+ * is deflated using the middle of the base revision as a preset dictionary, so content moved or repeated
+ * from the base is encoded as back-references rather than literal bytes.
+ *
+ * @author Matt Coley
+ */
+public class BinaryDelta {
+	// Deflate back-references can only reach this far
+	private static final int MAX_DICTIONARY = 32 * 1024;
+	private static final int HEADER_SIZE = 12;
+
+	/**
+	 * @param base
+	 * 		Content to compute the delta against.
+	 * @param target
+	 * 		Content to be reconstructed from the delta.
+	 *
+	 * @return Delta that turns the base into the target via {@link #apply(byte[], byte[])}.
+	 */
+	public static byte[] create(byte[] base, byte[] target) {
+		int max = Math.min(base.length, target.length);
+		int prefix = 0;
+		while (prefix < max && base[prefix] == target[prefix])
+			prefix++;
+		int suffix = 0;
+		while (suffix < max - prefix &&
+				base[base.length - 1 - suffix] == target[target.length - 1 - suffix])
+			suffix++;
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			setDictionary(deflater, base, prefix, suffix);
+			deflater.setInput(target, prefix, target.length - prefix - suffix);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + (target.length - prefix - suffix) / 2);
+			out.writeBytes(ByteBuffer.allocate(HEADER_SIZE)
+					.putInt(target.length)
+					.putInt(prefix)
+					.putInt(suffix)
+					.array());
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				int len = deflater.deflate(buffer);
+				out.write(buffer, 0, len);
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * @param base
+	 * 		Content the delta was computed against.
+	 * @param delta
+	 * 		Delta from {@link #create(byte[], byte[])}.
+	 *
+	 * @return Reconstructed target content.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the delta is malformed, or does not belong to the given base.
+	 */
+	public static byte[] apply(byte[] base, byte[] delta) {
+		if (delta.length < HEADER_SIZE)
+			throw new IllegalArgumentException("Delta is truncated");
+		ByteBuffer header = ByteBuffer.wrap(delta, 0, HEADER_SIZE);
+		int length = header.getInt();
+		int prefix = header.getInt();
+		int suffix = header.getInt();
+		if (prefix < 0 || suffix < 0 || prefix + suffix > length || prefix + suffix > base.length)
+			throw new IllegalArgumentException("Delta does not match base content");
+		byte[] target = new byte[length];
+		System.arraycopy(base, 0, target, 0, prefix);
+		System.arraycopy(base, base.length - suffix, target, length - suffix, suffix);
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(delta, HEADER_SIZE, delta.length - HEADER_SIZE);
+			int offset = prefix;
+			int end = length - suffix;
+			while (offset < end) {
+				int read = inflater.inflate(target, offset, end - offset);
+				if (read == 0) {
+					if (inflater.needsDictionary())
+						setDictionary(inflater, base, prefix, suffix);
+					else if (inflater.finished() || inflater.needsInput())
+						throw new IllegalArgumentException("Delta is truncated");
+				}
+				offset += read;
+			}
+			return target;
+		} catch (DataFormatException ex) {
+			throw new IllegalArgumentException("Delta is malformed", ex);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static void setDictionary(Deflater deflater, byte[] base, int prefix, int suffix) {
+		byte[] dictionary = dictionary(base, prefix, suffix);
+		if (dictionary.length > 0)
+			deflater.setDictionary(dictionary);
+	}
+
+	private static void setDictionary(Inflater inflater, byte[] base, int prefix, int suffix) {
+		inflater.setDictionary(dictionary(base, prefix, suffix));
+	}
+
+	private static byte[] dictionary(byte[] base, int prefix, int suffix) {
+		int end = base.length - suffix;
+		int start = Math.max(prefix, end - MAX_DICTIONARY);
+		return Arrays.copyOfRange(base, start, end);
+	}
+}
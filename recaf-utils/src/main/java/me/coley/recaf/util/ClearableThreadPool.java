@@ -73,6 +73,28 @@ public class ClearableThreadPool extends ThreadPoolExecutor {
 		return tasks;
 	}
 
+	/**
+	 * Kills the thread running the given task, if the task is still running.
+	 * Other tasks in the pool are not affected.
+	 *
+	 * @param task
+	 * 		Task passed to the pool, or the future returned when submitting it.
+	 *
+	 * @return {@code true} when the task was running and its thread was killed.
+	 */
+	@SuppressWarnings("deprecation")
+	public synchronized boolean stop(Runnable task) {
+		Thread thread = activeThreads.remove(task);
+		if (thread == null)
+			return false;
+		try {
+			thread.stop();
+		} catch (ThreadDeath death) {
+			// Same as above, but only for the one thread.
+		}
+		return true;
+	}
+
 	/**
 	 * Kills all current threads in the pool.
 	 *
@@ -0,0 +1,59 @@
+package me.coley.recaf.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content hashing utilities.
+ *
+ * @author Matt Coley
+ */
+public class HashUtil {
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * @param data
+	 * 		Content to hash.
+	 *
+	 * @return Hex encoded SHA-256 hash of the content.
+	 */
+	public static String sha256(byte[] data) {
+		return toHex(digest().digest(data));
+	}
+
+	/**
+	 * @param parts
+	 * 		Text content to hash, encoded as UTF-8.
+	 * 		Each part is delimited, so {@code ("ab", "c")} and {@code ("a", "bc")} do not collide.
+	 *
+	 * @return Hex encoded SHA-256 hash of the content.
+	 */
+	public static String sha256(String... parts) {
+		MessageDigest digest = digest();
+		for (String part : parts) {
+			digest.update(part.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+		return toHex(digest.digest());
+	}
+
+	private static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			// Every JVM is required to support SHA-256
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			int b = bytes[i] & 0xFF;
+			chars[i * 2] = HEX[b >>> 4];
+			chars[i * 2 + 1] = HEX[b & 0xF];
+		}
+		return new String(chars);
+	}
+}
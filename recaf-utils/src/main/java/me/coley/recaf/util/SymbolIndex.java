@@ -0,0 +1,361 @@
+package me.coley.recaf.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * Name index supporting prefix, camel-hump and fuzzy <i>(trigram)</i> lookups with top-K ranking.
+ * <br>
+ * Each value is registered with one or more names. The first name is the <i>primary</i> name,
+ * which is the only one indexed for fuzzy matching. Additional names, such as fully qualified paths,
+ * are indexed for prefix and camel-hump matching.
+ * <br>
+ * All operations are safe to use concurrently.
+ *
+ * @param <T>
+ * 		Type of value associated with indexed names.
+ *
+ * @author Matt Coley
+ */
+public class SymbolIndex<T> {
+	private static final int GRAM_SIZE = 3;
+	private static final int MAX_CANDIDATES = 1024;
+	private static final int SCORE_EXACT = 1000;
+	private static final int SCORE_PREFIX = 800;
+	private static final int SCORE_HUMP = 600;
+	private static final int SCORE_FUZZY = 400;
+	private final Map<T, Entry<T>> entries = new ConcurrentHashMap<>();
+	private final NavigableMap<String, Set<Entry<T>>> names = new ConcurrentSkipListMap<>();
+	private final NavigableMap<String, Set<Entry<T>>> humps = new ConcurrentSkipListMap<>();
+	private final Map<String, Set<Entry<T>>> grams = new ConcurrentHashMap<>();
+
+	/**
+	 * Add a value to the index. If the value is already indexed, its prior names are replaced.
+	 *
+	 * @param value
+	 * 		Value to add.
+	 * @param names
+	 * 		Names to associate with the value. The first name is the primary one.
+	 */
+	public void add(T value, String... names) {
+		if (names.length == 0)
+			throw new IllegalArgumentException("At least one name is required");
+		remove(value);
+		Entry<T> entry = new Entry<>(value, names);
+		entries.put(value, entry);
+		for (int i = 0; i < names.length; i++) {
+			post(this.names, entry.lowerNames[i], entry);
+			post(humps, humpsOf(names[i]), entry);
+		}
+		for (String gram : entry.grams)
+			post(grams, gram, entry);
+	}
+
+	/**
+	 * @param value
+	 * 		Value to remove.
+	 *
+	 * @return {@code true} when the value was in the index.
+	 */
+	public boolean remove(T value) {
+		Entry<T> entry = entries.remove(value);
+		if (entry == null)
+			return false;
+		for (int i = 0; i < entry.names.length; i++) {
+			unpost(names, entry.lowerNames[i], entry);
+			unpost(humps, humpsOf(entry.names[i]), entry);
+		}
+		for (String gram : entry.grams)
+			unpost(grams, gram, entry);
+		return true;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to check.
+	 *
+	 * @return {@code true} when the value is in the index.
+	 */
+	public boolean contains(T value) {
+		return entries.containsKey(value);
+	}
+
+	/**
+	 * @return Number of indexed values.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Remove all values from the index.
+	 */
+	public void clear() {
+		entries.clear();
+		names.clear();
+		humps.clear();
+		grams.clear();
+	}
+
+	/**
+	 * @param query
+	 * 		Search text.
+	 * @param limit
+	 * 		Maximum number of results.
+	 *
+	 * @return Best matching values, ordered from best to worst match.
+	 */
+	public List<T> search(String query, int limit) {
+		return search(query, limit, null);
+	}
+
+	/**
+	 * @param query
+	 * 		Search text.
+	 * @param limit
+	 * 		Maximum number of results.
+	 * @param filter
+	 * 		Filter for values to include. May be {@code null} to include all values.
+	 *
+	 * @return Best matching values, ordered from best to worst match.
+	 */
+	public List<T> search(String query, int limit, Predicate<T> filter) {
+		if (limit <= 0)
+			return Collections.emptyList();
+		Map<Entry<T>, Integer> scores = new HashMap<>();
+		if (query.isBlank()) {
+			// No query, yield values in name order
+			for (Set<Entry<T>> set : names.values()) {
+				for (Entry<T> entry : set)
+					if (filter == null || filter.test(entry.value))
+						scores.putIfAbsent(entry, 0);
+				if (scores.size() >= limit)
+					break;
+			}
+		} else {
+			String lower = query.toLowerCase();
+			collectPrefix(lower, filter, scores);
+			collectHumps(query, filter, scores);
+			collectFuzzy(lower, filter, scores);
+		}
+		return top(scores, limit);
+	}
+
+	private void collectPrefix(String lower, Predicate<T> filter, Map<Entry<T>, Integer> scores) {
+		int scanned = 0;
+		for (Map.Entry<String, Set<Entry<T>>> e : names.subMap(lower, true, lower + Character.MAX_VALUE, false).entrySet()) {
+			String name = e.getKey();
+			int score = name.length() == lower.length() ? SCORE_EXACT : SCORE_PREFIX - (name.length() - lower.length());
+			for (Entry<T> entry : e.getValue()) {
+				if (filter == null || filter.test(entry.value))
+					scores.merge(entry, score, Math::max);
+				if (++scanned >= MAX_CANDIDATES)
+					return;
+			}
+		}
+	}
+
+	private void collectHumps(String query, Predicate<T> filter, Map<Entry<T>, Integer> scores) {
+		List<String> segments = segmentsOf(query);
+		if (segments.isEmpty())
+			return;
+		StringBuilder sb = new StringBuilder();
+		for (String segment : segments)
+			sb.append(Character.toLowerCase(segment.charAt(0)));
+		String key = sb.toString();
+		int scanned = 0;
+		for (Map.Entry<String, Set<Entry<T>>> e : humps.subMap(key, true, key + Character.MAX_VALUE, false).entrySet()) {
+			int score = SCORE_HUMP - (e.getKey().length() - key.length());
+			for (Entry<T> entry : e.getValue()) {
+				if ((filter == null || filter.test(entry.value)) && entry.matchesHumps(segments))
+					scores.merge(entry, score, Math::max);
+				if (++scanned >= MAX_CANDIDATES)
+					return;
+			}
+		}
+	}
+
+	private void collectFuzzy(String lower, Predicate<T> filter, Map<Entry<T>, Integer> scores) {
+		Set<String> queryGrams = gramsOf(lower);
+		if (queryGrams.isEmpty())
+			return;
+		int threshold = Math.max(1, (queryGrams.size() + 1) / 2);
+		// Any candidate sharing at least 'threshold' grams must contain one of the
+		// 'n - threshold + 1' rarest grams, so only those posting lists need to be visited.
+		List<Set<Entry<T>>> postings = new ArrayList<>();
+		for (String gram : queryGrams) {
+			Set<Entry<T>> set = grams.get(gram);
+			postings.add(set == null ? Collections.emptySet() : set);
+		}
+		postings.sort(Comparator.comparingInt(Set::size));
+		Set<Entry<T>> candidates = new HashSet<>();
+		int visit = queryGrams.size() - threshold + 1;
+		outer:
+		for (int i = 0; i < visit; i++) {
+			for (Entry<T> entry : postings.get(i)) {
+				candidates.add(entry);
+				if (candidates.size() >= MAX_CANDIDATES)
+					break outer;
+			}
+		}
+		for (Entry<T> entry : candidates) {
+			if (filter != null && !filter.test(entry.value))
+				continue;
+			int count = 0;
+			for (String gram : entry.grams)
+				if (queryGrams.contains(gram))
+					count++;
+			if (count < threshold)
+				continue;
+			int score = SCORE_FUZZY * count / Math.max(queryGrams.size(), entry.grams.length);
+			scores.merge(entry, score, Math::max);
+		}
+	}
+
+	private List<T> top(Map<Entry<T>, Integer> scores, int limit) {
+		Comparator<Map.Entry<Entry<T>, Integer>> comparator = Map.Entry.<Entry<T>, Integer>comparingByValue()
+				.thenComparing((a, b) -> b.getKey().lowerNames[0].compareTo(a.getKey().lowerNames[0]));
+		// Min-heap of the best K matches
+		PriorityQueue<Map.Entry<Entry<T>, Integer>> queue = new PriorityQueue<>(limit + 1, comparator);
+		for (Map.Entry<Entry<T>, Integer> e : scores.entrySet()) {
+			queue.add(e);
+			if (queue.size() > limit)
+				queue.poll();
+		}
+		List<T> results = new ArrayList<>(queue.size());
+		while (!queue.isEmpty())
+			results.add(queue.poll().getKey().value);
+		Collections.reverse(results);
+		return results;
+	}
+
+	private static <T> void post(Map<String, Set<Entry<T>>> map, String key, Entry<T> entry) {
+		if (key.isEmpty())
+			return;
+		map.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(entry);
+	}
+
+	private static <T> void unpost(Map<String, Set<Entry<T>>> map, String key, Entry<T> entry) {
+		map.computeIfPresent(key, (k, set) -> {
+			set.remove(entry);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	/**
+	 * @param text
+	 * 		Some name.
+	 *
+	 * @return Lowercase initials of each word in the name.
+	 * Words start at uppercase characters and after non-alphanumeric separators.
+	 */
+	static String humpsOf(String text) {
+		StringBuilder sb = new StringBuilder();
+		for (String word : wordsOf(text))
+			sb.append(Character.toLowerCase(word.charAt(0)));
+		return sb.toString();
+	}
+
+	/**
+	 * @param text
+	 * 		Some name.
+	 *
+	 * @return Words of the name.
+	 */
+	private static List<String> wordsOf(String text) {
+		List<String> words = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (!Character.isLetterOrDigit(c)) {
+				if (start >= 0)
+					words.add(text.substring(start, i));
+				start = -1;
+			} else if (start < 0) {
+				start = i;
+			} else if (Character.isUpperCase(c) && !Character.isUpperCase(text.charAt(i - 1))) {
+				words.add(text.substring(start, i));
+				start = i;
+			}
+		}
+		if (start >= 0)
+			words.add(text.substring(start));
+		return words;
+	}
+
+	/**
+	 * @param query
+	 * 		Search text.
+	 *
+	 * @return Hump segments of the query. Mixed-case queries are split like names,
+	 * while single-case queries treat each character as the initial of a word.
+	 */
+	private static List<String> segmentsOf(String query) {
+		boolean mixed = !query.equals(query.toLowerCase()) && !query.equals(query.toUpperCase());
+		if (mixed)
+			return wordsOf(query);
+		List<String> segments = new ArrayList<>();
+		for (int i = 0; i < query.length(); i++) {
+			char c = query.charAt(i);
+			if (Character.isLetterOrDigit(c))
+				segments.add(String.valueOf(c));
+		}
+		return segments;
+	}
+
+	private static Set<String> gramsOf(String lower) {
+		if (lower.length() < GRAM_SIZE)
+			return Collections.emptySet();
+		Set<String> set = new HashSet<>();
+		for (int i = 0; i <= lower.length() - GRAM_SIZE; i++)
+			set.add(lower.substring(i, i + GRAM_SIZE));
+		return set;
+	}
+
+	/**
+	 * Index entry.
+	 *
+	 * @param <T>
+	 * 		Value type.
+	 */
+	private static final class Entry<T> {
+		private final T value;
+		private final String[] names;
+		private final String[] lowerNames;
+		private final String[] grams;
+		private List<List<String>> words;
+
+		private Entry(T value, String[] names) {
+			this.value = value;
+			this.names = names;
+			this.lowerNames = new String[names.length];
+			for (int i = 0; i < names.length; i++)
+				lowerNames[i] = names[i].toLowerCase();
+			this.grams = gramsOf(lowerNames[0]).toArray(new String[0]);
+		}
+
+		private boolean matchesHumps(List<String> segments) {
+			if (words == null) {
+				List<List<String>> list = new ArrayList<>(names.length);
+				for (String name : names)
+					list.add(wordsOf(name));
+				words = list;
+			}
+			outer:
+			for (List<String> words : this.words) {
+				if (words.size() < segments.size())
+					continue;
+				for (int i = 0; i < segments.size(); i++) {
+					String word = words.get(i);
+					String segment = segments.get(i);
+					if (!word.regionMatches(true, 0, segment, 0, segment.length()))
+						continue outer;
+				}
+				return true;
+			}
+			return false;
+		}
+	}
+}
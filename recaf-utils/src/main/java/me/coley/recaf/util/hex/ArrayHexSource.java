@@ -0,0 +1,33 @@
+package me.coley.recaf.util.hex;
+
+/**
+ * Hex source backed by a {@code byte[]}. The array is not copied.
+ *
+ * @author Matt Coley
+ */
+public class ArrayHexSource implements HexSource {
+	private final byte[] data;
+
+	/**
+	 * @param data
+	 * 		Backing array.
+	 */
+	public ArrayHexSource(byte[] data) {
+		this.data = data;
+	}
+
+	@Override
+	public long length() {
+		return data.length;
+	}
+
+	@Override
+	public byte get(long position) {
+		return data[(int) position];
+	}
+
+	@Override
+	public void read(long position, byte[] buffer, int offset, int length) {
+		System.arraycopy(data, (int) position, buffer, offset, length);
+	}
+}
@@ -0,0 +1,273 @@
+package me.coley.recaf.util.hex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Editable view of a {@link HexSource}, recording edits in a piece table.
+ * <br>
+ * The original source is never modified or copied. The content is described as a sequence of pieces, each
+ * referring to a span of either the original source or an append-only buffer of added bytes. Inserts and deletes
+ * only split and rearrange pieces, so their cost depends on the size of the edit and the number of prior edits
+ * rather than the size of the content.
+ * <br>
+ * The table is not thread safe. To read the content from another thread, use a {@link #snapshot()}.
+ *
+ * @author Matt Coley
+ */
+public class HexPieceTable implements HexSource {
+	private final List<Piece> pieces = new ArrayList<>();
+	private final HexSource original;
+	private byte[] added = new byte[256];
+	private int addedLength;
+	// Logical start offset of each piece, parallel to the piece list
+	private long[] starts = new long[0];
+	private long length;
+	// Most reads are sequential, so the last piece read is checked before searching
+	private int lastPiece;
+	private boolean modified;
+
+	/**
+	 * @param original
+	 * 		Original content.
+	 */
+	public HexPieceTable(HexSource original) {
+		this.original = original;
+		if (original.length() > 0)
+			pieces.add(new Piece(false, 0, original.length()));
+		rebuildStarts();
+	}
+
+	private HexPieceTable(HexPieceTable other) {
+		original = other.original;
+		pieces.addAll(other.pieces);
+		added = Arrays.copyOf(other.added, other.addedLength);
+		addedLength = other.addedLength;
+		modified = other.modified;
+		rebuildStarts();
+	}
+
+	/**
+	 * @return Copy of the table, unaffected by later edits to this table.
+	 * Only the piece list and added bytes are copied, the original content is shared.
+	 */
+	public HexPieceTable snapshot() {
+		return new HexPieceTable(this);
+	}
+
+	/**
+	 * @return {@code true} when any edits have been made.
+	 */
+	public boolean isModified() {
+		return modified;
+	}
+
+	/**
+	 * @return Original content, without edits.
+	 */
+	public HexSource getOriginal() {
+		return original;
+	}
+
+	@Override
+	public long length() {
+		return length;
+	}
+
+	/**
+	 * @return Number of pieces describing the content.
+	 */
+	public int getPieceCount() {
+		return pieces.size();
+	}
+
+	@Override
+	public byte get(long position) {
+		int index = find(position);
+		Piece piece = pieces.get(index);
+		long pieceOffset = piece.start + (position - starts[index]);
+		return piece.added ? added[(int) pieceOffset] : original.get(pieceOffset);
+	}
+
+	@Override
+	public void read(long position, byte[] buffer, int offset, int count) {
+		if (count <= 0)
+			return;
+		int index = find(position);
+		while (count > 0) {
+			Piece piece = pieces.get(index);
+			long local = position - starts[index];
+			int len = (int) Math.min(count, piece.length - local);
+			if (piece.added)
+				System.arraycopy(added, (int) (piece.start + local), buffer, offset, len);
+			else
+				original.read(piece.start + local, buffer, offset, len);
+			position += len;
+			offset += len;
+			count -= len;
+			index++;
+		}
+	}
+
+	/**
+	 * @param position
+	 * 		Position to write to. Must be within {@code [0, length)}.
+	 * @param value
+	 * 		Value to write.
+	 */
+	public void set(long position, byte value) {
+		int index = find(position);
+		Piece piece = pieces.get(index);
+		long local = position - starts[index];
+		modified = true;
+		if (piece.added) {
+			// Added bytes are only ever referenced by a single piece, so they can be modified in place
+			added[(int) (piece.start + local)] = value;
+			return;
+		}
+		// Sequential overwrites extend the previous piece rather than adding a new piece per byte
+		if (local == 0 && index > 0) {
+			Piece previous = pieces.get(index - 1);
+			if (previous.added && previous.start + previous.length == addedLength) {
+				append(value);
+				pieces.set(index - 1, new Piece(true, previous.start, previous.length + 1));
+				if (piece.length == 1)
+					pieces.remove(index);
+				else
+					pieces.set(index, new Piece(false, piece.start + 1, piece.length - 1));
+				rebuildStarts();
+				return;
+			}
+		}
+		int start = split(position);
+		split(position + 1);
+		long addedStart = addedLength;
+		append(value);
+		pieces.set(start, new Piece(true, addedStart, 1));
+		rebuildStarts();
+	}
+
+	/**
+	 * @param position
+	 * 		Position to insert at. Must be within {@code [0, length]}.
+	 * @param count
+	 * 		Number of zero bytes to insert.
+	 */
+	public void insert(long position, int count) {
+		if (count <= 0)
+			return;
+		modified = true;
+		int index = split(position);
+		long addedStart = addedLength;
+		ensureAddedCapacity(addedLength + count);
+		addedLength += count;
+		pieces.add(index, new Piece(true, addedStart, count));
+		rebuildStarts();
+	}
+
+	/**
+	 * @param position
+	 * 		Position to begin deleting at.
+	 * @param count
+	 * 		Number of bytes to delete. Capped to the remaining content past the position.
+	 */
+	public void delete(long position, long count) {
+		count = Math.min(count, length - position);
+		if (position < 0 || count <= 0)
+			return;
+		modified = true;
+		int from = split(position);
+		int to = split(position + count);
+		pieces.subList(from, to).clear();
+		rebuildStarts();
+	}
+
+	/**
+	 * @return Copy of the content with all edits applied.
+	 *
+	 * @throws IllegalStateException
+	 * 		When the content is too large to fit in an array.
+	 */
+	public byte[] toByteArray() {
+		if (length > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("Content too large for an array: " + length);
+		byte[] data = new byte[(int) length];
+		read(0, data, 0, data.length);
+		return data;
+	}
+
+	/**
+	 * Ensures a piece boundary exists at the given position.
+	 *
+	 * @param position
+	 * 		Position within {@code [0, length]}.
+	 *
+	 * @return Index of the piece beginning at the position,
+	 * or the piece count when the position is the end of the content.
+	 */
+	private int split(long position) {
+		if (position >= length)
+			return pieces.size();
+		int index = find(position);
+		long local = position - starts[index];
+		if (local == 0)
+			return index;
+		Piece piece = pieces.get(index);
+		pieces.set(index, new Piece(piece.added, piece.start, local));
+		pieces.add(index + 1, new Piece(piece.added, piece.start + local, piece.length - local));
+		rebuildStarts();
+		return index + 1;
+	}
+
+	private int find(long position) {
+		if (position < 0 || position >= length)
+			throw new IndexOutOfBoundsException("Position " + position + " outside of length " + length);
+		int last = lastPiece;
+		if (last < pieces.size() && position >= starts[last] && position < starts[last] + pieces.get(last).length)
+			return last;
+		int index = Arrays.binarySearch(starts, 0, pieces.size(), position);
+		if (index < 0)
+			index = -index - 2;
+		lastPiece = index;
+		return index;
+	}
+
+	private void rebuildStarts() {
+		int count = pieces.size();
+		if (starts.length < count)
+			starts = new long[Math.max(count, starts.length * 2)];
+		long offset = 0;
+		for (int i = 0; i < count; i++) {
+			starts[i] = offset;
+			offset += pieces.get(i).length;
+		}
+		length = offset;
+		lastPiece = 0;
+	}
+
+	private void append(byte value) {
+		ensureAddedCapacity(addedLength + 1);
+		added[addedLength++] = value;
+	}
+
+	private void ensureAddedCapacity(int capacity) {
+		if (capacity > added.length)
+			added = Arrays.copyOf(added, Math.max(capacity, added.length * 2));
+	}
+
+	/**
+	 * Span of either the original content or the added bytes buffer.
+	 */
+	private static class Piece {
+		private final boolean added;
+		private final long start;
+		private final long length;
+
+		private Piece(boolean added, long start, long length) {
+			this.added = added;
+			this.start = start;
+			this.length = length;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package me.coley.recaf.util.hex;
+
+/**
+ * Read-only content displayed by the hex editor.
+ * Addressed by {@code long} so that content larger than a single array can be represented.
+ *
+ * @author Matt Coley
+ * @see ArrayHexSource
+ * @see MappedHexSource
+ */
+public interface HexSource {
+	/**
+	 * @return Length of the content.
+	 */
+	long length();
+
+	/**
+	 * @param position
+	 * 		Position to read from. Must be within {@code [0, length)}.
+	 *
+	 * @return Byte at the position.
+	 */
+	byte get(long position);
+
+	/**
+	 * @param position
+	 * 		Position to begin reading from.
+	 * @param buffer
+	 * 		Buffer to read into.
+	 * @param offset
+	 * 		Offset in the buffer to begin writing at.
+	 * @param length
+	 * 		Number of bytes to read. Must not exceed the remaining content past the position.
+	 */
+	void read(long position, byte[] buffer, int offset, int length);
+
+	/**
+	 * Release any resources held by the source.
+	 */
+	default void close() {
+	}
+}
@@ -0,0 +1,92 @@
+package me.coley.recaf.util.hex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Hex source backed by a memory-mapped file.
+ * <br>
+ * A single mapping is limited to {@link Integer#MAX_VALUE} bytes, so the file is mapped as a series of fixed size
+ * pages. Content is paged in by the OS on access, so the file does not need to fit in the heap.
+ *
+ * @author Matt Coley
+ */
+public class MappedHexSource implements HexSource {
+	private static final int PAGE_BITS = 30;
+	private static final long PAGE_SIZE = 1L << PAGE_BITS;
+	private static final long PAGE_MASK = PAGE_SIZE - 1;
+	private final FileChannel channel;
+	private final MappedByteBuffer[] pages;
+	private final long length;
+
+	private MappedHexSource(FileChannel channel, MappedByteBuffer[] pages, long length) {
+		this.channel = channel;
+		this.pages = pages;
+		this.length = length;
+	}
+
+	/**
+	 * @param path
+	 * 		Path to file to map.
+	 *
+	 * @return Source of the file's content.
+	 *
+	 * @throws IOException
+	 * 		When the file cannot be opened or mapped.
+	 */
+	public static MappedHexSource open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			long length = channel.size();
+			int pageCount = (int) ((length + PAGE_SIZE - 1) >>> PAGE_BITS);
+			MappedByteBuffer[] pages = new MappedByteBuffer[pageCount];
+			for (int i = 0; i < pageCount; i++) {
+				long start = i * PAGE_SIZE;
+				pages[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(PAGE_SIZE, length - start));
+			}
+			return new MappedHexSource(channel, pages, length);
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	@Override
+	public long length() {
+		return length;
+	}
+
+	@Override
+	public byte get(long position) {
+		return pages[(int) (position >>> PAGE_BITS)].get((int) (position & PAGE_MASK));
+	}
+
+	@Override
+	public void read(long position, byte[] buffer, int offset, int length) {
+		while (length > 0) {
+			MappedByteBuffer page = pages[(int) (position >>> PAGE_BITS)];
+			int pageOffset = (int) (position & PAGE_MASK);
+			int count = Math.min(length, page.limit() - pageOffset);
+			// Duplicate so concurrent readers do not share a buffer position
+			ByteBuffer view = page.duplicate();
+			view.position(pageOffset);
+			view.get(buffer, offset, count);
+			position += count;
+			offset += count;
+			length -= count;
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException ignored) {
+			// Mappings remain valid until collected, nothing else to release
+		}
+	}
+}
@@ -4,8 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.Marker;
 import org.slf4j.event.Level;
 
-import java.util.regex.Matcher;
-
 /**
  * A forwarding logger that lets us intercept compiled messages.
  *
@@ -44,6 +42,19 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	 */
 	public abstract void intercept(Level level, String message, Throwable t);
 
+	/**
+	 * Checked before a message is formatted for interception, so that messages nobody receives
+	 * cost no more than logging to the backing logger.
+	 *
+	 * @param level
+	 * 		Level logged.
+	 *
+	 * @return {@code true} when messages of the level should be passed to {@link #intercept(Level, String)}.
+	 */
+	protected boolean isIntercepted(Level level) {
+		return true;
+	}
+
 	@Override
 	public String getName() {
 		return backing.getName();
@@ -62,7 +73,7 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void trace(String msg) {
 		backing.trace(msg);
-		if (isTraceEnabled()) intercept(Level.TRACE, msg);
+		if (isTraceEnabled() && isIntercepted(Level.TRACE)) intercept(Level.TRACE, msg);
 	}
 
 	@Override
@@ -78,19 +89,19 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void trace(String format, Object... arguments) {
 		backing.trace(format, arguments);
-		if (isTraceEnabled()) intercept(Level.TRACE, compile(format, arguments));
+		if (isTraceEnabled() && isIntercepted(Level.TRACE)) intercept(Level.TRACE, compile(format, arguments));
 	}
 
 	@Override
 	public void trace(String msg, Throwable t) {
 		backing.trace(msg, t);
-		if (isTraceEnabled()) intercept(Level.TRACE, msg, t);
+		if (isTraceEnabled() && isIntercepted(Level.TRACE)) intercept(Level.TRACE, msg, t);
 	}
 
 	@Override
 	public void trace(Marker marker, String msg) {
 		backing.trace(marker, msg);
-		if (isTraceEnabled()) intercept(Level.TRACE, msg);
+		if (isTraceEnabled() && isIntercepted(Level.TRACE)) intercept(Level.TRACE, msg);
 	}
 
 	@Override
@@ -106,13 +117,13 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void trace(Marker marker, String format, Object... arguments) {
 		backing.trace(marker, format, arguments);
-		if (isTraceEnabled()) intercept(Level.TRACE, compile(format, arguments));
+		if (isTraceEnabled() && isIntercepted(Level.TRACE)) intercept(Level.TRACE, compile(format, arguments));
 	}
 
 	@Override
 	public void trace(Marker marker, String msg, Throwable t) {
 		backing.trace(marker, msg, t);
-		if (isTraceEnabled()) intercept(Level.TRACE, msg, t);
+		if (isTraceEnabled() && isIntercepted(Level.TRACE)) intercept(Level.TRACE, msg, t);
 	}
 
 	@Override
@@ -128,7 +139,7 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void debug(String msg) {
 		backing.debug(msg);
-		if (isDebugEnabled()) intercept(Level.DEBUG, msg);
+		if (isDebugEnabled() && isIntercepted(Level.DEBUG)) intercept(Level.DEBUG, msg);
 	}
 
 	@Override
@@ -144,19 +155,19 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void debug(String format, Object... arguments) {
 		backing.debug(format, arguments);
-		if (isDebugEnabled()) intercept(Level.DEBUG, compile(format, arguments));
+		if (isDebugEnabled() && isIntercepted(Level.DEBUG)) intercept(Level.DEBUG, compile(format, arguments));
 	}
 
 	@Override
 	public void debug(String msg, Throwable t) {
 		backing.debug(msg, t);
-		if (isDebugEnabled()) intercept(Level.DEBUG, msg, t);
+		if (isDebugEnabled() && isIntercepted(Level.DEBUG)) intercept(Level.DEBUG, msg, t);
 	}
 
 	@Override
 	public void debug(Marker marker, String msg) {
 		backing.debug(marker, msg);
-		if (isDebugEnabled()) intercept(Level.DEBUG, msg);
+		if (isDebugEnabled() && isIntercepted(Level.DEBUG)) intercept(Level.DEBUG, msg);
 	}
 
 	@Override
@@ -172,13 +183,13 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void debug(Marker marker, String format, Object... arguments) {
 		backing.debug(marker, format, arguments);
-		if (isDebugEnabled()) intercept(Level.DEBUG, compile(format, arguments));
+		if (isDebugEnabled() && isIntercepted(Level.DEBUG)) intercept(Level.DEBUG, compile(format, arguments));
 	}
 
 	@Override
 	public void debug(Marker marker, String msg, Throwable t) {
 		backing.debug(marker, msg, t);
-		if (isDebugEnabled()) intercept(Level.DEBUG, msg, t);
+		if (isDebugEnabled() && isIntercepted(Level.DEBUG)) intercept(Level.DEBUG, msg, t);
 	}
 
 	@Override
@@ -194,7 +205,7 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void info(String msg) {
 		backing.info(msg);
-		if (isInfoEnabled()) intercept(Level.INFO, msg);
+		if (isInfoEnabled() && isIntercepted(Level.INFO)) intercept(Level.INFO, msg);
 	}
 
 	@Override
@@ -210,19 +221,19 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void info(String format, Object... arguments) {
 		backing.info(format, arguments);
-		if (isInfoEnabled()) intercept(Level.INFO, compile(format, arguments));
+		if (isInfoEnabled() && isIntercepted(Level.INFO)) intercept(Level.INFO, compile(format, arguments));
 	}
 
 	@Override
 	public void info(String msg, Throwable t) {
 		backing.info(msg, t);
-		if (isInfoEnabled()) intercept(Level.INFO, msg, t);
+		if (isInfoEnabled() && isIntercepted(Level.INFO)) intercept(Level.INFO, msg, t);
 	}
 
 	@Override
 	public void info(Marker marker, String msg) {
 		backing.info(marker, msg);
-		if (isInfoEnabled()) intercept(Level.INFO, msg);
+		if (isInfoEnabled() && isIntercepted(Level.INFO)) intercept(Level.INFO, msg);
 	}
 
 	@Override
@@ -238,13 +249,13 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void info(Marker marker, String format, Object... arguments) {
 		backing.info(marker, format, arguments);
-		if (isInfoEnabled()) intercept(Level.INFO, compile(format, arguments));
+		if (isInfoEnabled() && isIntercepted(Level.INFO)) intercept(Level.INFO, compile(format, arguments));
 	}
 
 	@Override
 	public void info(Marker marker, String msg, Throwable t) {
 		backing.info(marker, msg, t);
-		if (isInfoEnabled()) intercept(Level.INFO, msg, t);
+		if (isInfoEnabled() && isIntercepted(Level.INFO)) intercept(Level.INFO, msg, t);
 	}
 
 	@Override
@@ -260,7 +271,7 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void warn(String msg) {
 		backing.warn(msg);
-		if (isWarnEnabled()) intercept(Level.WARN, msg);
+		if (isWarnEnabled() && isIntercepted(Level.WARN)) intercept(Level.WARN, msg);
 	}
 
 	@Override
@@ -276,19 +287,19 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void warn(String format, Object... arguments) {
 		backing.warn(format, arguments);
-		if (isWarnEnabled()) intercept(Level.WARN, compile(format, arguments));
+		if (isWarnEnabled() && isIntercepted(Level.WARN)) intercept(Level.WARN, compile(format, arguments));
 	}
 
 	@Override
 	public void warn(String msg, Throwable t) {
 		backing.warn(msg, t);
-		if (isWarnEnabled()) intercept(Level.WARN, msg, t);
+		if (isWarnEnabled() && isIntercepted(Level.WARN)) intercept(Level.WARN, msg, t);
 	}
 
 	@Override
 	public void warn(Marker marker, String msg) {
 		backing.warn(marker, msg);
-		if (isWarnEnabled()) intercept(Level.WARN, msg);
+		if (isWarnEnabled() && isIntercepted(Level.WARN)) intercept(Level.WARN, msg);
 	}
 
 	@Override
@@ -304,13 +315,13 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void warn(Marker marker, String format, Object... arguments) {
 		backing.warn(marker, format, arguments);
-		if (isWarnEnabled()) intercept(Level.WARN, compile(format, arguments));
+		if (isWarnEnabled() && isIntercepted(Level.WARN)) intercept(Level.WARN, compile(format, arguments));
 	}
 
 	@Override
 	public void warn(Marker marker, String msg, Throwable t) {
 		backing.warn(marker, msg, t);
-		if (isWarnEnabled()) intercept(Level.WARN, msg, t);
+		if (isWarnEnabled() && isIntercepted(Level.WARN)) intercept(Level.WARN, msg, t);
 	}
 
 	@Override
@@ -326,7 +337,7 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void error(String msg) {
 		backing.error(msg);
-		if (isErrorEnabled()) intercept(Level.ERROR, msg);
+		if (isErrorEnabled() && isIntercepted(Level.ERROR)) intercept(Level.ERROR, msg);
 	}
 
 	@Override
@@ -342,19 +353,19 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void error(String format, Object... arguments) {
 		backing.error(format, arguments);
-		if (isErrorEnabled()) intercept(Level.ERROR, compile(format, arguments));
+		if (isErrorEnabled() && isIntercepted(Level.ERROR)) intercept(Level.ERROR, compile(format, arguments));
 	}
 
 	@Override
 	public void error(String msg, Throwable t) {
 		backing.error(msg, t);
-		if (isErrorEnabled()) intercept(Level.ERROR, msg, t);
+		if (isErrorEnabled() && isIntercepted(Level.ERROR)) intercept(Level.ERROR, msg, t);
 	}
 
 	@Override
 	public void error(Marker marker, String msg) {
 		backing.error(marker, msg);
-		if (isErrorEnabled()) intercept(Level.ERROR, msg);
+		if (isErrorEnabled() && isIntercepted(Level.ERROR)) intercept(Level.ERROR, msg);
 	}
 
 	@Override
@@ -370,27 +381,33 @@ public abstract class InterceptingLogger implements DebuggingLogger {
 	@Override
 	public void error(Marker marker, String format, Object... arguments) {
 		backing.error(marker, format, arguments);
-		if (isErrorEnabled()) intercept(Level.ERROR, compile(format, arguments));
+		if (isErrorEnabled() && isIntercepted(Level.ERROR)) intercept(Level.ERROR, compile(format, arguments));
 	}
 
 	@Override
 	public void error(Marker marker, String msg, Throwable t) {
 		backing.error(marker, msg, t);
-		if (isErrorEnabled()) intercept(Level.ERROR, msg, t);
+		if (isErrorEnabled() && isIntercepted(Level.ERROR)) intercept(Level.ERROR, msg, t);
 	}
 
 	private static String compile(String message, Object[] arguments) {
+		if (message == null || arguments == null || arguments.length == 0)
+			return message;
+		// Single pass over the pattern, so long messages with many arguments are not rescanned per argument
+		StringBuilder sb = new StringBuilder(message.length() + 16 * arguments.length);
 		int i = 0;
-		while (message.contains("{}")) {
+		int start = 0;
+		int index;
+		while ((index = message.indexOf("{}", start)) >= 0) {
 			// Failsafe, shouldn't occur if logging is written correctly
 			if (i == arguments.length)
-				return message;
+				break;
 			// Replace arg in pattern
 			Object arg = arguments[i];
-			String argStr = arg == null ? "null" : arg.toString();
-			message = message.replaceFirst("\\{}", Matcher.quoteReplacement(argStr));
+			sb.append(message, start, index).append(arg == null ? "null" : arg.toString());
+			start = index + 2;
 			i++;
 		}
-		return message;
+		return sb.append(message, start, message.length()).toString();
 	}
 }
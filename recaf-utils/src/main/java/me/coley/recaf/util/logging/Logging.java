@@ -8,10 +8,10 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -22,7 +22,7 @@ import static org.slf4j.LoggerFactory.getLogger;
  */
 public class Logging {
 	private static final Map<String, DebuggingLogger> loggers = new ConcurrentHashMap<>();
-	private static final List<LogConsumer<String>> logConsumers = new ArrayList<>();
+	private static final List<LogConsumer<String>> logConsumers = new CopyOnWriteArrayList<>();
 	private static Level interceptLevel = Level.INFO;
 
 	/**
@@ -105,6 +105,11 @@ public class Logging {
 
 	private static DebuggingLogger intercept(String name, Logger logger) {
 		return new InterceptingLogger(logger) {
+			@Override
+			protected boolean isIntercepted(Level level) {
+				return interceptLevel.toInt() <= level.toInt() && !logConsumers.isEmpty();
+			}
+
 			@Override
 			public void intercept(Level level, String message) {
 				if (interceptLevel.toInt() <= level.toInt())
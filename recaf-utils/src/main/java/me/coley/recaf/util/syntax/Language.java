@@ -1,4 +1,4 @@
-package me.coley.recaf.ui.control.code;
+package me.coley.recaf.util.syntax;
 
 import java.util.List;
 import java.util.Objects;
@@ -54,7 +54,7 @@ public class Language {
 	}
 
 	/**
-	 * Called from {@link Languages#loadBundled(String)} since the JSON structure being
+	 * Called from {@code Languages.loadBundled(String)} since the JSON structure being
 	 * deserialized is not aware of its own ID.
 	 *
 	 * @param key
@@ -1,4 +1,4 @@
-package me.coley.recaf.ui.control.code;
+package me.coley.recaf.util.syntax;
 
 import java.util.Objects;
 
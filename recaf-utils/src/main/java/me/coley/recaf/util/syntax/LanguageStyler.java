@@ -0,0 +1,491 @@
+package me.coley.recaf.util.syntax;
+
+import jregex.Matcher;
+import jregex.Pattern;
+import me.coley.recaf.util.RegexUtil;
+import me.coley.recaf.util.logging.Logging;
+import me.coley.recaf.util.threading.ThreadUtil;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Utility for applying a given theme to some text based on the given language rule-set.
+ * <br>
+ * Styling is incremental. The styler records for each line whether it begins inside a token that started on an
+ * earlier line. When text is edited, matching restarts at the closest line before the edit that begins outside
+ * any token, and stops at the first line after the edit that begins in the same state as in the prior pass.
+ * The text past that line is unaffected by the edit, so the cost of a restyle depends on the size of the edit
+ * and the tokens around it, rather than the size of the document.
+ * <br>
+ * Rules with a {@link LanguageRule#getBacktrackStop() start} and {@link LanguageRule#getBacktrackTrigger() end}
+ * delimiter, such as multi-line comments, are treated as open until the end of the document when their end
+ * delimiter is missing, the same as a user would expect while typing them out. Rules that can span multiple lines
+ * must declare these delimiters. Otherwise an unclosed token is not tracked in the line states, and a later edit that
+ * closes it will not restyle the lines between.
+ *
+ * @author Matt Coley
+ * @see Styleable Component to style text of.
+ */
+public class LanguageStyler {
+	private static final Logger logger = Logging.get(LanguageStyler.class);
+	private static final Pattern EMPTY_PATTERN = RegexUtil.pattern("({EMPTY}EMPTY)");
+	private static final int MAX_MATCH_LOG_SIZE = 20;
+	private static final String DEFAULT_CLASS = "text";
+	// Line states, either one of the following constants or the index of the rule of the token the line begins in
+	private static final int STATE_CLEAN = -1;
+	private static final int STATE_UNKNOWN = -2;
+	private static final int STATE_UNTERMINATED = 0x40000000;
+	private final Deque<Edit> pendingEdits = new ArrayDeque<>();
+	private final Styleable handler;
+	private Language language;
+	private Pattern pattern;
+	private long lastQueuedEdit;
+	private long lastStyledEdit;
+	// Per-line state of the last pass, null when a complete pass is required
+	private int[] lineStates;
+	private int lineCount;
+	// Range of lines edited since the last completed pass, and the offset of the first line
+	private int dirtyStart = -1;
+	private int dirtyEnd = -1;
+	private int dirtyOffset;
+
+	/**
+	 * @param language
+	 * 		Language to be used for stylization.
+	 */
+	public LanguageStyler(Language language, Styleable handler) {
+		this.language = language;
+		this.handler = handler;
+	}
+
+	/**
+	 * @return Target language.
+	 */
+	public Language getLanguage() {
+		return language;
+	}
+
+	/**
+	 * @param language
+	 * 		Target language.
+	 */
+	public synchronized void setLanguage(Language language) {
+		this.language = language;
+		pattern = null;
+		lineStates = null;
+	}
+
+	/**
+	 * Compute and apply all language pattern matches in the document text.
+	 *
+	 * @param text
+	 * 		Complete document text.
+	 *
+	 * @return Future for tracking completion of style computations. Delegated to {@link Styleable#onClearStyle()}
+	 * or {@link Styleable#onApplyStyle(int, List)}.
+	 */
+	public synchronized CompletableFuture<Void> styleCompleteDocument(String text) {
+		// The text is expected to include all edits queued so far
+		synchronized (pendingEdits) {
+			pendingEdits.clear();
+			lastStyledEdit = lastQueuedEdit;
+		}
+		lineStates = null;
+		return stylePass(text);
+	}
+
+	/**
+	 * Records an edit to the document, to be styled by a later call to {@link #styleEdits(String, long)}.
+	 * Edits must be recorded in the order they are applied to the document.
+	 *
+	 * @param line
+	 * 		Line the edit begins on.
+	 * @param lineOffset
+	 * 		Offset of the start of the line in the document.
+	 * @param removed
+	 * 		Text removed by the edit.
+	 * @param inserted
+	 * 		Text inserted by the edit.
+	 *
+	 * @return Identifier of the edit.
+	 */
+	public long queueEdit(int line, int lineOffset, String removed, String inserted) {
+		synchronized (pendingEdits) {
+			long id = ++lastQueuedEdit;
+			pendingEdits.add(new Edit(id, line, lineOffset, countLines(removed), countLines(inserted)));
+			return id;
+		}
+	}
+
+	/**
+	 * Compute and apply language pattern matches for the parts of the document affected by queued edits.
+	 *
+	 * @param text
+	 * 		Complete document text, as of the given edit.
+	 * @param edit
+	 * 		Identifier of the last edit included in the text, from {@link #queueEdit(int, int, String, String)}.
+	 *
+	 * @return Future for tracking completion of style computations. Delegated to {@link Styleable#onClearStyle()}
+	 * or {@link Styleable#onApplyStyle(int, List)}.
+	 */
+	public synchronized CompletableFuture<Void> styleEdits(String text, long edit) {
+		// Skip if a pass for a later edit has already covered this one
+		if (edit <= lastStyledEdit)
+			return CompletableFuture.completedFuture(null);
+		synchronized (pendingEdits) {
+			while (!pendingEdits.isEmpty() && pendingEdits.peek().id <= edit)
+				applyEdit(pendingEdits.poll());
+			lastStyledEdit = edit;
+		}
+		return stylePass(text);
+	}
+
+	/**
+	 * Updates line states to account for lines added or removed by the edit, and marks the edited lines as dirty.
+	 *
+	 * @param edit
+	 * 		Edit to apply.
+	 */
+	private void applyEdit(Edit edit) {
+		if (lineStates == null)
+			return;
+		int line = edit.line;
+		int removed = edit.removedLines;
+		int inserted = edit.insertedLines;
+		int tail = lineCount - (line + 1 + removed);
+		if (line >= lineCount || tail < 0) {
+			// Out of sync with the document, so restyle everything
+			lineStates = null;
+			return;
+		}
+		ensureLineCapacity(lineCount - removed + inserted);
+		System.arraycopy(lineStates, line + 1 + removed, lineStates, line + 1 + inserted, tail);
+		Arrays.fill(lineStates, line + 1, line + 1 + inserted, STATE_UNKNOWN);
+		lineCount += inserted - removed;
+		if (dirtyStart < 0) {
+			dirtyStart = line;
+			dirtyEnd = line + inserted;
+			dirtyOffset = edit.lineOffset;
+		} else {
+			// Shift the prior dirty end to where its line is after the edit
+			int end = dirtyEnd;
+			if (end > line + removed)
+				end += inserted - removed;
+			else if (end > line)
+				end = line + inserted;
+			dirtyEnd = Math.max(end, line + inserted);
+			// Text before the edit line is unchanged, so a prior start before it keeps its offset
+			if (line < dirtyStart) {
+				dirtyStart = line;
+				dirtyOffset = edit.lineOffset;
+			}
+		}
+	}
+
+	/**
+	 * Matches language patterns against the document and applies the resulting styles.
+	 * When line states from a prior pass exist, only the dirty range and its surroundings are matched.
+	 * Otherwise the complete document is matched and the line states are rebuilt.
+	 *
+	 * @param text
+	 * 		Complete document text.
+	 *
+	 * @return Future for tracking completion of style computations.
+	 */
+	private CompletableFuture<Void> stylePass(String text) {
+		Pattern pattern = getPattern();
+		if (pattern == EMPTY_PATTERN) {
+			lineStates = null;
+			return handler.onClearStyle();
+		}
+		boolean complete = lineStates == null;
+		int line;
+		int offset;
+		int minEnd;
+		if (complete) {
+			lineStates = new int[64];
+			lineStates[0] = STATE_CLEAN;
+			lineCount = 1;
+			line = 0;
+			offset = 0;
+			minEnd = Integer.MAX_VALUE;
+		} else if (dirtyStart < 0) {
+			// Nothing has changed
+			return CompletableFuture.completedFuture(null);
+		} else if (dirtyOffset > text.length()) {
+			// Out of sync with the document, so restyle everything
+			lineStates = null;
+			return stylePass(text);
+		} else {
+			line = dirtyStart;
+			offset = dirtyOffset;
+			minEnd = dirtyEnd;
+			// Back up to the start of any token the first dirty line begins inside of
+			while (line > 0 && lineStates[line] != STATE_CLEAN) {
+				line--;
+				offset = offset < 2 ? 0 : text.lastIndexOf('\n', offset - 2) + 1;
+			}
+		}
+		int styleStart = offset;
+		int styleEnd = text.length();
+		int lineEnd = text.indexOf('\n', offset);
+		int pos = offset;
+		List<Section> sections = new ArrayList<>();
+		Matcher matcher = pattern.matcher(text);
+		matcher.setPosition(offset);
+		try {
+			passLoop:
+			while (true) {
+				if (Thread.interrupted()) {
+					// Lines up to the current one may have been given new states,
+					// so the next pass cannot consider them as converged
+					if (complete)
+						lineStates = null;
+					else
+						dirtyEnd = Math.max(dirtyEnd, line);
+					return ThreadUtil.failedFuture(new InterruptedException());
+				}
+				boolean found = matcher.find();
+				int matchStart = found ? matcher.start() : text.length();
+				int unterminatedStart = findUnterminated(text, pos, matchStart);
+				int unterminated = unterminatedStart >= 0 ? getRuleStartingAt(text, unterminatedStart) : -1;
+				int gapEnd = unterminatedStart >= 0 ? unterminatedStart : matchStart;
+				// Lines beginning between the prior token and the next one begin outside any token
+				while (lineEnd >= 0 && lineEnd < gapEnd) {
+					int lineStart = lineEnd + 1;
+					line++;
+					if (line > minEnd && line < lineCount && lineStates[line] == STATE_CLEAN) {
+						addSection(sections, text, DEFAULT_CLASS, pos, lineStart);
+						styleEnd = lineStart;
+						break passLoop;
+					}
+					setLineState(line, STATE_CLEAN);
+					lineEnd = text.indexOf('\n', lineStart);
+				}
+				addSection(sections, text, DEFAULT_CLASS, pos, gapEnd);
+				if (unterminated >= 0) {
+					// Everything past the start delimiter belongs to the open token
+					int state = unterminated | STATE_UNTERMINATED;
+					String styleClass = getRules().get(unterminated).getName();
+					while (lineEnd >= 0) {
+						int lineStart = lineEnd + 1;
+						line++;
+						if (line > minEnd && line < lineCount && lineStates[line] == state) {
+							addSection(sections, text, styleClass, gapEnd, lineStart);
+							styleEnd = lineStart;
+							break passLoop;
+						}
+						setLineState(line, state);
+						lineEnd = text.indexOf('\n', lineStart);
+					}
+					addSection(sections, text, styleClass, gapEnd, text.length());
+					break;
+				}
+				if (!found)
+					break;
+				int matchEnd = matcher.end();
+				int rule = getRuleFromGroup(matcher);
+				String styleClass;
+				if (rule < 0) {
+					String target = matcher.group(0);
+					if (target.length() > MAX_MATCH_LOG_SIZE) {
+						target = target.substring(0, MAX_MATCH_LOG_SIZE) + "...";
+					}
+					logger.warn("Could not find matching class in language '{}' for match '{}'",
+							language.getName(), target);
+					styleClass = DEFAULT_CLASS;
+				} else {
+					styleClass = getRules().get(rule).getName();
+				}
+				// Lines beginning inside the token
+				while (lineEnd >= 0 && lineEnd + 1 < matchEnd) {
+					line++;
+					setLineState(line, rule < 0 ? STATE_UNKNOWN : rule);
+					lineEnd = text.indexOf('\n', lineEnd + 1);
+				}
+				addSection(sections, text, styleClass, matchStart, matchEnd);
+				pos = matchEnd;
+			}
+			if (styleEnd == text.length())
+				lineCount = line + 1;
+		} catch (NullPointerException npe) {
+			// There was once some odd behavior in 'matcher.find()' which caused NPE...
+			// This seems to have been fixed, but we will check for regressions
+			logger.error("Error occurred when computing styles:", npe);
+			lineStates = null;
+			return CompletableFuture.completedFuture(null);
+		}
+		dirtyStart = -1;
+		dirtyEnd = -1;
+		if (sections.isEmpty() || styleStart == styleEnd)
+			return CompletableFuture.completedFuture(null);
+		return handler.onApplyStyle(styleStart, sections);
+	}
+
+	/**
+	 * Unmatched text containing the start delimiter of a rule means the end delimiter is missing.
+	 *
+	 * @param text
+	 * 		Complete document text.
+	 * @param start
+	 * 		Start of unmatched range.
+	 * @param end
+	 * 		End of unmatched range.
+	 *
+	 * @return Offset of the first start delimiter in the range, or {@code -1} if there are none.
+	 */
+	private int findUnterminated(String text, int start, int end) {
+		int first = -1;
+		for (LanguageRule rule : getRules()) {
+			if (!rule.requireBacktracking())
+				continue;
+			String delimiter = rule.getBacktrackStop();
+			int last = first < 0 ? end - delimiter.length() : first - 1;
+			for (int i = start; i <= last; i++) {
+				if (text.startsWith(delimiter, i)) {
+					first = i;
+					break;
+				}
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * @param text
+	 * 		Complete document text.
+	 * @param offset
+	 * 		Offset of a start delimiter.
+	 *
+	 * @return Index of the first rule with the start delimiter at the offset.
+	 */
+	private int getRuleStartingAt(String text, int offset) {
+		List<LanguageRule> rules = getRules();
+		for (int i = 0; i < rules.size(); i++) {
+			LanguageRule rule = rules.get(i);
+			if (rule.requireBacktracking() && text.startsWith(rule.getBacktrackStop(), offset))
+				return i;
+		}
+		return -1;
+	}
+
+	private void setLineState(int line, int state) {
+		ensureLineCapacity(line + 1);
+		lineStates[line] = state;
+		if (line >= lineCount)
+			lineCount = line + 1;
+	}
+
+	private void ensureLineCapacity(int capacity) {
+		if (capacity > lineStates.length)
+			lineStates = Arrays.copyOf(lineStates, Math.max(capacity, lineStates.length * 2));
+	}
+
+	private static void addSection(List<Section> sections, String text, String styleClass, int start, int end) {
+		if (end > start)
+			sections.add(new Section(Collections.singleton(styleClass), end - start, text.substring(start, end)));
+	}
+
+	private static int countLines(String text) {
+		int count = 0;
+		for (int i = 0; i < text.length(); i++)
+			if (text.charAt(i) == '\n')
+				count++;
+		return count;
+	}
+
+	/**
+	 * @return Compiled regex pattern from {@link #getRules() all existing rules}.
+	 */
+	private Pattern getPattern() {
+		Pattern pattern = this.pattern;
+		if (pattern == null)
+			this.pattern = pattern = compilePattern();
+		return pattern;
+	}
+
+	private Pattern compilePattern() {
+		if (getRules().isEmpty())
+			return EMPTY_PATTERN;
+		StringBuilder sb = new StringBuilder();
+		for (LanguageRule rule : getRules())
+			sb.append("({" + rule.getPatternGroupName() + "}" + rule.getPattern() + ")|");
+		return RegexUtil.pattern(sb.substring(0, sb.length() - 1));
+	}
+
+	/**
+	 * @return List of language rules.
+	 */
+	private List<LanguageRule> getRules() {
+		return language.getRules();
+	}
+
+	/**
+	 * Fetch the index of the rule that matched the group.
+	 *
+	 * @param matcher
+	 * 		Matcher that has found a group.
+	 *
+	 * @return Index of rule in {@link #getRules()}, or {@code -1} if no rule matched.
+	 */
+	private int getRuleFromGroup(Matcher matcher) {
+		List<LanguageRule> rules = getRules();
+		for (int i = 0; i < rules.size(); i++)
+			if (matcher.isCaptured(rules.get(i).getPatternGroupName()))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Edit recorded by {@link #queueEdit(int, int, String, String)}.
+	 */
+	private static class Edit {
+		private final long id;
+		private final int line;
+		private final int lineOffset;
+		private final int removedLines;
+		private final int insertedLines;
+
+		private Edit(long id, int line, int lineOffset, int removedLines, int insertedLines) {
+			this.id = id;
+			this.line = line;
+			this.lineOffset = lineOffset;
+			this.removedLines = removedLines;
+			this.insertedLines = insertedLines;
+		}
+	}
+
+	/**
+	 * Describes a section of styled text.
+	 */
+	public static class Section {
+		/**
+		 * Style rules for the section.
+		 */
+		public final Collection<String> classes;
+		/**
+		 * Length of region, short for  {@link #text}'s length.
+		 */
+		public final int length;
+		/**
+		 * Text of the section.
+		 */
+		public final String text;
+
+		private Section(Collection<String> classes, int length, String text) {
+			this.classes = classes;
+			this.length = length;
+			this.text = text;
+		}
+
+		@Override
+		public String toString() {
+			return "Section{" +
+					"classes=" + classes +
+					", text='" + text + '\'' +
+					'}';
+		}
+	}
+}
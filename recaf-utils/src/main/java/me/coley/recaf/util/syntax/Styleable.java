@@ -1,4 +1,4 @@
-package me.coley.recaf.ui.control.code;
+package me.coley.recaf.util.syntax;
 
 import java.util.Collection;
 import java.util.List;
@@ -8,8 +8,7 @@ import java.util.concurrent.CompletableFuture;
  * Provides lookup for existing CSS rules in a text component.
  *
  * @author Matt Coley
- * @see SyntaxArea
- * @see SyntaxFlow
+ * @see LanguageStyler
  */
 public interface Styleable {
 	/**